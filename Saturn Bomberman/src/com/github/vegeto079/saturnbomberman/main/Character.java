@@ -22,6 +22,8 @@ import com.github.vegeto079.ngcommontools.main.*;
  * @version 1.04: Added {@link #setDirection(int)} for multiplayer use.
  * @version 1.05: HOLDING_BOMB_WALKING drawing of bomb now properly draws it on
  *          top of the character if they're not facing north.
+ * @version 1.06: Skull blinking goes by
+ *          {@link MainBomberman#currentTimeMillis()}, same as the skull itself.
  */
 public class Character {
 	public Animation animation = Animation.IDLE;
@@ -182,15 +184,15 @@ public class Character {
 			// can't get exact point, not in game
 		}
 		boolean skull = false;
-		if (ourPlayer != null && ourPlayer.skullTimer > System.currentTimeMillis()
+		if (ourPlayer != null && ourPlayer.skullTimer > game.currentTimeMillis()
 				&& ourPlayer.deadTimer == -1) {
-			double count = game.tickcounter;
-			if (ourPlayer.skullTimer - System.currentTimeMillis() > 3000) {
+			double count = game.window.tickcounter;
+			if (ourPlayer.skullTimer - game.currentTimeMillis() > 3000) {
 				if ((count > 10 && count <= 20) || (count > 30 && count <= 40)
 						|| (count > 50 && count <= 60) || (count > 70 && count <= 80)
 						|| (count > 90 && count <= 100))
 					skull = true; // More than 3 sec left in skull
-			} else if (ourPlayer.skullTimer - System.currentTimeMillis() <= 3000)
+			} else if (ourPlayer.skullTimer - game.currentTimeMillis() <= 3000)
 				if ((count > 25 && count <= 50) || (count > 75 && count <= 100))
 					skull = true; // Skull almost done
 		}
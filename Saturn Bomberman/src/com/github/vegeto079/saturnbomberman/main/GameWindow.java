@@ -0,0 +1,119 @@
+package com.github.vegeto079.saturnbomberman.main;
+
+import java.awt.Graphics2D;
+import java.awt.event.KeyEvent;
+
+import com.github.vegeto079.ngcommontools.main.Game;
+import com.github.vegeto079.ngcommontools.main.Logger;
+
+/**
+ * The window a {@link MainBomberman} is played in: the {@link Game} that owns
+ * the frame, the game and paint threads, fps counting and the fade. Everything
+ * it's asked to do (ticks, painting, keys, the mouse) is handed to
+ * {@link #game}.<br>
+ * {@link MainBomberman} used to be the {@link Game} itself, so making one
+ * always made a window, which can't be done without a display. Now a
+ * {@link MainBomberman#headless} one never makes one of these at all.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ */
+@SuppressWarnings("serial")
+public class GameWindow extends Game {
+	public final MainBomberman game;
+
+	public GameWindow(MainBomberman game, Logger logger, String[] args, int ticksPerSecond,
+			int paintTicksPerSecond, String title, int width, int height) {
+		super(logger, args, ticksPerSecond, paintTicksPerSecond, title, width, height);
+		this.game = game;
+	}
+
+	public void firstLoad() {
+		game.firstLoad();
+	}
+
+	public void gameTick() {
+		game.gameTick();
+	}
+
+	public void paintTick(Graphics2D g) {
+		game.paintTick(g);
+	}
+
+	public void mouseMoved(int x, int y, int button) {
+		game.mouseMoved(x, y, button);
+	}
+
+	public void mouseMoved(int x, int y) {
+		game.mouseMoved(x, y);
+	}
+
+	public void mouseDragged(int x, int y, int button, int originX, int originY) {
+		game.mouseDragged(x, y, button, originX, originY);
+	}
+
+	public void mousePressed(int x, int y, int button) {
+		game.mousePressed(x, y, button);
+	}
+
+	public void mouseReleased(int x, int y, int button) {
+		game.mouseReleased(x, y, button);
+	}
+
+	public void mouseClicked(int x, int y, int button) {
+		game.mouseClicked(x, y, button);
+	}
+
+	@SuppressWarnings("deprecation")
+	public void keyPressed(KeyEvent e) {
+		game.keyPressed(e);
+	}
+
+	public void keyPressed(int keyCode) {
+		game.keyPressed(keyCode);
+	}
+
+	@SuppressWarnings("deprecation")
+	public void keyReleased(KeyEvent e) {
+		game.keyReleased(e);
+	}
+
+	public void keyReleased(int keyCode) {
+		game.keyReleased(keyCode);
+	}
+
+	/*
+	 * What MainBomberman used to get through super, before doing its own
+	 * thing.
+	 */
+
+	void gameFirstLoad() {
+		super.firstLoad();
+	}
+
+	void gameGameTick() {
+		super.gameTick();
+	}
+
+	void gamePaintTick(Graphics2D g) {
+		super.paintTick(g);
+	}
+
+	void gameMousePressed(int x, int y, int button) {
+		super.mousePressed(x, y, button);
+	}
+
+	void gameMouseClicked(int x, int y, int button) {
+		super.mouseClicked(x, y, button);
+	}
+
+	@SuppressWarnings("deprecation")
+	void gameKeyPressed(KeyEvent e) {
+		super.keyPressed(e);
+	}
+
+	@SuppressWarnings("deprecation")
+	void gameKeyReleased(KeyEvent e) {
+		super.keyReleased(e);
+	}
+}
@@ -0,0 +1,122 @@
+package com.github.vegeto079.saturnbomberman.main;
+
+import java.util.ArrayList;
+
+import com.github.vegeto079.ngcommontools.main.Logger;
+import com.github.vegeto079.ngcommontools.main.Logger.LogLevel;
+import com.github.vegeto079.saturnbomberman.misc.State.StateEnum;
+import com.github.vegeto079.saturnbomberman.objects.Player;
+
+/**
+ * Runs a single match of CPU players on a {@link MainBomberman#headless} game.
+ * Nothing is drawn or played, and the game is ticked as fast as the CPU allows
+ * through {@link MainBomberman#tickSimulation()}. See {@link Tournament} for
+ * playing many of these at once.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ * @version 1.01: Ticks counted through {@link MainBomberman#clock}.
+ * @version 1.02: Resets {@link MainBomberman#timeline}.
+ */
+public class HeadlessMatch {
+	public MainBomberman game = null;
+	/**
+	 * The most ticks we will run before calling the match a draw. By default, the
+	 * match time plus 30 seconds for the weights to finish falling and the end of
+	 * match to play out.
+	 */
+	public long maxTicks = -1;
+	/**
+	 * Index of the {@link Player} that won, or -1 if nobody did.
+	 */
+	public int winner = -1;
+	public boolean finished = false;
+
+	/**
+	 * @param seed
+	 *            Seed for the match. The same seed and settings always play out
+	 *            the same match.
+	 * @param playerAmt
+	 *            Amount of CPU players (2-8).
+	 * @param comLevel
+	 *            {@link Options#comLevel} to use for each CPU.
+	 * @param whichStage
+	 *            The {@link Stage} to play on.
+	 */
+	public HeadlessMatch(long seed, int playerAmt, int comLevel, int whichStage) {
+		this(new MainBomberman(new Logger(false, false, false, true), seed), playerAmt, comLevel, whichStage);
+	}
+
+	public HeadlessMatch(MainBomberman game, int playerAmt, int comLevel, int whichStage) {
+		this.game = game;
+		game.options.comLevel = comLevel;
+		game.options.shuffle = false;
+		game.options.time = 3f;
+		game.temp[0] = "";
+		game.temp[1] = "";
+		game.timeline.reset();
+		game.players = new ArrayList<Player>();
+		while (game.objects.size() > 0)
+			game.objects.remove(0);
+		for (int i = 0; i < playerAmt; i++) {
+			Player p = new Player(game);
+			p.setIndex(i);
+			p.character = new Character(null, i);
+			p.isCpu = true;
+			game.players.add(p);
+			game.objects.add(p);
+		}
+		game.stage = new Stage(whichStage, game);
+		game.counter[2] = game.currentTimeMillis();
+		game.state.set(StateEnum.STAGE, game);
+		maxTicks = (long) ((game.options.time * 60 + 30) * MainBomberman.TICKS_PER_SECOND);
+	}
+
+	/**
+	 * Ticks the game until the match is over, or until {@link #maxTicks} is
+	 * reached.
+	 *
+	 * @return {@link #winner}
+	 */
+	public int run() {
+		long start = game.clock.getTick();
+		while (game.state.is(StateEnum.STAGE) && game.clock.getTick() - start < maxTicks)
+			game.tickSimulation();
+		winner = -1;
+		for (int i = 0; i < game.players.size(); i++)
+			if (game.players.get(i).deadTimer == -1) {
+				if (winner == -1)
+					winner = i;
+				else {
+					// More than one player still alive, nobody wins
+					winner = -1;
+					break;
+				}
+			}
+		finished = true;
+		game.stage = null;
+		game.logger.log(LogLevel.NORMAL, "Headless match finished in " + (game.clock.getTick() - start)
+				+ " ticks, winner: " + winner);
+		return winner;
+	}
+
+	/**
+	 * Runs matches back-to-back and prints the winner of each.<br>
+	 * Arguments: <b>[matches] [seed] [players] [comLevel] [stage]</b>
+	 */
+	public static void main(String[] args) {
+		int matches = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+		long seed = args.length > 1 ? Long.parseLong(args[1]) : System.currentTimeMillis();
+		int players = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+		int comLevel = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+		int stage = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+		for (int i = 0; i < matches; i++) {
+			long start = System.currentTimeMillis();
+			HeadlessMatch match = new HeadlessMatch(seed + i, players, comLevel, stage);
+			int winner = match.run();
+			System.out.println("Match " + i + " (seed " + (seed + i) + "): winner " + winner + ", "
+					+ match.game.clock.getTick() + " ticks in " + (System.currentTimeMillis() - start) + "ms");
+		}
+		System.exit(0);
+	}
+}
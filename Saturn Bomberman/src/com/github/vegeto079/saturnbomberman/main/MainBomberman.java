@@ -14,8 +14,10 @@ import java.awt.event.KeyEvent;
 import java.awt.geom.Arc2D;
 import java.awt.image.BufferedImage;
 import java.awt.image.DataBufferByte;
+import java.awt.image.ImageObserver;
 import java.awt.image.WritableRaster;
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -24,19 +26,28 @@ import java.util.Collections;
 import javax.imageio.ImageIO;
 
 import com.github.vegeto079.saturnbomberman.main.Character.Animation;
+import com.github.vegeto079.saturnbomberman.misc.AIProfile;
 import com.github.vegeto079.saturnbomberman.misc.BombermanJoystickListener;
 import com.github.vegeto079.saturnbomberman.misc.Constants;
 import com.github.vegeto079.saturnbomberman.misc.Draw;
+import com.github.vegeto079.saturnbomberman.misc.MatchFrame;
+import com.github.vegeto079.saturnbomberman.misc.MatchFrame.HurryUp;
+import com.github.vegeto079.saturnbomberman.misc.MatchTimeline;
+import com.github.vegeto079.saturnbomberman.misc.MatchTimeline.Phase;
 import com.github.vegeto079.saturnbomberman.misc.Pictures;
 import com.github.vegeto079.saturnbomberman.misc.State;
 import com.github.vegeto079.saturnbomberman.misc.State.StateEnum;
 import com.github.vegeto079.saturnbomberman.networking.Network;
+import com.github.vegeto079.saturnbomberman.objects.EntityStore;
+import com.github.vegeto079.saturnbomberman.objects.ObjectList;
+import com.github.vegeto079.saturnbomberman.objects.ObjectSnapshot;
 import com.github.vegeto079.saturnbomberman.objects.Player;
 import com.github.vegeto079.saturnbomberman.objects.Weight;
 import com.github.vegeto079.saturnbomberman.objects.Bomb.BombType;
 import com.github.vegeto079.saturnbomberman.objects.Player.PlayerComparator;
 
 import com.github.vegeto079.ngcommontools.main.*;
+import com.github.vegeto079.ngcommontools.main.Game.Pause;
 import com.github.vegeto079.ngcommontools.main.Logger.*;
 import com.github.vegeto079.ngcommontools.audio.*;
 import com.github.vegeto079.ngcommontools.networking.*;
@@ -74,10 +85,48 @@ import com.github.vegeto079.ngcommontools.networking.*;
  *          the values.
  * @version 1.05: Added {@link #currentTimeMillis()} and changed all
  *          {@link System#currentTimeMillis()} references to it.
+ * @version 1.06: Added {@link #headless} mode, through
+ *          {@link #MainBomberman(Logger, long)}. No window thread, pictures,
+ *          sound or frame pacing; time is driven by {@link #tickSimulation()}
+ *          so matches can be ran as fast as the CPU allows (see
+ *          {@link HeadlessMatch}). We're no longer a {@link Game} either: the
+ *          window, its threads, fps and fade belong to {@link #window}, which
+ *          a headless game doesn't have, so one can be made without a
+ *          display.
+ * @version 1.07: {@link #objects} is now an {@link ObjectList}, which indexes
+ *          objects by tile.
+ * @version 1.08: {@link #tickStage()} updates the {@link Stage}'s
+ *          {@link com.github.vegeto079.saturnbomberman.misc.AIWorld} once per
+ *          tick, before anything else ticks.
+ * @version 1.09: The debug overlay shows each CPU's {@link AIProfile}, and F4
+ *          also writes them all to a CSV file.
+ * @version 1.1: {@link #currentTimeMillis()} now comes from {@link #clock},
+ *          which counts ticks. {@link #gameTick()} runs as many ticks of the
+ *          stage as we're behind the wall clock (see
+ *          {@link #catchUpStage(int)}), and {@link #getTickFps()} is always
+ *          {@link #TICKS_PER_SECOND}.
+ * @version 1.11: How far along a match is, is kept in {@link #timeline}
+ *          instead of in {@link #temp}.
+ * @version 1.12: Alive players, time left and weights to drop are worked
+ *          out once per tick in {@link #matchFrame}.
+ * @version 1.13: Finished objects are all taken out of {@link #objects} at
+ *          the end of the tick instead of one at a time.
+ * @version 1.14: Publishes {@link ObjectList#publishSnapshot()} at the end of
+ *          every tick, which drawing reads from.
  */
-@SuppressWarnings("serial")
-public class MainBomberman extends Game {
+public class MainBomberman implements ImageObserver {
 	MainBomberman ourGame = null;
+	/**
+	 * The window we're played in, <b>null</b> if {@link #headless}.
+	 */
+	public GameWindow window = null;
+	public Logger logger = null;
+	/**
+	 * Seed and random numbers used so far when {@link #headless}, see
+	 * {@link #random(int, int, String)}. Otherwise they're kept by
+	 * {@link #window}.
+	 */
+	private long seed = 0, randomCount = 0;
 	public Pictures pictures = null;
 	public Draw draw = null;
 	public State state = new State(StateEnum.NULL, this);
@@ -102,6 +151,14 @@ public class MainBomberman extends Game {
 	public boolean loading = true;
 
 	public String[] temp = new String[] { "", "" };
+	/**
+	 * Which phases the current match has reached, and when.
+	 */
+	public final MatchTimeline timeline = new MatchTimeline();
+	/**
+	 * See {@link #getMatchFrame()}.
+	 */
+	private final MatchFrame matchFrame = new MatchFrame();
 	public long[] counter = new long[] { 0, 0, 0, 0, 0, 0, 0, 0 };
 
 	private final int HIGHEST_FADE_COUNTER = 150;
@@ -112,37 +169,291 @@ public class MainBomberman extends Game {
 
 	private Thread picturesThread = null;
 
-	public ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> objects = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Object>();
+	public ObjectList objects = new ObjectList();
 
 	public boolean mousePressed = false;
 	public ArrayList<Integer> keysPressed = new ArrayList<Integer>();
 
 	public boolean freezeAI = false;
 
+	/**
+	 * Width of the game screen.
+	 */
+	public final static int GAME_WIDTH = 640;
+	/**
+	 * Height of the game screen.
+	 */
+	public final static int GAME_HEIGHT = 448;
+	/**
+	 * Ticks per second the game runs at, and the rate {@link #clock} advances
+	 * {@link #currentTimeMillis()} at.
+	 */
+	public final static int TICKS_PER_SECOND = 60;
+	/**
+	 * Whether or not we are running without a window, pictures, sound or frame
+	 * pacing. Only the {@link Stage} and its objects are ticked, by
+	 * {@link #tickSimulation()}.
+	 */
+	public boolean headless = false;
+	/**
+	 * Our clock, see {@link #currentTimeMillis()}. Only moved forward by
+	 * {@link #tickSimulation()} when {@link #headless}.
+	 */
+	public final SimulationClock clock = new SimulationClock();
+
 	public MainBomberman(Logger logger, String[] args, int ticksPerSecond, int paintTicksPerSecond, String title,
 			int width, int height) {
-		super(logger, args, ticksPerSecond, paintTicksPerSecond, title, width, height);
+		this.logger = logger;
+		window = new GameWindow(this, logger, args, ticksPerSecond, paintTicksPerSecond, title, width, height);
 		draw = new Draw(this);
+		clock.set(getWallTimeMillis());
+		timeline.addListener(new MatchTimeline.Listener() {
+			public void reached(Phase phase, long time) {
+				logger.log(LogLevel.DEBUG, "Match reached " + phase.name() + " at " + time);
+			}
+		});
 		state.set(StateEnum.LOADING, this);
 		ourGame = this;
 		ourGame.startThread();
 	}
 
+	/**
+	 * Creates a {@link #headless} game. There's no {@link #window} or game
+	 * thread, nothing is loaded from disk besides what the {@link Stage} and
+	 * its objects need, and time only moves forward through
+	 * {@link #tickSimulation()}.
+	 * 
+	 * @param logger
+	 * @param seed
+	 *            Seed for all {@link #random(int, int, String)} calls, for
+	 *            reproducible matches.
+	 */
+	public MainBomberman(Logger logger, long seed) {
+		this.logger = logger;
+		headless = true;
+		ourGame = this;
+		setSeed(seed, 0);
+		options = new Options();
+		players = new ArrayList<Player>();
+		network = new Network(this);
+		state.set(StateEnum.NULL, this);
+	}
+
 	public static void main(String[] args) {
-		new MainBomberman(new Logger(false, false, true, true), args, 60, 70, "Bomberman", 640, 448);
+		new MainBomberman(new Logger(false, false, true, true), args, TICKS_PER_SECOND, 70, "Bomberman", GAME_WIDTH,
+				GAME_HEIGHT);
 	}
 
 	/**
-	 * @return {@link System#currentTimeMillis()} if {@link Network#client} is
-	 *         <b>null</b>. Otherwise, {@link Client#currentTimeMillis()}.
+	 * @return Time according to {@link #clock}, in ms. Only moves forward
+	 *         between ticks.
 	 */
 	public long currentTimeMillis() {
+		return clock.getTimeMillis();
+	}
+
+	/**
+	 * @return What time it really is, which {@link #clock} catches up to:
+	 *         {@link System#currentTimeMillis()} if {@link Network#client} is
+	 *         <b>null</b>. Otherwise, {@link Client#currentTimeMillis()}.
+	 */
+	public long getWallTimeMillis() {
 		if (network == null || network.client == null)
 			return System.currentTimeMillis();
 		else
 			return network.client.currentTimeMillis();
 	}
 
+	/**
+	 * @return Alive players, time left and such for the current tick, only
+	 *         worked out once per tick.
+	 */
+	public MatchFrame getMatchFrame() {
+		return matchFrame.get(this);
+	}
+
+	/**
+	 * Advances the clock by one tick and ticks the {@link Stage}. Only meant to be
+	 * used when {@link #headless}, in place of the game thread.
+	 */
+	public void tickSimulation() {
+		clock.advance();
+		if (state.is(StateEnum.STAGE))
+			tickStage();
+	}
+
+	/**
+	 * Runs the given amount of ticks of the {@link Stage} one after another,
+	 * moving {@link #clock} forward for each, so the match doesn't slow down
+	 * when the game thread falls behind.
+	 * 
+	 * @param ticks
+	 */
+	private void catchUpStage(int ticks) {
+		while (ticks > 0 && state.is(StateEnum.STAGE)) {
+			clock.advance();
+			ticks--;
+			tickStage();
+		}
+		clock.advance(ticks);
+	}
+
+	/**
+	 * @return {@link #TICKS_PER_SECOND}: the stage always ticks this many
+	 *         times a second of {@link #currentTimeMillis()}, however fast the
+	 *         screen is drawn.
+	 */
+	public int getTickFps() {
+		return TICKS_PER_SECOND;
+	}
+
+	/**
+	 * Plays the given sound, unless we are {@link #headless}.
+	 * 
+	 * @param name
+	 */
+	public void playSound(String name) {
+		if (sound != null)
+			sound.play(name);
+	}
+
+	public int getWidth() {
+		if (window == null)
+			return GAME_WIDTH;
+		return window.getWidth();
+	}
+
+	public int getHeight() {
+		if (window == null)
+			return GAME_HEIGHT;
+		return window.getHeight();
+	}
+
+	/**
+	 * @return The seed random numbers come from, see
+	 *         {@link #random(int, int, String)}.
+	 */
+	public long getSeed() {
+		if (window == null)
+			return seed;
+		return window.seed;
+	}
+
+	/**
+	 * @return How many random numbers have been used since the seed was set.
+	 */
+	public long getRandomCount() {
+		if (window == null)
+			return randomCount;
+		return window.randomCount;
+	}
+
+	public void setSeed(long seed, long randomCount) {
+		if (window == null) {
+			this.seed = seed;
+			this.randomCount = randomCount;
+		} else
+			window.setSeed(seed, randomCount);
+	}
+
+	/**
+	 * @return A random number from min to max, from {@link Tools#random} with
+	 *         our {@link #window}. When {@link #headless}, it only depends on
+	 *         the seed and how many have been used, so the same seed always
+	 *         gives the same numbers.
+	 */
+	public int random(int min, int max, String reason) {
+		if (window != null)
+			return Tools.random(window, min, max, reason);
+		return min + (int) Math.floorMod(nextRandom(), (long) max - min + 1);
+	}
+
+	/**
+	 * @return A random number from 0 to max, see
+	 *         {@link #random(int, int, String)}.
+	 */
+	public int random(int max, String reason) {
+		if (window != null)
+			return Tools.random(window, max, reason);
+		return random(0, max, reason);
+	}
+
+	/**
+	 * @return A random number from 0 to 1, see
+	 *         {@link #random(int, int, String)}.
+	 */
+	public float random(String reason) {
+		if (window != null)
+			return Tools.random(window, reason);
+		return (nextRandom() >>> 40) / (float) (1 << 24);
+	}
+
+	/**
+	 * @return The next headless random number, which only depends on the seed
+	 *         and how many have been used so far.
+	 */
+	private long nextRandom() {
+		long value = seed * 31 + randomCount++;
+		// SplitMix64, same as AI
+		value += 0x9E3779B97F4A7C15L;
+		value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+		value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+		return value ^ (value >>> 31);
+	}
+
+	public void setPause(Pause pause) {
+		if (window != null)
+			window.setPause(pause);
+	}
+
+	/**
+	 * @return What {@link #window} is pausing, or {@link Pause#NONE} if
+	 *         {@link #headless}.
+	 */
+	public Pause getPause() {
+		if (window == null)
+			return Pause.NONE;
+		return window.pause;
+	}
+
+	public void startThread() {
+		if (window != null)
+			window.startThread();
+	}
+
+	public void resetFps() {
+		if (window != null)
+			window.resetFps();
+	}
+
+	public void resetUps() {
+		if (window != null)
+			window.resetUps();
+	}
+
+	public double getFps() {
+		if (window == null)
+			return 0;
+		return window.getFps();
+	}
+
+	public double getUps() {
+		if (window == null)
+			return 0;
+		return window.getUps();
+	}
+
+	public void repaint() {
+		if (window != null)
+			window.repaint();
+	}
+
+	public boolean imageUpdate(Image img, int infoflags, int x, int y, int width, int height) {
+		if (window == null)
+			return false;
+		return window.imageUpdate(img, infoflags, x, y, width, height);
+	}
+
 	public void tickLoading(Graphics2D g) {
 		try {
 			if (defaultFont != null)
@@ -164,7 +475,7 @@ public class MainBomberman extends Game {
 		draw.whiteRectangle(g, -5, -5, getWidth() + 10, getHeight() + 10);
 		if (pictures != null)
 			try {
-				int counter = tickcounter;
+				int counter = window.tickcounter;
 				ArrayList<ArrayList<ArrayList<BufferedImage>>> imagesToDraw = pictures.characters;
 				int x = 0, y = 0, maxX = 0, maxY = 0, defaultX = 0, lastMaxY = 0;
 				for (ArrayList<ArrayList<BufferedImage>> imagePacks : imagesToDraw) {
@@ -206,9 +517,9 @@ public class MainBomberman extends Game {
 	}
 
 	public void tickDebug() {
-		tickcounter--;
-		if (tickcounter < 0)
-			tickcounter = 0;
+		window.tickcounter--;
+		if (window.tickcounter < 0)
+			window.tickcounter = 0;
 	}
 
 	public void tickMainMenu() {
@@ -218,9 +529,9 @@ public class MainBomberman extends Game {
 			picturesThread.start();
 		} else if (counter[7] == -1) {
 			network = new Network(this);
-			for (int i = 0; i < args.length; i++)
-				if (args[i].startsWith("server:")) {
-					network.overrideMasterServerIP = args[i].split(":")[1];
+			for (int i = 0; i < window.args.length; i++)
+				if (window.args[i].startsWith("server:")) {
+					network.overrideMasterServerIP = window.args[i].split(":")[1];
 					logger.log(LogLevel.WARNING, "Set override master server IP to " + network.overrideMasterServerIP);
 				}
 			counter[7] = 0;
@@ -232,12 +543,12 @@ public class MainBomberman extends Game {
 			if (music.play("Intro"))
 				temp[1] = "Played Intro";
 		}
-		fadecounterenabled = 0;
-		if (fadecounter != -2) {
-			if (fadecounter <= HIGHEST_FADE_COUNTER)
+		window.fadecounterenabled = 0;
+		if (window.fadecounter != -2) {
+			if (window.fadecounter <= HIGHEST_FADE_COUNTER)
 				fadeIn();
-			if (fadecounter > HIGHEST_FADE_COUNTER)
-				fadecounter = HIGHEST_FADE_COUNTER + 1;
+			if (window.fadecounter > HIGHEST_FADE_COUNTER)
+				window.fadecounter = HIGHEST_FADE_COUNTER + 1;
 		}
 		if (currentTimeMillis() - 80 > counter[2]) {
 			counter[2] = currentTimeMillis();
@@ -246,7 +557,7 @@ public class MainBomberman extends Game {
 			else
 				counter[3]++;
 		}
-		if (fadecounter == -2)
+		if (window.fadecounter == -2)
 			if (counter[7] == 0)
 				if (pictures.initialized)
 					loading = false;
@@ -270,13 +581,13 @@ public class MainBomberman extends Game {
 		if (counter[3] != -1)
 			g.drawImage(pictures.mainMenu.get(toDraw[(int) counter[3]]), 0, 0, this);
 		g.drawImage(pictures.mainMenu.get(pictures.mainMenu.size() - 1), 43, 18, this);
-		if (fadecounter == -2) {
+		if (window.fadecounter == -2) {
 			if (pictures.initialized && joystickHandler != null && joystickHandler.getConnectedJoysticksAmt() > 0) {
 				float percent = .5f;
-				if (tickcounter < 50)
-					percent = .5f + (float) tickcounter / 50f * .3f;
+				if (window.tickcounter < 50)
+					percent = .5f + (float) window.tickcounter / 50f * .3f;
 				else
-					percent = .5f + .6f - (float) tickcounter / 50f * .3f;
+					percent = .5f + .6f - (float) window.tickcounter / 50f * .3f;
 				g.drawImage(Pictures.changeOpacity(pictures.xbox360controller, percent), 0, 0, this);
 				if (joystickHandler.getConnectedJoysticksAmt() > 1)
 					g.drawImage(Pictures.changeOpacity(pictures.xbox360controller, percent),
@@ -284,11 +595,11 @@ public class MainBomberman extends Game {
 			}
 			if (counter[7] == 0) {
 				if (pictures.initialized)
-					draw.textCenteredWithTexturedImage(g, Color.RED, tickcounter > 90, getHeight() - getHeight() / 3,
+					draw.textCenteredWithTexturedImage(g, Color.RED, window.tickcounter > 90, getHeight() - getHeight() / 3,
 							Constants.MAIN_MENU_OPTIONS[0]);
 			} else if (counter[7] == 1) {
 				for (int i = 1; i < Constants.MAIN_MENU_OPTIONS.length; i++)
-					draw.textCenteredWithTexturedImage(g, Color.YELLOW, tickcounter > 90 && counter[1] == i - 1,
+					draw.textCenteredWithTexturedImage(g, Color.YELLOW, window.tickcounter > 90 && counter[1] == i - 1,
 							(getHeight() - getHeight() / 3) + (27 * (i - 1)) - 25, Constants.MAIN_MENU_OPTIONS[i]);
 				draw.dinoSelector(
 						g, pictures, (int) counter[3] / 4, getWidth() / 2
@@ -296,18 +607,18 @@ public class MainBomberman extends Game {
 						(getHeight() - getHeight() / 3) - 25 + (27 * ((int) counter[1] - 1)) - 5);
 			}
 		}
-		if (fadecounter != -2 && opacity == 0)
+		if (window.fadecounter != -2 && opacity == 0)
 			opacity = 1;
 		// tickFade(g);
 	}
 
 	public void tickMainMenu(int keyCode) {
-		if (fadecounter == -2) {
+		if (window.fadecounter == -2) {
 			if (counter[7] == 0) {
 				if (pictures.initialized)
 					if (keyCode == options.controllers[0].CButton) {
 						sound.play("Select");
-						tickcounter = 90;
+						window.tickcounter = 90;
 						counter[1] = 0;
 						counter[7] = 1;
 					}
@@ -318,7 +629,7 @@ public class MainBomberman extends Game {
 					if (tempCounter != counter[1]) {
 						sound.play("Tick");
 						counter[1] = tempCounter;
-						tickcounter = 90;
+						window.tickcounter = 90;
 					}
 				} else if (keyCode == options.controllers[0].upButton) {
 					sound.play("Tick");
@@ -326,7 +637,7 @@ public class MainBomberman extends Game {
 						counter[1] = Constants.MAIN_MENU_OPTIONS.length - 2;
 					else
 						counter[1]--;
-					tickcounter = 90;
+					window.tickcounter = 90;
 				} else if (keyCode == options.controllers[0].AButton || keyCode == options.controllers[0].CButton) {
 					if (counter[1] != 4)
 						sound.play("Select");
@@ -407,7 +718,7 @@ public class MainBomberman extends Game {
 						System.exit(0);
 				} else if (keyCode == options.controllers[0].BButton) {
 					sound.play("Back");
-					tickcounter = 90;
+					window.tickcounter = 90;
 					counter[1] = 0;
 					counter[7] = 0;
 				}
@@ -416,12 +727,12 @@ public class MainBomberman extends Game {
 	}
 
 	public void tickNetworking() {
-		fadecounterenabled = 0;
-		if (fadecounter != -2) {
-			if (fadecounter <= HIGHEST_FADE_COUNTER)
+		window.fadecounterenabled = 0;
+		if (window.fadecounter != -2) {
+			if (window.fadecounter <= HIGHEST_FADE_COUNTER)
 				fadeIn();
-			if (fadecounter > HIGHEST_FADE_COUNTER)
-				fadecounter = HIGHEST_FADE_COUNTER + 1;
+			if (window.fadecounter > HIGHEST_FADE_COUNTER)
+				window.fadecounter = HIGHEST_FADE_COUNTER + 1;
 		}
 		if (!temp[1].equals("Played Networking")) {
 			temp[1] = "Played Networking";
@@ -755,7 +1066,7 @@ public class MainBomberman extends Game {
 			g.setColor(Color.WHITE);
 			if (temp[0] != null) {
 				g.drawString(temp[0], getWidth() / 2 - Tools.getTextWidth(g, temp[0]) / 2, 250);
-				if (temp[0].length() < 14 && (tickcounter >= 75 || (tickcounter >= 25 && tickcounter < 50))) {
+				if (temp[0].length() < 14 && (window.tickcounter >= 75 || (window.tickcounter >= 25 && window.tickcounter < 50))) {
 					g.drawString("_", getWidth() / 2 + Tools.getTextWidth(g, temp[0]) / 2, 250);
 					g.drawString("_", getWidth() / 2 + Tools.getTextWidth(g, temp[0]) / 2 + 3, 250);
 				}
@@ -1090,7 +1401,7 @@ public class MainBomberman extends Game {
 			// ignore temporary problems w/ cursor
 		}
 		g.setStroke(stroke);
-		if (fadecounter != -2 && opacity == 0)
+		if (window.fadecounter != -2 && opacity == 0)
 			opacity = 1;
 	}
 
@@ -1199,8 +1510,8 @@ public class MainBomberman extends Game {
 				if (counter[1] == 0 && network.connectedClients.size() == options.multiplayer.localPlayers)
 					return;
 				if (!sound.isPlaying("Cursor Choose " + network.getRandomCursor())) {
-					if (randomCount == 0)
-						Tools.random(this, "Don't have zero randomCount!");
+					if (getRandomCount() == 0)
+						Tools.random(window, "Don't have zero randomCount!");
 					sound.play("Cursor Choose " + network.getRandomCursor());
 					counter[3] = 0;
 				}
@@ -1264,12 +1575,12 @@ public class MainBomberman extends Game {
 	}
 
 	public void tickControls() {
-		fadecounterenabled = 0;
-		if (fadecounter != -2) {
-			if (fadecounter <= HIGHEST_FADE_COUNTER)
+		window.fadecounterenabled = 0;
+		if (window.fadecounter != -2) {
+			if (window.fadecounter <= HIGHEST_FADE_COUNTER)
 				fadeIn();
-			if (fadecounter > HIGHEST_FADE_COUNTER)
-				fadecounter = HIGHEST_FADE_COUNTER + 1;
+			if (window.fadecounter > HIGHEST_FADE_COUNTER)
+				window.fadecounter = HIGHEST_FADE_COUNTER + 1;
 		}
 		if (!temp[1].equals("Played Controls")) {
 			temp[1] = "Played Controls";
@@ -1446,7 +1757,7 @@ public class MainBomberman extends Game {
 		}
 		for (int i = 2; i < tempOptionsTwo.length - 2; i++) {
 			draw.textWithTexturedImage(g, Color.YELLOW,
-					tickcounter > 90 && counter[1] == i && counter[6] <= -1 && counter[0] == 1,
+					window.tickcounter > 90 && counter[1] == i && counter[6] <= -1 && counter[0] == 1,
 					getWidth() - Tools.getTextWidth(g, tempOptionsTwo[i]) - 25, 105 + 27 * (i - 1), tempOptionsTwo[i]);
 		}
 
@@ -1459,11 +1770,11 @@ public class MainBomberman extends Game {
 
 		for (int i = 2; i < tempOptionsOne.length - 2; i++) {
 			draw.textWithTexturedImage(g, Color.YELLOW,
-					tickcounter > 90 && counter[1] == i && counter[6] <= -1 && counter[0] == 0, 50, 105 + 27 * (i - 1),
+					window.tickcounter > 90 && counter[1] == i && counter[6] <= -1 && counter[0] == 0, 50, 105 + 27 * (i - 1),
 					tempOptionsOne[i]);
 		}
 		for (int i = tempOptionsOne.length - 2; i < tempOptionsOne.length; i++) {
-			draw.textCenteredWithTexturedImage(g, Color.YELLOW, tickcounter > 90 && counter[1] == i && counter[6] <= -1,
+			draw.textCenteredWithTexturedImage(g, Color.YELLOW, window.tickcounter > 90 && counter[1] == i && counter[6] <= -1,
 					105 + 27 * (i - 1), tempOptionsOne[i]);
 		}
 		for (int i = 0; i < tempOptionsOne.length; i++)
@@ -1483,10 +1794,10 @@ public class MainBomberman extends Game {
 		if (counter[6] > -1) {
 			draw.blackRectangle(g, .9f);
 			String text = "Press a key or Escape to cancel";
-			draw.textCenteredWithTexturedImage(g, Color.YELLOW, tickcounter > 90, getHeight() / 2 - 27 / 2, text);
+			draw.textCenteredWithTexturedImage(g, Color.YELLOW, window.tickcounter > 90, getHeight() / 2 - 27 / 2, text);
 		}
 
-		if (fadecounter != -2 && opacity == 0)
+		if (window.fadecounter != -2 && opacity == 0)
 			opacity = 1;
 		// tickFade(g);
 	}
@@ -1590,7 +1901,7 @@ public class MainBomberman extends Game {
 			if (tempCounter != counter[1] && tempCounter != 0) {
 				sound.play("Tick");
 				counter[1] = tempCounter;
-				tickcounter = 90;
+				window.tickcounter = 90;
 			}
 		} else if (keyCode == options.controllers[0].AButton || keyCode == options.controllers[0].CButton) {
 			if (counter[1] == Constants.CONTROLS_MENU_OPTIONS.length - 1) {
@@ -1613,13 +1924,13 @@ public class MainBomberman extends Game {
 			if (counter[0] == 1) {
 				sound.play("Tick");
 				counter[0] = 0;
-				tickcounter = 90;
+				window.tickcounter = 90;
 			}
 		} else if (keyCode == options.controllers[0].rightButton) {
 			if (counter[0] == 0) {
 				sound.play("Tick");
 				counter[0] = 1;
-				tickcounter = 90;
+				window.tickcounter = 90;
 			}
 		}
 	}
@@ -1629,12 +1940,12 @@ public class MainBomberman extends Game {
 			temp[1] = "Played Selection";
 			music.loop("Selection");
 		}
-		fadecounterenabled = 0;
-		if (fadecounter != -2) {
-			if (fadecounter <= HIGHEST_FADE_COUNTER)
+		window.fadecounterenabled = 0;
+		if (window.fadecounter != -2) {
+			if (window.fadecounter <= HIGHEST_FADE_COUNTER)
 				fadeIn();
-			if (fadecounter > HIGHEST_FADE_COUNTER)
-				fadecounter = HIGHEST_FADE_COUNTER + 1;
+			if (window.fadecounter > HIGHEST_FADE_COUNTER)
+				window.fadecounter = HIGHEST_FADE_COUNTER + 1;
 		}
 		counter[2]++;
 		if (counter[2] > 260) {
@@ -1690,12 +2001,12 @@ public class MainBomberman extends Game {
 			if (counter[4] < 1) {
 				counter[4] = 0;
 				if (counter[6] == 1) {
-					pause = Pause.PAINT;
+					window.pause = Pause.PAINT;
 					counter[1] = 1;
 					counter[6] = 0;
-					tickcounter = 0;
+					window.tickcounter = 0;
 					state.set(StateEnum.END_OF_MATCH, this);
-					pause = Pause.NONE;
+					window.pause = Pause.NONE;
 					if (network.weAreHost())
 						for (int i = 0; i < network.connectedClients.size(); i++)
 							if (network.connectedClients.get(i)[0].equals(options.multiplayer.username))
@@ -1810,15 +2121,15 @@ public class MainBomberman extends Game {
 			g.drawImage(pictures.selectionButtons.get(0).get(2), 207, 350, this);
 			g.drawImage(pictures.selectionButtons.get(2).get(0), 383, 350, this);
 			if (counter[1] == 0) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(1), 203, 107, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 266, 98, this);
 			} else if (counter[1] == 1) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(1), 203, 170, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 266, 161, this);
 			} else if (counter[1] == 2) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(0), 203, 348, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 250, 339, this);
 			}
@@ -1837,24 +2148,24 @@ public class MainBomberman extends Game {
 			g.drawImage(pictures.selectionBackground, 8, 0, this);
 		} else if (counter[0] == 2) {
 			if (counter[1] == 0) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(0), 35, 43, this);
 				if (options.battleOptionsFinished)
 					g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 82, 34, this);
 			} else if (counter[1] == 1) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(0), 35, 91, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 82, 82, this);
 			} else if (counter[1] == 2) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(0), 35, 139, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 82, 130, this);
 			} else if (counter[1] == 3) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(0), 35, 187, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 82, 178, this);
 			} else if (counter[1] == 4) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(0), 35, 362, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 82, 353, this);
 			}
@@ -1940,27 +2251,27 @@ public class MainBomberman extends Game {
 			g.drawImage(pictures.selectionButtons.get(7).get(0), 170, 186, this);
 			g.drawImage(pictures.selectionButtons.get(7).get(1), 380, 186, this);
 			if (counter[1] == 0) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(0), 166, 40, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 213, 31, this);
 			} else if (counter[1] == 1) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(0), 326, 40, this);
 			} else if (counter[1] == 2) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(0), 400, 40, this);
 			} else if (counter[1] == 3) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(0), 166, 88, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 213, 79, this);
 			} else if (counter[1] == 4) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(0), 326, 88, this);
 			} else if (counter[1] == 5) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(0), 400, 88, this);
 			} else if (counter[1] == 6) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(0), 166, 136, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 213, 127, this);
 			} else if (counter[1] >= 7 && counter[1] <= 16) {
@@ -1971,7 +2282,7 @@ public class MainBomberman extends Game {
 					x += 210;
 					y -= 160;
 				}
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(3), x + 6, y - 9, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), x + 94, y - 17, this);
 				if (network.isPlayingOnline()) {
@@ -1980,7 +2291,7 @@ public class MainBomberman extends Game {
 				} else
 					g.drawImage(pictures.selectionSelector.get((int) counter[3] + 1).get(0), x, y, this);
 			} else if (counter[1] == 17) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(2), 166, 360, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 190, 354, this);
 			}
@@ -2064,7 +2375,7 @@ public class MainBomberman extends Game {
 			g.drawImage(pictures.selectionButtons.get(11).get(0), 320, 42, this);
 			g.drawImage(pictures.selectionButtons.get(13).get(options.comLevel - 1), 383, 300, this);
 			if (counter[1] == 0) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(0), 165, 37, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 213, 31, this);
 			} else if (counter[1] >= 1 && counter[1] <= 7) {
@@ -2073,20 +2384,20 @@ public class MainBomberman extends Game {
 				int y = 50 + (32 * ((int) counter[1] - 1));
 				if (counter[1] > 2)
 					y += 2;
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(5), x + 6, y - 9, this);
 				g.drawImage(pictures.selectionSelector.get((int) counter[3] + 13).get(0), x, y, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), x + 126, y - 16, this);
 			} else if (counter[1] == 8) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(1), 165, 295, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 230, 289, this);
 			} else if (counter[1] == 9) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(4), 379, 295, this);
 				g.drawImage(pictures.selectionSelector.get((int) counter[3] + 7).get(0), 373, 304, this);
 			} else if (counter[1] == 10) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(2), 166, 360, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 190, 354, this);
 			}
@@ -2218,7 +2529,7 @@ public class MainBomberman extends Game {
 					}
 				} else {
 					g.drawImage(pictures.selectionButtons.get(10).get(0), 353, 96, this);
-					if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+					if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 						g.drawImage(pictures.selectionButtonSelector.get(0).get(2), 349, 90, this);
 				}
 			}
@@ -2873,7 +3184,7 @@ public class MainBomberman extends Game {
 
 		}
 
-		if (fadecounter != -2 && opacity == 0)
+		if (window.fadecounter != -2 && opacity == 0)
 			opacity = 1;
 		// tickFade(g);
 	}
@@ -2884,7 +3195,7 @@ public class MainBomberman extends Game {
 			if (counter[1] != tempCounter) {
 				sound.play("Tick");
 				counter[1] = tempCounter;
-				tickcounter = 75;
+				window.tickcounter = 75;
 			}
 			if (((keyCode == options.controllers[0].AButton || keyCode == options.controllers[0].CButton)
 					&& counter[1] == 2) || keyCode == options.controllers[0].BButton) {
@@ -2933,7 +3244,7 @@ public class MainBomberman extends Game {
 			if (counter[1] != tempCounter) {
 				sound.play("Tick");
 				counter[1] = tempCounter;
-				tickcounter = 75;
+				window.tickcounter = 75;
 			}
 			if (keyCode == options.controllers[0].BButton) {
 				sound.play("Back");
@@ -3008,7 +3319,7 @@ public class MainBomberman extends Game {
 					tempCounter -= 3;
 				else if (counter[1] >= 8 && counter[1] <= 16) {
 					tempCounter--;
-					tickcounter = 75;
+					window.tickcounter = 75;
 				} else if (counter[1] == 17)
 					tempCounter = 6;
 				if (tempCounter != counter[1]) {
@@ -3023,10 +3334,10 @@ public class MainBomberman extends Game {
 					tempCounter = 17;
 				else if (counter[1] >= 7 && counter[1] <= 15 && options.wideMode) {
 					tempCounter++;
-					tickcounter = 75;
+					window.tickcounter = 75;
 				} else if (counter[1] >= 7 && counter[1] <= 13 && !options.wideMode) {
 					tempCounter++;
-					tickcounter = 75;
+					window.tickcounter = 75;
 				}
 				if (tempCounter != counter[1]) {
 					sound.play("Tick");
@@ -3127,10 +3438,10 @@ public class MainBomberman extends Game {
 					counter[1] = 1;
 				} else if (counter[1] >= 1 && counter[1] <= 7) {
 					counter[1] = 0;
-					tickcounter = 90;
+					window.tickcounter = 90;
 				} else if (counter[1] == 9) {
 					counter[1] = 8;
-					tickcounter = 90;
+					window.tickcounter = 90;
 				}
 			} else if (keyCode == options.controllers[0].upButton) {
 				long tempCounter = counter[1];
@@ -3143,7 +3454,7 @@ public class MainBomberman extends Game {
 				if (tempCounter != counter[1]) {
 					sound.play("Tick");
 					counter[1] = tempCounter;
-					tickcounter = 90;
+					window.tickcounter = 90;
 				}
 			} else if (keyCode == options.controllers[0].downButton) {
 				long tempCounter = counter[1];
@@ -3156,7 +3467,7 @@ public class MainBomberman extends Game {
 				if (tempCounter != counter[1]) {
 					sound.play("Tick");
 					counter[1] = tempCounter;
-					tickcounter = 90;
+					window.tickcounter = 90;
 				}
 			} else if (keyCode == options.controllers[0].leftButton) {
 				int tempComLevelCounter = options.comLevel;
@@ -3165,51 +3476,51 @@ public class MainBomberman extends Game {
 				if (counter[1] == 1) {
 					if (options.numberOfBattles > 1) {
 						tempBattlesCounter--;
-						tickcounter = 90;
+						window.tickcounter = 90;
 					}
 				} else if (counter[1] == 2) {
 					if (options.time > 1) {
 						tempTimeCounter--;
-						tickcounter = 90;
+						window.tickcounter = 90;
 					}
 				} else if (counter[1] == 3 && options.shuffle) {
 					sound.play("Tick");
 					options.shuffle = false;
-					tickcounter = 90;
+					window.tickcounter = 90;
 				} else if (counter[1] == 4 && options.noDraw) {
 					// sound.play("Tick");
 					// options.noDraw = false;
-					// tickcounter = 90;
+					// window.tickcounter = 90;
 				} else if (counter[1] == 5 && options.devil) {
 					// sound.play("Tick");
 					// options.devil = false;
-					// tickcounter = 90;
+					// window.tickcounter = 90;
 				} else if (counter[1] == 6 && options.madBomber) {
 					sound.play("Tick");
 					options.madBomber = false;
-					tickcounter = 90;
+					window.tickcounter = 90;
 				} else if (counter[1] == 7 && options.bonusGame) {
 					// sound.play("Tick");
 					// options.bonusGame = false;
-					// tickcounter = 90;
+					// window.tickcounter = 90;
 				} else if (counter[1] == 9) {
 					if (options.comLevel > 1) {
 						tempComLevelCounter--;
-						tickcounter = 90;
+						window.tickcounter = 90;
 					}
 				}
 				if (tempComLevelCounter != options.comLevel) {
 					sound.play("Tick");
 					options.comLevel = tempComLevelCounter;
-					tickcounter = 90;
+					window.tickcounter = 90;
 				} else if (tempBattlesCounter != options.numberOfBattles) {
 					sound.play("Tick");
 					options.numberOfBattles = tempBattlesCounter;
-					tickcounter = 90;
+					window.tickcounter = 90;
 				} else if (tempTimeCounter != options.time) {
 					sound.play("Tick");
 					options.time = tempTimeCounter;
-					tickcounter = 90;
+					window.tickcounter = 90;
 				}
 			} else if (keyCode == options.controllers[0].rightButton) {
 				int tempComLevelCounter = options.comLevel;
@@ -3218,51 +3529,51 @@ public class MainBomberman extends Game {
 				if (counter[1] == 1) {
 					if (options.numberOfBattles < 5) {
 						tempBattlesCounter++;
-						tickcounter = 90;
+						window.tickcounter = 90;
 					}
 				} else if (counter[1] == 2) {
 					if (options.time < 9) {
 						tempTimeCounter++;
-						tickcounter = 90;
+						window.tickcounter = 90;
 					}
 				} else if (counter[1] == 3 && !options.shuffle) {
 					sound.play("Tick");
 					options.shuffle = true;
-					tickcounter = 90;
+					window.tickcounter = 90;
 				} else if (counter[1] == 4 && !options.noDraw) {
 					// sound.play("Tick");
 					// options.noDraw = true;
-					// tickcounter = 90;
+					// window.tickcounter = 90;
 				} else if (counter[1] == 5 && !options.devil) {
 					// sound.play("Tick");
 					// options.devil = true;
-					// tickcounter = 90;
+					// window.tickcounter = 90;
 				} else if (counter[1] == 6 && !options.madBomber) {
 					sound.play("Tick");
 					// options.madBomber = true;
-					tickcounter = 90;
+					window.tickcounter = 90;
 				} else if (counter[1] == 7 && !options.bonusGame) {
 					// sound.play("Tick");
 					// options.bonusGame = true;
-					// tickcounter = 90;
+					// window.tickcounter = 90;
 				} else if (counter[1] == 9) {
 					if (options.comLevel < 5) {
 						tempComLevelCounter++;
-						tickcounter = 90;
+						window.tickcounter = 90;
 					}
 				}
 				if (tempComLevelCounter != options.comLevel) {
 					sound.play("Tick");
 					options.comLevel = tempComLevelCounter;
-					tickcounter = 90;
+					window.tickcounter = 90;
 				} else if (tempBattlesCounter != options.numberOfBattles) {
 					sound.play("Tick");
 					options.numberOfBattles = tempBattlesCounter;
-					tickcounter = 90;
+					window.tickcounter = 90;
 				} else if (tempTimeCounter != options.time) {
 					sound.play("Tick");
 					options.time = tempTimeCounter;
-					tickcounter = 90;
+					window.tickcounter = 90;
 				}
 			}
 		} else if (counter[0] == 11) {
@@ -3338,7 +3649,7 @@ public class MainBomberman extends Game {
 					tempCounter = nearestNonEmpty;
 			} else if (enterClicked) {
 				while (players.size() == 0)
-					sleep(10);
+					Game.sleep(10);
 				if (counter[5] >= players.size()) {
 					sound.play("Finished");
 					counter[4] = 45;
@@ -3426,7 +3737,7 @@ public class MainBomberman extends Game {
 								"SERVER:STAGE_SELECT" + Client.SPLITTER + counter[1] + Client.SPLITTER + num);
 					sound.play("Stage Selection");
 					stage = null;
-					pause = Pause.ALL;
+					window.pause = Pause.ALL;
 					counter[0] = 19;
 					counter[6] = counter[1];
 					counter[1] = num; // stage select
@@ -3434,7 +3745,7 @@ public class MainBomberman extends Game {
 					counter[3] = 0;
 					counter[4] = 50;
 					counter[5] = 0;
-					pause = Pause.NONE;
+					window.pause = Pause.NONE;
 				}
 			} else if (keyCode == options.controllers[0].BButton) {
 				sound.play("Back");
@@ -3444,72 +3755,62 @@ public class MainBomberman extends Game {
 				counter[4] = 50;
 			} else if (keyCode == options.controllers[0].leftButton) {
 				if (counter[5] == 0) {
-					pause = Pause.ALL;
+					window.pause = Pause.ALL;
 					sound.play("Stage Change");
 					counter[5] = 45;
-					pause = Pause.NONE;
+					window.pause = Pause.NONE;
 				}
 			} else if (keyCode == options.controllers[0].rightButton) {
 				if (counter[5] == 0) {
-					pause = Pause.ALL;
+					window.pause = Pause.ALL;
 					sound.play("Stage Change");
 					counter[5] -= 45;
-					pause = Pause.NONE;
+					window.pause = Pause.NONE;
 				}
 			}
 		}
 	}
 
 	public void tickStage() {
-		if (temp[1].contains("Played Match End")) {
-			long timeSinceEnd = currentTimeMillis()
-					- Long.parseLong(temp[1].split(".Played Match End:")[1].split(":")[0]);
-			if (timeSinceEnd > 10000) {
-				if (network.isPlayingOnline())
-					network.setClientsReady(false);
+		if (timeline.getTimeSince(Phase.MATCH_END, currentTimeMillis()) > 10000) {
+			if (network.isPlayingOnline())
+				network.setClientsReady(false);
+			if (headless)
+				state.set(StateEnum.END_OF_MATCH, this);
+			else
 				state.setNextStateAfterFade(StateEnum.END_OF_MATCH, this);
-				counter[1] = 0;
-				return;
-			}
+			counter[1] = 0;
+			return;
 		}
-		long endTime = (long) (counter[2] + options.time * 60000);
-		long timeLeft = endTime - currentTimeMillis() + 4000;
-		int secondsLeft = (int) Math.floor((double) timeLeft / 1000d);
-		int alivePlayers = 0;
-		for (int i = 0; i < players.size(); i++)
-			if (players.get(i).deadTimer == -1)
-				alivePlayers++;
-		if (!temp[1].contains("Played Match Intro")) {
-			if (music.isPlaying())
-				music.stop();
-			sound.play("Match Start");
-			while (!sound.isPlaying("Match Start")) {
-				// wait
-			}
-			temp[1] += ".Played Match Intro";
-		} else if (!sound.isPlaying("Match Start") && !temp[1].contains("Played Battle")) {
-			music.loop("Battle");
-			temp[1] += ".Played Battle";
+		MatchFrame frame = getMatchFrame();
+		int alivePlayers = frame.getAlivePlayers();
+		if (!timeline.has(Phase.INTRO)) {
+			if (!headless) {
+				if (music.isPlaying())
+					music.stop();
+				sound.play("Match Start");
+				while (!sound.isPlaying("Match Start")) {
+					// wait
+				}
+			}
+			timeline.reach(Phase.INTRO, currentTimeMillis());
+		} else if (!timeline.has(Phase.BATTLE) && (headless || !sound.isPlaying("Match Start"))) {
+			if (!headless)
+				music.loop("Battle");
+			timeline.reach(Phase.BATTLE, currentTimeMillis());
 		}
-		if (secondsLeft < 65 && !temp[1].contains("Last Minute Whistle") && alivePlayers > 1) {
-			sound.play("Last Minute Whistle");
-			temp[1] += ".Last Minute Whistle";
+		if (frame.getHurryUp() != HurryUp.NONE && !timeline.has(Phase.LAST_MINUTE_WHISTLE) && alivePlayers > 1) {
+			playSound("Last Minute Whistle");
+			timeline.reach(Phase.LAST_MINUTE_WHISTLE, currentTimeMillis());
 		}
-		if (secondsLeft < 60) {
-			if (!temp[1].contains("Last First") && alivePlayers > 1) {
-				sound.play("Last First");
-				temp[1] += ".Last First";
+		if (frame.getHurryUp() == HurryUp.LAST_MINUTE) {
+			if (!timeline.has(Phase.LAST_MINUTE) && alivePlayers > 1) {
+				playSound("Last First");
+				timeline.reach(Phase.LAST_MINUTE, currentTimeMillis());
 			}
 			if (alivePlayers > 1) {
-				int weightsToCreateAmt = (int) ((61000l - timeLeft) / 625 - 1);
-				int weightsCreated = 0;
-				ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> tempObjects = objects;
-				for (Object obj : tempObjects) {
-					if (obj instanceof Weight) {
-						weightsCreated++;
-					}
-				}
-				weightsCreated = weightsCreated / 2;
+				int weightsToCreateAmt = frame.getWeightsToCreate();
+				int weightsCreated = objects.getCount(Weight.class) / 2;
 				while (weightsToCreateAmt != weightsCreated) {
 					try {
 						Point weightPoint = Weight.leftDropCourse[weightsCreated];
@@ -3524,13 +3825,20 @@ public class MainBomberman extends Game {
 				}
 			}
 		}
+		if (stage != null)
+			stage.updateWorld(this);
 		for (int i = 0; i < objects.size(); i++) {
-			objects.get(i).tick(this);
-			if (objects.get(i).finished) {
-				objects.remove(i);
-				i--;
-			}
+			com.github.vegeto079.saturnbomberman.objects.Object obj = objects.get(i);
+			if (objects.isRetired(obj))
+				continue; // Finished earlier this tick
+			obj.tick(this);
+			if (obj.finished)
+				objects.retire(obj);
+			if (i < objects.size() && objects.get(i) != obj)
+				i--; // We took ourselves out of the list
 		}
+		objects.removeRetired();
+		objects.publishSnapshot();
 
 	}
 
@@ -3544,30 +3852,29 @@ public class MainBomberman extends Game {
 				for (int j = 0; j < stageI[0].length; j++)
 					g.drawString("" + stageI[i][j], Stage.getExactTileMidPoint(this, new Point(j, i)).x - 20,
 							Stage.getExactTileMidPoint(this, new Point(j, i)).y + 20);
-			for (int i = 0; i < objects.size(); i++)
-				if (objects.get(i) instanceof com.github.vegeto079.saturnbomberman.objects.Bomb) {
-					com.github.vegeto079.saturnbomberman.objects.Bomb bomb = (com.github.vegeto079.saturnbomberman.objects.Bomb) objects
-							.get(i);
-					Point movingToPoint = new Point(bomb.exactPoint.toPoint().x + 23, bomb.exactPoint.toPoint().y + 24);
-					Point topRightPoint = new Point(movingToPoint.x + 14, movingToPoint.y - 8);
-					Point bottomLeftPoint = new Point(movingToPoint.x - 9, movingToPoint.y + 14);
-					Point bottomRightPoint = new Point(movingToPoint.x + 14, movingToPoint.y + 14);
-					Point topLeftPoint = new Point(movingToPoint.x - 9, movingToPoint.y - 8);
-					// g.setColor(Color.YELLOW);
-					// g.fillRect(topLeftPoint.x, topLeftPoint.y,
-					// bottomRightPoint.x
-					// - topLeftPoint.x, bottomRightPoint.y - topLeftPoint.y);
-					g.setColor(Color.WHITE);
-					g.fillOval(movingToPoint.x, movingToPoint.y, 5, 5);
-					g.fillOval(topRightPoint.x, topRightPoint.y, 5, 5);
-					g.fillOval(bottomLeftPoint.x, bottomLeftPoint.y, 5, 5);
-					g.fillOval(bottomRightPoint.x, bottomRightPoint.y, 5, 5);
-					g.fillOval(topLeftPoint.x, topLeftPoint.y, 5, 5);
-					// if ((xDist < 40 && xDist > 8) || (yDist < 20 && yDist >
-					// 8)
-					// || (xDist > -20 && xDist < -8) || (yDist > -20 && yDist <
-					// -8))
-				}
+			ObjectSnapshot snapshot = objects.getSnapshot();
+			for (int i = 0; i < snapshot.size(EntityStore.Kind.BOMB); i++) {
+				com.github.vegeto079.saturnbomberman.objects.Object bomb = snapshot.get(EntityStore.Kind.BOMB, i);
+				Point movingToPoint = new Point(bomb.exactPoint.toPoint().x + 23, bomb.exactPoint.toPoint().y + 24);
+				Point topRightPoint = new Point(movingToPoint.x + 14, movingToPoint.y - 8);
+				Point bottomLeftPoint = new Point(movingToPoint.x - 9, movingToPoint.y + 14);
+				Point bottomRightPoint = new Point(movingToPoint.x + 14, movingToPoint.y + 14);
+				Point topLeftPoint = new Point(movingToPoint.x - 9, movingToPoint.y - 8);
+				// g.setColor(Color.YELLOW);
+				// g.fillRect(topLeftPoint.x, topLeftPoint.y,
+				// bottomRightPoint.x
+				// - topLeftPoint.x, bottomRightPoint.y - topLeftPoint.y);
+				g.setColor(Color.WHITE);
+				g.fillOval(movingToPoint.x, movingToPoint.y, 5, 5);
+				g.fillOval(topRightPoint.x, topRightPoint.y, 5, 5);
+				g.fillOval(bottomLeftPoint.x, bottomLeftPoint.y, 5, 5);
+				g.fillOval(bottomRightPoint.x, bottomRightPoint.y, 5, 5);
+				g.fillOval(topLeftPoint.x, topLeftPoint.y, 5, 5);
+				// if ((xDist < 40 && xDist > 8) || (yDist < 20 && yDist >
+				// 8)
+				// || (xDist > -20 && xDist < -8) || (yDist > -20 && yDist <
+				// -8))
+			}
 			g.setColor(Color.WHITE);
 			for (int i = 0; i < players.size(); i++) {
 				if (players.get(i).deadTimer != -1)
@@ -3655,6 +3962,7 @@ public class MainBomberman extends Game {
 	public void tickGoingToStage() {
 		temp[0] = "";
 		temp[1] = "";
+		timeline.reset();
 		music.stop();
 		if (network.isPlayingOnline()) {
 			if (counter[7] != 0 && counter[1] != -1) {
@@ -3681,7 +3989,7 @@ public class MainBomberman extends Game {
 					if (!network.client.containsMessageQueued("CLIENT:NEEDSEED"))
 						network.client.sendMessageToServer("CLIENT:NEEDSEED");
 				} else
-					counter[7] = randomCount;
+					counter[7] = getRandomCount();
 			}
 		} else {
 			if (counter[1] != -1) {
@@ -3711,12 +4019,12 @@ public class MainBomberman extends Game {
 					// players.get(i).ai = null;
 				}
 		}
-		fadecounterenabled = 0;
-		if (fadecounter != -2) {
-			if (fadecounter <= HIGHEST_FADE_COUNTER)
+		window.fadecounterenabled = 0;
+		if (window.fadecounter != -2) {
+			if (window.fadecounter <= HIGHEST_FADE_COUNTER)
 				fadeIn();
-			if (fadecounter > HIGHEST_FADE_COUNTER)
-				fadecounter = HIGHEST_FADE_COUNTER + 1;
+			if (window.fadecounter > HIGHEST_FADE_COUNTER)
+				window.fadecounter = HIGHEST_FADE_COUNTER + 1;
 		}
 		if (!temp[1].contains("Played Show Statistics") || !temp[1].contains("playing")) {
 			if (temp[1].contains("Played Selection"))
@@ -3727,7 +4035,7 @@ public class MainBomberman extends Game {
 				music.stop();
 			} else {
 				long stoppedTime = Long.parseLong(temp[1].split("--")[1]);
-				if (currentTimeMillis() - stoppedTime > 1000 && fadecounterenabled == 0) {
+				if (currentTimeMillis() - stoppedTime > 1000 && window.fadecounterenabled == 0) {
 					temp[1] += "Played Show Statistics";
 					sound.stopAll();
 					sound.play("Show Statistics");
@@ -3805,7 +4113,7 @@ public class MainBomberman extends Game {
 			if (tempCounter != counter[1]) {
 				sound.play("Tick");
 				counter[1] = tempCounter;
-				tickcounter = 75;
+				window.tickcounter = 75;
 			}
 			counter[6] = 0;
 		}
@@ -3979,7 +4287,7 @@ public class MainBomberman extends Game {
 			}
 			if (temp[1].contains("| Song Started")) {
 				BufferedImage imageToDraw = pictures.selectionButtons.get(17).get(0);
-				if (tickcounter >= 90)
+				if (window.tickcounter >= 90)
 					imageToDraw = Pictures.brighten(imageToDraw);
 				g.drawImage(imageToDraw, 548, 384, this);
 			}
@@ -4158,7 +4466,7 @@ public class MainBomberman extends Game {
 					g.drawImage(pic, 39 + (int) counter[4] * 20 - 610, 366, this);
 				} else
 					g.drawImage(pictures.selectionButtons.get(4).get(1), 39 + (int) counter[4] * 20 - 610, 366, this);
-				tickcounter = 75;
+				window.tickcounter = 75;
 			}
 		} else if (counter[0] == 2) {
 			// Selection (stats, battle on new stage)
@@ -4179,11 +4487,11 @@ public class MainBomberman extends Game {
 			} else
 				g.drawImage(pictures.selectionButtons.get(4).get(1), 39, 366, this);
 			if (counter[1] == 0) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(0), 35, 43, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 82, 34, this);
 			} else if (counter[1] == 1) {
-				if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+				if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 					g.drawImage(pictures.selectionButtonSelector.get(0).get(0), 35, 362, this);
 				g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 82, 355, this);
 			}
@@ -4237,7 +4545,7 @@ public class MainBomberman extends Game {
 			if (counter[0] == 4)
 				for (int i = 0; i < players.size(); i++)
 					if (counter[1] == i) {
-						if ((tickcounter >= 25 && tickcounter < 50) || tickcounter >= 75)
+						if ((window.tickcounter >= 25 && window.tickcounter < 50) || window.tickcounter >= 75)
 							g.drawImage(pictures.selectionButtonSelector.get(0).get(6), 184, 56 + 32 * i, this);
 						g.drawImage(pictures.selectionSelector.get(0).get((int) counter[3]), 240, 48 + 32 * i, this);
 					}
@@ -4355,7 +4663,7 @@ public class MainBomberman extends Game {
 				}
 			}
 			BufferedImage imageToDraw = pictures.selectionButtons.get(21).get(0);
-			if (tickcounter >= 90)
+			if (window.tickcounter >= 90)
 				imageToDraw = Pictures.brighten(imageToDraw);
 			if (counter[0] == 7)
 				g.drawImage(imageToDraw, 572, 376, this);
@@ -4471,7 +4779,7 @@ public class MainBomberman extends Game {
 			draw.textWithOutline(g, suicides, 478 - Tools.getTextWidth(g, suicides) / 2, 394 + (int) counter[4] * 20,
 					new Color(248, 224, 16), new Color(48, 32, 32));
 			BufferedImage imageToDraw = pictures.selectionButtons.get(21).get(0);
-			if (tickcounter >= 90)
+			if (window.tickcounter >= 90)
 				imageToDraw = Pictures.brighten(imageToDraw);
 			if (counter[0] == 9)
 				g.drawImage(imageToDraw, 572, 71, imageToDraw.getWidth(), -imageToDraw.getHeight(), this);
@@ -4565,13 +4873,13 @@ public class MainBomberman extends Game {
 			draw.textWithOutline(g, suicides, 478 - Tools.getTextWidth(g, suicides) / 2, 394, new Color(248, 224, 16),
 					new Color(48, 32, 32));
 			BufferedImage imageToDraw = pictures.selectionButtons.get(21).get(0);
-			if (tickcounter >= 90)
+			if (window.tickcounter >= 90)
 				imageToDraw = Pictures.brighten(imageToDraw);
 			if (counter[0] == 9)
 				g.drawImage(imageToDraw, 572, 71, imageToDraw.getWidth(), -imageToDraw.getHeight(), this);
 		}
 		g.drawImage(pictures.selectionBackground2, -2, -2, this);
-		if (fadecounter != -2 && opacity == 0)
+		if (window.fadecounter != -2 && opacity == 0)
 			opacity = 1;
 		// tickFade(g);
 	}
@@ -4594,7 +4902,7 @@ public class MainBomberman extends Game {
 					sound.play("Select");
 					counter[0] = 3;
 					counter[4] = 25;
-					tickcounter = 0;
+					window.tickcounter = 0;
 					setPause(Pause.NONE);
 				} else if (counter[1] == 1) {
 					if (network.isPlayingOnline()) {
@@ -4650,7 +4958,7 @@ public class MainBomberman extends Game {
 				if (tempCounter != counter[1]) {
 					sound.play("Tick");
 					counter[1] = tempCounter;
-					tickcounter = 75;
+					window.tickcounter = 75;
 				}
 			}
 		} else if (counter[0] == 4) {
@@ -4667,7 +4975,7 @@ public class MainBomberman extends Game {
 			} else if (keyCode == options.controllers[0].BButton) {
 				setPause(Pause.PAINT);
 				sound.play("Back");
-				tickcounter = 0;
+				window.tickcounter = 0;
 				counter[1] = 0;
 				counter[4] = 0;
 				counter[0] = 5;
@@ -4704,25 +5012,25 @@ public class MainBomberman extends Game {
 	}
 
 	private void fadeIn() {
-		fadecounterenabled = 1;
-		if (fadecounter == 0)
-			fadecounter = HIGHEST_FADE_COUNTER;
-		if (fadecounter >= LOWEST_FADE_COUNTER) {
+		window.fadecounterenabled = 1;
+		if (window.fadecounter == 0)
+			window.fadecounter = HIGHEST_FADE_COUNTER;
+		if (window.fadecounter >= LOWEST_FADE_COUNTER) {
 			// Common.log(this,"Fading in.");
-			if (fadecounter > HIGHEST_FADE_COUNTER)
-				fadecounter = HIGHEST_FADE_COUNTER;
-			float percentDone = ((float) HIGHEST_FADE_COUNTER - (float) fadecounter) / (float) HIGHEST_FADE_COUNTER;
+			if (window.fadecounter > HIGHEST_FADE_COUNTER)
+				window.fadecounter = HIGHEST_FADE_COUNTER;
+			float percentDone = ((float) HIGHEST_FADE_COUNTER - (float) window.fadecounter) / (float) HIGHEST_FADE_COUNTER;
 			if (percentDone > 1)
 				percentDone = 1;
 			if (percentDone < 0)
 				percentDone = 0;
 			opacity = 1f - percentDone;
-			fadecounter -= 2;
-			if (fadecounter <= 0)
-				fadecounter = -2;
+			window.fadecounter -= 2;
+			if (window.fadecounter <= 0)
+				window.fadecounter = -2;
 		} else {
 			// Already done fading in
-			fadecounter = -2;
+			window.fadecounter = -2;
 		}
 	}
 
@@ -4733,23 +5041,23 @@ public class MainBomberman extends Game {
 
 	public void tickFadeOut() {
 		fadeOut();
-		if (fadecounter == HIGHEST_FADE_COUNTER + 1 || fadecounter == -2) {
-			tickcounter = 0;
-			fadecounter = 0;
-			fadecounterenabled = 0;
+		if (window.fadecounter == HIGHEST_FADE_COUNTER + 1 || window.fadecounter == -2) {
+			window.tickcounter = 0;
+			window.fadecounter = 0;
+			window.fadecounterenabled = 0;
 			state.set(state.getNextStateAfterFade(), this);
 		}
 	}
 
 	private void fadeOut() {
-		fadecounterenabled = 1;
-		if (fadecounter == -1)
-			fadecounter = LOWEST_FADE_COUNTER;
-		if (fadecounter < HIGHEST_FADE_COUNTER) {
+		window.fadecounterenabled = 1;
+		if (window.fadecounter == -1)
+			window.fadecounter = LOWEST_FADE_COUNTER;
+		if (window.fadecounter < HIGHEST_FADE_COUNTER) {
 			// Common.log(this,"Fading out.");
-			if (fadecounter < LOWEST_FADE_COUNTER)
-				fadecounter = LOWEST_FADE_COUNTER;
-			float percentDone = ((float) LOWEST_FADE_COUNTER + (float) fadecounter) / (float) HIGHEST_FADE_COUNTER;
+			if (window.fadecounter < LOWEST_FADE_COUNTER)
+				window.fadecounter = LOWEST_FADE_COUNTER;
+			float percentDone = ((float) LOWEST_FADE_COUNTER + (float) window.fadecounter) / (float) HIGHEST_FADE_COUNTER;
 			// Common.log(this,"counter[2]: " + counter[2]);
 			// Common.log(this,"percentDone: " + percentDone);
 			if (percentDone > 1)
@@ -4758,15 +5066,15 @@ public class MainBomberman extends Game {
 				percentDone = 0;
 			opacity = percentDone;
 			// Common.log(this,"opacity: " + opacity);
-			fadecounter += 2;
+			window.fadecounter += 2;
 		} else {
 			// Already done fading out
-			fadecounter = HIGHEST_FADE_COUNTER + 1;
+			window.fadecounter = HIGHEST_FADE_COUNTER + 1;
 		}
 	}
 
 	public void firstLoad() {
-		super.firstLoad();
+		window.gameFirstLoad();
 		// System.setProperty("sun.java2d.d3d", "true");
 		pictures = new Pictures(this);
 
@@ -4900,11 +5208,16 @@ public class MainBomberman extends Game {
 	public void gameTick() {
 		// if (!logger.allLevelsShownEqual(true))
 		// logger = new Logger(true, true, true, true);
-		if (!logger.levelsShownEqual(false, true, true, true))
+		if (!logger.levelsShownEqual(false, true, true, true)) {
 			logger = new Logger(false, true, true, true);
-		super.gameTick();
+			window.logger = logger;
+		}
+		window.gameGameTick();
 		if (joystickHandler != null)
 			joystickHandler.setPollTime(10000);
+		int ticksDue = clock.getTicksDue(getWallTimeMillis());
+		if (!state.is(StateEnum.STAGE))
+			clock.advance(ticksDue);
 		if (state.is(StateEnum.LOADING))
 			tickLoading();
 		else if (state.is(StateEnum.DEBUG))
@@ -4920,7 +5233,7 @@ public class MainBomberman extends Game {
 		else if (state.is(StateEnum.MATCH_SELECTION))
 			tickMatchSelection();
 		else if (state.is(StateEnum.STAGE))
-			tickStage();
+			catchUpStage(ticksDue);
 		else if (state.is(StateEnum.GOING_TO_STAGE))
 			tickGoingToStage();
 		else if (state.is(StateEnum.END_OF_MATCH))
@@ -4930,7 +5243,7 @@ public class MainBomberman extends Game {
 	}
 
 	public void paintTick(Graphics2D g) {
-		super.paintTick(g);
+		window.gamePaintTick(g);
 		float derived = 1f;
 		if (font != null)
 			font = font.deriveFont(derived += 25.5f);
@@ -4963,9 +5276,9 @@ public class MainBomberman extends Game {
 			tickGoingToStage(g);
 		else if (state.is(StateEnum.END_OF_MATCH))
 			tickEndOfMatch(g);
-		if (fadecounterenabled == 1)
+		if (window.fadecounterenabled == 1)
 			draw.blackRectangle(g, opacity);
-		if (loading && fadecounter == -2) {
+		if (loading && window.fadecounter == -2) {
 			Color bgColor = Color.WHITE;
 			Color grayColor = Color.BLACK;
 			g.setColor(bgColor);
@@ -5034,13 +5347,13 @@ public class MainBomberman extends Game {
 			}
 			ArrayList<String> debug = new ArrayList<String>();
 			debug.add(state.getName());
-			debug.add("fps " + getFps() + " ups " + getUps());
-			if (resizer != null)
-				debug.add("Resizer: " + resizer.getWidth() + "," + resizer.getHeight());
+			debug.add("fps " + getFps() + " ups " + getUps() + " tick " + clock.getTick());
+			if (window.resizer != null)
+				debug.add("Resizer: " + window.resizer.getWidth() + "," + window.resizer.getHeight());
 			debug.add("Mouse: " + mouseLocation.x + "," + mouseLocation.y);
-			debug.add("Random seed: " + seed + ", count: " + randomCount);
-			debug.add("tickcounter: " + tickcounter);
-			debug.add("fadecounterenabled: " + fadecounterenabled + ", fadecounter: " + fadecounter);
+			debug.add("Random seed: " + getSeed() + ", count: " + getRandomCount());
+			debug.add("window.tickcounter: " + window.tickcounter);
+			debug.add("window.fadecounterenabled: " + window.fadecounterenabled + ", window.fadecounter: " + window.fadecounter);
 			debug.add("temp: " + temps);
 			debug.add("counter: " + counters);
 			// for (int i = 0; i < characters.length; i++)
@@ -5050,6 +5363,11 @@ public class MainBomberman extends Game {
 				debug.add(
 						"networking: " + network.inputTurn + ", " + network.myInputTurnP1 + ", " + network.myInputTurnP2
 								+ ", " + network.getRandomCursor() + ", " + network.getTotalPlayersAmt());
+			if (players != null)
+				for (int i = 0; i < players.size(); i++)
+					if (players.get(i).ai != null && players.get(i).isCpu)
+						debug.add("AI#" + i + " L" + players.get(i).ai.level + ": "
+								+ players.get(i).ai.profile.getSummary());
 			String[] theDebug = new String[debug.size()];
 			for (int i = 0; i < debug.size(); i++)
 				theDebug[i] = debug.get(i);
@@ -5061,13 +5379,11 @@ public class MainBomberman extends Game {
 					players.get(i).ai.drawReachableLocations(g);
 	}
 
-	@Override
 	public void mouseMoved(int x, int y, int button) {
 		mouseMoved(x, y);
 		mouseLocation = new Point(x, y);
 	}
 
-	@Override
 	public void mouseDragged(int x, int y, int button, int originX, int originY) {
 		if (mousePressed) {
 			if (network != null && pictures.initialized && (new Rectangle(network.graphic.x, network.graphic.y, 15, 15)
@@ -5079,7 +5395,6 @@ public class MainBomberman extends Game {
 		}
 	}
 
-	@Override
 	public void mousePressed(int x, int y, int button) {
 		if (button == 1) {
 			mousePressed = true;
@@ -5100,7 +5415,7 @@ public class MainBomberman extends Game {
 				Rectangle pressEnter = new Rectangle(200, 270, 235, 30);
 				if (pressEnter.contains(new Point(x, y)) && !pressEnter.contains(mouseLocation)) {
 					// If we only just moved into the location
-					tickcounter = 90;
+					window.tickcounter = 90;
 					sound.play("Tick");
 				}
 			} else if (counter[7] == 1) {
@@ -5108,7 +5423,7 @@ public class MainBomberman extends Game {
 				if (quickPlay.contains(new Point(x, y)) && !quickPlay.contains(mouseLocation)) {
 					// If we only just moved into the location
 					counter[1] = 0;
-					tickcounter = 90;
+					window.tickcounter = 90;
 					sound.play("Tick");
 				}
 			}
@@ -5139,7 +5454,7 @@ public class MainBomberman extends Game {
 	}
 
 	public void mouseReleased(int x, int y, int button) {
-		super.mousePressed(x, y, button);
+		window.gameMousePressed(x, y, button);
 		mousePressed = false;
 		if (network != null && network.graphic.isMoving) {
 			network.graphic.stopMoving();
@@ -5156,7 +5471,7 @@ public class MainBomberman extends Game {
 	public void mouseClicked(int x, int y, int button) {
 		if (mousePressed)
 			return;
-		super.mouseClicked(x, y, button);
+		window.gameMouseClicked(x, y, button);
 		if (state.is(StateEnum.STAGE) && options.players[0] == 1 && button == 3) {
 			// Point player = Stage.getExactTileMidPoint(this,
 			// players.get(0).getCellPoint());
@@ -5167,7 +5482,7 @@ public class MainBomberman extends Game {
 
 	@SuppressWarnings("deprecation")
 	public void keyReleased(KeyEvent e) {
-		super.keyReleased(e);
+		window.gameKeyReleased(e);
 		keyReleased(e.getKeyCode());
 	}
 
@@ -5277,7 +5592,6 @@ public class MainBomberman extends Game {
 	}
 
 	@SuppressWarnings("deprecation")
-	@Override
 	public void keyPressed(KeyEvent e) {
 		int keyCode = e.getKeyCode();
 		if (!keysPressed.contains(keyCode))
@@ -5300,7 +5614,7 @@ public class MainBomberman extends Game {
 				if (!pressIsGameRelated) {
 					// Don't progress further if key press isn't something from
 					// the game. Press it like normal.
-					super.keyPressed(e);
+					window.gameKeyPressed(e);
 					return;
 				}
 				if (network.inputTurn != network.myInputTurnP1 && network.inputTurn != network.myInputTurnP2)
@@ -5328,7 +5642,7 @@ public class MainBomberman extends Game {
 					else
 						network.client.sendMessageToServer(
 								"CLIENT:KEY" + Client.SPLITTER + "PRESS" + Client.SPLITTER + msg[index] + counterMsg);
-					super.keyPressed(e);
+					window.gameKeyPressed(e);
 				}
 				return;
 			}
@@ -5336,7 +5650,7 @@ public class MainBomberman extends Game {
 			// ignore
 		}
 		if (!state.equals(StateEnum.MATCH_SELECTION) || !network.isPlayingOnline()) {
-			super.keyPressed(e);
+			window.gameKeyPressed(e);
 		} else {
 			boolean pressIsGameRelated = false;
 			int[] buttons1p = options.controllers[0].getButtonArray();
@@ -5348,12 +5662,11 @@ public class MainBomberman extends Game {
 				if (buttons2p[i] == keyCode)
 					pressIsGameRelated = true;
 			if (!pressIsGameRelated) {
-				super.keyPressed(e);
+				window.gameKeyPressed(e);
 			}
 		}
 	}
 
-	@Override
 	public void keyPressed(int keyCode) {
 		if (keyCode == KeyEvent.VK_F1) {
 			counter[2] += 120000;
@@ -5375,24 +5688,31 @@ public class MainBomberman extends Game {
 					System.out.print(" Reaction Time: " + players.get(i).ai.reactionTime);
 					System.out.print(" Fire Multiplier: " + players.get(i).ai.walkingThroughFireMultiplier);
 				}
+			File profileFile = new File("ai-profile-" + System.currentTimeMillis() + ".csv");
+			try {
+				AIProfile.export(players, profileFile);
+				logger.log(LogLevel.NORMAL, "AI profiles written to " + profileFile.getAbsolutePath());
+			} catch (IOException e) {
+				logger.log(LogLevel.ERROR, "Couldn't write AI profiles: " + e.getMessage());
+			}
 		} else if (keyCode == KeyEvent.VK_F5) {
-			if (pause.all())
-				pause = Pause.PAINT;
-			else if (pause.game())
-				pause = Pause.NONE;
-			else if (pause.paint())
-				pause = Pause.ALL;
+			if (window.pause.all())
+				window.pause = Pause.PAINT;
+			else if (window.pause.game())
+				window.pause = Pause.NONE;
+			else if (window.pause.paint())
+				window.pause = Pause.ALL;
 			else
-				pause = Pause.GAME;
+				window.pause = Pause.GAME;
 		} else if (keyCode == KeyEvent.VK_F6) {
-			if (pause.all())
-				pause = Pause.GAME;
-			else if (pause.game())
-				pause = Pause.ALL;
-			else if (pause.paint())
-				pause = Pause.NONE;
+			if (window.pause.all())
+				window.pause = Pause.GAME;
+			else if (window.pause.game())
+				window.pause = Pause.ALL;
+			else if (window.pause.paint())
+				window.pause = Pause.NONE;
 			else
-				pause = Pause.PAINT;
+				window.pause = Pause.PAINT;
 		} else if (keyCode == KeyEvent.VK_F7) {
 			if (state.is(StateEnum.MAIN_MENU)) {
 				setPause(Pause.PAINT);
@@ -5425,10 +5745,10 @@ public class MainBomberman extends Game {
 			}
 		} else if (keyCode == KeyEvent.VK_F9) {
 			com.github.vegeto079.saturnbomberman.objects.Bomb bomb = new com.github.vegeto079.saturnbomberman.objects.Bomb(
-					new Point(-1, 4), BombType.NORMAL, players.get(0), this, 14, System.currentTimeMillis(), 1);
+					new Point(-1, 4), BombType.NORMAL, players.get(0), this, 14, currentTimeMillis(), 1);
 			bomb.explodeNow();
 			bomb = new com.github.vegeto079.saturnbomberman.objects.Bomb(new Point(-1, 6), BombType.NORMAL,
-					players.get(0), this, 14, System.currentTimeMillis(), 1);
+					players.get(0), this, 14, currentTimeMillis(), 1);
 			bomb.explodeNow();
 			// System.out.println("network.getPingBuffer(): " +
 			// network.getPingBuffer());
@@ -5447,19 +5767,19 @@ public class MainBomberman extends Game {
 				temp[1] = "";
 			}
 		} else if (keyCode == KeyEvent.VK_F11) {
-			if (paintTicksPerSecond > 30)
-				paintTicksPerSecond = 30;
-			else if (paintTicksPerSecond == 30)
-				paintTicksPerSecond = 15;
+			if (window.paintTicksPerSecond > 30)
+				window.paintTicksPerSecond = 30;
+			else if (window.paintTicksPerSecond == 30)
+				window.paintTicksPerSecond = 15;
 			else
-				paintTicksPerSecond = 70;
+				window.paintTicksPerSecond = 70;
 		} else if (keyCode == KeyEvent.VK_F12) {
 			// if (!network.isPlayingOnline() && debug)
 			// System.exit(0);
 			// TODO: goto benchmarking?
 			benchmarkStatus = 0;
-			ticksPerSecond = 60;
-			paintTicksPerSecond = 1000;
+			window.ticksPerSecond = 60;
+			window.paintTicksPerSecond = 1000;
 			setPause(Pause.PAINT);
 			int playerAmt = 1;
 			int aiAmt = 7;
@@ -5497,7 +5817,7 @@ public class MainBomberman extends Game {
 				if (temp[0].equals("")) {
 					temp[0] = state.getName();
 					state.set(StateEnum.DEBUG, this);
-					tickcounter = 0;
+					window.tickcounter = 0;
 				} else {
 					state.set(temp[0], this);
 					temp[0] = "";
@@ -5517,9 +5837,9 @@ public class MainBomberman extends Game {
 				music.changeVolume(.05f);
 		} else if (state.is(StateEnum.DEBUG)) {
 			if (keyCode == options.controllers[0].downButton)
-				tickcounter++;
+				window.tickcounter++;
 			else if (keyCode == options.controllers[0].upButton)
-				tickcounter--;
+				window.tickcounter--;
 		} else if (state.is(StateEnum.MAIN_MENU))
 			tickMainMenu(keyCode);
 		else if (state.is(StateEnum.NETWORKING))
@@ -5535,4 +5855,4 @@ public class MainBomberman extends Game {
 		else if (state.is(StateEnum.END_OF_MATCH))
 			tickEndOfMatch(keyCode);
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -7,6 +7,7 @@ import java.awt.event.KeyEvent;
  * @author Nathan
  * @version 1.0: Started tracking version.
  * @version 1.1: Added {@link Multiplayer}.
+ * @version 1.11: Added {@link Multiplayer#cpusRunLocally}.
  */
 public class Options {
 	public int[] players = new int[8];
@@ -98,5 +99,11 @@ public class Options {
 		public int localPlayers = 1;
 		public boolean useAIIntermediaryForAI = false;
 		public boolean useAIIntermediaryForPlayers = false;
+		/**
+		 * When hosting, whether everyone runs the CPUs themselves. Sent to
+		 * clients along with the seed, see
+		 * {@link com.github.vegeto079.saturnbomberman.networking.Network#cpusRunLocally}.
+		 */
+		public boolean cpusRunLocally = false;
 	}
 }
@@ -0,0 +1,99 @@
+package com.github.vegeto079.saturnbomberman.main;
+
+/**
+ * The game's clock, counted in ticks of the simulation instead of read off the
+ * wall. Bomb fuses, blocks exploding, skulls, the match timer and network
+ * events all go by {@link MainBomberman#currentTimeMillis()}, which is worked
+ * out from {@link #getTick()}, so how a match plays out only depends on how
+ * many ticks have ran, not how long each one took.<br>
+ * When there's a window, {@link #getTicksDue(long)} tells the game thread how
+ * many ticks it's behind the wall clock (or the host's clock online), so it can
+ * run them all at once and catch up when it stalls. Fall too far behind and we
+ * skip ahead instead, so a long stall doesn't turn into running the game in fast
+ * forward. When {@link MainBomberman#headless}, ticks are only ran when asked
+ * for, as fast as the CPU allows.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ */
+public class SimulationClock {
+	/**
+	 * Most ticks ran at once to catch up, before we give up and skip ahead.
+	 */
+	public final static int MAX_CATCH_UP_TICKS = 10;
+
+	private volatile long tick = 0;
+
+	/**
+	 * @return Ticks ran since the clock started.
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * @return {@link #getTick()} in ms.
+	 */
+	public long getTimeMillis() {
+		return toMillis(tick);
+	}
+
+	/**
+	 * Moves forward one tick.
+	 */
+	public void advance() {
+		tick++;
+	}
+
+	/**
+	 * Moves forward the given amount of ticks.
+	 *
+	 * @param ticks
+	 */
+	public void advance(int ticks) {
+		if (ticks > 0)
+			tick += ticks;
+	}
+
+	/**
+	 * Sets the clock to the given time, without running anything in between.
+	 *
+	 * @param wallTime
+	 *            In ms.
+	 */
+	public void set(long wallTime) {
+		tick = toTicks(wallTime);
+	}
+
+	/**
+	 * @param wallTime
+	 *            What time it really is, in ms.
+	 * @return How many ticks need to be ran to catch up to the given time, at
+	 *         most {@link #MAX_CATCH_UP_TICKS}. If we're further behind (or
+	 *         ahead) than that, the clock skips to the given time first.
+	 */
+	public int getTicksDue(long wallTime) {
+		long due = toTicks(wallTime) - tick;
+		if (due > MAX_CATCH_UP_TICKS || due < -MAX_CATCH_UP_TICKS) {
+			tick = toTicks(wallTime) - 1;
+			return 1;
+		}
+		return due < 0 ? 0 : (int) due;
+	}
+
+	/**
+	 * @param ticks
+	 * @return How many ms the given amount of ticks take.
+	 */
+	public static long toMillis(long ticks) {
+		return ticks * 1000l / MainBomberman.TICKS_PER_SECOND;
+	}
+
+	/**
+	 * @param millis
+	 * @return How many whole ticks go by in the given amount of ms.
+	 */
+	public static long toTicks(long millis) {
+		return millis * MainBomberman.TICKS_PER_SECOND / 1000l;
+	}
+}
@@ -8,15 +8,27 @@ import java.awt.Rectangle;
 import java.awt.geom.Area;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 
 import com.github.vegeto079.ngcommontools.main.DoublePoint;
 import com.github.vegeto079.ngcommontools.main.Logger;
 import com.github.vegeto079.ngcommontools.main.Logger.LogLevel;
 import com.github.vegeto079.ngcommontools.main.Tools;
+import com.github.vegeto079.saturnbomberman.misc.AIWorld;
+import com.github.vegeto079.saturnbomberman.misc.BitBoard;
+import com.github.vegeto079.saturnbomberman.misc.BitBoard.Layer;
+import com.github.vegeto079.saturnbomberman.misc.BlastRays;
+import com.github.vegeto079.saturnbomberman.misc.MatchFrame;
 import com.github.vegeto079.saturnbomberman.misc.Pictures;
 import com.github.vegeto079.saturnbomberman.objects.Bomb;
 import com.github.vegeto079.saturnbomberman.objects.Bomb.BombType;
+import com.github.vegeto079.saturnbomberman.objects.BombChain;
+import com.github.vegeto079.saturnbomberman.objects.EntityStore;
+import com.github.vegeto079.saturnbomberman.objects.FireGrid;
 import com.github.vegeto079.saturnbomberman.objects.Item;
+import com.github.vegeto079.saturnbomberman.objects.ObjectSnapshot;
 import com.github.vegeto079.saturnbomberman.objects.Player;
 import com.github.vegeto079.saturnbomberman.objects.Weight;
 
@@ -33,11 +45,70 @@ import com.github.vegeto079.saturnbomberman.objects.Weight;
  *          nearby player, so you don't get stuck in the bomb. Blocks no longer
  *          drawn here manually, instead they have their own classes:
  *          {@link com.github.vegeto079.saturnbomberman.objects#Block} and {@link com.github.vegeto079.saturnbomberman.objects#SolidBlock}.
+ * @version 1.41: Stage pictures are not loaded when
+ *          {@link MainBomberman#headless}.
+ * @version 1.42: Bomb, weight and player tile lookups now go through
+ *          {@link com.github.vegeto079.saturnbomberman.objects.ObjectList}'s
+ *          tile index instead of scanning every object.
+ * @version 1.5: {@link #canMove(int, DoublePoint, double, double, MainBomberman, Point, Player)}
+ *          no longer builds an {@link Area} every call. Walls, blocks and
+ *          landed weights are kept in {@link #collisionMask}, only rebuilt
+ *          when the stage changes, and checked by pixel through
+ *          {@link #collisionMaskColumnAt} and {@link #collisionMaskRowAt}.
+ *          Bombs are checked against the player directly.
+ *          {@link #getBoundings(MainBomberman, Point, Point, Player)} is now
+ *          only used for debugging.
+ * @version 1.51: {@link #getCollisionMap(MainBomberman)} no longer rebuilds
+ *          the whole map every call. Tiles, players, items and landed weights
+ *          are kept in {@link #baseCollisionMap} and only the tiles that
+ *          changed (through {@link #set(int, int, int)} or
+ *          {@link com.github.vegeto079.saturnbomberman.objects.ObjectList#pollChangedTiles(boolean[][])})
+ *          are rebuilt. Bomb and weight danger is laid on top every
+ *          {@link #timeBetweenCollisionMapUpdates}, or sooner if anything
+ *          changed. Every new map gets a new {@link #getCollisionMapVersion()}.
+ *          When only players have moved, the map is patched (see
+ *          {@link #patchCollisionMap(MainBomberman)}) instead of having all
+ *          the danger laid again.
+ * @version 1.52: Added {@link #getBombChain(MainBomberman)} and
+ *          {@link #getStageVersion()}.
+ * @version 1.53: Added {@link #getLayer(MainBomberman, Layer)}, the collision
+ *          map as {@link BitBoard}s.
+ * @version 1.54: Added {@link #updateWorld(MainBomberman)} and
+ *          {@link #getWorld(MainBomberman)}.
+ * @version 1.55: Added {@link #getBlastRays()}.
+ * @version 1.56: Added {@link #getFireGrid()}. Burning tiles are laid on the
+ *          collision map as 0 (dangerous now) and the map is rebuilt as soon
+ *          as a tile catches fire. {@link #drawCollisionMap(Graphics2D, MainBomberman)}
+ *          shows how long each tile has left to burn.
+ * @version 1.57: The timer stops at {@link MainBomberman#timeline}'s match
+ *          end.
+ * @version 1.58: Alive players and time left come from
+ *          {@link MainBomberman#getMatchFrame()}.
+ * @version 1.59: Bombs, blocks and everything drawn on top of them are read
+ *          straight from {@link EntityStore}. Objects are sorted by row into
+ *          a list of our own when drawn, instead of bubble sorting
+ *          {@link MainBomberman#objects} itself.
+ * @version 1.6: Draws, and finds bomb and weight danger, from an
+ *          {@link ObjectSnapshot}, so the game thread can add and remove
+ *          objects while we read them.
  */
 public class Stage {
 
 	public final static int SQUARE_WIDTH = 32;
 	public final static int SQUARE_HEIGHT = 32;
+	/**
+	 * Amount of tiles in each row of a stage.
+	 */
+	public final static int TILES_ACROSS = 17;
+	/**
+	 * Amount of tiles in each column of a stage.
+	 */
+	public final static int TILES_DOWN = 11;
+	/**
+	 * See {@link #getOffset()}.
+	 */
+	public final static int OFFSET_X = 46;
+	public final static int OFFSET_Y = 62;
 
 	private final int[][] ONE = {
 			{ 11, 21, 01, 01, 01, 01, 01, 01, 01, 01, 01, 01, 01, 01, 01, 23, 13 },
@@ -68,6 +139,104 @@ public class Stage {
 	private long lastCollisionMapUpdate = 0;
 	private long timeBetweenCollisionMapUpdates = 100;
 	private long[][] lastCollisionMap = null;
+	/**
+	 * Goes up by one every time {@link #lastCollisionMap} is replaced.
+	 */
+	private long collisionMapVersion = 0;
+	/**
+	 * The collision map without any danger from bombs or falling weights:
+	 * tiles, alive players, collectable items and landed weights.
+	 */
+	private long[][] baseCollisionMap = null;
+	/**
+	 * [row][column] tiles of {@link #baseCollisionMap} that need rebuilding.
+	 */
+	private boolean[][] collisionMapDirty = null;
+	private boolean collisionMapAllDirty = true;
+	/**
+	 * Tiles (row * columns + column) of {@link #baseCollisionMap} that changed
+	 * since {@link #lastCollisionMap} was given out.
+	 */
+	private final ArrayList<Integer> changedBaseTiles = new ArrayList<Integer>();
+	/**
+	 * Whether any tile in {@link #changedBaseTiles} was or is now a wall,
+	 * block or item, which changes how far bombs' fire goes.
+	 */
+	private boolean blastTilesChanged = false;
+	/**
+	 * What {@link #publishCollisionMap(MainBomberman)} laid on each tile
+	 * [row][column]: time till a falling weight lands and till fire gets
+	 * there ({@link #NO_DANGER} if neither), whether a bomb is there and
+	 * whether it's on fire.
+	 */
+	private long[][] weightDanger = null, explosionDanger = null;
+	private boolean[][] bombOn = null, fireOn = null;
+	private final static long NO_DANGER = Long.MIN_VALUE;
+	/**
+	 * Every weight and bomb when {@link #lastCollisionMap} was last fully
+	 * made, and where they were. See {@link #dangerMoved(MainBomberman)}.
+	 */
+	private final ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> dangerObjects = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Object>();
+	private final ArrayList<Integer> dangerCells = new ArrayList<Integer>();
+	/**
+	 * Goes up every time {@link #stage} changes.
+	 */
+	private long stageVersion = 0;
+	private final BombChain bombChain = new BombChain();
+	private final FireGrid fireGrid = new FireGrid();
+	/**
+	 * Reused by {@link #drawEndOfStage(MainBomberman, Graphics2D)}.
+	 */
+	private final ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> drawOrder = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Object>();
+	/**
+	 * {@link FireGrid#getVersion()} when {@link #lastCollisionMap} was made.
+	 */
+	private long collisionMapFireVersion = -1;
+	/**
+	 * See {@link #getBlastRays()}.
+	 */
+	private volatile BlastRays blastRays = null;
+	/**
+	 * The {@link Layer}s of {@link #lastCollisionMap}, see
+	 * {@link #getLayer(MainBomberman, Layer)}.
+	 */
+	private BitBoard[] layers = null;
+	/**
+	 * The latest {@link AIWorld}, see {@link #updateWorld(MainBomberman)}.
+	 */
+	private volatile AIWorld world = null;
+
+	/**
+	 * Size of the square a solid tile takes up for movement.
+	 */
+	private final static int SOLID_TILE_SIZE = 37;
+	/**
+	 * Size of the square a bomb takes up for movement, before it's adjusted for
+	 * the player moving near it.
+	 */
+	private final static int BOMB_SIZE = 25;
+	/**
+	 * Which tiles stop players and bombs from moving: walls, blocks and landed
+	 * weights. Includes a border of one tile around the stage, which is always
+	 * solid. Indexed by (row + 1) * (width + 2) + (column + 1).
+	 */
+	private boolean[] collisionMask = null;
+	private boolean collisionMaskDirty = true;
+	/**
+	 * For every pixel x on the screen, the first and second column of
+	 * {@link #collisionMask} whose solid square covers it (-1 if none).
+	 */
+	private int[][] collisionMaskColumnAt = null;
+	/**
+	 * For every pixel y on the screen, the first and second row of
+	 * {@link #collisionMask} whose solid square covers it (-1 if none).
+	 */
+	private int[][] collisionMaskRowAt = null;
+	/**
+	 * Re-used by {@link #collides(MainBomberman, Point, int, int, int, int, Player)}
+	 * so we don't create a new array every call.
+	 */
+	private final int[] bombBoundsBuffer = new int[4];
 
 	public Stage(int whichStage, MainBomberman game) {
 		initialize(whichStage, game);
@@ -84,7 +253,8 @@ public class Stage {
 		// game.state.set(StateEnum.LOADING, game);
 		stage = new Stage(true, whichStage, game).getOriginalMap(whichStage);
 		game.logger.log(LogLevel.DEBUG, "Loading stage " + whichStage);
-		game.pictures.loadStageToMemory(whichStage);
+		if (game.pictures != null)
+			game.pictures.loadStageToMemory(whichStage);
 		for (int i = 0; i < game.objects.size(); i++)
 			if (game.objects.get(i) instanceof com.github.vegeto079.saturnbomberman.objects.Player) {
 				// Set to normal conditions
@@ -109,7 +279,7 @@ public class Stage {
 					else {
 						if (game.options.shuffle) {
 							while (true) {
-								int player = Tools.random(game, 0,
+								int player = game.random(0,
 										game.players.size() - 1,
 										"Shuffling player locations");
 								if (game.players.get(player).exactPoint
@@ -131,11 +301,11 @@ public class Stage {
 						stage[i][j] = -1;
 					}
 				}
-		int removeBlocks = Tools.random(game, 10, 18, "Remove Blocks Amount");
+		int removeBlocks = game.random(10, 18, "Remove Blocks Amount");
 		while (removeBlocks > 0) {
-			int randomI = Tools.random(game, 0, stage.length - 1,
+			int randomI = game.random(0, stage.length - 1,
 					"Removing Blocks I [" + removeBlocks + "]");
-			int randomJ = Tools.random(game, 0, stage[randomI].length - 1,
+			int randomJ = game.random(0, stage[randomI].length - 1,
 					"Removing Blocks J [" + removeBlocks + "]");
 			if (stage[randomI][randomJ] == 1) {
 				removeBlocks--;
@@ -155,9 +325,9 @@ public class Stage {
 		int thisI = -1, thisJ = -1;
 		boolean[][] itemDetermined = new boolean[stage.length][stage[0].length];
 		while (true) {
-			thisI = Tools.random(game, 0, stage.length - 1,
+			thisI = game.random(0, stage.length - 1,
 					"Random item placement (picking random tile, i)");
-			thisJ = Tools.random(game, 0, stage[0].length - 1,
+			thisJ = game.random(0, stage[0].length - 1,
 					"Random item placement (picking random tile, j)");
 			if (itemDetermined[thisI][thisJ]) {
 				boolean foundNonDetermined = false;
@@ -170,7 +340,7 @@ public class Stage {
 				continue;
 			}
 			if (stage[thisI][thisJ] == 1) {
-				if (Tools.random(game,
+				if (game.random(
 						"Random item placement (no item chance)") >= .57f) {
 					com.github.vegeto079.saturnbomberman.objects.Item newItem = new com.github.vegeto079.saturnbomberman.objects.Item(new Point(thisJ, thisI), game,
 							getOffset(), whichStage);
@@ -184,6 +354,8 @@ public class Stage {
 		// if(stage[i][j] == 1)
 		// stage[i][j] = -1;
 		// TODO: set above to clear stage of breakable blocks
+		collisionMaskDirty = true;
+		fireGrid.clear();
 		updateCollisionMap(game);
 		initiated = true;
 		game.loading = false;
@@ -193,8 +365,52 @@ public class Stage {
 		return stage;
 	}
 
-	public void set(int x, int y, int set) {
+	public synchronized void set(int x, int y, int set) {
 		stage[x][y] = set;
+		collisionMaskDirty = true;
+		if (collisionMapDirty != null)
+			collisionMapDirty[x][y] = true;
+		stageVersion++;
+	}
+
+	/**
+	 * @return A number that changes every time a tile on the stage changes.
+	 */
+	public long getStageVersion() {
+		return stageVersion;
+	}
+
+	/**
+	 * @param game
+	 * @return The {@link BombChain} for this stage, up to date.
+	 */
+	public BombChain getBombChain(MainBomberman game) {
+		bombChain.update(game);
+		return bombChain;
+	}
+
+	/**
+	 * @return Which tiles are on fire right now.
+	 */
+	public FireGrid getFireGrid() {
+		return fireGrid;
+	}
+
+	/**
+	 * @return How far fire can go from each tile, for the stage as it is now.
+	 *         Only made again when a tile has changed since last time.
+	 */
+	public BlastRays getBlastRays() {
+		BlastRays current = blastRays;
+		if (current == null || current.version != stageVersion)
+			current = makeBlastRays();
+		return current;
+	}
+
+	private synchronized BlastRays makeBlastRays() {
+		if (blastRays == null || blastRays.version != stageVersion)
+			blastRays = new BlastRays(stage, stageVersion);
+		return blastRays;
 	}
 
 	public int[][] getOriginalMap(int whichStage) {
@@ -294,11 +510,11 @@ public class Stage {
 	public void changeTileWithNumber(int num, int changeTo) {
 		Point tile = getTileWithNumber(num);
 		if (tile != null)
-			stage[tile.y][tile.x] = changeTo;
+			set(tile.y, tile.x, changeTo);
 	}
 
 	public void changeTile(Point p, int changeTo) {
-		stage[p.y][p.x] = changeTo;
+		set(p.y, p.x, changeTo);
 	}
 
 	public static Point getExactTileMidPoint(MainBomberman game, Point tile) {
@@ -316,6 +532,9 @@ public class Stage {
 		logger.log(LogLevel.DEBUG, "Map reset.");
 		stage = null;
 		stage = getOriginalMap(whichStage);
+		collisionMaskDirty = true;
+		collisionMapAllDirty = true;
+		stageVersion++;
 	}
 
 	public String toString() {
@@ -334,7 +553,7 @@ public class Stage {
 	public Point getOffset() {
 		// if (whichStage == 0)
 		// return new Point(44, 60);
-		return new Point(46, 62);
+		return new Point(OFFSET_X, OFFSET_Y);
 		/*
 		 * else if (whichStage == 1) return new Point(); else if (whichStage ==
 		 * 2) return new Point(); else if (whichStage == 3) return new Point();
@@ -346,30 +565,26 @@ public class Stage {
 
 	public void draw(Graphics2D g, MainBomberman game) {
 		g.drawImage(game.pictures.stageBackground, -4, -4, game);
-		ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> objects = game.objects;
-		for (int i = 0; i < objects.size(); i++)
-			if (objects.get(i) instanceof com.github.vegeto079.saturnbomberman.objects.Bomb) {
-				com.github.vegeto079.saturnbomberman.objects.Bomb bomb = (com.github.vegeto079.saturnbomberman.objects.Bomb) objects.get(i);
-				if (bomb.pickedUpCount < 3) {
-					if (!bomb.exploding && !bomb.finished
-							&& !bomb.type.equals(BombType.LAND_MINE))
-						g.drawImage(game.pictures.shadow, bomb.exactPoint.toPoint().x + 8,
-								bomb.exactPoint.toPoint().y + 28, game);
-					bomb.draw(g, game);
-				}
-			}
-		for (int i = 0; i < objects.size(); i++)
-			if (objects.get(i) instanceof com.github.vegeto079.saturnbomberman.objects.Block) {
-				objects.get(i).draw(g, game);
-			} else if (objects.get(i) instanceof com.github.vegeto079.saturnbomberman.objects.SolidBlock) {
-				objects.get(i).draw(g, game);
+		ObjectSnapshot snapshot = game.objects.getSnapshot();
+		for (int i = 0; i < snapshot.size(EntityStore.Kind.BOMB); i++) {
+			com.github.vegeto079.saturnbomberman.objects.Bomb bomb = (com.github.vegeto079.saturnbomberman.objects.Bomb) snapshot
+					.get(EntityStore.Kind.BOMB, i);
+			if (bomb.pickedUpCount < 3) {
+				if (!bomb.exploding && !bomb.finished
+						&& !bomb.type.equals(BombType.LAND_MINE))
+					g.drawImage(game.pictures.shadow, bomb.exactPoint.toPoint().x + 8,
+							bomb.exactPoint.toPoint().y + 28, game);
+				bomb.draw(g, game);
 			}
+		}
+		for (int i = 0; i < snapshot.size(EntityStore.Kind.BLOCK); i++)
+			snapshot.get(EntityStore.Kind.BLOCK, i).draw(g, game);
+		for (int i = 0; i < snapshot.size(EntityStore.Kind.SOLID_BLOCK); i++)
+			snapshot.get(EntityStore.Kind.SOLID_BLOCK, i).draw(g, game);
 		g.drawImage(game.pictures.stageBackgroundOverlap, 0, 0, game);
 		g.drawImage(game.pictures.stageTimerOverlap, 0, 0, game);
-		int alivePlayers = 0;
-		for (int i = 0; i < game.players.size(); i++)
-			if (game.players.get(i).deadTimer == -1)
-				alivePlayers++;
+		MatchFrame frame = game.getMatchFrame();
+		int alivePlayers = frame.getAlivePlayers();
 		int size = game.players.size();
 		for (int i = 0; i < size; i++) {
 			BufferedImage headImage = game.pictures.characters
@@ -379,7 +594,7 @@ public class Stage {
 			boolean skull = false;
 			if (game.players.get(i).skullTimer > game.currentTimeMillis()
 					&& game.players.get(i).deadTimer == -1) {
-				double count = game.tickcounter;
+				double count = game.window.tickcounter;
 				if (game.players.get(i).skullTimer - game.currentTimeMillis() > 3000) {
 					if ((count > 10 && count <= 20) || (count > 30 && count <= 40)
 							|| (count > 50 && count <= 60) || (count > 70 && count <= 80)
@@ -403,15 +618,7 @@ public class Stage {
 			number.flush();
 			number = null;
 		}
-		long matchEndTime = (long) (game.counter[2] + game.options.time * 60000);
-		long timeLeft = matchEndTime - game.currentTimeMillis();
-		if (game.temp[1].contains("Played Match End"))
-			timeLeft = matchEndTime - Long
-					.parseLong(game.temp[1].split(".Played Match End:")[1].split(":")[0]);
-		timeLeft = timeLeft + 4000; // What's wrong with it, why's it
-									// need this now..
-		if (!game.network.isPlayingOnline())
-			timeLeft += 1450;
+		long timeLeft = frame.getClockTimeLeft();
 		int minutesLeft = (int) Math.floor((double) timeLeft / 60000d);
 		int secondsLeft = (int) Math.floor((double) timeLeft / 1000d) - minutesLeft * 60;
 		int millisLeft = (int) ((long) Math.floor((double) timeLeft / 10d)
@@ -512,7 +719,7 @@ public class Stage {
 				}
 			}
 		}
-		drawEndOfStage(game, objects, g);
+		drawEndOfStage(game, g);
 		if (minutesLeft == 1 && secondsLeft < 10) {
 			long milli = (long) Math.floor((double) timeLeft / 10d) - 6320;
 			float percent = (float) milli / 200f;
@@ -554,9 +761,19 @@ public class Stage {
 		}
 	}
 
-	private void drawEndOfStage(MainBomberman game, ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> objects,
-			Graphics2D g) {
-		objects = bubbleSortObjectsByCellY(objects);
+	/**
+	 * Draws every {@link Player}, {@link Item}, bouncing {@link Bomb} and
+	 * {@link Weight}, top row first so the ones further down overlap the ones
+	 * behind them.
+	 */
+	private void drawEndOfStage(MainBomberman game, Graphics2D g) {
+		ObjectSnapshot snapshot = game.objects.getSnapshot();
+		ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> objects = drawOrder;
+		objects.clear();
+		for (EntityStore.Kind kind : END_OF_STAGE_KINDS)
+			for (int i = 0; i < snapshot.size(kind); i++)
+				objects.add(snapshot.get(kind, i));
+		Collections.sort(objects, CELL_Y_COMPARATOR);
 		for (int i = 0; i < objects.size(); i++)
 			if (objects.get(i) instanceof com.github.vegeto079.saturnbomberman.objects.Player)
 				objects.get(i).draw(g, game);
@@ -582,175 +799,307 @@ public class Stage {
 				com.github.vegeto079.saturnbomberman.objects.Weight weight = (com.github.vegeto079.saturnbomberman.objects.Weight) objects.get(i);
 				weight.draw(g, game);
 			}
+		objects.clear();
 	}
 
-	private static ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> bubbleSortObjectsByCellY(
-			ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> objects) {
-		int j;
-		boolean flag = true;
-		com.github.vegeto079.saturnbomberman.objects.Object temp;
+	/**
+	 * Kinds drawn in {@link #drawEndOfStage(MainBomberman, Graphics2D)}.
+	 */
+	private final static EntityStore.Kind[] END_OF_STAGE_KINDS = { EntityStore.Kind.PLAYER,
+			EntityStore.Kind.ITEM, EntityStore.Kind.BOMB, EntityStore.Kind.WEIGHT };
 
-		while (flag) {
-			flag = false;
-			for (j = 0; j < objects.size() - 1; j++) {
-				try {
-					if (objects.get(j).cellPoint.y > objects.get(j + 1).cellPoint.y) {
-						temp = objects.get(j);
-						objects.set(j, objects.get(j + 1));
-						objects.set(j + 1, temp);
-						flag = true;
-					}
-				} catch (Exception e) {
-					e.printStackTrace();
-					// Maybe one of the objects didn't have a cellPoint?
-				}
+	/**
+	 * Sorts by row, top first. Sorting keeps objects on the same row in the
+	 * order they were in.
+	 */
+	private final static Comparator<com.github.vegeto079.saturnbomberman.objects.Object> CELL_Y_COMPARATOR = new Comparator<com.github.vegeto079.saturnbomberman.objects.Object>() {
+		public int compare(com.github.vegeto079.saturnbomberman.objects.Object o1,
+				com.github.vegeto079.saturnbomberman.objects.Object o2) {
+			int y1 = o1.cellPoint == null ? -1 : o1.cellPoint.y;
+			int y2 = o2.cellPoint == null ? -1 : o2.cellPoint.y;
+			return y1 < y2 ? -1 : (y1 == y2 ? 0 : 1);
+		}
+	};
+
+	/**
+	 * Rebuilds {@link #collisionMask}, and {@link #collisionMaskColumnAt} /
+	 * {@link #collisionMaskRowAt} if they haven't been made yet.
+	 */
+	private void updateCollisionMask(MainBomberman game) {
+		int maskWidth = stage[0].length + 2;
+		int maskHeight = stage.length + 2;
+		if (collisionMaskColumnAt == null) {
+			Point stageOffset = getOffset();
+			collisionMaskColumnAt = getCollisionMaskLookup(maskWidth, stageOffset.x, SQUARE_WIDTH);
+			collisionMaskRowAt = getCollisionMaskLookup(maskHeight, stageOffset.y + 1, SQUARE_HEIGHT);
+		}
+		collisionMaskDirty = false;
+		boolean[] mask = new boolean[maskWidth * maskHeight];
+		for (int i = -1; i <= stage.length; i++)
+			for (int j = -1; j <= stage[0].length; j++) {
+				boolean solid = i < 0 || j < 0 || i > stage.length - 1 || j > stage[0].length - 1
+						|| (stage[i][j] >= 0 && stage[i][j] <= 5);
+				if (!solid)
+					for (com.github.vegeto079.saturnbomberman.objects.Object obj : game.objects.getOnTile(j, i))
+						if (obj instanceof Weight && ((Weight) obj).solid)
+							solid = true;
+				mask[(i + 1) * maskWidth + j + 1] = solid;
 			}
+		collisionMask = mask;
+	}
+
+	/**
+	 * @param tiles
+	 *            Amount of tiles (including the border).
+	 * @param firstTileStart
+	 *            Pixel the first real (non-border) tile's solid square starts at.
+	 * @param tileSize
+	 * @return For every pixel, the first and second tile (-1 if none) whose solid
+	 *         square covers that pixel.
+	 */
+	private static int[][] getCollisionMaskLookup(int tiles, int firstTileStart, int tileSize) {
+		int length = firstTileStart + (tiles - 1) * tileSize + SOLID_TILE_SIZE;
+		int[][] lookup = new int[2][length];
+		for (int i = 0; i < length; i++) {
+			lookup[0][i] = -1;
+			lookup[1][i] = -1;
+		}
+		for (int tile = 0; tile < tiles; tile++) {
+			int start = firstTileStart + (tile - 1) * tileSize;
+			for (int i = Math.max(0, start); i < start + SOLID_TILE_SIZE; i++)
+				if (lookup[0][i] == -1)
+					lookup[0][i] = tile;
+				else
+					lookup[1][i] = tile;
 		}
-		return objects;
+		return lookup;
 	}
 
-	public Area getBoundings(MainBomberman game, Point cellObjPoint, Point middleObjPoint,
-			Player player) {
-		Area boundings = new Area();
-		int diff = 35;
-		int amtToCheckAround = 1;
-		ArrayList<com.github.vegeto079.saturnbomberman.objects.Bomb> bombs = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Bomb>();
-		ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> objects = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Object>(game.objects);
-		for (int i = 0; i < objects.size(); i++)
-			if (objects.get(i) instanceof com.github.vegeto079.saturnbomberman.objects.Bomb) {
-				bombs.add((com.github.vegeto079.saturnbomberman.objects.Bomb) objects.get(i));
-				if (bombs.get(bombs.size() - 1).type.equals(BombType.LAND_MINE))
-					bombs.remove(bombs.size() - 1);
-			}
-		ArrayList<com.github.vegeto079.saturnbomberman.objects.Weight> weights = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Weight>();
-		for (int i = 0; i < objects.size(); i++)
-			if (objects.get(i) instanceof com.github.vegeto079.saturnbomberman.objects.Weight)
-				weights.add((com.github.vegeto079.saturnbomberman.objects.Weight) objects.get(i));
-		for (int i = cellObjPoint.y - amtToCheckAround; i <= cellObjPoint.y
-				+ amtToCheckAround; i++)
-			for (int j = cellObjPoint.x - amtToCheckAround; j <= cellObjPoint.x
-					+ amtToCheckAround; j++)
-				if (i < 0 || j < 0 || i > stage.length - 1 || j > stage[0].length - 1
-						|| (stage[i][j] >= 0 && stage[i][j] <= 5)
-						|| getWeightOnPoint(weights, new Point(j, i)) != null) {
-					Point cellPoint = Stage.getExactTileMidPoint(game, new Point(i, j));
-					cellPoint = new Point(cellPoint.y, cellPoint.x);
-					boundings.add(new Area(new Rectangle(cellPoint.x - diff / 2,
-							cellPoint.y - diff / 2, diff + 2, diff + 2)));
-				} else if (getBombOnPoint(bombs, new Point(j, i)) != null
-						&& cellObjPoint.distance(new Point(j, i)) > 0) {
-					diff = 25;
-					com.github.vegeto079.saturnbomberman.objects.Bomb bomb = getBombOnPoint(bombs, new Point(j, i));
-					ArrayList<Bomb> bombsOnTop = null;
-					boolean onTopOfBomb = false;
-					if (player != null && player.onTopBombs != null) {
-						bombsOnTop = new ArrayList<Bomb>(player.onTopBombs);
-						for (int k = 0; k < bombsOnTop.size(); k++)
-							if (bomb.equals(bombsOnTop.get(k)))
-								onTopOfBomb = true;
-					}
-					if (onTopOfBomb) {
-						// Don't add boundaries to this bomb: we've just placed
-						// it and are still on top of it
-					} else if (bomb.type == BombType.LAND_MINE) {
-						// Don't add boundaries to this bomb: it's a land mine
-					} else {
-						// Point cellPoint = Stage.getExactTileMidPoint(game,
-						// new Point(i, j));
-						// cellPoint = new Point(cellPoint.y, cellPoint.x);
-						Point[] playerCollisionPoints = Player
-								.getCollisionPoints(middleObjPoint);
-						Point topRight = playerCollisionPoints[0];
-						Point bottomLeft = playerCollisionPoints[1];
-						Point bottomRight = playerCollisionPoints[2];
-						Point topLeft = playerCollisionPoints[3];
-
-						Point p = new Point(bomb.exactPoint.toPoint().x + 26,
-								bomb.exactPoint.toPoint().y + 26);
-						Rectangle bounds = new Rectangle(p.x - diff / 2, p.y - diff / 2,
-								diff, diff);
-						if (middleObjPoint.x - p.x <= 0 && (bounds.contains(topRight)
-								|| bounds.contains(bottomRight))) {
-							while (bounds.x < topRight.x)
-								bounds.x += 2;
-							while (bounds.x < bottomRight.x)
-								bounds.x += 2;
-						}
-						if (middleObjPoint.x - p.x >= 0 && (bounds.contains(topLeft)
-								|| bounds.contains(bottomLeft))) {
-							int oldX = bounds.x;
-							while (oldX + bounds.width > topLeft.x)
-								bounds.width -= 2;
-							while (oldX + bounds.width > bottomLeft.x)
-								bounds.width -= 2;
-						}
-						if (middleObjPoint.y - p.y > 0 && (bounds.contains(topLeft)
-								|| bounds.contains(topRight))) {
-							while (bounds.y + bounds.height > topLeft.y)
-								bounds.height -= 2;
-							while (bounds.y + bounds.height > topRight.y)
-								bounds.height -= 2;
-						}
-						if (middleObjPoint.y - p.y <= 0 && (bounds.contains(bottomLeft)
-								|| bounds.contains(bottomRight))) {
-							while (bounds.y < bottomLeft.y)
-								bounds.y += 2;
-							while (bounds.y < bottomRight.y)
-								bounds.y += 2;
-						}
-						boundings.add(new Area(bounds));
-						diff = 35;
-					}
-				}
-		return boundings;
+	/**
+	 * @return Whether or not the given {@link #collisionMask} tile is solid and
+	 *         within one tile of <b>cellObjPoint</b>.
+	 */
+	private boolean isCollisionMaskSolid(Point cellObjPoint, int maskRow, int maskColumn) {
+		if (maskRow == -1 || maskColumn == -1 || Math.abs(maskRow - 1 - cellObjPoint.y) > 1
+				|| Math.abs(maskColumn - 1 - cellObjPoint.x) > 1)
+			return false;
+		return collisionMask[maskRow * (stage[0].length + 2) + maskColumn];
 	}
 
-	private com.github.vegeto079.saturnbomberman.objects.Bomb getBombOnPoint(ArrayList<com.github.vegeto079.saturnbomberman.objects.Bomb> bombs,
-			Point pointToCheck) {
-		for (com.github.vegeto079.saturnbomberman.objects.Bomb obj : bombs)
-			if (obj.cellPoint.distance(pointToCheck) == 0
-					&& !obj.type.equals(BombType.LAND_MINE))
-				return obj;
-		return null;
+	/**
+	 * @return Whether or not the given pixel is inside the solid square of a
+	 *         {@link #collisionMask} tile within one tile of
+	 *         <b>cellObjPoint</b>.
+	 */
+	private boolean isSolid(Point cellObjPoint, int x, int y) {
+		if (x < 0 || y < 0 || x >= collisionMaskColumnAt[0].length || y >= collisionMaskRowAt[0].length)
+			return false;
+		for (int i = 0; i < 2; i++)
+			for (int j = 0; j < 2; j++)
+				if (isCollisionMaskSolid(cellObjPoint, collisionMaskRowAt[i][y], collisionMaskColumnAt[j][x]))
+					return true;
+		return false;
+	}
+
+	/**
+	 * Finds the area a bomb takes up for movement. The area is pushed away from
+	 * whoever is moving near it, so they don't get stuck inside it.
+	 * 
+	 * @param bomb
+	 * @param middleX
+	 *            Middle of the object that's moving (not where it's moving to).
+	 * @param middleY
+	 * @param bounds
+	 *            Filled with x, y, width and height.
+	 */
+	private static void getBombBounds(com.github.vegeto079.saturnbomberman.objects.Bomb bomb, int middleX,
+			int middleY, int[] bounds) {
+		int px = (int) bomb.exactPoint.x + 26;
+		int py = (int) bomb.exactPoint.y + 26;
+		// See Player.getCollisionPoints(Point)
+		int topRightX = middleX + 14, topRightY = middleY - 8;
+		int bottomLeftX = middleX - 9, bottomLeftY = middleY + 14;
+		int bottomRightX = middleX + 14, bottomRightY = middleY + 14;
+		int topLeftX = middleX - 9, topLeftY = middleY - 8;
+		int x = px - BOMB_SIZE / 2, y = py - BOMB_SIZE / 2, width = BOMB_SIZE, height = BOMB_SIZE;
+		if (middleX - px <= 0 && (contains(x, y, width, height, topRightX, topRightY)
+				|| contains(x, y, width, height, bottomRightX, bottomRightY))) {
+			while (x < topRightX)
+				x += 2;
+			while (x < bottomRightX)
+				x += 2;
+		}
+		if (middleX - px >= 0 && (contains(x, y, width, height, topLeftX, topLeftY)
+				|| contains(x, y, width, height, bottomLeftX, bottomLeftY))) {
+			while (x + width > topLeftX)
+				width -= 2;
+			while (x + width > bottomLeftX)
+				width -= 2;
+		}
+		if (middleY - py > 0 && (contains(x, y, width, height, topLeftX, topLeftY)
+				|| contains(x, y, width, height, topRightX, topRightY))) {
+			while (y + height > topLeftY)
+				height -= 2;
+			while (y + height > topRightY)
+				height -= 2;
+		}
+		if (middleY - py <= 0 && (contains(x, y, width, height, bottomLeftX, bottomLeftY)
+				|| contains(x, y, width, height, bottomRightX, bottomRightY))) {
+			while (y < bottomLeftY)
+				y += 2;
+			while (y < bottomRightY)
+				y += 2;
+		}
+		bounds[0] = x;
+		bounds[1] = y;
+		bounds[2] = width;
+		bounds[3] = height;
+	}
+
+	/**
+	 * Same as {@link Rectangle#contains(int, int)}, without needing a
+	 * {@link Rectangle}.
+	 */
+	private static boolean contains(int x, int y, int width, int height, int pointX, int pointY) {
+		return width > 0 && height > 0 && pointX >= x && pointY >= y && pointX < x + width && pointY < y + height;
 	}
 
-	private com.github.vegeto079.saturnbomberman.objects.Weight getWeightOnPoint(ArrayList<com.github.vegeto079.saturnbomberman.objects.Weight> weights,
-			Point pointToCheck) {
-		for (com.github.vegeto079.saturnbomberman.objects.Weight obj : weights)
-			if (obj.cellPoint.distance(pointToCheck) == 0 && obj.solid)
-				return obj;
+	/**
+	 * @return Whether or not the given player has just placed the given bomb and
+	 *         is still on top of it, meaning they can walk through it.
+	 */
+	private static boolean isOnTopOfBomb(Player player, com.github.vegeto079.saturnbomberman.objects.Bomb bomb) {
+		if (player == null)
+			return false;
+		ArrayList<Bomb> bombsOnTop = player.onTopBombs;
+		if (bombsOnTop == null)
+			return false;
+		for (int k = 0; k < bombsOnTop.size(); k++)
+			if (bomb.equals(bombsOnTop.get(k)))
+				return true;
+		return false;
+	}
+
+	/**
+	 * @return The first non-land mine bomb on the given tile, or <b>null</b>.
+	 */
+	private static com.github.vegeto079.saturnbomberman.objects.Bomb getBombOnPoint(MainBomberman game, int x,
+			int y) {
+		com.github.vegeto079.saturnbomberman.objects.Bomb bomb = game.objects.getFirstOnTile(x, y,
+				com.github.vegeto079.saturnbomberman.objects.Bomb.class);
+		if (bomb == null || !bomb.type.equals(BombType.LAND_MINE))
+			return bomb;
+		for (com.github.vegeto079.saturnbomberman.objects.Object obj : game.objects.getOnTile(x, y))
+			if (obj instanceof com.github.vegeto079.saturnbomberman.objects.Bomb
+					&& !((com.github.vegeto079.saturnbomberman.objects.Bomb) obj).type.equals(BombType.LAND_MINE))
+				return (com.github.vegeto079.saturnbomberman.objects.Bomb) obj;
 		return null;
 	}
 
+	/**
+	 * Checks whether an object moving to (<b>x</b>,<b>y</b>) would hit anything.
+	 * Only tiles within one tile of <b>cellObjPoint</b> are checked. Doesn't
+	 * create any objects.
+	 * 
+	 * @param game
+	 * @param cellObjPoint
+	 *            Tile the moving object is on.
+	 * @param middleX
+	 *            Middle of the moving object right now.
+	 * @param middleY
+	 * @param x
+	 *            Middle of the moving object where it wants to move to.
+	 * @param y
+	 * @param player
+	 *            The moving player, or <b>null</b> if it's not a player.
+	 * @return <b>true</b> if the moving object or any of its collision points
+	 *         (see {@link Player#getCollisionPoints(Point)}) hit something.
+	 */
+	public boolean collides(MainBomberman game, Point cellObjPoint, int middleX, int middleY, int x, int y,
+			Player player) {
+		if (collisionMaskDirty || collisionMask == null)
+			updateCollisionMask(game);
+		if (isSolid(cellObjPoint, x, y) || isSolid(cellObjPoint, x + 14, y - 8)
+				|| isSolid(cellObjPoint, x - 9, y + 14) || isSolid(cellObjPoint, x + 14, y + 14)
+				|| isSolid(cellObjPoint, x - 9, y - 8))
+			return true;
+		int maskWidth = stage[0].length + 2;
+		for (int i = cellObjPoint.y - 1; i <= cellObjPoint.y + 1; i++)
+			for (int j = cellObjPoint.x - 1; j <= cellObjPoint.x + 1; j++) {
+				if ((i == cellObjPoint.y && j == cellObjPoint.x) || i < -1 || j < -1 || i > stage.length
+						|| j > stage[0].length || collisionMask[(i + 1) * maskWidth + j + 1])
+					continue;
+				com.github.vegeto079.saturnbomberman.objects.Bomb bomb = getBombOnPoint(game, j, i);
+				if (bomb == null || isOnTopOfBomb(player, bomb))
+					continue;
+				int[] b = bombBoundsBuffer;
+				getBombBounds(bomb, middleX, middleY, b);
+				if (contains(b[0], b[1], b[2], b[3], x, y) || contains(b[0], b[1], b[2], b[3], x + 14, y - 8)
+						|| contains(b[0], b[1], b[2], b[3], x - 9, y + 14)
+						|| contains(b[0], b[1], b[2], b[3], x + 14, y + 14)
+						|| contains(b[0], b[1], b[2], b[3], x - 9, y - 8))
+					return true;
+			}
+		return false;
+	}
+
+	/**
+	 * Only used to draw collisions while debugging; movement uses
+	 * {@link #collides(MainBomberman, Point, int, int, int, int, Player)}.
+	 * 
+	 * @return Everything <b>player</b> can collide with near
+	 *         <b>cellObjPoint</b>.
+	 */
+	public Area getBoundings(MainBomberman game, Point cellObjPoint, Point middleObjPoint,
+			Player player) {
+		if (collisionMaskDirty || collisionMask == null)
+			updateCollisionMask(game);
+		Area boundings = new Area();
+		Point stageOffset = getOffset();
+		int maskWidth = stage[0].length + 2;
+		for (int i = cellObjPoint.y - 1; i <= cellObjPoint.y + 1; i++)
+			for (int j = cellObjPoint.x - 1; j <= cellObjPoint.x + 1; j++) {
+				if (i < -1 || j < -1 || i > stage.length || j > stage[0].length)
+					continue;
+				if (collisionMask[(i + 1) * maskWidth + j + 1]) {
+					boundings.add(new Area(new Rectangle(stageOffset.x + j * SQUARE_WIDTH,
+							stageOffset.y + 1 + i * SQUARE_HEIGHT, SOLID_TILE_SIZE, SOLID_TILE_SIZE)));
+				} else if (i != cellObjPoint.y || j != cellObjPoint.x) {
+					com.github.vegeto079.saturnbomberman.objects.Bomb bomb = getBombOnPoint(game, j, i);
+					if (bomb == null || isOnTopOfBomb(player, bomb))
+						continue;
+					int[] b = new int[4];
+					getBombBounds(bomb, middleObjPoint.x, middleObjPoint.y, b);
+					if (b[2] > 0 && b[3] > 0)
+						boundings.add(new Area(new Rectangle(b[0], b[1], b[2], b[3])));
+				}
+			}
+		return boundings;
+	}
+
 	public static boolean canMove(int direction, DoublePoint ourCenterPoint,
 			double movingX, double movingY, MainBomberman game, Point cellObjPoint,
 			Player player) {
-		DoublePoint movingToPointD = new DoublePoint(ourCenterPoint.x + movingX,
-				ourCenterPoint.y + movingY);
-		Point movingToPoint = movingToPointD.toPoint();
-		Point topRightPoint = Player.getCollisionPoints(movingToPoint)[0];
-		Point bottomLeftPoint = Player.getCollisionPoints(movingToPoint)[1];
-		Point bottomRightPoint = Player.getCollisionPoints(movingToPoint)[2];
-		Point topLeftPoint = Player.getCollisionPoints(movingToPoint)[3];
-		Rectangle boundingBox = new Rectangle(topLeftPoint.x, topLeftPoint.y,
-				bottomRightPoint.x - topLeftPoint.x, bottomRightPoint.y - topLeftPoint.y);
-		Area bounds = game.stage.getBoundings(game, cellObjPoint,
-				ourCenterPoint.toPoint(), player);
-		if (bounds.contains(movingToPoint) || bounds.contains(topRightPoint)
-				|| bounds.contains(bottomLeftPoint) || bounds.contains(bottomRightPoint)
-				|| bounds.contains(topLeftPoint) || bounds.contains(boundingBox))
-			return false;
-		return true;
+		return !game.stage.collides(game, cellObjPoint, (int) ourCenterPoint.x, (int) ourCenterPoint.y,
+				(int) (ourCenterPoint.x + movingX), (int) (ourCenterPoint.y + movingY), player);
 	}
 
 	public void drawCollisionMap(Graphics2D g, MainBomberman game) {
 		getCollisionMap(game);
 		g.setFont(game.defaultFont);
+		long now = game.currentTimeMillis();
 		for (int i = 0; i < lastCollisionMap.length; i++)
 			for (int j = 0; j < lastCollisionMap[i].length; j++) {
 				String text = "" + lastCollisionMap[i][j];
 				int width = Tools.getTextWidth(g, text);
 				Point mid = Stage.getExactTileMidPoint(game, new Point(j, i));
+				if (fireGrid.isBurning(j, i, now)) {
+					g.setColor(fireGrid.isDeadly(j, i, now) ? new Color(255, 64, 0, 96) : new Color(255, 192, 0, 64));
+					g.fillRect(mid.x - SQUARE_WIDTH / 2, mid.y - SQUARE_HEIGHT / 2, SQUARE_WIDTH, SQUARE_HEIGHT);
+					String fireText = "" + fireGrid.getRemaining(j, i, now);
+					g.setColor(Color.YELLOW);
+					g.drawString(fireText, mid.x - Tools.getTextWidth(g, fireText) / 2, mid.y);
+				}
 				g.setColor(Color.BLACK);
 				g.drawString(text, mid.x - width / 2 + 1, mid.y + 13);
 				g.setColor(Color.WHITE);
@@ -758,99 +1107,366 @@ public class Stage {
 			}
 	}
 
-	public long[][] getCollisionMap(MainBomberman game) {
-		if (game.currentTimeMillis()
-				- lastCollisionMapUpdate >= timeBetweenCollisionMapUpdates)
-			updateCollisionMap(game);
+	/**
+	 * @param game
+	 * @return The current collision map, [row][column]:<br>
+	 *         -1: empty, -2: solid, -3: block, -4: player, -10 and lower:
+	 *         item, 100000: bomb, 0 and above: time until dangerous.<br>
+	 *         Don't change the map given, it's shared by everyone until
+	 *         {@link #getCollisionMapVersion()} changes.
+	 */
+	public synchronized long[][] getCollisionMap(MainBomberman game) {
+		boolean changed = updateBaseCollisionMap(game);
+		if (lastCollisionMap == null || blastTilesChanged || fireGrid.getVersion() != collisionMapFireVersion
+				|| game.currentTimeMillis() - lastCollisionMapUpdate >= timeBetweenCollisionMapUpdates
+				|| dangerMoved(game))
+			publishCollisionMap(game);
+		else if (changed)
+			// Only players moved, just redo their tiles
+			patchCollisionMap(game);
+		else
+			return lastCollisionMap;
+		changedBaseTiles.clear();
+		blastTilesChanged = false;
 		return lastCollisionMap;
 	}
 
-	public void updateCollisionMap(MainBomberman game) {
-		long[][] collisionMap = new long[stage.length][stage[0].length];
-		for (int i = 0; i < stage.length; i++)
-			for (int j = 0; j < stage[i].length; j++)
-				if (stage[i][j] == -1) { // Empty space
-					collisionMap[i][j] = -1;
-				} else if (stage[i][j] == 0) { // Solid
-					collisionMap[i][j] = -2;
-				} else if (stage[i][j] == 1) { // Explodable
-					collisionMap[i][j] = -3;
+	/**
+	 * @return Which collision map {@link #getCollisionMap(MainBomberman)} is
+	 *         currently giving out. Goes up every time it is rebuilt.
+	 */
+	public long getCollisionMapVersion() {
+		return collisionMapVersion;
+	}
+
+	/**
+	 * Rebuilds the whole collision map from scratch.
+	 * 
+	 * @param game
+	 */
+	public synchronized void updateCollisionMap(MainBomberman game) {
+		collisionMapAllDirty = true;
+		updateBaseCollisionMap(game);
+		publishCollisionMap(game);
+		changedBaseTiles.clear();
+		blastTilesChanged = false;
+	}
+
+	/**
+	 * Rebuilds every tile of {@link #baseCollisionMap} that has changed, and
+	 * adds the ones that came out different to {@link #changedBaseTiles}.
+	 * 
+	 * @param game
+	 * @return Whether or not any tile came out different.
+	 */
+	private boolean updateBaseCollisionMap(MainBomberman game) {
+		if (baseCollisionMap == null || baseCollisionMap.length != stage.length
+				|| baseCollisionMap[0].length != stage[0].length) {
+			baseCollisionMap = new long[stage.length][stage[0].length];
+			collisionMapDirty = new boolean[stage.length][stage[0].length];
+			collisionMapAllDirty = true;
+		}
+		game.objects.pollChangedTiles(collisionMapDirty);
+		if (collisionMapAllDirty) {
+			collisionMapAllDirty = false;
+			for (int i = 0; i < collisionMapDirty.length; i++)
+				for (int j = 0; j < collisionMapDirty[i].length; j++)
+					collisionMapDirty[i][j] = true;
+		}
+		for (int i = 0; i < collisionMapDirty.length; i++)
+			for (int j = 0; j < collisionMapDirty[i].length; j++)
+				if (collisionMapDirty[i][j]) {
+					collisionMapDirty[i][j] = false;
+					long old = baseCollisionMap[i][j];
+					baseCollisionMap[i][j] = getBaseCollisionValue(game, i, j);
+					if (old != baseCollisionMap[i][j]) {
+						changedBaseTiles.add(i * baseCollisionMap[i].length + j);
+						if (isBlastTile(old) || isBlastTile(baseCollisionMap[i][j]))
+							blastTilesChanged = true;
+					}
 				}
-		ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> objects = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Object>(game.objects);
-		for (com.github.vegeto079.saturnbomberman.objects.Object obj : objects) {
-			if (obj.cellPoint.x == -1 || obj.cellPoint.y == -1)
-				continue;
+		return !changedBaseTiles.isEmpty();
+	}
+
+	/**
+	 * @return Whether this {@link #baseCollisionMap} value changes how far
+	 *         fire goes: a wall (or landed weight), block or item. Also true
+	 *         for 0, which a new map starts out with.
+	 */
+	private static boolean isBlastTile(long value) {
+		return value == -2 || value == -3 || value <= -10 || value == 0;
+	}
+
+	/**
+	 * @param game
+	 * @param i
+	 *            Row
+	 * @param j
+	 *            Column
+	 * @return What {@link #baseCollisionMap} should have on this tile.
+	 */
+	private long getBaseCollisionValue(MainBomberman game, int i, int j) {
+		long value = 0;
+		if (stage[i][j] == -1) { // Empty space
+			value = -1;
+		} else if (stage[i][j] == 0) { // Solid
+			value = -2;
+		} else if (stage[i][j] == 1) { // Explodable
+			value = -3;
+		}
+		boolean player = false, item = false;
+		long itemValue = 0;
+		for (com.github.vegeto079.saturnbomberman.objects.Object obj : game.objects.getOnTile(j, i)) {
 			if (obj instanceof Weight) {
-				Weight weight = (Weight) obj;
-				if (weight.solid)
-					collisionMap[weight.cellPoint.y][weight.cellPoint.x] = -2;
-				// -2: solid, cant move there
-				else {
-					long timeTillFallDown = weight.getTimeTillExplosion(game);
-					if (timeTillFallDown != -1)
-						collisionMap[weight.cellPoint.y][weight.cellPoint.x] = timeTillFallDown;
-					// above 0: time till dangerous
-				}
+				if (((Weight) obj).solid)
+					return -2; // -2: solid, cant move there
 			} else if (obj instanceof Player) {
-				Player player = (Player) obj;
-				if (player.deadTimer == -1) // not dead
-					collisionMap[player.cellPoint.y][player.cellPoint.x] = -4;
-				// -4: player
+				if (((Player) obj).deadTimer == -1) // not dead
+					player = true;
 			} else if (obj instanceof Item) {
-				Item item = (Item) obj;
-				if (item.visible && item.collectable)
-					collisionMap[item.cellPoint.y][item.cellPoint.x] = -10
-							- item.getType().ordinal();
-				// -10+: items
+				Item it = (Item) obj;
+				if (it.visible && it.collectable) {
+					item = true;
+					itemValue = -10 - it.getType().ordinal();
+				}
 			}
 		}
-		for (com.github.vegeto079.saturnbomberman.objects.Object obj : objects)
-			if (obj instanceof Bomb) {
-				// Handle bombs after everything else: their danger is most
-				// important
-				Bomb bomb = (Bomb) obj;
-				// if (collisionMap[bomb.cellPoint.y][bomb.cellPoint.x] == -4)
-				// collisionMap[bomb.cellPoint.y][bomb.cellPoint.x] = 1000;
-				// else
-				try {
-					collisionMap[bomb.cellPoint.y][bomb.cellPoint.x] = 100000;
-				} catch (Exception e) {
-					// Bomb bouncing off map?
-					continue;
-				}
-				// above 0: time till dangerous
-				try {
-					ArrayList<long[]> explosionPoints = bomb.getExplosionPoints();
-					for (long[] explosionPoint : explosionPoints) {
-						int x = (int) explosionPoint[1];
-						int y = (int) explosionPoint[0];
-						if (collisionMap[x][y] != -2 && collisionMap[x][y] != -3
-								&& collisionMap[x][y] != 100000)
-							collisionMap[x][y] = explosionPoint[2];
-					}
-				} catch (Exception e) {
-					// Some issue getting points, just ignore
-				}
+		if (item)
+			return itemValue; // -10+: items
+		if (player)
+			return -4; // -4: player
+		return value;
+	}
+
+	/**
+	 * Works out the danger of every falling weight and bomb, and the fire in
+	 * {@link #fireGrid}, lays it on top of {@link #baseCollisionMap} and
+	 * gives it out as the new {@link #lastCollisionMap}. What's laid on each
+	 * tile is kept (see {@link #weightDanger}), so
+	 * {@link #patchCollisionMap(MainBomberman)} can redo single tiles later.
+	 * 
+	 * @param game
+	 */
+	private void publishCollisionMap(MainBomberman game) {
+		int rows = baseCollisionMap.length, columns = baseCollisionMap[0].length;
+		if (weightDanger == null || weightDanger.length != rows || weightDanger[0].length != columns) {
+			weightDanger = new long[rows][columns];
+			explosionDanger = new long[rows][columns];
+			bombOn = new boolean[rows][columns];
+			fireOn = new boolean[rows][columns];
+		}
+		for (int i = 0; i < rows; i++) {
+			Arrays.fill(weightDanger[i], NO_DANGER);
+			Arrays.fill(explosionDanger[i], NO_DANGER);
+			Arrays.fill(bombOn[i], false);
+		}
+		dangerObjects.clear();
+		dangerCells.clear();
+		ObjectSnapshot snapshot = game.objects.getSnapshot();
+		for (int w = 0; w < snapshot.size(EntityStore.Kind.WEIGHT); w++) {
+			Weight weight = (Weight) snapshot.get(EntityStore.Kind.WEIGHT, w);
+			rememberDanger(weight, weight.solid);
+			if (weight.solid || weight.cellPoint.x == -1 || weight.cellPoint.y == -1)
+				continue;
+			long timeTillFallDown = weight.getTimeTillExplosion(game);
+			if (timeTillFallDown != -1)
+				weightDanger[weight.cellPoint.y][weight.cellPoint.x] = timeTillFallDown;
+			// above 0: time till dangerous
+		}
+		for (int b = 0; b < snapshot.size(EntityStore.Kind.BOMB); b++) {
+			// Handle bombs after everything else: their danger is most
+			// important
+			Bomb bomb = (Bomb) snapshot.get(EntityStore.Kind.BOMB, b);
+			rememberDanger(bomb, false);
+			if (bomb.cellPoint.x == -1 || bomb.cellPoint.y == -1)
+				continue;
+			try {
+				bombOn[bomb.cellPoint.y][bomb.cellPoint.x] = true;
+			} catch (Exception e) {
+				// Bomb bouncing off map?
+				continue;
 			}
+			// above 0: time till dangerous
+			try {
+				ArrayList<long[]> explosionPoints = bomb.getExplosionPoints();
+				for (long[] explosionPoint : explosionPoints)
+					explosionDanger[(int) explosionPoint[1]][(int) explosionPoint[0]] = explosionPoint[2];
+			} catch (Exception e) {
+				// Some issue getting points, just ignore
+			}
+		}
+		collisionMapFireVersion = fireGrid.getVersion();
+		long now = game.currentTimeMillis();
+		long[][] collisionMap = new long[rows][columns];
+		for (int i = 0; i < rows; i++)
+			for (int j = 0; j < columns; j++) {
+				fireOn[i][j] = fireGrid.isBurning(j, i, now);
+				collisionMap[i][j] = getCollisionValue(i, j);
+			}
+		BitBoard[] newLayers = new BitBoard[Layer.values().length];
+		for (int i = 0; i < newLayers.length; i++)
+			newLayers[i] = new BitBoard();
+		for (int i = 0; i < collisionMap.length; i++)
+			for (int j = 0; j < collisionMap[i].length; j++) {
+				long value = collisionMap[i][j];
+				if (value == -2)
+					newLayers[Layer.WALLS.ordinal()].set(j, i);
+				else if (value == -3)
+					newLayers[Layer.BLOCKS.ordinal()].set(j, i);
+				else if (value == 100000)
+					newLayers[Layer.BOMBS.ordinal()].set(j, i);
+				else if (value >= 0 && value != baseCollisionMap[i][j])
+					newLayers[Layer.FIRE.ordinal()].set(j, i);
+				else if (value <= -10)
+					newLayers[Layer.ITEMS.ordinal()].set(j, i);
+			}
+		newLayers[Layer.PLAYERS.ordinal()] = getPlayersLayer(game);
+		layers = newLayers;
 		lastCollisionMap = collisionMap;
+		lastCollisionMapUpdate = game.currentTimeMillis();
+		collisionMapVersion++;
 	}
 
-	public static ArrayList<Player> getPlayersOnTile(Point tile, MainBomberman game) {
-		ArrayList<Player> players = new ArrayList<Player>();
-		for (int i = 0; i < game.players.size(); i++)
-			if (game.players.get(i).getCellPoint().distance(tile) == 0)
-				players.add(game.players.get(i));
+	/**
+	 * Gives out a new {@link #lastCollisionMap} with only the tiles in
+	 * {@link #changedBaseTiles} worked out again, on top of the danger laid by
+	 * the last {@link #publishCollisionMap(MainBomberman)}. Rows that didn't
+	 * change are shared with the last map. Only used when those tiles went
+	 * between empty and having a player on them, which doesn't change any
+	 * bomb's fire or any layer but {@link Layer#PLAYERS}.
+	 * 
+	 * @param game
+	 */
+	private void patchCollisionMap(MainBomberman game) {
+		long[][] collisionMap = lastCollisionMap.clone();
+		boolean[] rowCopied = new boolean[collisionMap.length];
+		for (int c = 0; c < changedBaseTiles.size(); c++) {
+			int tile = changedBaseTiles.get(c);
+			int i = tile / baseCollisionMap[0].length, j = tile % baseCollisionMap[0].length;
+			if (!rowCopied[i]) {
+				collisionMap[i] = collisionMap[i].clone();
+				rowCopied[i] = true;
+			}
+			collisionMap[i][j] = getCollisionValue(i, j);
+		}
+		BitBoard[] newLayers = layers.clone();
+		newLayers[Layer.PLAYERS.ordinal()] = getPlayersLayer(game);
+		layers = newLayers;
+		lastCollisionMap = collisionMap;
+		collisionMapVersion++;
+	}
+
+	/**
+	 * @param i
+	 *            Row
+	 * @param j
+	 *            Column
+	 * @return What {@link #lastCollisionMap} should have on this tile:
+	 *         {@link #baseCollisionMap} with the danger from the last
+	 *         {@link #publishCollisionMap(MainBomberman)} on top.
+	 */
+	private long getCollisionValue(int i, int j) {
+		long value = baseCollisionMap[i][j];
+		if (weightDanger[i][j] != NO_DANGER)
+			value = weightDanger[i][j];
+		if (bombOn[i][j])
+			return 100000;
+		if (explosionDanger[i][j] != NO_DANGER && value != -2 && value != -3)
+			value = explosionDanger[i][j];
+		if (fireOn[i][j] && value != -2 && value != -3)
+			value = 0; // On fire: dangerous now
+		return value;
+	}
+
+	private BitBoard getPlayersLayer(MainBomberman game) {
+		BitBoard players = new BitBoard();
+		for (Player player : game.players)
+			if (player.deadTimer == -1)
+				players.set(player.getCellX(), player.getCellY());
 		return players;
 	}
 
+	/**
+	 * Adds a bomb or weight to {@link #dangerObjects}, and where it is (and
+	 * whether it's landed) to {@link #dangerCells}.
+	 */
+	private void rememberDanger(com.github.vegeto079.saturnbomberman.objects.Object obj, boolean landed) {
+		dangerObjects.add(obj);
+		dangerCells.add(obj.cellPoint.x * 1000 + obj.cellPoint.y * 2 + (landed ? 1 : 0));
+	}
+
+	/**
+	 * @return Whether any bomb or weight has been added, removed, moved or has
+	 *         landed since the last {@link #publishCollisionMap(MainBomberman)}.
+	 */
+	private boolean dangerMoved(MainBomberman game) {
+		ObjectSnapshot snapshot = game.objects.getSnapshot();
+		int count = 0;
+		for (int w = 0; w < snapshot.size(EntityStore.Kind.WEIGHT); w++, count++) {
+			Weight weight = (Weight) snapshot.get(EntityStore.Kind.WEIGHT, w);
+			if (count >= dangerObjects.size() || dangerObjects.get(count) != weight || dangerCells
+					.get(count) != weight.cellPoint.x * 1000 + weight.cellPoint.y * 2 + (weight.solid ? 1 : 0))
+				return true;
+		}
+		for (int b = 0; b < snapshot.size(EntityStore.Kind.BOMB); b++, count++) {
+			Bomb bomb = (Bomb) snapshot.get(EntityStore.Kind.BOMB, b);
+			if (count >= dangerObjects.size() || dangerObjects.get(count) != bomb
+					|| dangerCells.get(count) != bomb.cellPoint.x * 1000 + bomb.cellPoint.y * 2)
+				return true;
+		}
+		return count != dangerObjects.size();
+	}
+
+	/**
+	 * Makes a new {@link AIWorld} if the collision map has changed since the
+	 * last one. Meant to be called by the game thread once per tick.
+	 * 
+	 * @param game
+	 * @return The up to date {@link AIWorld}.
+	 */
+	public synchronized AIWorld updateWorld(MainBomberman game) {
+		getCollisionMap(game);
+		if (world == null || world.version != collisionMapVersion)
+			world = new AIWorld(collisionMapVersion, lastCollisionMapUpdate, lastCollisionMap, layers);
+		return world;
+	}
+
+	/**
+	 * @param game
+	 * @return The latest {@link AIWorld} made by
+	 *         {@link #updateWorld(MainBomberman)}. Doesn't look at the stage or
+	 *         objects unless there isn't one yet.
+	 */
+	public AIWorld getWorld(MainBomberman game) {
+		AIWorld current = world;
+		if (current == null)
+			current = updateWorld(game);
+		return current;
+	}
+
+	/**
+	 * @param game
+	 * @param layer
+	 * @return A copy of the given layer of the current collision map, see
+	 *         {@link #getCollisionMap(MainBomberman)}.
+	 */
+	public synchronized BitBoard getLayer(MainBomberman game, Layer layer) {
+		getCollisionMap(game);
+		return layers[layer.ordinal()].copy();
+	}
+
+	public static ArrayList<Player> getPlayersOnTile(Point tile, MainBomberman game) {
+		return game.objects.getPlayersOnTile(tile, game);
+	}
+
 	public static ArrayList<Player> getAlivePlayersOnTileExcludingPlayer(Point tile,
 			Player excludePlayer, MainBomberman game) {
-		ArrayList<Player> players = new ArrayList<Player>();
-		for (int i = 0; i < game.players.size(); i++)
-			if (game.players.get(i).getCellPoint().distance(tile) == 0
-					&& !game.players.get(i).equals(excludePlayer)
-					&& game.players.get(i).deadTimer == -1)
-				players.add(game.players.get(i));
+		ArrayList<Player> players = game.objects.getPlayersOnTile(tile, game);
+		for (int i = 0; i < players.size(); i++)
+			if (players.get(i).equals(excludePlayer) || players.get(i).deadTimer != -1) {
+				players.remove(i);
+				i--;
+			}
 		return players;
 	}
 
@@ -861,4 +1477,4 @@ public class Stage {
 				return true;
 		return false;
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
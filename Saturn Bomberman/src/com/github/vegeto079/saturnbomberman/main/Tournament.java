@@ -0,0 +1,344 @@
+package com.github.vegeto079.saturnbomberman.main;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.github.vegeto079.saturnbomberman.misc.AI;
+import com.github.vegeto079.saturnbomberman.objects.Player;
+
+/**
+ * Plays lots of {@link HeadlessMatch}es between different {@link AI} levels
+ * and settings, one match per core at once, and adds up how each of them did
+ * using every {@link Player}'s {@link Player.Stats}.<br>
+ * Everything about a match (how many players, who sits where, the match
+ * itself) comes from the tournament's seed and the match's number, so the same
+ * arguments should always give the same results, no matter how many threads
+ * are used or what order matches finish in. The fingerprint printed at the end changes
+ * if any match plays out differently.<br>
+ * Arguments: <b>[verify] [matches] [seed] [minPlayers] [maxPlayers] [stage]
+ * [threads] [contestant...]</b><br>
+ * With <b>verify</b> first, every match is played a second time on a
+ * different amount of threads (see {@link #verify(int, int, long)}), and we
+ * exit with 1 if the fingerprints don't match, so the claim above can be
+ * checked after changing anything the matches use.<br>
+ * A contestant is an AI level, optionally followed by settings to change, ie.
+ * <b>6:playerHunterLevel=3:distanceModifier=8:kickBombsToStayAlive=false</b>.
+ * Threads of 0 uses every core.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ * @version 1.01: Ticks counted through {@link MainBomberman#clock}.
+ */
+public class Tournament {
+	/**
+	 * An {@link AI} level and any settings changed from what that level
+	 * normally picks, plus how it's done so far.
+	 */
+	public static class Contestant {
+		public final String name;
+		public final int level;
+		/**
+		 * Settings to change, -1 (or <b>null</b>) to leave as the level picks.
+		 */
+		public int playerHunterLevel = -1;
+		public Boolean walkToBombPointProactively = null;
+		public int distanceModifier = -1;
+		public float walkingThroughFireMultiplier = -1;
+		public Boolean kickBombsToStayAlive = null;
+
+		public int matches = 0;
+		public int wins = 0;
+		public int losses = 0;
+		public int draws = 0;
+		public int kills = 0;
+		public int suicides = 0;
+		/**
+		 * Times killed by another player.
+		 */
+		public int killed = 0;
+		/**
+		 * Times killed by something other than a player (ie. a weight).
+		 */
+		public int environmentalDeaths = 0;
+
+		/**
+		 * @param description
+		 *            Level, then any settings as <b>:name=value</b>.
+		 */
+		public Contestant(String description) {
+			name = description;
+			String[] parts = description.split(":");
+			level = Integer.parseInt(parts[0]);
+			for (int i = 1; i < parts.length; i++) {
+				String[] setting = parts[i].split("=");
+				if (setting.length != 2)
+					throw new IllegalArgumentException("Unknown setting: " + parts[i]);
+				if (setting[0].equals("playerHunterLevel"))
+					playerHunterLevel = Integer.parseInt(setting[1]);
+				else if (setting[0].equals("walkToBombPointProactively"))
+					walkToBombPointProactively = Boolean.parseBoolean(setting[1]);
+				else if (setting[0].equals("distanceModifier"))
+					distanceModifier = Integer.parseInt(setting[1]);
+				else if (setting[0].equals("walkingThroughFireMultiplier"))
+					walkingThroughFireMultiplier = Float.parseFloat(setting[1]);
+				else if (setting[0].equals("kickBombsToStayAlive"))
+					kickBombsToStayAlive = Boolean.parseBoolean(setting[1]);
+				else
+					throw new IllegalArgumentException("Unknown setting: " + setting[0]);
+			}
+		}
+
+		/**
+		 * @return A new {@link AI} of our level, with our settings.
+		 */
+		public AI makeAI(MainBomberman game, Player player) {
+			AI ai = new AI(game, player, level);
+			if (playerHunterLevel != -1)
+				ai.playerHunterLevel = playerHunterLevel;
+			if (walkToBombPointProactively != null)
+				ai.walkToBombPointProactively = walkToBombPointProactively;
+			if (distanceModifier != -1)
+				ai.distanceModifier = distanceModifier;
+			if (walkingThroughFireMultiplier != -1)
+				ai.walkingThroughFireMultiplier = walkingThroughFireMultiplier;
+			if (kickBombsToStayAlive != null)
+				ai.kickBombsToStayAlive = kickBombsToStayAlive;
+			return ai;
+		}
+
+		public int getWinPercent() {
+			return matches == 0 ? 0 : (int) ((float) wins / (float) matches * 100f);
+		}
+	}
+
+	/**
+	 * How one match went.
+	 */
+	public static class MatchResult {
+		public long seed;
+		/**
+		 * Which {@link Contestant} sat in each seat.
+		 */
+		public int[] contestants;
+		public int winner = -1;
+		public long ticks = 0;
+		/**
+		 * For each seat, other players killed.
+		 */
+		public int[] kills;
+		/**
+		 * For each seat, who killed them: -1 if nobody, the seat itself if it
+		 * was a suicide, {@link Integer#MAX_VALUE} if not a player.
+		 */
+		public int[] killedBy;
+		/**
+		 * How long it took, in ms.
+		 */
+		public long time = 0;
+	}
+
+	public final ArrayList<Contestant> contestants = new ArrayList<Contestant>();
+	public long seed = 1;
+	public int minPlayers = 2;
+	public int maxPlayers = 4;
+	public int stage = 1;
+
+	/**
+	 * @param match
+	 *            Number of the match in the tournament.
+	 * @return Seed the match is played with.
+	 */
+	public long getMatchSeed(int match) {
+		return seed + match;
+	}
+
+	/**
+	 * Plays one match. Safe to call from any thread: every match has its own
+	 * {@link MainBomberman}.
+	 */
+	public MatchResult play(int match) {
+		long start = System.currentTimeMillis();
+		MatchResult result = new MatchResult();
+		result.seed = getMatchSeed(match);
+		Random random = new Random(result.seed);
+		int playerAmt = minPlayers + random.nextInt(maxPlayers - minPlayers + 1);
+		result.contestants = new int[playerAmt];
+		for (int i = 0; i < playerAmt; i++)
+			result.contestants[i] = (match + i) % contestants.size();
+		HeadlessMatch headlessMatch = new HeadlessMatch(result.seed, playerAmt, 5, stage);
+		MainBomberman game = headlessMatch.game;
+		for (int i = 0; i < playerAmt; i++) {
+			Player player = game.players.get(i);
+			player.ai = contestants.get(result.contestants[i]).makeAI(game, player);
+		}
+		long startTick = game.clock.getTick();
+		result.winner = headlessMatch.run();
+		result.ticks = game.clock.getTick() - startTick;
+		result.kills = new int[playerAmt];
+		result.killedBy = new int[playerAmt];
+		for (int i = 0; i < playerAmt; i++) {
+			Player.Stats stats = game.players.get(i).stats;
+			result.kills[i] = stats.getThisStageKilledPlayersAmt();
+			result.killedBy[i] = stats.getThisStageKilledByPlayer();
+			if (result.winner == -1)
+				stats.increaseDraws();
+		}
+		result.time = System.currentTimeMillis() - start;
+		return result;
+	}
+
+	/**
+	 * Adds a finished match to each {@link Contestant}'s totals.
+	 */
+	public void add(MatchResult result) {
+		for (int i = 0; i < result.contestants.length; i++) {
+			Contestant contestant = contestants.get(result.contestants[i]);
+			contestant.matches++;
+			if (result.winner == -1)
+				contestant.draws++;
+			else if (result.winner == i)
+				contestant.wins++;
+			else
+				contestant.losses++;
+			contestant.kills += result.kills[i];
+			if (result.killedBy[i] == i)
+				contestant.suicides++;
+			else if (result.killedBy[i] == Integer.MAX_VALUE)
+				contestant.environmentalDeaths++;
+			else if (result.killedBy[i] != -1)
+				contestant.killed++;
+		}
+	}
+
+	/**
+	 * @return A number that's different if any match played out differently.
+	 */
+	public static long getFingerprint(ArrayList<MatchResult> results) {
+		long fingerprint = 17;
+		for (MatchResult result : results) {
+			fingerprint = fingerprint * 31 + result.seed;
+			fingerprint = fingerprint * 31 + result.winner;
+			fingerprint = fingerprint * 31 + result.ticks;
+			for (int i = 0; i < result.contestants.length; i++) {
+				fingerprint = fingerprint * 31 + result.kills[i];
+				fingerprint = fingerprint * 31 + result.killedBy[i];
+			}
+		}
+		return fingerprint;
+	}
+
+	/**
+	 * @return A new tournament with the same seed, players, stage and
+	 *         contestants as us, but none of their totals.
+	 */
+	public Tournament copy() {
+		Tournament copy = new Tournament();
+		copy.seed = seed;
+		copy.minPlayers = minPlayers;
+		copy.maxPlayers = maxPlayers;
+		copy.stage = stage;
+		for (Contestant contestant : contestants)
+			copy.contestants.add(new Contestant(contestant.name));
+		return copy;
+	}
+
+	/**
+	 * Plays every match again in a {@link #copy()}, on one thread if the
+	 * first run used more, or two otherwise.
+	 *
+	 * @param matches
+	 * @param threads
+	 *            Threads the first run used.
+	 * @param fingerprint
+	 *            {@link #getFingerprint(ArrayList)} of the first run.
+	 * @return Whether the second run's fingerprint is the same.
+	 */
+	public boolean verify(int matches, int threads, long fingerprint) throws Exception {
+		ArrayList<MatchResult> results = copy().run(matches, threads == 1 ? 2 : 1);
+		return getFingerprint(results) == fingerprint;
+	}
+
+	/**
+	 * Plays every match, as many at once as there are threads, and adds them
+	 * up in order once they're all done.
+	 *
+	 * @return Every match, in order.
+	 */
+	public ArrayList<MatchResult> run(int matches, int threads) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		ArrayList<Future<MatchResult>> futures = new ArrayList<Future<MatchResult>>();
+		try {
+			for (int i = 0; i < matches; i++) {
+				final int match = i;
+				futures.add(executor.submit(new Callable<MatchResult>() {
+					public MatchResult call() {
+						return play(match);
+					}
+				}));
+			}
+			ArrayList<MatchResult> results = new ArrayList<MatchResult>();
+			for (Future<MatchResult> future : futures) {
+				MatchResult result = future.get();
+				results.add(result);
+				add(result);
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		boolean verify = args.length > 0 && args[0].equals("verify");
+		if (verify) {
+			String[] rest = new String[args.length - 1];
+			System.arraycopy(args, 1, rest, 0, rest.length);
+			args = rest;
+		}
+		Tournament tournament = new Tournament();
+		int matches = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+		tournament.seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+		tournament.minPlayers = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+		tournament.maxPlayers = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+		tournament.stage = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+		int threads = args.length > 5 ? Integer.parseInt(args[5]) : 0;
+		if (threads <= 0)
+			threads = Runtime.getRuntime().availableProcessors();
+		for (int i = 6; i < args.length; i++)
+			tournament.contestants.add(new Contestant(args[i]));
+		if (tournament.contestants.isEmpty())
+			for (int level = 4; level <= 6; level++)
+				tournament.contestants.add(new Contestant(String.valueOf(level)));
+		tournament.minPlayers = Math.max(2, Math.min(8, tournament.minPlayers));
+		tournament.maxPlayers = Math.max(tournament.minPlayers, Math.min(8, tournament.maxPlayers));
+		long start = System.currentTimeMillis();
+		ArrayList<MatchResult> results = tournament.run(matches, threads);
+		long time = System.currentTimeMillis() - start;
+		long ticks = 0, matchTime = 0;
+		for (MatchResult result : results) {
+			ticks += result.ticks;
+			matchTime += result.time;
+		}
+		System.out.println(matches + " matches (seed " + tournament.seed + ", " + tournament.minPlayers + "-"
+				+ tournament.maxPlayers + " players, stage " + tournament.stage + ") on " + threads + " threads in "
+				+ time + "ms, " + (matchTime == 0 ? 0 : ticks * 1000 / matchTime) + " ticks/s per thread");
+		System.out.println("contestant\tmatches\twins\tlosses\tdraws\twin%\tkills\tsuicides\tkilled\tenvironment");
+		for (Contestant contestant : tournament.contestants)
+			System.out.println(contestant.name + "\t" + contestant.matches + "\t" + contestant.wins + "\t"
+					+ contestant.losses + "\t" + contestant.draws + "\t" + contestant.getWinPercent() + "\t"
+					+ contestant.kills + "\t" + contestant.suicides + "\t" + contestant.killed + "\t"
+					+ contestant.environmentalDeaths);
+		long fingerprint = getFingerprint(results);
+		System.out.println("Fingerprint: " + Long.toHexString(fingerprint));
+		if (verify) {
+			boolean same = tournament.verify(matches, threads, fingerprint);
+			System.out.println("Same fingerprint on " + (threads == 1 ? 2 : 1) + " thread(s): " + same);
+			System.exit(same ? 0 : 1);
+		}
+		System.exit(0);
+	}
+}
@@ -5,17 +5,19 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.geom.Line2D;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.util.ArrayList;
 
-import com.github.vegeto079.ngcommontools.main.AStar;
-import com.github.vegeto079.ngcommontools.main.AStar.AStarPath;
 import com.github.vegeto079.ngcommontools.main.DoublePoint;
-import com.github.vegeto079.ngcommontools.main.Logger;
 import com.github.vegeto079.ngcommontools.main.Logger.LogLevel;
 import com.github.vegeto079.ngcommontools.main.Tools;
 import com.github.vegeto079.saturnbomberman.main.MainBomberman;
 import com.github.vegeto079.saturnbomberman.main.Stage;
+import com.github.vegeto079.saturnbomberman.misc.AIProfile.Phase;
 import com.github.vegeto079.saturnbomberman.objects.Bomb;
+import com.github.vegeto079.saturnbomberman.objects.EntityStore.Kind;
+import com.github.vegeto079.saturnbomberman.objects.ObjectSnapshot;
 import com.github.vegeto079.saturnbomberman.objects.Player;
 
 /**
@@ -42,7 +44,7 @@ import com.github.vegeto079.saturnbomberman.objects.Player;
  * @version 1.11 {@link #distanceModifier} added.
  * @version 1.2 {@link #trapEnemies} added. AI now will value bomb placements
  *          that trap an enemy highly (see
- *          {@link #getBombAdjustmentValues(int[][], int, int, Point, Point, AIStarPath, ArrayList)})
+ *          {@link #getBombAdjustmentValues(int[][], int, int, int, int, Reachability, BitBoard, BitBoard)})
  *          . We now also remove slight outliers from the explosion map so we
  *          don't go for 1 extra point, and instead can settle for 1 less but a
  *          closer position.
@@ -56,6 +58,51 @@ import com.github.vegeto079.saturnbomberman.objects.Player;
  * @version 1.5: Items are now decided on a per-item basis instead of thinking
  *          items are all the same. {@link #afraidOfBlowingUpItems} removed as
  *          this shouldn't be an issue anymore.
+ * @version 1.51: When {@link MainBomberman#headless}, reachable locations are
+ *          updated in-line by {@link #getReachableLocations()} every
+ *          {@link #reactionTime} of game time instead of on a thread.
+ *          Failing to think is logged instead of ignored.
+ * @version 1.52: Checking whether a bomb would trap us is done with
+ *          {@link BitBoard}s instead of building a new map for every tile.
+ * @version 1.53: {@link #getMap(MainBomberman, Player)} now comes from the
+ *          shared {@link AIWorld} made once per tick, instead of every call
+ *          building its own map from the stage.
+ * @version 1.54: No more thread per AI. {@link #getReachableLocations()} asks
+ *          the shared {@link AIScheduler} to run
+ *          {@link #updateReachableLocations()} instead, through our own
+ *          {@link #schedulerJob}.
+ * @version 1.55: {@link #updateReachableLocations()} finds reachable tiles
+ *          with a {@link Reachability} search instead of running A* to a tile
+ *          that doesn't exist.
+ * @version 1.56: {@link #getDirectionToTile(MainBomberman, Player, Point, AI)}
+ *          looks up the first step in a {@link DistanceField} made once per
+ *          map and tile, instead of running A* (and caching the answer for
+ *          300ms) for every tile asked about.
+ * @version 1.57: {@link #staySafe()} runs the way the shared
+ *          {@link EscapeField} says, instead of looking over the whole map for
+ *          the closest safe tile and finding a path to it.
+ * @version 1.58: Bomb scoring in {@link #updateReachableLocations()} walks
+ *          fire out along the stage's {@link BlastRays}, keeps the fire in a
+ *          reused {@link BitBoard} instead of a list of points per tile, and
+ *          checks whether we'd trap ourselves as it goes.
+ *          {@link #getBombAdjustmentValues(int[][], int, int, int, int, Reachability, BitBoard, BitBoard)}
+ *          no longer allocates.
+ * @version 1.59: Added
+ *          {@link #getSafeReachable(int[][], Reachability, BitBoard)} and
+ *          {@link #wouldTrapOurselves(BitBoard, BitBoard)}, see
+ *          {@link SelfTrapBenchmark}.
+ * @version 1.6: Removed AIStar and AIStarPath, nothing paths with them
+ *          anymore. Path costs come from {@link CostProfile}.
+ * @version 1.61: Added {@link #profile} and {@link #level}. Every phase of
+ *          thinking is timed.
+ * @version 1.62: Added level 8, which checks bombs and ways out of danger by
+ *          playing the match forward, see {@link Lookahead}.
+ * @version 1.63: Added {@link #deterministic}: decisions are made in
+ *          {@link #tick(boolean, boolean)} every so many ticks, with our own
+ *          timers and random numbers worked out from the seed and tick.
+ * @version 1.64: Other players' bombs come from an {@link ObjectSnapshot},
+ *          instead of gathering them again whenever the list changed under
+ *          us.
  */
 public class AI {
 	private MainBomberman game;
@@ -65,16 +112,59 @@ public class AI {
 	private long keepMovingToBombUntil = -1;
 	private long disableSafeMovingUntil = -1;
 
-	public static AIStar.Settings aStarDefaultSettings = new AIStar.Settings(100000, false, false, false, true, true,
-			100000, 1, .01f, 1000, new Logger(true));
-	public static AIStar.Settings aStarReachableLocationsSettings = new AIStar.Settings(100000, false, true, false,
-			true, true, 100000, 1, .01f, 1000, new Logger(true));
 	private boolean[][] reachableLocations;
 	private long[][] reachableExplodableTiles;
 	private boolean placingBomb = false;
-	private Thread pathFindingThread = null;
-	private Thread reachableLocationsThread = null;
-	private AStarPath currentPath = null;
+	/**
+	 * Our place in {@link AIScheduler}, made the first time we ask to think.
+	 */
+	AIScheduler.Job schedulerJob = null;
+	/**
+	 * Used by {@link #updateReachableLocations()}, kept so its buffers are
+	 * reused.
+	 */
+	private final Reachability reachability = new Reachability();
+	/**
+	 * Cheapest way from our tile to everywhere, used by
+	 * {@link #getDirectionToTile(MainBomberman, Player, Point, AI)}. Only
+	 * worked out again once our map or tile changes.
+	 */
+	private final DistanceField distanceField = new DistanceField();
+	/**
+	 * Directions fire is walked out in by {@link #updateReachableLocations()}:
+	 * up, down, left, right.
+	 */
+	private final static int[] RAY_ORDER = { 1, 0, 2, 3 };
+	/**
+	 * Reused by {@link #updateReachableLocations()} for every tile, so scoring
+	 * bombs doesn't allocate.
+	 */
+	private final BitBoard bombFire = new BitBoard(), safeReachable = new BitBoard(), enemyTiles = new BitBoard();
+	/**
+	 * Whether we decide what to do in {@link #tick(boolean, boolean)} instead
+	 * of on the {@link AIScheduler}'s threads, and only go by the seed and
+	 * {@link #tickCount}: random numbers (see {@link #random(int, int, String)})
+	 * and our timers (see {@link #getTime()}) come from those instead of the
+	 * game's random and clock. Given the same game, everyone running us makes
+	 * the same decisions on the same tick, so CPUs can be run by everyone
+	 * online (see {@link com.github.vegeto079.saturnbomberman.networking.Network#cpusRunLocally}).
+	 * <br>
+	 * Always on when {@link MainBomberman#headless}.
+	 */
+	public final boolean deterministic;
+	/**
+	 * Amount of times {@link #tick(boolean, boolean)} has ran.
+	 */
+	private long tickCount = 0;
+	/**
+	 * Random numbers used during {@link #tickCount}.
+	 */
+	private long randomCount = 0;
+	/**
+	 * {@link #tickCount} we last ran {@link #updateReachableLocations()} on when
+	 * {@link #deterministic}.
+	 */
+	private long lastReachableLocationsUpdate = Long.MIN_VALUE / 2;
 
 	boolean tryingToMove = false;
 	long tryingToMoveTime = 0;
@@ -154,6 +244,37 @@ public class AI {
 	 * they will just accept defeat and let themselves die.
 	 */
 	public boolean kickBombsToStayAlive = true;
+	/**
+	 * Difficulty level we were made with (see
+	 * {@link #AI(MainBomberman, Player, int)}), after picking a random one.
+	 */
+	public int level = 0;
+	/**
+	 * How long we spend thinking, see {@link AIProfile}.
+	 */
+	public final AIProfile profile = new AIProfile();
+	/**
+	 * Every nanosecond recorded as {@link Phase#PATHING} so far, so phases
+	 * that find paths along the way can leave that time out.
+	 */
+	private long pathingTime = 0;
+	/**
+	 * This value represents whether or not the ai will play the match forward
+	 * (see {@link Lookahead}) before placing a bomb, and to find its way out of
+	 * danger. Uses up to {@link #reactionTime} (at least
+	 * {@link #MIN_LOOKAHEAD_TIME}) every time.
+	 */
+	public boolean useLookahead = false;
+	/**
+	 * Least time (in ns) a lookahead gets, however short our
+	 * {@link #reactionTime} is.
+	 */
+	public final static long MIN_LOOKAHEAD_TIME = 2000000;
+	/**
+	 * One for {@link #tick(boolean, boolean)}, one for {@link #staySafe()}, as
+	 * they can run on different threads.
+	 */
+	private final Lookahead bombLookahead = new Lookahead(), escapeLookahead = new Lookahead();
 
 	/**
 	 * Initiates a new AI.
@@ -162,72 +283,73 @@ public class AI {
 	 * @param player
 	 * @param level
 	 *            Difficulty level (1-5, 0 for random, 6 for terminator, 7 for
-	 *            staysafe)
+	 *            staysafe, 8 for lookahead)
 	 */
 	public AI(MainBomberman game, Player player, int level) {
 		this.game = game;
 		this.player = player;
+		deterministic = game.headless || (game.network != null && game.network.cpusRunLocally);
 		if (level == 0)
-			level = Tools.random(game, 1, 5, "Random AI");
+			level = random(1, 5, "Random AI");
 		if (level == 1) {
-			playerHunterLevel = Tools.random(game, 0, 2, "Random AI hunter level");
+			playerHunterLevel = random(0, 2, "Random AI hunter level");
 			if (playerHunterLevel > 1)
 				playerHunterLevel = 0;
 			walkToBombPointProactively = false;
-			// speedRatio = Tools.random(game, 40, 70, "Random AI speed ratio");
+			// speedRatio = random(40, 70, "Random AI speed ratio");
 			distanceModifier = 5;
-			reactionTime = Tools.random(game, 800, 1200, "Random AI reaction time");
+			reactionTime = random(800, 1200, "Random AI reaction time");
 			trapEnemies = false;
-			walkingThroughFireMultiplier = (float) Tools.random(game, 1, 3, "Random AI walkthrough multiplier") * 0.1f;
+			walkingThroughFireMultiplier = (float) random(1, 3, "Random AI walkthrough multiplier") * 0.1f;
 			kickBombsToStayAlive = false;
 		} else if (level == 2) {
-			playerHunterLevel = Tools.random(game, 1, 3, "Random AI hunter level");
-			walkToBombPointProactively = Tools.random(game, 100, "Random AI walk to bomb proactively") > 50;
-			// speedRatio = Tools.random(game, 60, 80, "Random AI speed ratio");
-			distanceModifier = Tools.random(game, 2, 4, "Random AI distance modifier");
-			reactionTime = Tools.random(game, 350, 900, "Random AI reaction time");
+			playerHunterLevel = random(1, 3, "Random AI hunter level");
+			walkToBombPointProactively = random(100, "Random AI walk to bomb proactively") > 50;
+			// speedRatio = random(60, 80, "Random AI speed ratio");
+			distanceModifier = random(2, 4, "Random AI distance modifier");
+			reactionTime = random(350, 900, "Random AI reaction time");
 			trapEnemies = false;
-			walkingThroughFireMultiplier = (float) Tools.random(game, 3, 5, "Random AI walkthrough multiplier") * 0.1f;
+			walkingThroughFireMultiplier = (float) random(3, 5, "Random AI walkthrough multiplier") * 0.1f;
 			kickBombsToStayAlive = false;
 		} else if (level == 3) {
-			playerHunterLevel = Tools.random(game, 1, 8, "Random AI hunter level");
-			walkToBombPointProactively = Tools.random(game, 100, "Random AI walk to bomb proactively") > 50;
-			// speedRatio = Tools.random(game, 90, 110, "Random AI speed
+			playerHunterLevel = random(1, 8, "Random AI hunter level");
+			walkToBombPointProactively = random(100, "Random AI walk to bomb proactively") > 50;
+			// speedRatio = random(90, 110, "Random AI speed
 			// ratio");
-			distanceModifier = Tools.random(game, 4, 8, "Random AI distance modifier");
-			reactionTime = Tools.random(game, 50, 100, "Random AI reaction time");
+			distanceModifier = random(4, 8, "Random AI distance modifier");
+			reactionTime = random(50, 100, "Random AI reaction time");
 			trapEnemies = true;
-			walkingThroughFireMultiplier = (float) Tools.random(game, 5, 7, "Random AI walkthrough multiplier") * 0.1f;
+			walkingThroughFireMultiplier = (float) random(5, 7, "Random AI walkthrough multiplier") * 0.1f;
 			kickBombsToStayAlive = true;
 		} else if (level == 4) {
-			playerHunterLevel = Tools.random(game, 1, 10, "Random AI hunter level");
-			walkToBombPointProactively = Tools.random(game, 100, "Random AI walk to bomb proactively") > 80;
-			// speedRatio = Tools.random(game, 125, 150, "Random AI speed
+			playerHunterLevel = random(1, 10, "Random AI hunter level");
+			walkToBombPointProactively = random(100, "Random AI walk to bomb proactively") > 80;
+			// speedRatio = random(125, 150, "Random AI speed
 			// ratio");
-			distanceModifier = Tools.random(game, 5, 10, "Random AI distance modifier");
-			reactionTime = Tools.random(game, 50, 100, "Random AI reaction time");
+			distanceModifier = random(5, 10, "Random AI distance modifier");
+			reactionTime = random(50, 100, "Random AI reaction time");
 			trapEnemies = true;
-			walkingThroughFireMultiplier = (float) Tools.random(game, 7, 10, "Random AI walkthrough multiplier") * 0.1f;
+			walkingThroughFireMultiplier = (float) random(7, 10, "Random AI walkthrough multiplier") * 0.1f;
 			kickBombsToStayAlive = true;
 		} else if (level == 5) {
-			playerHunterLevel = Tools.random(game, 1, 3, "Random AI hunter level");
+			playerHunterLevel = random(1, 3, "Random AI hunter level");
 			walkToBombPointProactively = true;
-			// speedRatio = Tools.random(game, 150, 200, "Random AI speed
+			// speedRatio = random(150, 200, "Random AI speed
 			// ratio");
-			distanceModifier = Tools.random(game, 8, 12, "Random AI distance modifier");
-			reactionTime = Tools.random(game, 1, 5, "Random AI reaction time");
+			distanceModifier = random(8, 12, "Random AI distance modifier");
+			reactionTime = random(1, 5, "Random AI reaction time");
 			trapEnemies = true;
-			walkingThroughFireMultiplier = (float) Tools.random(game, 7, 10, "Random AI walkthrough multiplier") * 0.1f;
+			walkingThroughFireMultiplier = (float) random(7, 10, "Random AI walkthrough multiplier") * 0.1f;
 			kickBombsToStayAlive = true;
 		} else if (level == 6) {
 			// They're terminators, the best I can do.
-			playerHunterLevel = Tools.random(game, 2, 4, "Random AI hunter level");
+			playerHunterLevel = random(2, 4, "Random AI hunter level");
 			walkToBombPointProactively = true;
-			speedRatio = Tools.random(game, 150, 250, "Random AI speed ratio");
+			speedRatio = random(150, 250, "Random AI speed ratio");
 			distanceModifier = 100;
-			reactionTime = Tools.random(game, 1, 5, "Random AI reaction time");
+			reactionTime = random(1, 5, "Random AI reaction time");
 			trapEnemies = true;
-			walkingThroughFireMultiplier = (float) Tools.random(game, 4, 8, "Random AI walkthrough multiplier") * 0.1f;
+			walkingThroughFireMultiplier = (float) random(4, 8, "Random AI walkthrough multiplier") * 0.1f;
 			kickBombsToStayAlive = true;
 		} else if (level == 7) {
 			// One function - stay alive!
@@ -239,228 +361,213 @@ public class AI {
 			trapEnemies = false;
 			walkingThroughFireMultiplier = 10;
 			kickBombsToStayAlive = true;
+		} else if (level == 8) {
+			// Terminator that thinks instead of moving faster
+			playerHunterLevel = random(2, 4, "Random AI hunter level");
+			walkToBombPointProactively = true;
+			distanceModifier = 100;
+			reactionTime = random(1, 5, "Random AI reaction time");
+			trapEnemies = true;
+			walkingThroughFireMultiplier = (float) random(4, 8, "Random AI walkthrough multiplier") * 0.1f;
+			kickBombsToStayAlive = true;
+			useLookahead = true;
 		}
 		speedRatio = 100;
 		tempSpeedRatio = speedRatio;
+		this.level = level;
 		game.logger.log(LogLevel.DEBUG, "New AI added, level " + level);
 	}
 
-	private class AIThread extends Thread {
-		public void run() {
-			// if (!stealReachableLocationsIfPossible())
-			while (game.stage != null && player.deadTimer == -1) {
+	/**
+	 * Ran by {@link AIScheduler} when it's our turn to think.
+	 */
+	void runScheduled() {
+		if (game.stage == null || player.deadTimer != -1)
+			return;
+		try {
+			updateReachableLocations();
+		} catch (Exception e) {
+			logThinkingFailed(e);
+		}
+	}
+
+	/**
+	 * Logs whatever went wrong in {@link #updateReachableLocations()}, stack
+	 * trace and all, so a broken AI doesn't just quietly stand still.
+	 */
+	private void logThinkingFailed(Exception e) {
+		StringWriter stackTrace = new StringWriter();
+		e.printStackTrace(new PrintWriter(stackTrace));
+		game.logger.log(LogLevel.ERROR, "AI for player " + player.getIndex() + " failed to think: " + stackTrace);
+	}
+
+	/**
+	 * @return How many ticks we wait between decisions when
+	 *         {@link #deterministic}, {@link #reactionTime} rounded to ticks.
+	 */
+	public long getDecisionTicks() {
+		return Math.max(1, reactionTime * MainBomberman.TICKS_PER_SECOND / 1000);
+	}
+
+	/**
+	 * @return {@link #tickCount} in ms if {@link #deterministic}, otherwise
+	 *         {@link MainBomberman#currentTimeMillis()}. Only for our own
+	 *         timers, anything compared with the game's times uses the game's
+	 *         clock.
+	 */
+	public long getTime() {
+		if (deterministic)
+			return tickCount * 1000 / MainBomberman.TICKS_PER_SECOND;
+		return game.currentTimeMillis();
+	}
+
+	/**
+	 * @return A random number from min to max, from
+	 *         {@link MainBomberman#random(int, int, String)} unless
+	 *         {@link #deterministic}.
+	 */
+	private int random(int min, int max, String reason) {
+		if (!deterministic)
+			return game.random(min, max, reason);
+		return min + (int) Math.floorMod(nextRandom(), (long) max - min + 1);
+	}
+
+	/**
+	 * @return A random number from 0 to max, from
+	 *         {@link MainBomberman#random(int, String)} unless
+	 *         {@link #deterministic}.
+	 */
+	private int random(int max, String reason) {
+		if (!deterministic)
+			return game.random(max, reason);
+		return random(0, max, reason);
+	}
+
+	/**
+	 * @return A random number that only depends on the seed, who we are,
+	 *         {@link #tickCount} and how many we've already used this tick.
+	 */
+	private long nextRandom() {
+		long value = game.getSeed();
+		value = value * 31 + player.getIndex();
+		value = value * 31 + tickCount;
+		value = value * 31 + randomCount++;
+		// SplitMix64
+		value += 0x9E3779B97F4A7C15L;
+		value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+		value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+		return value ^ (value >>> 31);
+	}
+
+	private int getUnstuckDirection() {
+		if (deterministic)
+			return random(7, "Get unstuck");
+		return Tools.random(null, 7, "Get unstuck");
+	}
+
+	public void getReachableLocations() {
+		if (deterministic) {
+			// No threads, update in-line every reactionTime worth of ticks
+			if (tickCount - lastReachableLocationsUpdate >= getDecisionTicks()) {
+				lastReachableLocationsUpdate = tickCount;
 				try {
 					updateReachableLocations();
-					sleep(reactionTime);
 				} catch (Exception e) {
+					logThinkingFailed(e);
 				}
 			}
+			return;
 		}
-	}
-
-	public void getReachableLocations() {
-		if (reachableLocationsThread != null && reachableLocationsThread.isAlive())
+		if (game.stage == null || player.deadTimer != -1)
 			return;
-		reachableLocationsThread = new Thread(new AIThread(), "AI Thread p" + player.getIndex());
-		reachableLocationsThread.setPriority(Thread.MIN_PRIORITY);
-		reachableLocationsThread.start();
+		int fps = game.getTickFps();
+		if (fps <= 0)
+			fps = MainBomberman.TICKS_PER_SECOND;
+		AIScheduler.get().request(this, reactionTime, 1000 / fps);
 	}
 
+	/**
+	 * @param game
+	 * @param player
+	 * @return The map the given player sees, from the {@link Stage}'s current
+	 *         {@link AIWorld} (see {@link AIWorld#getMap(Player)}). Shared, don't
+	 *         change it.
+	 */
 	public static int[][] getMap(MainBomberman game, Player player) {
-		long[][] stageMap = game.stage.getCollisionMap(game);
-		int[][] map = new int[game.stage.getHeight()][game.stage.getWidth()];
-		long weAreGoingToExplodeTime = -1;
-		for (int i = 0; i < stageMap[0].length; i++) {
-			for (int j = 0; j < stageMap.length; j++) {
-				int num = (int) stageMap[j][i];
-				if (weAreGoingToExplodeTime == -1 && player.getCellPoint().distance(new Point(i, j)) == 0) {
-					// System.out.println("found spot we are on. num: " + num);
-					if (num >= 0) {
-						// If this spot we are standing on is dangerous, make
-						// preparations!
-						// System.out
-						// .println("We're going to explode! Take cautionary
-						// measures.");
-						weAreGoingToExplodeTime = num;
-						i = 0;
-						j = 0;
-						for (int k = 0; k < map.length; k++)
-							for (int z = 0; z < map[k].length; z++)
-								map[k][z] = 0;
-						num = (int) stageMap[j][i];
-					}
-				}
-				if (num == 100000 && weAreGoingToExplodeTime != -1) {
-					// found a bomb
-					// System.out.println("Found a bomb at (" + i + "," + j +
-					// ")!");
-					if (player.getCellPoint().distance(new Point(i, j)) == 0) {
-						// If we are on the point with a bomb, we can move
-						ArrayList<Bomb> bombs = player.getBombsLaid();
-						for (Bomb bomb : bombs)
-							if (bomb.getCellPoint().distance(new Point(i, j)) == 0) {
-								// System.out
-								// .println("We're on a bomb! Ahh! Get off of
-								// it!");
-								num = 10;
-								break;
-							}
-					} // If the bomb is not under us, ignore it
-						// else
-						// System.out.println("But we're not on it...");
-				} else if (num >= 500 && weAreGoingToExplodeTime != -1) {
-					// we're either standing on fire or under weights going to
-					// fall or something dangerous like that. To allow ourselves
-					// to get out of this hairy situation, make anything
-					// dangerous temporarily not dangerous!
-					// System.out
-					// .println("Temporarily set dangerous area to safe, gotta
-					// get outta here!");
-					num = 10;
-				} else if (num >= 1 && weAreGoingToExplodeTime != -1) {
-					// We want to get out of a dangerous situation, but walking
-					// into one thats <500ms from exploding (or already
-					// exploding) is certain death. Better to wait on the
-					// dangerous spot we're on, probably.
-					if (weAreGoingToExplodeTime <= 600) {
-						// We're on a square that's close to exploding anyway,
-						// might as well run for it!
-						num = 10;
-					} else
-						num = 100000;
-				} else if (num == 0 && weAreGoingToExplodeTime != -1) {
-					// Despite all else, don't walk onto a block that'll
-					// instantly kill us.
-					num = 100000;
-				} else if (num >= 0 && num <= 1000)
-					num = 100000;
-				else if (num != 100000) {
-					// If a place will explode in over 1500ms from now, we can
-					// safely walk over it (for now), so just set it to safe.
-					// That said, if we can run faster, this timeframe can be
-					// smaller.
-					// 1 speed = 1500ms
-					// 9 speed = 700ms
-					// This value gets multiplied based on difficulty.
-					int cutoff = 1600 - player.speed * 100;
-					if (player.ai != null)
-						cutoff = (int) ((float) cutoff * player.ai.walkingThroughFireMultiplier);
-					if (num >= cutoff)
-						num = 10;
-				}
-				map[i][j] = num;
-			}
-		}
-		// System.out.println("Returning map.");
-		return map;
+		return game.stage.getWorld(game).getMap(player);
+	}
+
+	/**
+	 * Adds the time since phaseStart to {@link #profile}.
+	 *
+	 * @return Now, to start timing the next phase from.
+	 */
+	private long recordPhase(Phase phase, long phaseStart) {
+		long now = System.nanoTime();
+		profile.record(phase, now - phaseStart);
+		if (phase == Phase.PATHING)
+			pathingTime += now - phaseStart;
+		return now;
 	}
 
 	public void updateReachableLocations() throws Exception {
-		long start = game.currentTimeMillis();
-		long timeTook = (game.currentTimeMillis() - start);
+		long worldVersion = game.stage.getWorld(game).version;
+		long phaseStart = System.nanoTime();
 		int[][] map = getMap(game, player);
+		phaseStart = recordPhase(Phase.MAP, phaseStart);
 		Point playerPoint = player.getCellPoint();
-		AIStarPath aStarPath = null;
-		aStarPath = AIStar.getAIStarPath(AI.aStarReachableLocationsSettings, map, playerPoint, new Point(-1, -1), 0, 0,
-				10, 10, 100000, 100000, -1, 2, -2, 100000, -3, 100000, -4, 2, -5, 100000, -10, 0, -11, 0, -12, 0, -13,
-				0, -14, 2, -15, 0, -16, 2, -17, 2, -18, 2, -19, 2, -20, 2, -21, 0, -22, 10, -23, 10, -24, 10, -25, 0,
-				-26, 0, -27, 0);
-		aStarPath.startAI(currentPath, pathFindingThread);
-		timeTook = aStarPath.getTime();
-		if (timeTook > 300)
-			System.err.println("Took " + timeTook + "ms to calculate astar!");
+		reachability.search(map, playerPoint.x, playerPoint.y);
+		ArrayList<Point> reachableTiles = reachability.getTiles();
+		phaseStart = recordPhase(Phase.REACHABILITY, phaseStart);
+		long trapCheckTime = 0;
 		boolean newReachableLocations[][] = new boolean[game.stage.getHeight()][game.stage.getWidth()];
 		long newReachableExplodableTiles[][] = new long[game.stage.getHeight()][game.stage.getWidth()];
-		aStarPath.tiles.add(new Point(playerPoint.x, playerPoint.y));
-		ArrayList<ArrayList<Point>> possibleExplosions = new ArrayList<ArrayList<Point>>();
-		for (Point tile : aStarPath.tiles) {
-			newReachableLocations[tile.x][tile.y] = true;
-			ArrayList<Point> possibleExplosionsOnPoint = new ArrayList<Point>();
-			possibleExplosionsOnPoint.add(tile);
-			int adj = getBombAdjustmentValues(map, tile.x, tile.y, tile, tile, aStarPath, possibleExplosionsOnPoint);
-			newReachableExplodableTiles[tile.x][tile.y] += adj;
-			if (adj < 0 && newReachableExplodableTiles[tile.x][tile.y] < 0)
-				newReachableExplodableTiles[tile.x][tile.y] = 0;
-			boolean[] foundExplodableTile = new boolean[4];
-			for (int i = 1; i <= player.firePower; i++) {
-				Point up = new Point(tile.x, tile.y - i);
-				Point down = new Point(tile.x, tile.y + i);
-				Point left = new Point(tile.x - i, tile.y);
-				Point right = new Point(tile.x + i, tile.y);
-				if (!foundExplodableTile[0] && up.y > -1) {
-					possibleExplosionsOnPoint.add(new Point(up.x, up.y));
-					if (map[up.x][up.y] != -1) {
-						long before = newReachableExplodableTiles[tile.x][tile.y];
-						newReachableExplodableTiles[tile.x][tile.y] += getBombAdjustmentValues(map, up.x, up.y, null,
-								tile, aStarPath, possibleExplosionsOnPoint);
-						if (before != newReachableExplodableTiles[tile.x][tile.y] || map[up.x][up.y] == -2)
-							foundExplodableTile[0] = true;
-					}
-				}
-				if (!foundExplodableTile[1] && down.y < newReachableExplodableTiles[0].length) {
-					possibleExplosionsOnPoint.add(new Point(down.x, down.y));
-					if (map[down.x][down.y] != -1) {
-						long before = newReachableExplodableTiles[tile.x][tile.y];
-						newReachableExplodableTiles[tile.x][tile.y] += getBombAdjustmentValues(map, down.x, down.y,
-								null, tile, aStarPath, possibleExplosionsOnPoint);
-						if (before != newReachableExplodableTiles[tile.x][tile.y] || map[down.x][down.y] == -2)
-							foundExplodableTile[1] = true;
-					}
-				}
-				if (!foundExplodableTile[2] && left.x > -1) {
-					possibleExplosionsOnPoint.add(new Point(left.x, left.y));
-					if (map[left.x][left.y] != -1) {
-						long before = newReachableExplodableTiles[tile.x][tile.y];
-						newReachableExplodableTiles[tile.x][tile.y] += getBombAdjustmentValues(map, left.x, left.y,
-								null, tile, aStarPath, possibleExplosionsOnPoint);
-						if (before != newReachableExplodableTiles[tile.x][tile.y] || map[left.x][left.y] == -2)
-							foundExplodableTile[2] = true;
-					}
-				}
-				if (!foundExplodableTile[3] && right.x < newReachableExplodableTiles.length) {
-					possibleExplosionsOnPoint.add(new Point(right.x, right.y));
-					if (map[right.x][right.y] != -1) {
-						long before = newReachableExplodableTiles[tile.x][tile.y];
-						newReachableExplodableTiles[tile.x][tile.y] += getBombAdjustmentValues(map, right.x, right.y,
-								null, tile, aStarPath, possibleExplosionsOnPoint);
-						if (before != newReachableExplodableTiles[tile.x][tile.y] || map[right.x][right.y] == -2)
-							foundExplodableTile[3] = true;
+		BlastRays blastRays = game.stage.getBlastRays();
+		enemyTiles.clear();
+		for (Player other : game.players)
+			if (!other.equals(player) && other.deadTimer == -1)
+				enemyTiles.set(other.getCellX(), other.getCellY());
+		getSafeReachable(map, reachability, safeReachable);
+		int power = player.firePower;
+		for (Point tile : reachableTiles) {
+			int x = tile.x, y = tile.y;
+			newReachableLocations[x][y] = true;
+			bombFire.clear().set(x, y);
+			long value = Math.max(0,
+					getBombAdjustmentValues(map, x, y, x, y, reachability, enemyTiles, bombFire));
+			// Walk out from the bomb one tile at a time in every direction, as
+			// far as the stage lets fire go, until something stops it
+			int stopped = 0;
+			for (int i = 1; i <= power; i++)
+				for (int direction : RAY_ORDER) {
+					if ((stopped & (1 << direction)) != 0 || i > blastRays.getReach(x, y, direction, power))
+						continue;
+					int rayX = x + BlastRays.DX[direction] * i, rayY = y + BlastRays.DY[direction] * i;
+					bombFire.set(rayX, rayY);
+					if (map[rayX][rayY] != -1) {
+						int adjustment = getBombAdjustmentValues(map, rayX, rayY, x, y, reachability, enemyTiles,
+								bombFire);
+						value += adjustment;
+						if (adjustment != 0 || map[rayX][rayY] == -2)
+							stopped |= 1 << direction;
 					}
 				}
-			}
-			possibleExplosions.add(possibleExplosionsOnPoint);
-		}
-		for (int k = 0; k < aStarPath.tiles.size(); k++) {
 			// Make sure we don't trap ourselves. To do this, we make a few
 			// assumptions. We don't have to run astar again because we already
 			// have the amount of walkable tiles. We're able to walk in any
 			// direction from a bomb we place. By marking every "fire" tile and
 			// the bomb tile as dangerous, as long as one walkable tile remains,
 			// we can reach it.
-			Point tile = aStarPath.tiles.get(k);
-			ArrayList<Point> possibleExplosionsOnPoint = possibleExplosions.get(k);
-			boolean testMap[][] = new boolean[game.stage.getHeight()][game.stage.getWidth()];
-			for (int i = 0; i < testMap.length; i++)
-				for (int j = 0; j < testMap[i].length; j++)
-					testMap[i][j] = new Boolean(newReachableLocations[i][j]);
-			for (int i = 0; i < map.length; i++)
-				for (int j = 0; j < map[i].length; j++)
-					if (map[i][j] >= 0)
-						testMap[i][j] = false;
-			for (Point explosion : possibleExplosionsOnPoint)
-				testMap[explosion.x][explosion.y] = false;
-			int movementSpotsCount = 0;
-			for (int i = 0; i < testMap.length; i++)
-				for (int j = 0; j < testMap[i].length; j++)
-					if (testMap[i][j])
-						movementSpotsCount++;
-			if (movementSpotsCount == 0)
-				newReachableExplodableTiles[tile.x][tile.y] = 0;
+			long trapCheckStart = System.nanoTime();
+			if (wouldTrapOurselves(safeReachable, bombFire))
+				value = 0;
+			trapCheckTime += System.nanoTime() - trapCheckStart;
+			newReachableExplodableTiles[x][y] = value;
 		}
 		// Kill outliers that are +1 everything else
 		int[] amtCount = new int[10];
 		int total = 0;
-		for (Point tile : aStarPath.tiles) {
+		for (Point tile : reachableTiles) {
 			Point p = new Point(tile.x, tile.y);
 			double explode = newReachableExplodableTiles[p.x][p.y];
 			if (explode < 2)
@@ -483,7 +590,7 @@ public class AI {
 			if (percentCount[i] >= 10)
 				highestOverTenPercent = i;
 		if (highestOverTenPercent != 0)
-			for (Point tile : aStarPath.tiles) {
+			for (Point tile : reachableTiles) {
 				Point p = new Point(tile.x, tile.y);
 				if (newReachableExplodableTiles[p.x][p.y] <= highestOverTenPercent + 1
 						&& newReachableExplodableTiles[p.x][p.y] > highestOverTenPercent) {
@@ -499,7 +606,7 @@ public class AI {
 		long biggestExplosion = -1;
 		double closestExplosion = -1;
 		Point biggestExplosionPoint = null;
-		for (Point tile : aStarPath.tiles) {
+		for (Point tile : reachableTiles) {
 			// Do distance modification
 			Point p = new Point(tile.x, tile.y);
 			if (newReachableExplodableTiles[p.x][p.y] > 0) {
@@ -519,8 +626,9 @@ public class AI {
 				newReachableExplodableTiles[p.x][p.y] = 0;
 		}
 		// if (biggestExplosionPoint != null)
-		timeTook = (game.currentTimeMillis() - start);
-		if (disableSafeMovingUntil > game.currentTimeMillis() || !staySafe()) {
+		profile.record(Phase.BOMB_SCORING, System.nanoTime() - phaseStart - trapCheckTime);
+		profile.record(Phase.TRAP_CHECK, trapCheckTime);
+		if (disableSafeMovingUntil > getTime() || !staySafe()) {
 			if (tempSpeedRatio != speedRatio)
 				speedRatio = tempSpeedRatio;
 			goingToExplodePoint = biggestExplosionPoint;
@@ -531,9 +639,6 @@ public class AI {
 				directionToPress = newDirectionToPress;
 		} else
 			goingToExplodePoint = null;
-		long thisTimeTook = (game.currentTimeMillis() - start);
-		if (thisTimeTook - timeTook > 300)
-			System.err.println("Took " + (thisTimeTook - timeTook) + "ms to calculate stay safe method!");
 		reachableLocations = newReachableLocations;
 		reachableExplodableTiles = newReachableExplodableTiles;
 		// for (int i = 0; i < 2; i++)
@@ -548,23 +653,71 @@ public class AI {
 		// }
 		// System.out.println("goingToExplodePoint: " + goingToExplodePoint);
 		// System.out.println("map returned.");
-		timeTook = (game.currentTimeMillis() - start);
-		if (timeTook > 1000)
-			System.err.println("FINISHED: Took " + timeTook + " ms to compute");
-		else if (timeTook > 500)
-			System.out.println("FINISHED: Took " + timeTook + " ms to compute");
+		profile.recordDecision(game.stage.getWorld(game).version != worldVersion);
 	}
 
-	public int getBombAdjustmentValues(int[][] map, int mapx, int mapy, Point pointOnMap, Point bombOrigin,
-			AIStarPath aStarPath, ArrayList<Point> possibleExplosions) {
+	/**
+	 * @param map
+	 *            [column][row], see {@link #getMap(MainBomberman, Player)}.
+	 * @param reachable
+	 *            Tiles we can reach on this map.
+	 * @param safeReachable
+	 *            Cleared, then set to every tile we can reach that isn't
+	 *            dangerous.
+	 * @return safeReachable
+	 */
+	public static BitBoard getSafeReachable(int[][] map, Reachability reachable, BitBoard safeReachable) {
+		safeReachable.clear();
+		for (int k = 0; k < reachable.getCount(); k++) {
+			int x = reachable.getX(k), y = reachable.getY(k);
+			if (map[x][y] < 0)
+				safeReachable.set(x, y);
+		}
+		return safeReachable;
+	}
+
+	/**
+	 * Whether placing a bomb would leave us nowhere to run. We're able to walk
+	 * in any direction from a bomb we place, so as long as one tile we can
+	 * reach is neither dangerous nor in the bomb's fire, we can get to it.
+	 *
+	 * @param safeReachable
+	 *            See {@link #getSafeReachable(int[][], Reachability, BitBoard)}.
+	 * @param bombFire
+	 *            The bomb's tile and every tile its fire reaches.
+	 * @return <b>true</b> if the bomb's fire covers every safe tile we can reach.
+	 */
+	public static boolean wouldTrapOurselves(BitBoard safeReachable, BitBoard bombFire) {
+		return safeReachable.isCoveredBy(bombFire);
+	}
+
+	/**
+	 * How much we'd like fire from a bomb on the origin to reach the given tile
+	 * (or, for the origin itself, how much we'd like to stand there).
+	 * Doesn't allocate anything, so it can be run for every tile we can reach.
+	 *
+	 * @param map
+	 *            [column][row], see {@link #getMap(MainBomberman, Player)}.
+	 * @param mapx
+	 * @param mapy
+	 * @param originX
+	 *            Column of the bomb.
+	 * @param originY
+	 *            Row of the bomb.
+	 * @param reachable
+	 *            Tiles we can reach.
+	 * @param enemies
+	 *            Tiles with alive players other than us on them.
+	 * @param possibleExplosions
+	 *            Tiles the bomb's fire has reached so far.
+	 * @return How much to add to the bomb's value.
+	 */
+	public int getBombAdjustmentValues(int[][] map, int mapx, int mapy, int originX, int originY,
+			Reachability reachable, BitBoard enemies, BitBoard possibleExplosions) {
 		long mapValue = map[mapx][mapy];
-		if (pointOnMap == null)
-			pointOnMap = new Point(mapx, mapy);
-		boolean isOriginOfBombSpot = bombOrigin.distance(pointOnMap) == 0;
+		boolean isOriginOfBombSpot = mapx == originX && mapy == originY;
 		int adjustment = 0;
-		ArrayList<Player> alivePlayers = Stage
-				.getAlivePlayersOnTileExcludingPlayer(new Point(pointOnMap.x, pointOnMap.y), player, game);
-		if (alivePlayers.size() > 0) {
+		if (enemies.get(mapx, mapy)) {
 			adjustment += playerHunterLevel;
 			if (!isOriginOfBombSpot && trapEnemies) {
 				// Value trapping enemies highly. We gotta make a lot of
@@ -572,38 +725,29 @@ public class AI {
 				// enemy, the fire will stop, so we don't need to wait for all
 				// fire paths to complete, we're assuming the path already found
 				// would be the path blocking the enemy.
-				// Then we find all walkable tiles in the current astar-list
-				// that the player could walk to. If we can walk to him, we
+				// Then we find all walkable tiles in the current reachable
+				// tiles that the player could walk to. If we can walk to him, we
 				// already have his walkable tiles.
 				// If our fire line blocks all of his walkable tiles, then he
 				// will be stuck if we place the bomb, as our fireline ends with
 				// our bomb and is naturally unpassable.
-
-				ArrayList<Point> walkableTiles = new ArrayList<Point>();
-				Point middle = new Point(pointOnMap.x, pointOnMap.y);
-				Point left = new Point(middle.x - 1, middle.y);
-				Point right = new Point(middle.x + 1, middle.y);
-				Point up = new Point(middle.x, middle.y - 1);
-				Point down = new Point(middle.x, middle.y + 1);
-				for (Point p : aStarPath.tiles)
-					if (p.distance(left) == 0 || p.distance(right) == 0 || p.distance(up) == 0 | p.distance(down) == 0)
-						walkableTiles.add(p);
-				if (walkableTiles.size() == 0) {
+				int walkableTiles = 0, blockedTiles = 0;
+				for (int direction = 0; direction < 4; direction++) {
+					int x = mapx + BlastRays.DX[direction], y = mapy + BlastRays.DY[direction];
+					if (reachable.isReachable(x, y)) {
+						walkableTiles++;
+						if (possibleExplosions.get(x, y))
+							blockedTiles++;
+					}
+				}
+				if (walkableTiles == 0) {
 					// ignore them, they're already trapped or something
+				} else if (blockedTiles == walkableTiles) {
+					// We can block somebody in and kill them. Let's value
+					// that highly.
+					adjustment += playerHunterLevel * 2;
 				} else {
-					for (Point p : possibleExplosions)
-						for (int i = 0; i < walkableTiles.size(); i++)
-							if (p.distance(walkableTiles.get(i)) == 0) {
-								walkableTiles.remove(i);
-								i--;
-							}
-					if (walkableTiles.size() == 0) {
-						// We can block somebody in and kill them. Let's value
-						// that highly.
-						adjustment += playerHunterLevel * 2;
-					} else {
-						// This won't block them :(
-					}
+					// This won't block them :(
 				}
 			}
 		}
@@ -632,34 +776,14 @@ public class AI {
 				// Don't really want it to scale with player hunter level, this
 				// is more so player-hungry bots don't ignore items
 			}
-			if (player.getCellPoint().distance(pointOnMap) != 0) {
+			if (player.getCellX() != mapx || player.getCellY() != mapy) {
 				// If items are on the nearby squares, prioritize going here.
 				// Don't want to actually put a bomb here though, so don't do
 				// this if we're already on the spot (pick up the item instead
 				// of laying down a bomb to destroy it)
-				long mapValueUp = 0;
-				long mapValueDown = 0;
-				long mapValueLeft = 0;
-				long mapValueRight = 0;
-				try {
-					mapValueUp = map[mapx][mapy - 1];
-				} catch (Exception e) {
-				}
-				try {
-					mapValueDown = map[mapx][mapy + 1];
-				} catch (Exception e) {
-				}
-				try {
-					mapValueLeft = map[mapx - 1][mapy];
-				} catch (Exception e) {
-				}
-				try {
-					mapValueRight = map[mapx + 1][mapy];
-				} catch (Exception e) {
-				}
-				long[] mapValues = new long[] { mapValueUp, mapValueDown, mapValueLeft, mapValueRight };
-				for (int i = 0; i < mapValues.length; i++) {
-					long m = mapValues[i];
+				for (int direction = 0; direction < 4; direction++) {
+					int x = mapx + BlastRays.DX[direction], y = mapy + BlastRays.DY[direction];
+					long m = x < 0 || y < 0 || x >= map.length || y >= map[x].length ? 0 : map[x][y];
 					if (m <= -10 && m != -23 && m != -22) {
 						// Not a skull or sandals
 						// Has to outweigh the below decrease for blowing the
@@ -755,10 +879,12 @@ public class AI {
 	 *            Whether or not we're allowed to move (ie. not being host of game)
 	 */
 	public void tick(boolean canPlaceBombs, boolean canMove) {
+		tickCount++;
+		randomCount = 0;
 		if (!aiEnabled)
 			return;
 		getReachableLocations();
-		if (reachableLocations == null && reachableLocationsThread != null && reachableLocationsThread.isAlive()) {
+		if (reachableLocations == null && !deterministic && AIScheduler.get().isPending(this)) {
 			// System.out.println("wait for location thread");
 			return;
 		}
@@ -782,7 +908,7 @@ public class AI {
 			directionToPress = -1;
 		}
 		if (goingToExplodePoint != null && walkToBombPointProactively && canMove && directionToPress != -1) {
-			long[][] collision = game.stage.getCollisionMap(game);
+			long[][] collision = game.stage.getWorld(game).getCollisionMap();
 			boolean walked = false;
 			try {
 				if (collision[goingToExplodePoint.y][goingToExplodePoint.x] == -1)
@@ -810,31 +936,28 @@ public class AI {
 				keepMovingToBombUntil = -1;
 				return;
 			} else if (goingToExplodePoint.distance(player.getCellPoint()) == 0
-					&& keepMovingToBombUntil <= game.currentTimeMillis()) {
+					&& keepMovingToBombUntil <= getTime()) {
 				// place bomb!
+				if (useLookahead && !canEscapeBomb()) {
+					// Played it forward, we'd die
+					goingToExplodePoint = null;
+					disableSafeMovingUntil = -1;
+					keepMovingToBombUntil = -1;
+					return;
+				}
 				placingBomb = true;
 				player.cPressed = true;
 				disableSafeMovingUntil = -1;
 				keepMovingToBombUntil = -1;
 			} else {
-				ArrayList<Bomb> bombs = new ArrayList<Bomb>();
-				for (int i = 0; i < game.players.size(); i++)
-					try {
-						if (!game.players.get(i).equals(player))
-							for (int j = 0; j < game.players.get(i).getBombsLaid().size(); j++)
-								bombs.add(game.players.get(i).getBombsLaid().get(j));
-					} catch (Exception e) {
-						// concurrent exception, retry
-						i = -1;
-						bombs = new ArrayList<Bomb>();
-					}
+				ObjectSnapshot snapshot = game.objects.getSnapshot();
 				boolean bombOnOurSpot = false;
-				for (Bomb bomb : bombs)
-					try {
-						if (bomb.getCellPoint().distance(goingToExplodePoint) == 0)
-							bombOnOurSpot = true;
-					} catch (Exception e) {
-					}
+				for (int i = 0; i < snapshot.size(Kind.BOMB); i++) {
+					Bomb bomb = (Bomb) snapshot.get(Kind.BOMB, i);
+					if (!bomb.finished && bomb.playerOrigin != null && !bomb.playerOrigin.equals(player)
+							&& bomb.getCellPoint().distance(goingToExplodePoint) == 0)
+						bombOnOurSpot = true;
+				}
 				if (bombOnOurSpot) {
 					// Someone already put a bomb there. Gotta make a different
 					// decision.
@@ -843,8 +966,8 @@ public class AI {
 				} else {
 					// walk to bomb spot
 					if (directionToPress != -1 && goToTile(game, player, goingToExplodePoint, directionToPress)) {
-						disableSafeMovingUntil = game.currentTimeMillis() + 500;
-						keepMovingToBombUntil = game.currentTimeMillis() + 2000;
+						disableSafeMovingUntil = getTime() + 500;
+						keepMovingToBombUntil = getTime() + 2000;
 					} else {
 						disableSafeMovingUntil = -1;
 						keepMovingToBombUntil = -1;
@@ -881,6 +1004,63 @@ public class AI {
 	}
 
 	private boolean staySafe() {
+		long phaseStart = System.nanoTime(), pathingBefore = pathingTime;
+		boolean moving = findSafety();
+		profile.record(Phase.STAY_SAFE, System.nanoTime() - phaseStart - (pathingTime - pathingBefore));
+		return moving;
+	}
+
+	/**
+	 * @return How long a {@link Lookahead} can take, in ns.
+	 */
+	private long getLookaheadTime() {
+		if (deterministic)
+			return Lookahead.NO_LIMIT; // Same plans tried however fast we are
+		return Math.max(MIN_LOOKAHEAD_TIME, reactionTime * 1000000);
+	}
+
+	/**
+	 * @return Whether {@link Lookahead} says we can get away from a bomb placed
+	 *         where we are, <b>true</b> if it couldn't tell.
+	 */
+	private boolean canEscapeBomb() {
+		try {
+			MatchState state = MatchState.capture(game);
+			int index = game.players.indexOf(player);
+			if (index < 0 || index >= state.players)
+				return true;
+			return bombLookahead.canEscapeBomb(state, index, getLookaheadTime());
+		} catch (Exception e) {
+			return true;
+		}
+	}
+
+	/**
+	 * Finds a way out of danger with {@link Lookahead}, and goes that way if
+	 * there is one we survive.
+	 * 
+	 * @return <b>true</b> if we found one.
+	 */
+	private boolean findLookaheadSafety() {
+		try {
+			MatchState state = MatchState.capture(game);
+			int index = game.players.indexOf(player);
+			if (index < 0 || index >= state.players
+					|| !escapeLookahead.findEscape(state, index, getLookaheadTime()))
+				return false;
+			goingToExplodePoint = null;
+			goingToSafePoint = new Point(escapeLookahead.getTargetX(), escapeLookahead.getTargetY());
+			directionToPress = escapeLookahead.getDirection();
+			if (directionToPress == -1)
+				directionToPress = getDirectionToTile(game, player, goingToSafePoint, this);
+			keepMovingUntil = getTime() + 2000;
+			return true;
+		} catch (Exception e) {
+			return false;
+		}
+	}
+
+	private boolean findSafety() {
 		Point loc = player.getCellPoint();
 		// loc = new Point(loc.y, loc.x);
 		int[][] map = getMap(game, player);
@@ -891,60 +1071,29 @@ public class AI {
 			// System.out.println("We're in danger! Find a place to move. ("
 			// + ourPosCollision + ")");
 			getReachableLocations();
+			if (useLookahead && findLookaheadSafety())
+				return true;
+			// Every AI running at our speed shares the same way out of danger
+			AIWorld world = game.stage.getWorld(game);
+			EscapeField escapeField = world.getEscapeField(EscapeField.getStepTime(player));
+			long elapsed = Math.max(0, game.currentTimeMillis() - world.time);
 			Point closestSafePoint = null;
-			if (directionToPress == 0 || directionToPress == 3
-					|| (directionToPress == -1 && Tools.random(game, 0, 10, "Random direction of safety") >= 5)) {
-				// We're currently travelling down or right. Maybe we're trying
-				// to pass fire this direction - so let's sort the map backwards
-				// to find the best safespot that's to the down-right instead of
-				// upper-left
-				for (int i = map.length - 1; i >= 0; i--)
-					for (int j = map[i].length - 1; j >= 0; j--) {
-						if (reachableLocations != null && !reachableLocations[i][j])
-							continue;
-						long collision = map[i][j];
-						// System.out.println("checking spot (" + i + "," + j +
-						// "): "
-						// + collision);
-						if (collision == -1 || (collision <= -10 && collision >= -30))
-							if (closestSafePoint == null
-									|| new Point(i, j).distance(loc) < loc.distance(closestSafePoint)) {
-								// System.out.println("ITS GOOD!");
-								closestSafePoint = new Point(i, j);
-							} else {
-								// System.out.println("its not close enough");
-							}
-					}
-			} else
-				for (int i = 0; i < map.length; i++)
-					for (int j = 0; j < map[i].length; j++) {
-						if (reachableLocations != null && !reachableLocations[i][j])
-							continue;
-						long collision = map[i][j];
-						// System.out.println("checking spot (" + i + "," + j +
-						// "): "
-						// + collision);
-						if (collision == -1 || (collision <= -10 && collision >= -30))
-							if (closestSafePoint == null
-									|| new Point(i, j).distance(loc) < loc.distance(closestSafePoint)) {
-								// System.out.println("ITS GOOD!");
-								closestSafePoint = new Point(i, j);
-							} else {
-								// System.out.println("its not close enough");
-							}
-					}
+			int escapeDirection = -1;
+			if (escapeField.getLatest(loc.x, loc.y) == EscapeField.SAFE) {
+				// Only unsafe the way we see it, stay on this tile
+				closestSafePoint = loc;
+				escapeDirection = getDirectionToTile(game, player, loc, this);
+			} else {
+				escapeDirection = escapeField.getDirection(loc.x, loc.y, elapsed);
+				if (escapeDirection != -1)
+					closestSafePoint = escapeField.getExit(loc.x, loc.y, elapsed);
+			}
 			if (closestSafePoint != null) {
 				// Found a safe place to go
-				// game.logger.log(LogLevel.DEBUG,
-				// System.out.println("Found a safe place to go! (" +
-				// closestSafePoint.x
-				// + "," + closestSafePoint.y + ") our loc (" + loc.x + "," +
-				// loc.y
-				// + ")");
 				goingToExplodePoint = null;
 				goingToSafePoint = closestSafePoint;
-				directionToPress = getDirectionToTile(game, player, closestSafePoint, this);
-				keepMovingUntil = game.currentTimeMillis() + 2000;
+				directionToPress = escapeDirection;
+				keepMovingUntil = getTime() + 2000;
 			} else {
 				// game.logger.log(LogLevel.ERROR,
 				// "There's no safe place to go.. finding path of least
@@ -1055,7 +1204,7 @@ public class AI {
 					directionToPress = possibleDirections.get(bestMove);
 				}
 			}
-		} else if (game.currentTimeMillis() < keepMovingUntil) {
+		} else if (getTime() < keepMovingUntil) {
 			int dir = getDirectionToTile(game, player, player.getCellPoint(), this);
 			if (dir != -1) {
 				goingToSafePoint = player.getCellPoint();
@@ -1063,12 +1212,12 @@ public class AI {
 			} else {
 				goingToSafePoint = null;
 				directionToPress = -1;
-				keepMovingUntil = game.currentTimeMillis();
+				keepMovingUntil = getTime();
 				if (tempSpeedRatio != speedRatio)
 					speedRatio = tempSpeedRatio;
 			}
 			// Move closer to center of tile
-			if (keepMovingUntil - game.currentTimeMillis() < 1500 && tempSpeedRatio == speedRatio && speedRatio > 100) {
+			if (keepMovingUntil - getTime() < 1500 && tempSpeedRatio == speedRatio && speedRatio > 100) {
 				tempSpeedRatio = speedRatio;
 				speedRatio = 50;
 			}
@@ -1085,7 +1234,7 @@ public class AI {
 
 	@SuppressWarnings("unused")
 	private void randomMovement(boolean canPlaceBombs) {
-		int move = Tools.random(game, 0, 1000, "AI");
+		int move = random(0, 1000, "AI");
 		if (move == 0)
 			player.aPressed = true;
 		else if (move == 1)
@@ -1136,15 +1285,15 @@ public class AI {
 		if (direction != -1)
 			if (!tryingToMove) {
 				tryingToMove = true;
-				tryingToMoveTime = game.currentTimeMillis();
+				tryingToMoveTime = getTime();
 				tryingToMoveStartPoint = player.getCellPoint();
 				tryingToMoveEndPoint = goal;
 				tryingToMoveExactPoint = player.getExactPoint();
 			} else if (tryingToMoveExactPoint.distance(player.getExactPoint()) < 8
-					&& tryingToMoveEndPoint.distance(goal) == 0 && game.currentTimeMillis() - tryingToMoveTime > 500) {
+					&& tryingToMoveEndPoint.distance(goal) == 0 && getTime() - tryingToMoveTime > 500) {
 				int lastDir = new Integer(direction);
 				while (lastDir == direction)
-					direction = Tools.random(null, 7, "Get unstuck");
+					direction = getUnstuckDirection();
 			} else if (tryingToMoveEndPoint.distance(goal) > 0
 					|| tryingToMoveExactPoint.distance(player.getExactPoint()) >= 8) {
 				tryingToMove = false;
@@ -1161,15 +1310,15 @@ public class AI {
 		if (dir != -1)
 			if (!tryingToMove) {
 				tryingToMove = true;
-				tryingToMoveTime = game.currentTimeMillis();
+				tryingToMoveTime = getTime();
 				tryingToMoveStartPoint = player.getCellPoint();
 				tryingToMoveEndPoint = goal;
 				tryingToMoveExactPoint = player.getExactPoint();
 			} else if (tryingToMoveExactPoint.distance(player.getExactPoint()) < 8
-					&& tryingToMoveEndPoint.distance(goal) == 0 && game.currentTimeMillis() - tryingToMoveTime > 500) {
+					&& tryingToMoveEndPoint.distance(goal) == 0 && getTime() - tryingToMoveTime > 500) {
 				int lastDir = new Integer(dir);
 				while (lastDir == dir)
-					dir = Tools.random(null, 7, "Get unstuck");
+					dir = getUnstuckDirection();
 			} else if (tryingToMoveEndPoint.distance(goal) > 0
 					|| tryingToMoveExactPoint.distance(player.getExactPoint()) >= 8) {
 				tryingToMove = false;
@@ -1178,12 +1327,6 @@ public class AI {
 		return moveInDirection(player, dir);
 	}
 
-	ArrayList<Point> lastSearchedStart = new ArrayList<Point>();
-	ArrayList<Point> lastSearchedEnd = new ArrayList<Point>();
-	ArrayList<Long> lastSearchedTime = new ArrayList<Long>();
-	ArrayList<Integer> lastSearchedDirection = new ArrayList<Integer>();
-	long lastSearchedTimeCutoff = 300;
-
 	public static int getDirectionToTile(MainBomberman game, Player player, Point end, AI aiClass) {
 		try {
 			if (end == null)
@@ -1209,64 +1352,13 @@ public class AI {
 				else
 					return 1; // up
 			}
-			for (int i = 0; i < aiClass.lastSearchedStart.size(); i++) {
-				Point s = aiClass.lastSearchedStart.get(i);
-				if (s.distance(start) == 0) {
-					Point e = aiClass.lastSearchedEnd.get(i);
-					if (e.distance(end) == 0) {
-						long t = aiClass.lastSearchedTime.get(i);
-						if (Math.abs(t - game.currentTimeMillis()) < aiClass.lastSearchedTimeCutoff) {
-							return aiClass.lastSearchedDirection.get(i);
-						}
-					}
-				}
-			}
-			for (int i = 0; i < 1 && i < aiClass.lastSearchedStart.size(); i++) {
-				// Continue looping until the first one is recent
-				long t = aiClass.lastSearchedTime.get(i);
-				if (Math.abs(t - game.currentTimeMillis()) >= aiClass.lastSearchedTimeCutoff) {
-					aiClass.lastSearchedStart.remove(i);
-					aiClass.lastSearchedEnd.remove(i);
-					aiClass.lastSearchedTime.remove(i);
-					aiClass.lastSearchedDirection.remove(i);
-					i--;
-				}
-			}
+			long phaseStart = System.nanoTime();
 			int[][] map = getMap(game, player);
-			// System.out.println("Trying to get from (" + start + ") to (" +
-			// end +
-			// ")");
-			AIStarPath aStarPath = AIStar.getAIStarPath(AI.aStarDefaultSettings, map, start, end, 0, 0, 10, 10, 100000,
-					100000, -1, 2, -2, 100000, -3, 100000, -4, 2, -5, 100000, -10, 0, -11, 0, -12, 0, -13, 0, -14, 1,
-					-15, 0, -16, 1, -17, 1, -18, 1, -19, 1, -20, 1, -21, 0, -22, 10, -23, 10, -24, 10, -25, 0, -26, 0,
-					-27, 0);
-			aStarPath.startAI(aiClass.currentPath, aiClass.pathFindingThread);
-			// for (int i = 0; i < aStarPath.tiles.size(); i++)
-			// System.out.println("Got path tile: " + aStarPath.tiles.get(i));
-			if (aStarPath.tiles.size() < 2)
-				return -1;
-			Point step = aStarPath.getNextPathPoint(start);
-			if (step == null)
-				return -1;
-			// System.out.println("start (" + start + ") step (" + step + ")");
-			// aStarPath.log();
-			double xDist = Math.abs(start.x - step.x);
-			double yDist = Math.abs(start.y - step.y);
-			int answer = -1;
-			if (xDist >= yDist)
-				if (step.x > start.x)
-					answer = 3; // right
-				else
-					answer = 2; // left
-			else if (step.y > start.y)
-				answer = 0; // down
-			else
-				answer = 1; // up
-			aiClass.lastSearchedStart.add(start);
-			aiClass.lastSearchedEnd.add(end);
-			aiClass.lastSearchedTime.add(game.currentTimeMillis());
-			aiClass.lastSearchedDirection.add(answer);
-			return answer;
+			DistanceField distanceField = aiClass == null ? new DistanceField() : aiClass.distanceField;
+			int direction = distanceField.getDirection(map, start.x, start.y, end.x, end.y);
+			if (aiClass != null)
+				aiClass.recordPhase(Phase.PATHING, phaseStart);
+			return direction;
 		} catch (Exception e) {
 			e.printStackTrace();
 			return -1;
@@ -1286,111 +1378,4 @@ public class AI {
 		Point goingTo = new Point(num1, num2);
 		goToTileOld(game, game.players.get(0), goingTo);
 	}
-
-	public static class AIStar extends AStar {
-		public static AIStarPath getAIStarPath(int[][] map, Point start, Point end, float... numberWeights) {
-			return new AIStarPath(map, start, end, numberWeights);
-		}
-
-		public static AIStarPath getAIStarPath(Settings settings, int[][] map, Point start, Point end,
-				float... numberWeights) {
-			AIStarPath path = new AIStarPath(map, start, end, numberWeights);
-			path.setSettings(settings);
-			return path;
-		}
-	}
-
-	public static class AIStarPath extends AStarPath {
-
-		Thread pathFinder = null;
-		boolean finished = false;
-
-		public AIStarPath(int[][] map, Point start, Point end, float[] numberWeights) {
-			super(map, start, end, numberWeights);
-		}
-
-		public void startAI(AStarPath currentPath, Thread pathFindingThread) {
-			if (currentPath != null && end.distance(currentPath.end) == 0) {
-				closed = currentPath.closed;
-				end = currentPath.end;
-				map = currentPath.map;
-				numbers = currentPath.numbers;
-				open = currentPath.open;
-				pathFound = currentPath.pathFound;
-				settings = currentPath.settings;
-				start = currentPath.start;
-				tiles = currentPath.tiles;
-				weights = currentPath.weights;
-				pathFinder = pathFindingThread;
-				System.out.println("Efficiency!");
-				finished = true;
-			} else {
-				// pathFinder = new Thread(new PathFinder(this), "Path Finder");
-				// pathFinder.run();
-				start();
-			}
-		}
-
-		public class PathFinder extends Thread {
-			AIStarPath ourSuper = null;
-
-			public PathFinder(Thread thread, String name) {
-				super(thread, name);
-			}
-
-			public PathFinder(AIStarPath ourSuper) {
-				this.ourSuper = ourSuper;
-			}
-
-			public void run() {
-				ourSuper.start();
-				finished = true;
-			}
-		}
-
-		@Override
-		protected float getG(Tile tile) {
-			float amt = super.getG(tile);
-			// System.out.println("getG: " + amt);
-			return amt;
-		}
-
-		// Dunno if needed? old method
-		protected float getCostB(float currentCost, int mapOriginalCost, float weight) {
-			float originalAnswer = super.getCost(currentCost, mapOriginalCost, weight);
-			// System.out.println("getCost(" + currentCost + "," +
-			// mapOriginalCost + ","
-			// + weight + ")");
-			// System.out.println("getCost: " + mapOriginalCost);
-			if (originalAnswer > 0 && originalAnswer <= 4500) {
-				// Find all other bombs and rank ourselves against them
-				// depending on how soon we will explode vs them.
-				// System.out.println("we got a bomb! ahhh!!!!");
-				int ourPlaceInBombs = 100;
-				// long start = game.currentTimeMillis();
-				ArrayList<Integer> checked = new ArrayList<Integer>();
-				for (int i = 0; i < map.length; i++) {
-					for (int j = 0; j < map[i].length; j++) {
-						int m = map[i][j];
-						if (m >= 0 && m <= 4500 && m < originalAnswer && !checked.contains(m)) {
-							// System.out.println("found other, better bomb!");
-							ourPlaceInBombs += 100;
-							checked.add(m);
-						} else if (m >= 0 && m <= 4500) {
-							// System.out.println("found ourselves or wat?");
-						}
-					}
-				}
-				// if (game.currentTimeMillis() - start > 1)
-				// System.out.println("took extra time on our bomb calculation..
-				// ("
-				// + (game.currentTimeMillis() - start) + "ms)");
-				// System.out.println("changed our answer to: " +
-				// ourPlaceInBombs);
-				return ourPlaceInBombs;
-			}
-			return originalAnswer;
-		}
-
-	}
 }
@@ -0,0 +1,226 @@
+package com.github.vegeto079.saturnbomberman.misc;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import com.github.vegeto079.saturnbomberman.objects.Player;
+
+/**
+ * How long one {@link AI} spends thinking, split up by what it's doing (see
+ * {@link Phase}), plus how many decisions it makes a second and how many of
+ * them were already out of date by the time they were made.<br>
+ * Every phase keeps a histogram of how long it took: bucket 0 is under 1us,
+ * and bucket i is 2^(i-1) to 2^i us. Shown in the debug overlay (see
+ * {@link #getSummary()}) and written out with
+ * {@link #export(ArrayList, File)}.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ */
+public class AIProfile {
+	public final static int BUCKETS = 24;
+
+	public enum Phase {
+		/**
+		 * Getting our map from the {@link AIWorld}.
+		 */
+		MAP,
+		/**
+		 * Finding every tile we can reach.
+		 */
+		REACHABILITY,
+		/**
+		 * Valuing a bomb on every tile we can reach.
+		 */
+		BOMB_SCORING,
+		/**
+		 * Checking whether each bomb would trap us.
+		 */
+		TRAP_CHECK,
+		/**
+		 * Getting out of danger, not counting the {@link #PATHING} done along
+		 * the way.
+		 */
+		STAY_SAFE,
+		/**
+		 * Finding which way to go to a tile.
+		 */
+		PATHING;
+	}
+
+	private final long[][] buckets = new long[Phase.values().length][BUCKETS];
+	private final long[] counts = new long[Phase.values().length];
+	private final long[] totals = new long[Phase.values().length];
+	private final long[] maxes = new long[Phase.values().length];
+
+	private long decisions = 0;
+	private long staleDecisions = 0;
+	/**
+	 * When (in {@link System#nanoTime()}) the current second of decisions
+	 * started.
+	 */
+	private long secondStart = 0;
+	private int decisionsThisSecond = 0;
+	private int decisionsPerSecond = 0;
+
+	/**
+	 * @param nanos
+	 * @return Which histogram bucket this time goes in.
+	 */
+	public static int getBucket(long nanos) {
+		long micros = nanos / 1000;
+		if (micros <= 0)
+			return 0;
+		return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+	}
+
+	/**
+	 * @param phase
+	 * @param nanos
+	 *            How long it took this time.
+	 */
+	public synchronized void record(Phase phase, long nanos) {
+		int i = phase.ordinal();
+		buckets[i][getBucket(nanos)]++;
+		counts[i]++;
+		totals[i] += nanos;
+		if (nanos > maxes[i])
+			maxes[i] = nanos;
+	}
+
+	/**
+	 * Counts a decision (one full {@link AI#updateReachableLocations()}).
+	 *
+	 * @param stale
+	 *            Whether the {@link AIWorld} changed while we were deciding.
+	 */
+	public synchronized void recordDecision(boolean stale) {
+		decisions++;
+		if (stale)
+			staleDecisions++;
+		long now = System.nanoTime();
+		if (now - secondStart >= 1000000000L) {
+			decisionsPerSecond = secondStart == 0 ? 0 : decisionsThisSecond;
+			decisionsThisSecond = 0;
+			secondStart = now;
+		}
+		decisionsThisSecond++;
+	}
+
+	public synchronized long getCount(Phase phase) {
+		return counts[phase.ordinal()];
+	}
+
+	/**
+	 * @return Average time this phase took, in ns.
+	 */
+	public synchronized long getAverage(Phase phase) {
+		int i = phase.ordinal();
+		return counts[i] == 0 ? 0 : totals[i] / counts[i];
+	}
+
+	/**
+	 * @param phase
+	 * @param percentile
+	 *            0-1
+	 * @return Top of the histogram bucket the given percentile falls in, in
+	 *         us.
+	 */
+	public synchronized long getPercentile(Phase phase, double percentile) {
+		int i = phase.ordinal();
+		long target = (long) Math.ceil(counts[i] * percentile);
+		long seen = 0;
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			seen += buckets[i][bucket];
+			if (seen >= target && seen > 0)
+				return 1L << bucket;
+		}
+		return 0;
+	}
+
+	/**
+	 * @return Decisions made in the last full second.
+	 */
+	public synchronized int getDecisionsPerSecond() {
+		if (System.nanoTime() - secondStart >= 2000000000L)
+			return 0; // Haven't decided anything in over a second
+		return decisionsPerSecond;
+	}
+
+	/**
+	 * @return How many decisions were out of date when they were made, 0-1.
+	 */
+	public synchronized double getStaleRate() {
+		return decisions == 0 ? 0 : (double) staleDecisions / (double) decisions;
+	}
+
+	public synchronized void reset() {
+		for (int i = 0; i < counts.length; i++) {
+			for (int bucket = 0; bucket < BUCKETS; bucket++)
+				buckets[i][bucket] = 0;
+			counts[i] = 0;
+			totals[i] = 0;
+			maxes[i] = 0;
+		}
+		decisions = 0;
+		staleDecisions = 0;
+	}
+
+	/**
+	 * @return One line for the debug overlay: decisions, how many were stale,
+	 *         and the average/95th percentile of every phase in us.
+	 */
+	public synchronized String getSummary() {
+		StringBuilder summary = new StringBuilder();
+		summary.append(getDecisionsPerSecond()).append(" dec/s, ")
+				.append(Math.round(getStaleRate() * 100)).append("% stale");
+		for (Phase phase : Phase.values())
+			summary.append(", ").append(phase.name().toLowerCase()).append(' ')
+					.append(getAverage(phase) / 1000).append('/').append(getPercentile(phase, .95))
+					.append("us");
+		return summary.toString();
+	}
+
+	/**
+	 * Writes every CPU {@link Player}'s profile to a CSV file: one line per
+	 * {@link Player} and {@link Phase}, with the {@link AI}'s level and
+	 * settings so they can be compared.
+	 *
+	 * @param players
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void export(ArrayList<Player> players, File file) throws IOException {
+		FileWriter writer = new FileWriter(file);
+		try {
+			writer.write("player,level,reactionTime,distanceModifier,trapEnemies,playerHunterLevel,"
+					+ "decisions,staleDecisions,phase,count,totalNs,maxNs,p50us,p95us");
+			for (int bucket = 0; bucket < BUCKETS; bucket++)
+				writer.write(",under" + (1L << bucket) + "us");
+			writer.write(System.getProperty("line.separator"));
+			for (int p = 0; p < players.size(); p++) {
+				AI ai = players.get(p).ai;
+				if (ai == null)
+					continue;
+				AIProfile profile = ai.profile;
+				synchronized (profile) {
+					for (Phase phase : Phase.values()) {
+						int i = phase.ordinal();
+						writer.write(p + "," + ai.level + "," + ai.reactionTime + "," + ai.distanceModifier + ","
+								+ ai.trapEnemies + "," + ai.playerHunterLevel + "," + profile.decisions + ","
+								+ profile.staleDecisions + "," + phase.name() + "," + profile.counts[i] + ","
+								+ profile.totals[i] + "," + profile.maxes[i] + "," + profile.getPercentile(phase, .5)
+								+ "," + profile.getPercentile(phase, .95));
+						for (int bucket = 0; bucket < BUCKETS; bucket++)
+							writer.write("," + profile.buckets[i][bucket]);
+						writer.write(System.getProperty("line.separator"));
+					}
+				}
+			}
+		} finally {
+			writer.close();
+		}
+	}
+}
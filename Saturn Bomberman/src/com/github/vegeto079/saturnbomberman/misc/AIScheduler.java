@@ -0,0 +1,182 @@
+package com.github.vegeto079.saturnbomberman.misc;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs every {@link AI}'s thinking ({@link AI#updateReachableLocations()}) on
+ * a small, fixed number of threads, instead of each {@link AI} having its own
+ * thread spinning as fast as its {@link AI#reactionTime} lets it.<br>
+ * <br>
+ * Each {@link AI} asks to think through {@link #request(AI, long, long)} every
+ * tick. It will be queued once it's been at least its reaction time (and never
+ * less than one tick) since it last thought, and queued {@link AI}s run in
+ * order of who has been waiting past their deadline the longest.<br>
+ * All {@link AI}s together only get {@link #TARGET_LOAD} of the threads' time
+ * each tick. If they can't keep up, every {@link AI} thinks less often (see
+ * {@link #slowdown}) instead of holding up the game.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ */
+public class AIScheduler {
+	private static AIScheduler instance = null;
+
+	/**
+	 * How much of each thread's time per tick the {@link AI}s can use.
+	 */
+	public final static double TARGET_LOAD = 0.5;
+	/**
+	 * The most {@link #slowdown} can get to.
+	 */
+	public final static double MAX_SLOWDOWN = 20;
+
+	public final int threads;
+	private final ExecutorService pool;
+	private final PriorityQueue<Job> queue = new PriorityQueue<Job>();
+	private int running = 0;
+	/**
+	 * What every {@link AI}'s time between thinking is multiplied by. Goes up
+	 * when {@link AI}s are running late, and back down to 1 when they aren't.
+	 */
+	private double slowdown = 1;
+	private long windowStart = 0;
+	private long windowLength = 0;
+	private long spentThisWindow = 0;
+
+	/**
+	 * Kept on the {@link AI} itself (see {@link AI#schedulerJob}), so we
+	 * don't hold on to any {@link AI} once it's stopped thinking.
+	 */
+	static class Job implements Comparable<Job> {
+		final AI ai;
+		boolean queued = false;
+		boolean running = false;
+		long interval = 0;
+		/**
+		 * When (in {@link System#nanoTime()}) we should next think.
+		 */
+		long deadline = Long.MIN_VALUE;
+
+		Job(AI ai) {
+			this.ai = ai;
+		}
+
+		public int compareTo(Job other) {
+			return Long.compare(deadline, other.deadline);
+		}
+	}
+
+	private AIScheduler(int threads) {
+		this.threads = threads;
+		pool = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+			int count = 0;
+
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "AI Thread " + count++);
+				thread.setDaemon(true);
+				thread.setPriority(Thread.MIN_PRIORITY);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * @return The one scheduler every {@link AI} shares. Leaves two processors
+	 *         for the game and paint threads, and uses at most four.
+	 */
+	public static synchronized AIScheduler get() {
+		if (instance == null)
+			instance = new AIScheduler(Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 2)));
+		return instance;
+	}
+
+	/**
+	 * Lets the given {@link AI} think if it's been long enough since it last
+	 * did, and it isn't already waiting or thinking.
+	 *
+	 * @param ai
+	 * @param reactionTime
+	 *            {@link AI#reactionTime}
+	 * @param tickTime
+	 *            How long a game tick is, in ms. We never think more often than
+	 *            this.
+	 */
+	public synchronized void request(AI ai, long reactionTime, long tickTime) {
+		Job job = ai.schedulerJob;
+		if (job == null) {
+			job = new Job(ai);
+			ai.schedulerJob = job;
+		}
+		job.interval = (long) (Math.max(reactionTime, tickTime) * 1000000L * slowdown);
+		windowLength = Math.max(1, tickTime) * 1000000L;
+		if (!job.queued && !job.running && System.nanoTime() >= job.deadline) {
+			job.queued = true;
+			queue.add(job);
+		}
+		dispatch();
+	}
+
+	/**
+	 * @param ai
+	 * @return Whether or not the given {@link AI} is waiting to think, or is
+	 *         thinking right now.
+	 */
+	public synchronized boolean isPending(AI ai) {
+		Job job = ai.schedulerJob;
+		return job != null && (job.queued || job.running);
+	}
+
+	/**
+	 * @return What every {@link AI}'s time between thinking is currently being
+	 *         multiplied by.
+	 */
+	public synchronized double getSlowdown() {
+		return slowdown;
+	}
+
+	/**
+	 * Starts as many queued {@link AI}s as we have free threads and time left
+	 * this tick for.
+	 */
+	private void dispatch() {
+		long now = System.nanoTime();
+		if (now - windowStart >= windowLength) {
+			windowStart = now;
+			spentThisWindow = 0;
+		}
+		long budget = (long) (threads * windowLength * TARGET_LOAD);
+		while (running < threads && !queue.isEmpty() && spentThisWindow < budget) {
+			final Job job = queue.poll();
+			job.queued = false;
+			job.running = true;
+			running++;
+			final long late = job.deadline == Long.MIN_VALUE ? 0 : now - job.deadline;
+			pool.execute(new Runnable() {
+				public void run() {
+					long start = System.nanoTime();
+					try {
+						job.ai.runScheduled();
+					} catch (Exception e) {
+					}
+					finished(job, start, System.nanoTime() - start, late);
+				}
+			});
+		}
+	}
+
+	private synchronized void finished(Job job, long start, long took, long late) {
+		running--;
+		spentThisWindow += took;
+		job.running = false;
+		if (late > job.interval)
+			// Waited over a whole interval to run, think less often
+			slowdown = Math.min(MAX_SLOWDOWN, slowdown * 1.25);
+		else if (late < job.interval / 4)
+			slowdown = Math.max(1, slowdown * 0.95);
+		job.deadline = start + job.interval;
+		dispatch();
+	}
+}
@@ -0,0 +1,200 @@
+package com.github.vegeto079.saturnbomberman.misc;
+
+import java.util.ArrayList;
+
+import com.github.vegeto079.saturnbomberman.main.MainBomberman;
+import com.github.vegeto079.saturnbomberman.main.Stage;
+import com.github.vegeto079.saturnbomberman.misc.BitBoard.Layer;
+import com.github.vegeto079.saturnbomberman.objects.Bomb;
+import com.github.vegeto079.saturnbomberman.objects.Player;
+
+/**
+ * What every {@link AI} sees of the stage at one point in time. Made by the
+ * game thread through {@link Stage#updateWorld(MainBomberman)} once per tick
+ * (only when the collision map has actually changed), and shared by every
+ * {@link AI} so they don't each build their own map from the stage.<br>
+ * Nothing in here changes once it's made. The map each {@link Player} sees
+ * (see {@link #getMap(Player)}) is only worked out when it's first asked for,
+ * and kept until the {@link Player} moves to another tile.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ * @version 1.01: Added {@link #getEscapeField(int)}.
+ */
+public class AIWorld {
+	/**
+	 * {@link Stage#getCollisionMapVersion()} this was made from.
+	 */
+	public final long version;
+	/**
+	 * {@link MainBomberman#currentTimeMillis()} when this was made.
+	 */
+	public final long time;
+	/**
+	 * [row][column], see {@link Stage#getCollisionMap(MainBomberman)}.
+	 */
+	private final long[][] collisionMap;
+	private final BitBoard[] layers;
+
+	/**
+	 * Last map made for each {@link Player} index by {@link #getMap(Player)},
+	 * and what it was made for (see {@link #getMapKey(Player)}).
+	 */
+	private final int[][][] playerMaps = new int[8][][];
+	private final long[] playerMapKeys = new long[8];
+	/**
+	 * {@link EscapeField}s made so far, one per walking speed.
+	 */
+	private final ArrayList<EscapeField> escapeFields = new ArrayList<EscapeField>(4);
+
+	/**
+	 * @param version
+	 * @param time
+	 * @param collisionMap
+	 *            Must not be changed after this.
+	 * @param layers
+	 *            Must not be changed after this.
+	 */
+	public AIWorld(long version, long time, long[][] collisionMap, BitBoard[] layers) {
+		this.version = version;
+		this.time = time;
+		this.collisionMap = collisionMap;
+		this.layers = layers;
+	}
+
+	/**
+	 * @return [row][column], see {@link Stage#getCollisionMap(MainBomberman)}.
+	 *         Shared, don't change it.
+	 */
+	public long[][] getCollisionMap() {
+		return collisionMap;
+	}
+
+	/**
+	 * @param layer
+	 * @return A copy of the given layer.
+	 */
+	public BitBoard getLayer(Layer layer) {
+		return layers[layer.ordinal()].copy();
+	}
+
+	/**
+	 * @param player
+	 * @return The most ms we can still safely walk through fire for this
+	 *         {@link Player}, see {@link AI#walkingThroughFireMultiplier}.
+	 */
+	public static int getFireCutoff(Player player) {
+		// If a place will explode in over 1500ms from now, we can safely walk
+		// over it (for now), so just set it to safe. That said, if we can run
+		// faster, this timeframe can be smaller.
+		// 1 speed = 1500ms
+		// 9 speed = 700ms
+		// This value gets multiplied based on difficulty.
+		int cutoff = 1600 - player.speed * 100;
+		if (player.ai != null)
+			cutoff = (int) ((float) cutoff * player.ai.walkingThroughFireMultiplier);
+		return cutoff;
+	}
+
+	/**
+	 * @param player
+	 * @return Everything {@link #getMap(Player)} depends on for this player.
+	 */
+	private long getMapKey(Player player) {
+		return ((long) getFireCutoff(player) << 32) | ((long) (player.getCellX() + 1) << 16)
+				| (long) (player.getCellY() + 1);
+	}
+
+	/**
+	 * The collision map the way the given {@link Player} sees it, with danger
+	 * the player can walk through marked safe, and if the player is already in
+	 * danger, only the danger they can't escape through still marked.<br>
+	 * Shared between everyone asking for this {@link Player}, don't change it.
+	 *
+	 * @param player
+	 * @return [column][row]
+	 */
+	public synchronized int[][] getMap(Player player) {
+		int index = player.getIndex();
+		long key = getMapKey(player);
+		if (index >= 0 && index < playerMaps.length && playerMaps[index] != null && playerMapKeys[index] == key)
+			return playerMaps[index];
+		int[][] map = buildMap(player);
+		if (index >= 0 && index < playerMaps.length) {
+			playerMaps[index] = map;
+			playerMapKeys[index] = key;
+		}
+		return map;
+	}
+
+	/**
+	 * @param stepTime
+	 *            See {@link EscapeField#getStepTime(Player)}.
+	 * @return The way out of danger from every tile, for anyone walking at
+	 *         this speed. Made the first time it's asked for, then shared.
+	 */
+	public synchronized EscapeField getEscapeField(int stepTime) {
+		for (EscapeField field : escapeFields)
+			if (field.stepTime == stepTime)
+				return field;
+		EscapeField field = new EscapeField(collisionMap, stepTime);
+		escapeFields.add(field);
+		return field;
+	}
+
+	private int[][] buildMap(Player player) {
+		int rows = collisionMap.length, columns = collisionMap[0].length;
+		int[][] map = new int[columns][rows];
+		int ourX = player.getCellX(), ourY = player.getCellY();
+		long weAreGoingToExplodeTime = -1;
+		if (ourX >= 0 && ourY >= 0 && ourX < columns && ourY < rows && collisionMap[ourY][ourX] >= 0) {
+			// If this spot we are standing on is dangerous, make
+			// preparations!
+			weAreGoingToExplodeTime = (int) collisionMap[ourY][ourX];
+		}
+		int cutoff = getFireCutoff(player);
+		for (int i = 0; i < columns; i++) {
+			for (int j = 0; j < rows; j++) {
+				int num = (int) collisionMap[j][i];
+				if (num == 100000 && weAreGoingToExplodeTime != -1) {
+					// found a bomb
+					if (i == ourX && j == ourY) {
+						// If we are on the point with a bomb, we can move
+						ArrayList<Bomb> bombs = player.getBombsLaid();
+						for (Bomb bomb : bombs)
+							if (bomb.getCellPoint().x == i && bomb.getCellPoint().y == j) {
+								num = 10;
+								break;
+							}
+					} // If the bomb is not under us, ignore it
+				} else if (num >= 500 && weAreGoingToExplodeTime != -1) {
+					// we're either standing on fire or under weights going to
+					// fall or something dangerous like that. To allow ourselves
+					// to get out of this hairy situation, make anything
+					// dangerous temporarily not dangerous!
+					num = 10;
+				} else if (num >= 1 && weAreGoingToExplodeTime != -1) {
+					// We want to get out of a dangerous situation, but walking
+					// into one thats <500ms from exploding (or already
+					// exploding) is certain death. Better to wait on the
+					// dangerous spot we're on, probably.
+					if (weAreGoingToExplodeTime <= 600) {
+						// We're on a square that's close to exploding anyway,
+						// might as well run for it!
+						num = 10;
+					} else
+						num = 100000;
+				} else if (num == 0 && weAreGoingToExplodeTime != -1) {
+					// Despite all else, don't walk onto a block that'll
+					// instantly kill us.
+					num = 100000;
+				} else if (num >= 0 && num <= 1000)
+					num = 100000;
+				else if (num != 100000 && num >= cutoff)
+					num = 10;
+				map[i][j] = num;
+			}
+		}
+		return map;
+	}
+}
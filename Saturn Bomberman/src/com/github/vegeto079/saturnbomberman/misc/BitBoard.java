@@ -0,0 +1,446 @@
+package com.github.vegeto079.saturnbomberman.misc;
+
+import java.awt.Point;
+
+import com.github.vegeto079.saturnbomberman.main.Stage;
+
+/**
+ * One bit for every tile on the stage: {@link Stage#TILES_ACROSS} x
+ * {@link Stage#TILES_DOWN} = 187 tiles, which fits in three longs. Tile
+ * (column, row) is bit row * {@link #WIDTH} + column.<br>
+ * Lets us work on every tile at once (ie. spreading out one step in every
+ * direction, or taking away every dangerous tile) with a few long operations
+ * instead of looping over a 2D array.<br>
+ * Operations change this board and return it, so they can be chained. Use
+ * {@link #copy()} to keep the original.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ */
+public class BitBoard {
+	public final static int WIDTH = Stage.TILES_ACROSS;
+	public final static int HEIGHT = Stage.TILES_DOWN;
+	public final static int CELLS = WIDTH * HEIGHT;
+
+	/**
+	 * Which bits of the last long are actually tiles.
+	 */
+	private final static long LAST_WORD = (1L << (CELLS - 128)) - 1;
+	/**
+	 * Every tile except the first column, and every tile except the last
+	 * column. Used to stop tiles wrapping around rows when moving left/right.
+	 */
+	private final static BitBoard NOT_FIRST_COLUMN = new BitBoard();
+	private final static BitBoard NOT_LAST_COLUMN = new BitBoard();
+	static {
+		for (int i = 0; i < HEIGHT; i++)
+			for (int j = 0; j < WIDTH; j++) {
+				if (j != 0)
+					NOT_FIRST_COLUMN.set(j, i);
+				if (j != WIDTH - 1)
+					NOT_LAST_COLUMN.set(j, i);
+			}
+	}
+
+	/**
+	 * The different things {@link Stage#getLayer(com.github.vegeto079.saturnbomberman.main.MainBomberman, Layer)}
+	 * keeps track of.
+	 */
+	public enum Layer {
+		/**
+		 * Walls and landed weights: nothing gets through.
+		 */
+		WALLS,
+		/**
+		 * Blocks that can be blown up.
+		 */
+		BLOCKS,
+		BOMBS,
+		/**
+		 * Anywhere that is on fire, or will be (bombs and falling weights).
+		 */
+		FIRE,
+		ITEMS,
+		/**
+		 * Tiles with an alive player on them.
+		 */
+		PLAYERS;
+	}
+
+	private long word0 = 0, word1 = 0, word2 = 0;
+
+	public BitBoard() {
+	}
+
+	public BitBoard(BitBoard other) {
+		set(other);
+	}
+
+	/**
+	 * @return A board with every tile set.
+	 */
+	public static BitBoard all() {
+		BitBoard board = new BitBoard();
+		board.word0 = -1L;
+		board.word1 = -1L;
+		board.word2 = LAST_WORD;
+		return board;
+	}
+
+	/**
+	 * @param map
+	 *            [column][row], as {@link AI#getMap} gives.
+	 * @param min
+	 * @param max
+	 * @return A board with every tile whose value is between min and max
+	 *         (inclusive) set.
+	 */
+	public static BitBoard fromMap(int[][] map, int min, int max) {
+		BitBoard board = new BitBoard();
+		for (int x = 0; x < map.length && x < WIDTH; x++)
+			for (int y = 0; y < map[x].length && y < HEIGHT; y++)
+				if (map[x][y] >= min && map[x][y] <= max)
+					board.set(x, y);
+		return board;
+	}
+
+	/**
+	 * @param tiles
+	 *            [column][row]
+	 * @return A board with every <b>true</b> tile set.
+	 */
+	public static BitBoard fromTiles(boolean[][] tiles) {
+		BitBoard board = new BitBoard();
+		for (int x = 0; x < tiles.length && x < WIDTH; x++)
+			for (int y = 0; y < tiles[x].length && y < HEIGHT; y++)
+				if (tiles[x][y])
+					board.set(x, y);
+		return board;
+	}
+
+	public static boolean inBounds(int column, int row) {
+		return column >= 0 && row >= 0 && column < WIDTH && row < HEIGHT;
+	}
+
+	public BitBoard copy() {
+		return new BitBoard(this);
+	}
+
+	public boolean get(int column, int row) {
+		if (!inBounds(column, row))
+			return false;
+		return getBit(row * WIDTH + column);
+	}
+
+	public boolean get(Point tile) {
+		return get(tile.x, tile.y);
+	}
+
+	public boolean getBit(int index) {
+		if (index < 64)
+			return (word0 & (1L << index)) != 0;
+		else if (index < 128)
+			return (word1 & (1L << (index - 64))) != 0;
+		return (word2 & (1L << (index - 128))) != 0;
+	}
+
+	/**
+	 * Sets the given tile. Tiles outside the stage are ignored.
+	 */
+	public BitBoard set(int column, int row) {
+		if (inBounds(column, row))
+			setBit(row * WIDTH + column);
+		return this;
+	}
+
+	public BitBoard set(Point tile) {
+		return set(tile.x, tile.y);
+	}
+
+	public BitBoard setBit(int index) {
+		if (index < 64)
+			word0 |= 1L << index;
+		else if (index < 128)
+			word1 |= 1L << (index - 64);
+		else
+			word2 |= 1L << (index - 128);
+		return this;
+	}
+
+	/**
+	 * Clears the given tile. Tiles outside the stage are ignored.
+	 */
+	public BitBoard clear(int column, int row) {
+		if (inBounds(column, row))
+			clearBit(row * WIDTH + column);
+		return this;
+	}
+
+	public BitBoard clear(Point tile) {
+		return clear(tile.x, tile.y);
+	}
+
+	public BitBoard clearBit(int index) {
+		if (index < 64)
+			word0 &= ~(1L << index);
+		else if (index < 128)
+			word1 &= ~(1L << (index - 64));
+		else
+			word2 &= ~(1L << (index - 128));
+		return this;
+	}
+
+	/**
+	 * Clears every tile.
+	 */
+	public BitBoard clear() {
+		word0 = word1 = word2 = 0;
+		return this;
+	}
+
+	/**
+	 * Makes this board the same as the other.
+	 */
+	public BitBoard set(BitBoard other) {
+		word0 = other.word0;
+		word1 = other.word1;
+		word2 = other.word2;
+		return this;
+	}
+
+	public BitBoard or(BitBoard other) {
+		word0 |= other.word0;
+		word1 |= other.word1;
+		word2 |= other.word2;
+		return this;
+	}
+
+	public BitBoard and(BitBoard other) {
+		word0 &= other.word0;
+		word1 &= other.word1;
+		word2 &= other.word2;
+		return this;
+	}
+
+	/**
+	 * Clears every tile that is set in the other board.
+	 */
+	public BitBoard andNot(BitBoard other) {
+		word0 &= ~other.word0;
+		word1 &= ~other.word1;
+		word2 &= ~other.word2;
+		return this;
+	}
+
+	/**
+	 * Flips every tile on the stage.
+	 */
+	public BitBoard not() {
+		word0 = ~word0;
+		word1 = ~word1;
+		word2 = ~word2 & LAST_WORD;
+		return this;
+	}
+
+	public boolean isEmpty() {
+		return (word0 | word1 | word2) == 0;
+	}
+
+	/**
+	 * @return Whether or not any tile is set in both boards.
+	 */
+	public boolean intersects(BitBoard other) {
+		return ((word0 & other.word0) | (word1 & other.word1) | (word2 & other.word2)) != 0;
+	}
+
+	/**
+	 * @return Whether or not every tile set here is also set in the other
+	 *         board.
+	 */
+	public boolean isCoveredBy(BitBoard other) {
+		return ((word0 & ~other.word0) | (word1 & ~other.word1) | (word2 & ~other.word2)) == 0;
+	}
+
+	/**
+	 * @return How many tiles are set.
+	 */
+	public int count() {
+		return Long.bitCount(word0) + Long.bitCount(word1) + Long.bitCount(word2);
+	}
+
+	/**
+	 * @param from
+	 *            Index to start looking at.
+	 * @return The index of the next set tile, starting at <b>from</b>, or -1
+	 *         if there are no more.
+	 */
+	public int nextSetBit(int from) {
+		if (from < 0)
+			from = 0;
+		if (from < 64) {
+			long w = word0 & (-1L << from);
+			if (w != 0)
+				return Long.numberOfTrailingZeros(w);
+			from = 64;
+		}
+		if (from < 128) {
+			long w = word1 & (-1L << (from - 64));
+			if (w != 0)
+				return 64 + Long.numberOfTrailingZeros(w);
+			from = 128;
+		}
+		if (from < CELLS) {
+			long w = word2 & (-1L << (from - 128));
+			if (w != 0)
+				return 128 + Long.numberOfTrailingZeros(w);
+		}
+		return -1;
+	}
+
+	/**
+	 * Moves every bit towards higher indexes (right or down).
+	 */
+	private BitBoard shiftUpBits(int n) {
+		word2 = ((word2 << n) | (word1 >>> (64 - n))) & LAST_WORD;
+		word1 = (word1 << n) | (word0 >>> (64 - n));
+		word0 = word0 << n;
+		return this;
+	}
+
+	/**
+	 * Moves every bit towards lower indexes (left or up).
+	 */
+	private BitBoard shiftDownBits(int n) {
+		word0 = (word0 >>> n) | (word1 << (64 - n));
+		word1 = (word1 >>> n) | (word2 << (64 - n));
+		word2 = word2 >>> n;
+		return this;
+	}
+
+	/**
+	 * Moves every tile one row up. Tiles on the top row fall off.
+	 */
+	public BitBoard moveUp() {
+		return shiftDownBits(WIDTH);
+	}
+
+	/**
+	 * Moves every tile one row down. Tiles on the bottom row fall off.
+	 */
+	public BitBoard moveDown() {
+		return shiftUpBits(WIDTH);
+	}
+
+	/**
+	 * Moves every tile one column left. Tiles on the first column fall off.
+	 */
+	public BitBoard moveLeft() {
+		return and(NOT_FIRST_COLUMN).shiftDownBits(1);
+	}
+
+	/**
+	 * Moves every tile one column right. Tiles on the last column fall off.
+	 */
+	public BitBoard moveRight() {
+		return and(NOT_LAST_COLUMN).shiftUpBits(1);
+	}
+
+	/**
+	 * Moves every tile one step in the given direction.
+	 *
+	 * @param direction
+	 *            0: down, 1: up, 2: left, 3: right, the same as
+	 *            {@link AI#moveInDirection}.
+	 */
+	public BitBoard move(int direction) {
+		if (direction == 0)
+			return moveDown();
+		else if (direction == 1)
+			return moveUp();
+		else if (direction == 2)
+			return moveLeft();
+		return moveRight();
+	}
+
+	/**
+	 * Adds every tile next to (up, down, left, right) a tile that's set.
+	 */
+	public BitBoard grow() {
+		BitBoard up = copy().moveUp();
+		BitBoard down = copy().moveDown();
+		BitBoard left = copy().moveLeft();
+		BitBoard right = copy().moveRight();
+		return or(up).or(down).or(left).or(right);
+	}
+
+	/**
+	 * Keeps spreading out from every set tile, only through tiles set in
+	 * <b>open</b>, until nothing new can be reached.
+	 *
+	 * @param open
+	 *            Tiles we can move through.
+	 * @return This board, now with every tile reachable from the original
+	 *         tiles.
+	 */
+	public BitBoard floodFill(BitBoard open) {
+		BitBoard last = new BitBoard();
+		BitBoard step = new BitBoard();
+		while (!equals(last)) {
+			last.set(this);
+			step.set(this).grow().and(open);
+			or(step);
+		}
+		return this;
+	}
+
+	/**
+	 * Sets every tile fire would reach from every set tile, with the given
+	 * power, in all four directions.
+	 *
+	 * @param power
+	 *            How many tiles the fire goes out in each direction.
+	 * @param blocking
+	 *            Tiles fire can't go onto at all (ie. walls).
+	 * @param stopping
+	 *            Tiles fire goes onto, but doesn't go past (ie. blocks, bombs,
+	 *            items).
+	 * @return This board, now with the bomb tiles and all of their fire.
+	 */
+	public BitBoard blast(int power, BitBoard blocking, BitBoard stopping) {
+		BitBoard fire = copy();
+		BitBoard ray = new BitBoard();
+		for (int direction = 0; direction < 4; direction++) {
+			ray.set(this);
+			for (int i = 0; i < power && !ray.isEmpty(); i++) {
+				ray.move(direction).andNot(blocking);
+				fire.or(ray);
+				ray.andNot(stopping);
+			}
+		}
+		return set(fire);
+	}
+
+	@Override
+	public boolean equals(java.lang.Object obj) {
+		if (!(obj instanceof BitBoard))
+			return false;
+		BitBoard other = (BitBoard) obj;
+		return word0 == other.word0 && word1 == other.word1 && word2 == other.word2;
+	}
+
+	@Override
+	public int hashCode() {
+		long hash = word0 * 31 * 31 + word1 * 31 + word2;
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < HEIGHT; i++) {
+			for (int j = 0; j < WIDTH; j++)
+				builder.append(get(j, i) ? '#' : '.');
+			builder.append('\n');
+		}
+		return builder.toString();
+	}
+}
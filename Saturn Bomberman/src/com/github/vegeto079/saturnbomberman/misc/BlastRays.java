@@ -0,0 +1,89 @@
+package com.github.vegeto079.saturnbomberman.misc;
+
+import com.github.vegeto079.saturnbomberman.main.Stage;
+
+/**
+ * How far fire from a bomb on each tile could go in each direction, going only
+ * by the stage's tiles: fire stops at the edge of the stage, and on the first
+ * solid or explodable tile it hits (which is counted, since fire reaches
+ * it).<br>
+ * Made once per stage layout by {@link Stage#getBlastRays()}, and made again
+ * only when a tile changes (ie. a block is destroyed). For any fire power, a
+ * ray is just the smaller of the two, see {@link #getReach(int, int, int, int)}.
+ * Anything else that stops fire (items, players, falling weights, danger) is
+ * still up to whoever walks the ray.<br>
+ * Directions are the ones {@link AI#moveInDirection} uses: 0 down, 1 up, 2
+ * left, 3 right.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ */
+public class BlastRays {
+	/**
+	 * The most fire power a {@link com.github.vegeto079.saturnbomberman.objects.Player}
+	 * can have.
+	 */
+	public final static int MAX_POWER = 9;
+	/**
+	 * Column change for each direction.
+	 */
+	public final static int[] DX = { 0, 0, -1, 1 };
+	/**
+	 * Row change for each direction.
+	 */
+	public final static int[] DY = { 1, -1, 0, 0 };
+
+	/**
+	 * {@link Stage#getStageVersion()} this was made from.
+	 */
+	public final long version;
+	private final int rows, columns;
+	/**
+	 * (row * columns + column) * 4 + direction
+	 */
+	private final byte[] reach;
+
+	/**
+	 * @param stage
+	 *            [row][column], see {@link Stage#get()}.
+	 * @param version
+	 *            {@link Stage#getStageVersion()}
+	 */
+	public BlastRays(int[][] stage, long version) {
+		this.version = version;
+		rows = stage.length;
+		columns = stage[0].length;
+		reach = new byte[rows * columns * 4];
+		for (int row = 0; row < rows; row++)
+			for (int column = 0; column < columns; column++)
+				for (int direction = 0; direction < 4; direction++) {
+					int length = 0;
+					int x = column, y = row;
+					while (length < MAX_POWER) {
+						x += DX[direction];
+						y += DY[direction];
+						if (x < 0 || y < 0 || x >= columns || y >= rows)
+							break;
+						length++;
+						if (stage[y][x] == 0 || stage[y][x] == 1)
+							break; // Solid or explodable, fire stops here
+					}
+					reach[(row * columns + column) * 4 + direction] = (byte) length;
+				}
+	}
+
+	/**
+	 * @param column
+	 * @param row
+	 * @param direction
+	 * @param power
+	 *            Fire power of the bomb.
+	 * @return How many tiles fire from a bomb on this tile goes in the given
+	 *         direction, not counting the bomb's tile.
+	 */
+	public int getReach(int column, int row, int direction, int power) {
+		if (column < 0 || row < 0 || column >= columns || row >= rows)
+			return 0;
+		return Math.min(power, reach[(row * columns + column) * 4 + direction]);
+	}
+}
@@ -0,0 +1,87 @@
+package com.github.vegeto079.saturnbomberman.misc;
+
+/**
+ * What walking onto each value of an {@link AI} map costs, worked out once
+ * from number/weight pairs instead of being read from varargs on every step.
+ * {@link DistanceField} uses {@link #DEFAULT}.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ */
+public class CostProfile {
+	/**
+	 * Any weight this high or higher can't be walked through.
+	 */
+	public final static float IMPASSABLE = 100000;
+
+	/**
+	 * The weights {@link AI#getDirectionToTile} has always used.
+	 */
+	public final static CostProfile DEFAULT = new CostProfile(0, 0, 10, 10, 100000, 100000, -1, 2, -2, 100000, -3,
+			100000, -4, 2, -5, 100000, -10, 0, -11, 0, -12, 0, -13, 0, -14, 1, -15, 0, -16, 1, -17, 1, -18, 1, -19, 1,
+			-20, 1, -21, 0, -22, 10, -23, 10, -24, 10, -25, 0, -26, 0, -27, 0);
+
+	/**
+	 * Lowest and highest map value kept in {@link #table}.
+	 */
+	private final static int TABLE_MIN = -64, TABLE_MAX = 64;
+	/**
+	 * Cost for map values {@link #TABLE_MIN} to {@link #TABLE_MAX}, -1 if they
+	 * can't be walked on.
+	 */
+	private final int[] table = new int[TABLE_MAX - TABLE_MIN + 1];
+	/**
+	 * Map values outside {@link #table} that have a weight.
+	 */
+	private final int[] otherNumbers;
+	private final int[] otherCosts;
+
+	/**
+	 * @param numberWeights
+	 *            Map value, then its weight, for as many values as needed.
+	 *            Values without a weight cost themselves if positive, or 1
+	 *            otherwise.
+	 */
+	public CostProfile(float... numberWeights) {
+		for (int value = TABLE_MIN; value <= TABLE_MAX; value++)
+			table[value - TABLE_MIN] = getUnweightedCost(value);
+		int others = 0;
+		for (int i = 0; i + 1 < numberWeights.length; i += 2)
+			if (numberWeights[i] < TABLE_MIN || numberWeights[i] > TABLE_MAX)
+				others++;
+		otherNumbers = new int[others];
+		otherCosts = new int[others];
+		others = 0;
+		for (int i = 0; i + 1 < numberWeights.length; i += 2) {
+			int number = (int) numberWeights[i];
+			int cost = numberWeights[i + 1] >= IMPASSABLE ? -1 : (int) numberWeights[i + 1];
+			if (number < TABLE_MIN || number > TABLE_MAX) {
+				otherNumbers[others] = number;
+				otherCosts[others++] = cost;
+			} else
+				table[number - TABLE_MIN] = cost;
+		}
+	}
+
+	private static int getUnweightedCost(long value) {
+		if (value >= IMPASSABLE)
+			return -1;
+		if (value >= 0)
+			return (int) value;
+		return 1;
+	}
+
+	/**
+	 * @param value
+	 *            Value from an {@link AI} map.
+	 * @return What walking onto it costs, or -1 if it can't be walked on.
+	 */
+	public int getCost(int value) {
+		if (value >= TABLE_MIN && value <= TABLE_MAX)
+			return table[value - TABLE_MIN];
+		for (int i = 0; i < otherNumbers.length; i++)
+			if (otherNumbers[i] == value)
+				return otherCosts[i];
+		return getUnweightedCost(value);
+	}
+}
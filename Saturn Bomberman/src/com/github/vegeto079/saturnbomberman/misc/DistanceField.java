@@ -0,0 +1,185 @@
+package com.github.vegeto079.saturnbomberman.misc;
+
+/**
+ * The cheapest way from one tile to every other tile on an {@link AI} map,
+ * found once with Dijkstra's algorithm. Afterwards, the first step towards any
+ * tile is just looked up.<br>
+ * Costs are the same ones {@link AI#getDirectionToTile} used to give A* (see
+ * {@link CostProfile#DEFAULT}).<br>
+ * Only worked out again when the map or the start tile changes. Since
+ * {@link AIWorld#getMap(com.github.vegeto079.saturnbomberman.objects.Player)}
+ * gives out the same map until the world changes or the player moves, that's
+ * at most once per {@link AIWorld} per tile we stand on.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ * @version 1.01: Costs come from {@link CostProfile#DEFAULT}.
+ */
+public class DistanceField {
+	public final static int UNREACHABLE = Integer.MAX_VALUE;
+
+	private int width = 0, height = 0;
+	/**
+	 * Cheapest cost from the start to each tile (column * height + row).
+	 */
+	private int[] distance = new int[0];
+	/**
+	 * Direction of the first step from the start towards each tile, as
+	 * {@link AI#moveInDirection} uses. -1 for the start and unreachable tiles.
+	 */
+	private byte[] firstStep = new byte[0];
+	/**
+	 * Binary heap of (cost << 16) | tile.
+	 */
+	private long[] heap = new long[0];
+	private int heapSize = 0;
+
+	private int[][] lastMap = null;
+	private int lastStartX = -1, lastStartY = -1;
+
+	/**
+	 * @param value
+	 *            Value from an {@link AI} map.
+	 * @return How much walking onto a tile with this value costs, or -1 if it
+	 *         can't be walked on.
+	 */
+	public static int getCost(int value) {
+		return CostProfile.DEFAULT.getCost(value);
+	}
+
+	/**
+	 * Works out the cheapest way to every tile from the start, unless we
+	 * already have for this map and start.
+	 *
+	 * @param map
+	 *            [column][row], as {@link AI#getMap} gives. Must not change
+	 *            after being given to us.
+	 * @param startX
+	 *            Column
+	 * @param startY
+	 *            Row
+	 */
+	public synchronized void update(int[][] map, int startX, int startY) {
+		if (map == lastMap && startX == lastStartX && startY == lastStartY)
+			return;
+		lastMap = map;
+		lastStartX = startX;
+		lastStartY = startY;
+		int newWidth = map.length, newHeight = map[0].length;
+		if (newWidth != width || newHeight != height) {
+			width = newWidth;
+			height = newHeight;
+			distance = new int[width * height];
+			firstStep = new byte[width * height];
+			heap = new long[width * height * 4 + 1];
+		}
+		for (int i = 0; i < distance.length; i++) {
+			distance[i] = UNREACHABLE;
+			firstStep[i] = -1;
+		}
+		heapSize = 0;
+		if (startX < 0 || startY < 0 || startX >= width || startY >= height)
+			return;
+		int start = startX * height + startY;
+		distance[start] = 0;
+		push(start, 0);
+		while (heapSize > 0) {
+			long top = pop();
+			int tile = (int) (top & 0xFFFF);
+			int cost = (int) (top >>> 16);
+			if (cost > distance[tile])
+				continue;
+			int x = tile / height, y = tile % height;
+			if (y < height - 1)
+				relax(map, tile, x, y + 1, 0, start);
+			if (y > 0)
+				relax(map, tile, x, y - 1, 1, start);
+			if (x > 0)
+				relax(map, tile, x - 1, y, 2, start);
+			if (x < width - 1)
+				relax(map, tile, x + 1, y, 3, start);
+		}
+	}
+
+	private void relax(int[][] map, int from, int x, int y, int direction, int start) {
+		int stepCost = getCost(map[x][y]);
+		if (stepCost == -1)
+			return;
+		int tile = x * height + y;
+		int cost = distance[from] + stepCost;
+		if (cost >= distance[tile])
+			return;
+		distance[tile] = cost;
+		firstStep[tile] = from == start ? (byte) direction : firstStep[from];
+		push(tile, cost);
+	}
+
+	private void push(int tile, int cost) {
+		if (heapSize == heap.length) {
+			long[] bigger = new long[heap.length * 2];
+			System.arraycopy(heap, 0, bigger, 0, heap.length);
+			heap = bigger;
+		}
+		long value = ((long) cost << 16) | tile;
+		int i = heapSize++;
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (heap[parent] <= value)
+				break;
+			heap[i] = heap[parent];
+			i = parent;
+		}
+		heap[i] = value;
+	}
+
+	private long pop() {
+		long top = heap[0];
+		long last = heap[--heapSize];
+		int i = 0;
+		while (true) {
+			int child = i * 2 + 1;
+			if (child >= heapSize)
+				break;
+			if (child + 1 < heapSize && heap[child + 1] < heap[child])
+				child++;
+			if (heap[child] >= last)
+				break;
+			heap[i] = heap[child];
+			i = child;
+		}
+		if (heapSize > 0)
+			heap[i] = last;
+		return top;
+	}
+
+	/**
+	 * @return Cheapest cost from the start to this tile, or
+	 *         {@link #UNREACHABLE}.
+	 */
+	public synchronized int getDistance(int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height)
+			return UNREACHABLE;
+		return distance[x * height + y];
+	}
+
+	/**
+	 * @return Which way to go from the start to get to this tile, as
+	 *         {@link AI#moveInDirection} uses, or -1 if we're already there or
+	 *         can't get there.
+	 */
+	public synchronized int getDirectionTo(int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height)
+			return -1;
+		return firstStep[x * height + y];
+	}
+
+	/**
+	 * {@link #update(int[][], int, int)} and
+	 * {@link #getDirectionTo(int, int)} together, so nobody else can change the
+	 * start in between.
+	 */
+	public synchronized int getDirection(int[][] map, int startX, int startY, int endX, int endY) {
+		update(map, startX, startY);
+		return getDirectionTo(endX, endY);
+	}
+}
@@ -12,7 +12,6 @@ import java.awt.TexturePaint;
 import java.awt.font.GlyphVector;
 import java.awt.image.BufferedImage;
 
-import com.github.vegeto079.ngcommontools.main.Game;
 import com.github.vegeto079.ngcommontools.main.Tools;
 import com.github.vegeto079.saturnbomberman.main.MainBomberman;
 
@@ -28,7 +27,7 @@ import com.github.vegeto079.saturnbomberman.main.MainBomberman;
  *          .
  */
 public class Draw {
-	public Game game = null;
+	public MainBomberman game = null;
 	public Pictures pictures = null;
 
 	public Draw(MainBomberman game) {
@@ -0,0 +1,293 @@
+package com.github.vegeto079.saturnbomberman.misc;
+
+import java.awt.Point;
+
+import com.github.vegeto079.saturnbomberman.main.MainBomberman;
+import com.github.vegeto079.saturnbomberman.main.Stage;
+import com.github.vegeto079.saturnbomberman.objects.Player;
+
+/**
+ * Which way to run to get out of danger, from every tile at once. Worked out
+ * once per {@link AIWorld} (and walking speed, see {@link #getStepTime(Player)})
+ * and shared by every {@link AI}, instead of each {@link AI} looking over the
+ * whole map for the closest safe tile and then finding a path to it.<br>
+ * <br>
+ * Starts from every safe tile and works outwards through dangerous ones,
+ * keeping for each tile the latest we can get there (in ms from when the
+ * {@link AIWorld} was made) and still get out before anything explodes on us
+ * along the way. Safe tiles can be stood on forever. Otherwise, it's how long
+ * until this tile explodes or the latest we can get to the next tile on the
+ * way out, whichever comes first, minus how long it takes to walk one tile.
+ * Ties go to the way with fewer steps.<br>
+ * Once this is made, the way out from any tile is whichever of its neighbors
+ * we can get to in time and has the most time to spare.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ */
+public class EscapeField {
+	/**
+	 * {@link #getLatest(int, int)} for safe tiles.
+	 */
+	public final static int SAFE = Integer.MAX_VALUE;
+	/**
+	 * {@link #getLatest(int, int)} for tiles we can't get out from.
+	 */
+	public final static int TRAPPED = -1;
+
+	/**
+	 * How long it takes to walk one tile, in ms.
+	 */
+	public final int stepTime;
+	private final int rows, columns;
+	/**
+	 * Latest we can be on each tile (column * rows + row) and still get out.
+	 */
+	private final int[] latest;
+	/**
+	 * Steps from each tile to the safe tile we'd end up on.
+	 */
+	private final int[] steps;
+	/**
+	 * Safe tile each tile's way out ends on, or -1.
+	 */
+	private final int[] exit;
+
+	/**
+	 * Binary heap of (({@link #SAFE} - latest) << 32) | (steps << 16) | tile,
+	 * only used while we're being made.
+	 */
+	private long[] heap;
+	private int heapSize = 0;
+
+	/**
+	 * @param collisionMap
+	 *            [row][column], see {@link Stage#getCollisionMap(MainBomberman)}
+	 * @param stepTime
+	 *            See {@link #getStepTime(Player)}.
+	 */
+	public EscapeField(long[][] collisionMap, int stepTime) {
+		this.stepTime = stepTime;
+		rows = collisionMap.length;
+		columns = collisionMap[0].length;
+		latest = new int[rows * columns];
+		steps = new int[rows * columns];
+		exit = new int[rows * columns];
+		heap = new long[rows * columns * 4 + 1];
+		for (int x = 0; x < columns; x++)
+			for (int y = 0; y < rows; y++) {
+				int tile = x * rows + y;
+				exit[tile] = -1;
+				if (isSafe(collisionMap[y][x])) {
+					latest[tile] = SAFE;
+					exit[tile] = tile;
+					push(tile, SAFE, 0);
+				} else
+					latest[tile] = TRAPPED;
+			}
+		while (heapSize > 0) {
+			long top = pop();
+			int tile = (int) (top & 0xFFFF);
+			int tileSteps = (int) ((top >>> 16) & 0xFFFF);
+			int tileLatest = SAFE - (int) (top >>> 32);
+			if (tileLatest != latest[tile] || tileSteps != steps[tile])
+				continue; // Already found a better way
+			int x = tile / rows, y = tile % rows;
+			if (y > 0)
+				spread(collisionMap, tile, x, y - 1);
+			if (y < rows - 1)
+				spread(collisionMap, tile, x, y + 1);
+			if (x > 0)
+				spread(collisionMap, tile, x - 1, y);
+			if (x < columns - 1)
+				spread(collisionMap, tile, x + 1, y);
+		}
+		heap = null;
+	}
+
+	/**
+	 * @param value
+	 *            Value from the collision map.
+	 * @return Whether or not we can stand on this tile forever.
+	 */
+	public static boolean isSafe(long value) {
+		return value == -1 || value == -4 || (value <= -10 && value >= -30);
+	}
+
+	/**
+	 * @param value
+	 *            Value from the collision map.
+	 * @return Whether or not we can walk through this tile at all, however
+	 *         dangerous.
+	 */
+	public static boolean isWalkable(long value) {
+		return value < Reachability.UNWALKABLE && value != -2 && value != -3 && value != -5;
+	}
+
+	/**
+	 * @param player
+	 * @return Roughly how long it takes this {@link Player} to walk one tile,
+	 *         in ms, going by how {@link Player} moves each tick.
+	 */
+	public static int getStepTime(Player player) {
+		double move = 1 + player.speed * 0.1d + .7d;
+		return (int) (Stage.getTileWidth() / move * 1000d / MainBomberman.TICKS_PER_SECOND);
+	}
+
+	/**
+	 * Tries to get out through the given dangerous tile from the tile next to
+	 * it we've already worked out.
+	 */
+	private void spread(long[][] collisionMap, int from, int x, int y) {
+		long value = collisionMap[y][x];
+		if (isSafe(value) || !isWalkable(value))
+			return;
+		int tile = x * rows + y;
+		// Have to be off this tile before it explodes, and get to the next
+		// one before its time is up
+		long candidate = Math.min(value, latest[from]) - stepTime;
+		if (candidate < 0)
+			return;
+		int candidateSteps = steps[from] + 1;
+		if (candidate < latest[tile] || (candidate == latest[tile] && candidateSteps >= steps[tile]))
+			return;
+		latest[tile] = (int) candidate;
+		steps[tile] = candidateSteps;
+		exit[tile] = exit[from];
+		push(tile, (int) candidate, candidateSteps);
+	}
+
+	private void push(int tile, int tileLatest, int tileSteps) {
+		if (heapSize == heap.length) {
+			long[] bigger = new long[heap.length * 2];
+			System.arraycopy(heap, 0, bigger, 0, heap.length);
+			heap = bigger;
+		}
+		long value = ((long) (SAFE - tileLatest) << 32) | ((long) Math.min(tileSteps, 0xFFFF) << 16) | tile;
+		int i = heapSize++;
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (heap[parent] <= value)
+				break;
+			heap[i] = heap[parent];
+			i = parent;
+		}
+		heap[i] = value;
+	}
+
+	private long pop() {
+		long top = heap[0];
+		long last = heap[--heapSize];
+		int i = 0;
+		while (true) {
+			int child = i * 2 + 1;
+			if (child >= heapSize)
+				break;
+			if (child + 1 < heapSize && heap[child + 1] < heap[child])
+				child++;
+			if (heap[child] >= last)
+				break;
+			heap[i] = heap[child];
+			i = child;
+		}
+		if (heapSize > 0)
+			heap[i] = last;
+		return top;
+	}
+
+	private boolean isInside(int x, int y) {
+		return x >= 0 && y >= 0 && x < columns && y < rows;
+	}
+
+	/**
+	 * @return Latest we can be on this tile (in ms from when the
+	 *         {@link AIWorld} was made) and still get out, {@link #SAFE} if
+	 *         it's safe, or {@link #TRAPPED}.
+	 */
+	public int getLatest(int x, int y) {
+		if (!isInside(x, y))
+			return TRAPPED;
+		return latest[x * rows + y];
+	}
+
+	/**
+	 * @return Steps from this tile to safety along its way out.
+	 */
+	public int getSteps(int x, int y) {
+		if (!isInside(x, y))
+			return -1;
+		return steps[x * rows + y];
+	}
+
+	/**
+	 * @param x
+	 *            Column we're on.
+	 * @param y
+	 *            Row we're on.
+	 * @param elapsed
+	 *            How long it's been since the {@link AIWorld} was made, in ms.
+	 * @return The neighbor of our tile to run to: the one we can get to in time
+	 *         with the most time to spare, and fewest steps to safety after
+	 *         that. Given as column * rows + row, or -1 if there's nowhere to
+	 *         go.
+	 */
+	private int getBestNeighbor(int x, int y, long elapsed) {
+		int best = -1;
+		long arrival = elapsed + stepTime;
+		for (int direction = 0; direction < 4; direction++) {
+			int nx = x + (direction == 2 ? -1 : direction == 3 ? 1 : 0);
+			int ny = y + (direction == 0 ? 1 : direction == 1 ? -1 : 0);
+			if (!isInside(nx, ny))
+				continue;
+			int tile = nx * rows + ny;
+			if (latest[tile] == TRAPPED || latest[tile] < arrival)
+				continue;
+			if (best == -1 || latest[tile] > latest[best]
+					|| (latest[tile] == latest[best] && steps[tile] < steps[best]))
+				best = tile;
+		}
+		return best;
+	}
+
+	/**
+	 * @param x
+	 *            Column we're on.
+	 * @param y
+	 *            Row we're on.
+	 * @param elapsed
+	 *            How long it's been since the {@link AIWorld} was made, in ms.
+	 * @return Which way to run, as {@link AI#moveInDirection} uses, or -1 if
+	 *         there's nowhere we can get out to in time.
+	 */
+	public int getDirection(int x, int y, long elapsed) {
+		int best = getBestNeighbor(x, y, elapsed);
+		if (best == -1)
+			return -1;
+		int bx = best / rows, by = best % rows;
+		if (bx > x)
+			return 3; // right
+		else if (bx < x)
+			return 2; // left
+		else if (by > y)
+			return 0; // down
+		else
+			return 1; // up
+	}
+
+	/**
+	 * @param x
+	 *            Column we're on.
+	 * @param y
+	 *            Row we're on.
+	 * @param elapsed
+	 *            How long it's been since the {@link AIWorld} was made, in ms.
+	 * @return The safe tile (column, row) we'd end up on going
+	 *         {@link #getDirection(int, int, long)}, or <b>null</b>.
+	 */
+	public Point getExit(int x, int y, long elapsed) {
+		int best = getBestNeighbor(x, y, elapsed);
+		if (best == -1 || exit[best] == -1)
+			return null;
+		return new Point(exit[best] / rows, exit[best] % rows);
+	}
+}
@@ -0,0 +1,207 @@
+package com.github.vegeto079.saturnbomberman.misc;
+
+import java.util.ArrayList;
+
+/**
+ * Tries out ways to walk by playing a {@link MatchState} forward, instead of
+ * guessing from the danger map. Every plan is: walk some tiles one way, then
+ * turn and keep walking (or stand still). Each one is played on its own copy of
+ * the state until nothing is left to explode, with everyone else standing
+ * still, to see if we're still alive at the end.<br>
+ * Plans are tried shortest first, and only as many as fit in the time we're
+ * given, so a slow computer just means fewer plans get looked at.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ * @version 1.01: Added {@link #NO_LIMIT}.
+ */
+public class Lookahead {
+	/**
+	 * Most tiles walked before turning.
+	 */
+	public final static int MAX_WALK = 5;
+	/**
+	 * Most ticks a plan is played for.
+	 */
+	public final static int MAX_TICKS = 480;
+	/**
+	 * Budget that tries every plan, however long it takes, so the result only
+	 * depends on the state.
+	 */
+	public final static long NO_LIMIT = -1;
+
+	/**
+	 * Every plan: {first direction, tiles to walk, direction after}. -1 is
+	 * standing still. Shortest first, standing still first of all.
+	 */
+	private final static int[][] PLANS;
+
+	static {
+		ArrayList<int[]> plans = new ArrayList<int[]>();
+		plans.add(new int[] { -1, 0, -1 });
+		for (int walk = 1; walk <= MAX_WALK; walk++)
+			for (int direction = 0; direction < 4; direction++) {
+				plans.add(new int[] { direction, walk, -1 });
+				int[] turns = direction < 2 ? new int[] { 2, 3 } : new int[] { 0, 1 };
+				for (int turn : turns)
+					plans.add(new int[] { direction, walk, turn });
+			}
+		PLANS = plans.toArray(new int[plans.size()][]);
+	}
+
+	private final int[] actions = new int[MatchState.MAX_PLAYERS];
+	private int direction = -1, targetX = -1, targetY = -1;
+	private boolean survives = false;
+	private int plansTried = 0;
+
+	/**
+	 * @return Whether the given plan can be walked at all: every tile it walks
+	 *         over, and the first one after turning, are open.
+	 */
+	private static boolean isWalkable(MatchState state, int player, int[] plan) {
+		int x = state.getCellX(player), y = state.getCellY(player);
+		for (int i = 0; i < plan[1]; i++) {
+			x += BlastRays.DX[plan[0]];
+			y += BlastRays.DY[plan[0]];
+			if (!state.canWalkOnto(x, y))
+				return false;
+		}
+		return plan[2] == -1 || state.canWalkOnto(x + BlastRays.DX[plan[2]], y + BlastRays.DY[plan[2]]);
+	}
+
+	/**
+	 * Plays the given plan on the given state (which is changed) until nothing
+	 * is left to explode, {@link #MAX_TICKS} go by or the player dies.
+	 *
+	 * @return Tick the player died on, or -1 if they're still alive.
+	 */
+	private int play(MatchState state, int player, int[] plan) {
+		int endX = state.getCellX(player) + (plan[0] == -1 ? 0 : BlastRays.DX[plan[0]] * plan[1]);
+		int endY = state.getCellY(player) + (plan[0] == -1 ? 0 : BlastRays.DY[plan[0]] * plan[1]);
+		int ticks = Math.min(MAX_TICKS, state.getTicksUntilQuiet() + 1);
+		boolean turned = plan[0] == -1;
+		for (int i = 0; i < state.players; i++)
+			actions[i] = -1;
+		for (int tick = 0; tick < ticks; tick++) {
+			if (!turned && state.getCellX(player) == endX && state.getCellY(player) == endY
+					&& state.isCentered(player))
+				turned = true;
+			actions[player] = turned ? plan[2] : plan[0];
+			state.step(actions);
+			if (!state.isAlive(player))
+				return state.getDeathTick(player);
+		}
+		return -1;
+	}
+
+	/**
+	 * Finds the best way out of danger: the shortest plan we survive, or the
+	 * one we live the longest in if there's none. See {@link #getDirection()}
+	 * and {@link #getTargetX()}/{@link #getTargetY()} for where it goes.
+	 *
+	 * @param state
+	 *            Not changed.
+	 * @param player
+	 * @param budget
+	 *            How long we can take, in ns, or {@link #NO_LIMIT}.
+	 * @return Whether we found a plan we survive.
+	 */
+	public boolean findEscape(MatchState state, int player, long budget) {
+		long deadline = System.nanoTime() + budget;
+		int best = -1, bestDeath = -1;
+		plansTried = 0;
+		for (int p = 0; p < PLANS.length; p++) {
+			if (budget != NO_LIMIT && plansTried > 0 && System.nanoTime() > deadline)
+				break;
+			int[] plan = PLANS[p];
+			if (!isWalkable(state, player, plan))
+				continue;
+			plansTried++;
+			int death = play(state.copy(), player, plan);
+			if (death == -1) {
+				best = p;
+				bestDeath = -1;
+				break;
+			} else if (best == -1 || death > bestDeath) {
+				best = p;
+				bestDeath = death;
+			}
+		}
+		survives = best != -1 && bestDeath == -1;
+		if (best == -1) {
+			direction = -1;
+			targetX = state.getCellX(player);
+			targetY = state.getCellY(player);
+			return false;
+		}
+		int[] plan = PLANS[best];
+		direction = plan[0];
+		targetX = state.getCellX(player) + (plan[0] == -1 ? 0 : BlastRays.DX[plan[0]] * plan[1]);
+		targetY = state.getCellY(player) + (plan[0] == -1 ? 0 : BlastRays.DY[plan[0]] * plan[1]);
+		return survives;
+	}
+
+	/**
+	 * @param state
+	 *            Not changed.
+	 * @param player
+	 * @param budget
+	 *            How long we can take, in ns, or {@link #NO_LIMIT}.
+	 * @return Whether we could get away from a bomb placed where we're
+	 *         standing. If we run out of time before finding out, or the bomb
+	 *         can't be placed, <b>true</b>.
+	 */
+	public boolean canEscapeBomb(MatchState state, int player, long budget) {
+		MatchState placed = state.copy();
+		int bombs = placed.bombs;
+		for (int i = 0; i < placed.players; i++)
+			actions[i] = -1;
+		actions[player] = MatchState.PLACE_BOMB;
+		placed.step(actions);
+		if (placed.bombs <= bombs)
+			return true;
+		if (findEscape(placed, player, budget))
+			return true;
+		// Only a sure no if every plan we could try was tried
+		int walkable = 0;
+		for (int[] plan : PLANS)
+			if (isWalkable(placed, player, plan))
+				walkable++;
+		return plansTried < walkable;
+	}
+
+	/**
+	 * @return First direction of the last plan found, or -1 to stand still.
+	 */
+	public int getDirection() {
+		return direction;
+	}
+
+	/**
+	 * @return Column of the tile the last plan walks to before turning.
+	 */
+	public int getTargetX() {
+		return targetX;
+	}
+
+	/**
+	 * @return Row of the tile the last plan walks to before turning.
+	 */
+	public int getTargetY() {
+		return targetY;
+	}
+
+	/**
+	 * @return Whether we survive the last plan found.
+	 */
+	public boolean survives() {
+		return survives;
+	}
+
+	/**
+	 * @return How many plans were played last time.
+	 */
+	public int getPlansTried() {
+		return plansTried;
+	}
+}
@@ -0,0 +1,136 @@
+package com.github.vegeto079.saturnbomberman.misc;
+
+import com.github.vegeto079.saturnbomberman.main.MainBomberman;
+import com.github.vegeto079.saturnbomberman.misc.MatchTimeline.Phase;
+
+/**
+ * Everything about the match that's worked out from the players, the timer
+ * and {@link MainBomberman#timeline}: how many players are alive, how much
+ * time is left, whether the GO banner is up, whether it's hurry up time and how
+ * many weights should have fallen. Worked out once per tick (see
+ * {@link #get(MainBomberman)}) and read by every object that tick, instead of
+ * each of them going through every player and doing the timer math again.<br>
+ * Since it's only worked out at the start of the tick, someone dying partway
+ * through a tick isn't seen until the next one. Use
+ * {@link #countAlivePlayers(MainBomberman)} when that matters.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ */
+public class MatchFrame {
+	public enum HurryUp {
+		NONE,
+		/**
+		 * A few seconds before the last minute, when the whistle blows.
+		 */
+		WHISTLE,
+		/**
+		 * Last minute: weights are falling.
+		 */
+		LAST_MINUTE;
+	}
+
+	/**
+	 * Tick of {@link MainBomberman#clock} we were worked out for, -1 if never.
+	 */
+	private long tick = -1;
+	private int alivePlayers = 0;
+	private long timeLeft = 0;
+	private long clockTimeLeft = 0;
+	private int clockMinutesLeft = 0;
+	private boolean goBannerUp = false;
+	private HurryUp hurryUp = HurryUp.NONE;
+	private int weightsToCreate = 0;
+
+	/**
+	 * @param game
+	 * @return This frame, worked out again first if the clock has ticked since
+	 *         last time.
+	 */
+	public synchronized MatchFrame get(MainBomberman game) {
+		if (tick != game.clock.getTick())
+			update(game);
+		return this;
+	}
+
+	/**
+	 * Works everything out again, for the current tick.
+	 *
+	 * @param game
+	 */
+	public synchronized void update(MainBomberman game) {
+		tick = game.clock.getTick();
+		long now = game.currentTimeMillis();
+		alivePlayers = countAlivePlayers(game);
+		long endTime = (long) (game.counter[2] + game.options.time * 60000);
+		timeLeft = endTime - now + 4000;
+		// The timer on screen stops when the match ends
+		long clockTime = game.timeline.has(Phase.MATCH_END) ? game.timeline.getTime(Phase.MATCH_END) : now;
+		clockTimeLeft = endTime - clockTime + 4000;
+		if (!game.network.isPlayingOnline())
+			clockTimeLeft += 1450;
+		clockMinutesLeft = (int) Math.floor((double) clockTimeLeft / 60000d);
+		goBannerUp = clockMinutesLeft == game.options.time;
+		int secondsLeft = (int) Math.floor((double) timeLeft / 1000d);
+		if (secondsLeft < 60)
+			hurryUp = HurryUp.LAST_MINUTE;
+		else if (secondsLeft < 65)
+			hurryUp = HurryUp.WHISTLE;
+		else
+			hurryUp = HurryUp.NONE;
+		if (hurryUp == HurryUp.LAST_MINUTE && alivePlayers > 1)
+			weightsToCreate = (int) ((61000l - timeLeft) / 625 - 1);
+		else
+			weightsToCreate = 0;
+	}
+
+	/**
+	 * @param game
+	 * @return Players alive right now, going through every one of them.
+	 */
+	public static int countAlivePlayers(MainBomberman game) {
+		int alive = 0;
+		for (int i = 0; i < game.players.size(); i++)
+			if (game.players.get(i).deadTimer == -1)
+				alive++;
+		return alive;
+	}
+
+	public int getAlivePlayers() {
+		return alivePlayers;
+	}
+
+	/**
+	 * @return Time left in the match, in ms, plus the 4 seconds the intro
+	 *         takes.
+	 */
+	public long getTimeLeft() {
+		return timeLeft;
+	}
+
+	/**
+	 * @return Time left as the timer on screen shows it, which stops when the
+	 *         match ends.
+	 */
+	public long getClockTimeLeft() {
+		return clockTimeLeft;
+	}
+
+	/**
+	 * @return Whether 'GO!' is still on the screen, and nobody can move yet.
+	 */
+	public boolean isGoBannerUp() {
+		return goBannerUp;
+	}
+
+	public HurryUp getHurryUp() {
+		return hurryUp;
+	}
+
+	/**
+	 * @return How many pairs of weights should have fallen by now.
+	 */
+	public int getWeightsToCreate() {
+		return weightsToCreate;
+	}
+}
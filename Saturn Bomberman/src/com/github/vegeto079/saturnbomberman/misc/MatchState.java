@@ -0,0 +1,479 @@
+package com.github.vegeto079.saturnbomberman.misc;
+
+import java.util.Arrays;
+
+import com.github.vegeto079.saturnbomberman.main.MainBomberman;
+import com.github.vegeto079.saturnbomberman.main.Stage;
+import com.github.vegeto079.saturnbomberman.objects.Bomb;
+import com.github.vegeto079.saturnbomberman.objects.BombChain;
+import com.github.vegeto079.saturnbomberman.objects.EntityStore.Kind;
+import com.github.vegeto079.saturnbomberman.objects.Item.ItemType;
+import com.github.vegeto079.saturnbomberman.objects.ObjectSnapshot;
+import com.github.vegeto079.saturnbomberman.objects.Player;
+
+/**
+ * A small copy of a match that can be played forward without touching the
+ * real game: no objects, no sounds, no {@link MainBomberman} at all. Made from
+ * the game with {@link #capture(MainBomberman)}, copied with {@link #copy()}
+ * and played one tick at a time with {@link #step(int[])}, so an {@link AI}
+ * can try out "what happens if I go this way" (see {@link Lookahead}).<br>
+ * <br>
+ * Covers walking, bomb fuses, fire spreading out one tile per step, bombs
+ * setting each other off, blocks breaking and picking up items. Anything else
+ * (kicking, throwing, skulls, weights, special bombs) is left out, so this is
+ * only a guess at what will happen, but a quick one: everything is in flat
+ * arrays, and copying or stepping takes a few microseconds.<br>
+ * Tiles are column + row * {@link #COLUMNS}, same as {@link BitBoard}.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ * @version 1.01: Bombs are read from an {@link ObjectSnapshot}, so making one
+ *          off the game thread doesn't have to lock the object list.
+ */
+public class MatchState {
+	public final static int COLUMNS = Stage.TILES_ACROSS, ROWS = Stage.TILES_DOWN, TILES = COLUMNS * ROWS;
+	public final static byte EMPTY = 0, WALL = 1, BLOCK = 2;
+	/**
+	 * Add to an action to place a bomb this tick.
+	 */
+	public final static int PLACE_BOMB = 8;
+	/**
+	 * {@link Player} positions are in 1/100 of a pixel.
+	 */
+	public final static int TILE = Stage.SQUARE_WIDTH * 100;
+	public final static int MAX_PLAYERS = 8;
+	public final static int MAX_BOMBS = 64;
+	/**
+	 * How long a bomb takes to go off, in ticks.
+	 */
+	public final static int FUSE_TICKS = (int) (Bomb.LIFE_TIME * MainBomberman.TICKS_PER_SECOND / 1000);
+	/**
+	 * How many fire steps fire stays deadly for after it's done spreading.
+	 */
+	public final static int BURN_STEPS = 2;
+	public final static int NO_FIRE = Integer.MAX_VALUE;
+
+	public int tick = 0;
+	private final byte[] tiles = new byte[TILES];
+	/**
+	 * {@link ItemType} ordinal of the item on each tile that can be picked up,
+	 * or -1.
+	 */
+	private final byte[] items = new byte[TILES];
+	/**
+	 * Tick fire gets to each tile, and the tick it stops being deadly.
+	 */
+	private final int[] fireFrom = new int[TILES], fireUntil = new int[TILES];
+	/**
+	 * Tick each block tile is done burning and turns empty, or
+	 * {@link #NO_FIRE}.
+	 */
+	private final int[] blockBreak = new int[TILES];
+
+	public int players = 0;
+	private final int[] x = new int[MAX_PLAYERS], y = new int[MAX_PLAYERS];
+	private final boolean[] alive = new boolean[MAX_PLAYERS];
+	private final int[] speed = new int[MAX_PLAYERS], power = new int[MAX_PLAYERS];
+	private final int[] bombMax = new int[MAX_PLAYERS], bombsOut = new int[MAX_PLAYERS];
+	/**
+	 * Tick each player died on, or -1.
+	 */
+	private final int[] deathTick = new int[MAX_PLAYERS];
+	/**
+	 * Who killed each player (index, or -1 for nobody).
+	 */
+	private final int[] killedBy = new int[MAX_PLAYERS];
+
+	public int bombs = 0;
+	private final int[] bombTile = new int[MAX_BOMBS], bombFuse = new int[MAX_BOMBS], bombPower = new int[MAX_BOMBS];
+	private final int[] bombOwner = new int[MAX_BOMBS], bombStep = new int[MAX_BOMBS];
+	/**
+	 * Who owns the fire on each tile, to know who killed who.
+	 */
+	private final byte[] fireOwner = new byte[TILES];
+
+	public MatchState() {
+		Arrays.fill(items, (byte) -1);
+		Arrays.fill(fireFrom, NO_FIRE);
+		Arrays.fill(fireUntil, NO_FIRE);
+		Arrays.fill(blockBreak, NO_FIRE);
+		Arrays.fill(deathTick, -1);
+		Arrays.fill(killedBy, -1);
+	}
+
+	/**
+	 * @return An exact copy that can be stepped without changing this one.
+	 */
+	public MatchState copy() {
+		return new MatchState(this);
+	}
+
+	private MatchState(MatchState from) {
+		tick = from.tick;
+		System.arraycopy(from.tiles, 0, tiles, 0, TILES);
+		System.arraycopy(from.items, 0, items, 0, TILES);
+		System.arraycopy(from.fireFrom, 0, fireFrom, 0, TILES);
+		System.arraycopy(from.fireUntil, 0, fireUntil, 0, TILES);
+		System.arraycopy(from.blockBreak, 0, blockBreak, 0, TILES);
+		System.arraycopy(from.fireOwner, 0, fireOwner, 0, TILES);
+		players = from.players;
+		System.arraycopy(from.x, 0, x, 0, players);
+		System.arraycopy(from.y, 0, y, 0, players);
+		System.arraycopy(from.alive, 0, alive, 0, players);
+		System.arraycopy(from.speed, 0, speed, 0, players);
+		System.arraycopy(from.power, 0, power, 0, players);
+		System.arraycopy(from.bombMax, 0, bombMax, 0, players);
+		System.arraycopy(from.bombsOut, 0, bombsOut, 0, players);
+		System.arraycopy(from.deathTick, 0, deathTick, 0, MAX_PLAYERS);
+		System.arraycopy(from.killedBy, 0, killedBy, 0, MAX_PLAYERS);
+		bombs = from.bombs;
+		System.arraycopy(from.bombTile, 0, bombTile, 0, bombs);
+		System.arraycopy(from.bombFuse, 0, bombFuse, 0, bombs);
+		System.arraycopy(from.bombPower, 0, bombPower, 0, bombs);
+		System.arraycopy(from.bombOwner, 0, bombOwner, 0, bombs);
+		System.arraycopy(from.bombStep, 0, bombStep, 0, bombs);
+	}
+
+	/**
+	 * @return The match as it is right now. Fire that's already burning is
+	 *         taken from the current {@link AIWorld}, and is assumed to keep
+	 *         burning for {@link #BURN_STEPS} more steps.
+	 */
+	public static MatchState capture(MainBomberman game) {
+		MatchState state = new MatchState();
+		int[][] stage = game.stage.get();
+		AIWorld world = game.stage.getWorld(game);
+		long[][] collision = world.getCollisionMap();
+		for (int row = 0; row < ROWS && row < stage.length; row++)
+			for (int column = 0; column < COLUMNS && column < stage[row].length; column++) {
+				int tile = column + row * COLUMNS;
+				long value = collision[row][column];
+				if (stage[row][column] == 0 || value == -2)
+					state.tiles[tile] = WALL;
+				else if (stage[row][column] == 1)
+					state.tiles[tile] = BLOCK;
+				if (value <= -10 && value >= -10 - (ItemType.values().length - 1))
+					state.items[tile] = (byte) (-10 - value);
+				else if (value == 0) {
+					// Burning right now
+					state.fireFrom[tile] = 0;
+					state.fireUntil[tile] = BURN_STEPS * 7;
+					state.fireOwner[tile] = -1;
+				}
+			}
+		for (int i = 0; i < game.players.size() && i < MAX_PLAYERS; i++) {
+			Player player = game.players.get(i);
+			state.x[i] = player.getCellX() * TILE + TILE / 2;
+			state.y[i] = player.getCellY() * TILE + TILE / 2;
+			state.alive[i] = player.deadTimer == -1;
+			state.speed[i] = player.speed;
+			state.power[i] = player.firePower;
+			state.bombMax[i] = player.bombAmt;
+			state.players++;
+		}
+		long now = game.currentTimeMillis();
+		long msPerTick = 1000 / MainBomberman.TICKS_PER_SECOND;
+		ObjectSnapshot snapshot = game.objects.getSnapshot();
+		for (int i = 0; i < snapshot.size(Kind.BOMB); i++) {
+			Bomb bomb = (Bomb) snapshot.get(Kind.BOMB, i);
+			if (bomb.finished || bomb.exploding || bomb.pickedUpCount != -1 || state.bombs == MAX_BOMBS)
+				continue;
+			int column = bomb.cellPoint.x, row = bomb.cellPoint.y;
+			if (column < 0 || row < 0 || column >= COLUMNS || row >= ROWS)
+				continue;
+			int b = state.bombs++;
+			state.bombTile[b] = column + row * COLUMNS;
+			long fuse = BombChain.getFuseTime(bomb, now);
+			if (fuse == BombChain.NEVER)
+				state.bombFuse[b] = NO_FIRE; // ie. a land mine nobody has stepped on
+			else
+				state.bombFuse[b] = (int) Math.max(1, (fuse - now) / msPerTick);
+			state.bombPower[b] = bomb.maxPower;
+			state.bombStep[b] = BombChain.getFireStepTicks(bomb);
+			state.bombOwner[b] = bomb.playerOrigin == null ? -1 : game.players.indexOf(bomb.playerOrigin);
+			if (state.bombOwner[b] >= 0 && state.bombOwner[b] < MAX_PLAYERS)
+				state.bombsOut[state.bombOwner[b]]++;
+		}
+		return state;
+	}
+
+	/**
+	 * Adds a player, for setting up a state by hand.
+	 *
+	 * @return The player's index.
+	 */
+	public int addPlayer(int column, int row, int speed, int power, int bombMax) {
+		int i = players++;
+		x[i] = column * TILE + TILE / 2;
+		y[i] = row * TILE + TILE / 2;
+		alive[i] = true;
+		this.speed[i] = speed;
+		this.power[i] = power;
+		this.bombMax[i] = bombMax;
+		return i;
+	}
+
+	public void setTile(int column, int row, byte tile) {
+		tiles[column + row * COLUMNS] = tile;
+	}
+
+	public byte getTile(int column, int row) {
+		return tiles[column + row * COLUMNS];
+	}
+
+	public int getCellX(int player) {
+		return x[player] / TILE;
+	}
+
+	public int getCellY(int player) {
+		return y[player] / TILE;
+	}
+
+	/**
+	 * @return Whether the given player is in the middle of their tile.
+	 */
+	public boolean isCentered(int player) {
+		return x[player] % TILE == TILE / 2 && y[player] % TILE == TILE / 2;
+	}
+
+	/**
+	 * @return Whether a player could walk onto this tile right now (inside the
+	 *         stage, nothing solid and no bomb).
+	 */
+	public boolean canWalkOnto(int column, int row) {
+		return column >= 0 && row >= 0 && column < COLUMNS && row < ROWS && canWalkOnto(column + row * COLUMNS);
+	}
+
+	public boolean isAlive(int player) {
+		return alive[player];
+	}
+
+	/**
+	 * @return Tick the given player died on, or -1.
+	 */
+	public int getDeathTick(int player) {
+		return deathTick[player];
+	}
+
+	/**
+	 * @return Who killed the given player, -1 if nobody did (or they're alive).
+	 */
+	public int getKilledBy(int player) {
+		return killedBy[player];
+	}
+
+	public int getAliveCount() {
+		int count = 0;
+		for (int i = 0; i < players; i++)
+			if (alive[i])
+				count++;
+		return count;
+	}
+
+	/**
+	 * @return Whether fire is deadly on this tile this tick.
+	 */
+	public boolean isBurning(int tile) {
+		return fireFrom[tile] <= tick && tick < fireUntil[tile];
+	}
+
+	/**
+	 * @return How many ticks until nothing is left to explode or burn, so
+	 *         playing further won't change anything unless someone places a
+	 *         bomb.
+	 */
+	public int getTicksUntilQuiet() {
+		int last = tick;
+		for (int b = 0; b < bombs; b++)
+			if (bombFuse[b] != NO_FIRE)
+				last = Math.max(last, tick + bombFuse[b] + (bombPower[b] + BURN_STEPS) * bombStep[b]);
+		for (int tile = 0; tile < TILES; tile++)
+			if (fireUntil[tile] != NO_FIRE)
+				last = Math.max(last, fireUntil[tile]);
+		return last - tick;
+	}
+
+	private int getBombOn(int tile) {
+		for (int b = 0; b < bombs; b++)
+			if (bombTile[b] == tile)
+				return b;
+		return -1;
+	}
+
+	private boolean canWalkOnto(int tile) {
+		return tiles[tile] == EMPTY && getBombOn(tile) == -1;
+	}
+
+	/**
+	 * Plays one tick.
+	 *
+	 * @param actions
+	 *            For each player: -1 to stand still, or a direction as
+	 *            {@link AI#moveInDirection} uses (0 down, 1 up, 2 left, 3
+	 *            right), plus {@link #PLACE_BOMB} to place a bomb first.
+	 */
+	public void step(int[] actions) {
+		tick++;
+		for (int i = 0; i < players; i++) {
+			if (!alive[i])
+				continue;
+			int action = i < actions.length ? actions[i] : -1;
+			if (action >= PLACE_BOMB) {
+				placeBomb(i);
+				action -= PLACE_BOMB;
+			}
+			if (action >= 0 && action < 4)
+				move(i, action);
+		}
+		for (int b = 0; b < bombs; b++)
+			if (bombFuse[b] != NO_FIRE)
+				bombFuse[b]--;
+		// Bombs can set each other off, so keep going until none are left
+		for (int b = 0; b < bombs; b++)
+			if (bombFuse[b] <= 0) {
+				explode(b);
+				b = -1;
+			}
+		for (int tile = 0; tile < TILES; tile++) {
+			if (blockBreak[tile] <= tick) {
+				tiles[tile] = EMPTY;
+				blockBreak[tile] = NO_FIRE;
+			}
+			if (fireUntil[tile] <= tick) {
+				fireFrom[tile] = NO_FIRE;
+				fireUntil[tile] = NO_FIRE;
+			}
+		}
+		for (int i = 0; i < players; i++) {
+			if (!alive[i])
+				continue;
+			int tile = getCellX(i) + getCellY(i) * COLUMNS;
+			if (isBurning(tile)) {
+				alive[i] = false;
+				deathTick[i] = tick;
+				killedBy[i] = fireOwner[tile];
+			} else if (items[tile] != -1) {
+				pickUp(i, items[tile]);
+				items[tile] = -1;
+			}
+		}
+	}
+
+	private void placeBomb(int player) {
+		int tile = getCellX(player) + getCellY(player) * COLUMNS;
+		if (bombsOut[player] >= bombMax[player] || bombs == MAX_BOMBS || getBombOn(tile) != -1)
+			return;
+		int b = bombs++;
+		bombTile[b] = tile;
+		bombFuse[b] = FUSE_TICKS;
+		bombPower[b] = power[player];
+		bombOwner[b] = player;
+		bombStep[b] = power[player] < 3 ? 7 : power[player] < 6 ? 6 : power[player] < 9 ? 5 : 4;
+		bombsOut[player]++;
+	}
+
+	/**
+	 * Sets the given bomb off: its fire reaches tiles one step apart, stopping
+	 * on walls (not burnt), and on blocks, items and other bombs (burnt).
+	 * Other bombs go off once the fire gets to them.
+	 */
+	private void explode(int b) {
+		int origin = bombTile[b], step = bombStep[b], owner = bombOwner[b];
+		int column = origin % COLUMNS, row = origin / COLUMNS;
+		int longest = 0;
+		for (int direction = 0; direction < 4; direction++) {
+			int reach = 0;
+			for (int distance = 1; distance <= bombPower[b]; distance++) {
+				int c = column + BlastRays.DX[direction] * distance, r = row + BlastRays.DY[direction] * distance;
+				if (c < 0 || r < 0 || c >= COLUMNS || r >= ROWS)
+					break;
+				int tile = c + r * COLUMNS;
+				if (tiles[tile] == WALL)
+					break;
+				reach = distance;
+				if (tiles[tile] == BLOCK || items[tile] != -1 || getBombOn(tile) != -1)
+					break;
+			}
+			longest = Math.max(longest, reach);
+			int until = tick + (reach + BURN_STEPS) * step;
+			for (int distance = 1; distance <= reach; distance++) {
+				int tile = column + BlastRays.DX[direction] * distance
+						+ (row + BlastRays.DY[direction] * distance) * COLUMNS;
+				burn(tile, tick + distance * step, until, owner);
+				if (tiles[tile] == BLOCK)
+					blockBreak[tile] = Math.min(blockBreak[tile], until);
+				items[tile] = -1;
+				int other = getBombOn(tile);
+				if (other != -1 && other != b)
+					bombFuse[other] = Math.min(bombFuse[other], distance * step);
+			}
+		}
+		burn(origin, tick, tick + (longest + BURN_STEPS) * step, owner);
+		if (owner >= 0 && owner < MAX_PLAYERS)
+			bombsOut[owner]--;
+		// Swap-remove
+		bombs--;
+		bombTile[b] = bombTile[bombs];
+		bombFuse[b] = bombFuse[bombs];
+		bombPower[b] = bombPower[bombs];
+		bombOwner[b] = bombOwner[bombs];
+		bombStep[b] = bombStep[bombs];
+	}
+
+	private void burn(int tile, int from, int until, int owner) {
+		if (from < fireFrom[tile] || fireFrom[tile] == NO_FIRE) {
+			fireFrom[tile] = from;
+			fireOwner[tile] = (byte) owner;
+		}
+		if (fireUntil[tile] == NO_FIRE || until > fireUntil[tile])
+			fireUntil[tile] = until;
+	}
+
+	private void pickUp(int player, byte item) {
+		if (item == ItemType.FIRE_UP.ordinal())
+			power[player] = Math.min(9, power[player] + 1);
+		else if (item == ItemType.MAX_FIRE.ordinal())
+			power[player] = 9;
+		else if (item == ItemType.BOMB_UP.ordinal())
+			bombMax[player]++;
+		else if (item == ItemType.SKATES.ordinal())
+			speed[player]++;
+	}
+
+	/**
+	 * Walks the given player one tick's worth in the given direction, the
+	 * way {@link Player} does: first lining up with the middle of the row or
+	 * column, then going until the middle of the tile if the next one can't
+	 * be walked onto.
+	 */
+	private void move(int player, int direction) {
+		int amount = 170 + speed[player] * 10;
+		int dx = BlastRays.DX[direction], dy = BlastRays.DY[direction];
+		int column = getCellX(player), row = getCellY(player);
+		int middleX = column * TILE + TILE / 2, middleY = row * TILE + TILE / 2;
+		// Line up first
+		if (dx != 0 && y[player] != middleY) {
+			int off = middleY - y[player];
+			y[player] += Math.max(-amount, Math.min(amount, off));
+			return;
+		} else if (dy != 0 && x[player] != middleX) {
+			int off = middleX - x[player];
+			x[player] += Math.max(-amount, Math.min(amount, off));
+			return;
+		}
+		int nextColumn = column + dx, nextRow = row + dy;
+		boolean open = nextColumn >= 0 && nextRow >= 0 && nextColumn < COLUMNS && nextRow < ROWS
+				&& canWalkOnto(nextColumn + nextRow * COLUMNS);
+		if (dx != 0) {
+			int target = x[player] + dx * amount;
+			if (!open)
+				target = dx > 0 ? Math.min(target, middleX) : Math.max(target, middleX);
+			x[player] = target;
+		} else {
+			int target = y[player] + dy * amount;
+			if (!open)
+				target = dy > 0 ? Math.min(target, middleY) : Math.max(target, middleY);
+			y[player] = target;
+		}
+	}
+}
@@ -0,0 +1,122 @@
+package com.github.vegeto079.saturnbomberman.misc;
+
+import java.util.ArrayList;
+
+import com.github.vegeto079.saturnbomberman.main.MainBomberman;
+
+/**
+ * How far along the current match is: which {@link Phase}s it has reached and
+ * when (in {@link MainBomberman#currentTimeMillis()}). Anyone who wants to know
+ * when a phase is reached can add a {@link Listener}.<br>
+ * Phases can be reached in any order (ie. the match can end before the last
+ * minute), and each one only once per match, until {@link #reset()}.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ */
+public class MatchTimeline {
+	public enum Phase {
+		/**
+		 * Match start sound played.
+		 */
+		INTRO,
+		/**
+		 * Battle music started.
+		 */
+		BATTLE,
+		/**
+		 * Whistle blown a few seconds before the last minute.
+		 */
+		LAST_MINUTE_WHISTLE,
+		/**
+		 * Last minute started: weights start falling.
+		 */
+		LAST_MINUTE,
+		/**
+		 * Less than two players alive.
+		 */
+		MATCH_END,
+		/**
+		 * Winner announced, {@link #WINNER_DELAY} after {@link #MATCH_END}.
+		 */
+		WINNER;
+	}
+
+	public interface Listener {
+		/**
+		 * @param phase
+		 *            Phase just reached.
+		 * @param time
+		 *            When it was reached.
+		 */
+		public void reached(Phase phase, long time);
+	}
+
+	/**
+	 * How long after {@link Phase#MATCH_END} the winner is announced.
+	 */
+	public final static long WINNER_DELAY = 2500;
+	public final static long NOT_REACHED = -1;
+
+	private final long[] reachedAt = new long[Phase.values().length];
+	private final ArrayList<Listener> listeners = new ArrayList<Listener>();
+
+	public MatchTimeline() {
+		reset();
+	}
+
+	/**
+	 * Forgets every phase reached, for a new match.
+	 */
+	public void reset() {
+		for (int i = 0; i < reachedAt.length; i++)
+			reachedAt[i] = NOT_REACHED;
+	}
+
+	/**
+	 * Marks the given phase as reached, and lets every {@link Listener} know,
+	 * unless it already was.
+	 *
+	 * @param phase
+	 * @param time
+	 * @return Whether the phase was just reached.
+	 */
+	public boolean reach(Phase phase, long time) {
+		if (reachedAt[phase.ordinal()] != NOT_REACHED)
+			return false;
+		reachedAt[phase.ordinal()] = time;
+		for (int i = 0; i < listeners.size(); i++)
+			listeners.get(i).reached(phase, time);
+		return true;
+	}
+
+	public boolean has(Phase phase) {
+		return reachedAt[phase.ordinal()] != NOT_REACHED;
+	}
+
+	/**
+	 * @return When the given phase was reached, or {@link #NOT_REACHED}.
+	 */
+	public long getTime(Phase phase) {
+		return reachedAt[phase.ordinal()];
+	}
+
+	/**
+	 * @return How long ago the given phase was reached, or
+	 *         {@link #NOT_REACHED} if it hasn't been.
+	 */
+	public long getTimeSince(Phase phase, long now) {
+		long time = reachedAt[phase.ordinal()];
+		if (time == NOT_REACHED)
+			return NOT_REACHED;
+		return now - time;
+	}
+
+	public void addListener(Listener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeListener(Listener listener) {
+		listeners.remove(listener);
+	}
+}
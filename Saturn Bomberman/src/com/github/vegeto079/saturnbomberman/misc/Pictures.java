@@ -21,11 +21,11 @@ import java.util.ArrayList;
 import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 
-import com.github.vegeto079.ngcommontools.main.Game;
 import com.github.vegeto079.ngcommontools.main.Logger.LogLevel;
 import com.github.vegeto079.ngcommontools.main.Resizer;
 import com.github.vegeto079.ngcommontools.main.ResourceHandler;
 import com.github.vegeto079.ngcommontools.main.Tools;
+import com.github.vegeto079.saturnbomberman.main.MainBomberman;
 
 /**
  * 
@@ -45,7 +45,7 @@ import com.github.vegeto079.ngcommontools.main.Tools;
  *          {@link #init()} to delete empty leftover folders of images.
  */
 public class Pictures {
-	public Game game = null;
+	public MainBomberman game = null;
 	public boolean initialized = false;
 	public boolean startedInit = false;
 	public ArrayList<ArrayList<ArrayList<BufferedImage>>> characters = new ArrayList<ArrayList<ArrayList<BufferedImage>>>();
@@ -98,7 +98,7 @@ public class Pictures {
 		}
 	}
 
-	public Pictures(Game game) {
+	public Pictures(MainBomberman game) {
 		this.game = game;
 		mainMenu.add(f("mainMenu/", "Main Menu Background"));
 		mainMenu.add(normalImage("mainMenu/", "Main Menu Dancing 1"));
@@ -0,0 +1,161 @@
+package com.github.vegeto079.saturnbomberman.misc;
+
+import java.awt.Point;
+import java.util.ArrayList;
+
+/**
+ * Finds every tile a {@link com.github.vegeto079.saturnbomberman.objects.Player}
+ * can walk to on an {@link AI} map, and how many steps away each one is, with
+ * a single breadth-first search.<br>
+ * Replaces running A* towards a tile that doesn't exist just to
+ * get the tiles it looked at. Walkable tiles are the same ones the A* weights
+ * allowed: everything except bombs, walls, blocks, -5 and danger (all weighted
+ * 100000).<br>
+ * Everything is kept in flat arrays that are reused for every search, so one
+ * of these should be kept per {@link AI} (a search isn't thread-safe).
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ */
+public class Reachability {
+	/**
+	 * Map value that can't be walked on.
+	 */
+	public final static int UNWALKABLE = 100000;
+
+	private int width = 0, height = 0;
+	/**
+	 * Steps from the start for each tile (column * height + row), only valid if
+	 * {@link #seen} for the tile is {@link #search}.
+	 */
+	private int[] distance = new int[0];
+	private int[] seen = new int[0];
+	/**
+	 * Tiles found, in the order they were found. The start is first.
+	 */
+	private int[] found = new int[0];
+	private int foundCount = 0;
+	private int search = 0;
+
+	/**
+	 * @param value
+	 *            Value from an {@link AI} map.
+	 * @return Whether or not it can be walked on.
+	 */
+	public static boolean isWalkable(int value) {
+		return value < UNWALKABLE && value != -2 && value != -3 && value != -5;
+	}
+
+	/**
+	 * Finds every tile we can walk to from the start.
+	 *
+	 * @param map
+	 *            [column][row], as {@link AI#getMap} gives.
+	 * @param startX
+	 *            Column
+	 * @param startY
+	 *            Row
+	 * @return How many tiles were found, including the start.
+	 */
+	public int search(int[][] map, int startX, int startY) {
+		int newWidth = map.length, newHeight = map[0].length;
+		if (newWidth != width || newHeight != height) {
+			width = newWidth;
+			height = newHeight;
+			distance = new int[width * height];
+			seen = new int[width * height];
+			found = new int[width * height];
+			search = 0;
+		}
+		search++;
+		if (search == Integer.MAX_VALUE) {
+			for (int i = 0; i < seen.length; i++)
+				seen[i] = 0;
+			search = 1;
+		}
+		foundCount = 0;
+		if (startX < 0 || startY < 0 || startX >= width || startY >= height)
+			return 0;
+		int start = startX * height + startY;
+		seen[start] = search;
+		distance[start] = 0;
+		found[foundCount++] = start;
+		for (int next = 0; next < foundCount; next++) {
+			int tile = found[next];
+			int x = tile / height, y = tile % height;
+			int steps = distance[tile] + 1;
+			if (y > 0)
+				visit(map, x, y - 1, steps);
+			if (y < height - 1)
+				visit(map, x, y + 1, steps);
+			if (x > 0)
+				visit(map, x - 1, y, steps);
+			if (x < width - 1)
+				visit(map, x + 1, y, steps);
+		}
+		return foundCount;
+	}
+
+	private void visit(int[][] map, int x, int y, int steps) {
+		int tile = x * height + y;
+		if (seen[tile] == search || !isWalkable(map[x][y]))
+			return;
+		seen[tile] = search;
+		distance[tile] = steps;
+		found[foundCount++] = tile;
+	}
+
+	/**
+	 * @return How many tiles the last {@link #search(int[][], int, int)} found,
+	 *         including the start.
+	 */
+	public int getCount() {
+		return foundCount;
+	}
+
+	/**
+	 * @param i
+	 *            0 to {@link #getCount()}, in the order they were found.
+	 * @return Column of the found tile.
+	 */
+	public int getX(int i) {
+		return found[i] / height;
+	}
+
+	/**
+	 * @param i
+	 *            0 to {@link #getCount()}, in the order they were found.
+	 * @return Row of the found tile.
+	 */
+	public int getY(int i) {
+		return found[i] % height;
+	}
+
+	public boolean isReachable(int x, int y) {
+		return x >= 0 && y >= 0 && x < width && y < height && seen[x * height + y] == search;
+	}
+
+	/**
+	 * @return Steps from the start to the given tile, or -1 if we can't get
+	 *         there.
+	 */
+	public int getDistance(int x, int y) {
+		if (!isReachable(x, y))
+			return -1;
+		return distance[x * height + y];
+	}
+
+	/**
+	 * @return Every tile found other than the start, in the order they were
+	 *         found, then the start. The same tiles
+	 *         {@link AI#updateReachableLocations()} used to get from A*.
+	 */
+	public ArrayList<Point> getTiles() {
+		ArrayList<Point> tiles = new ArrayList<Point>(foundCount);
+		for (int i = 1; i < foundCount; i++)
+			tiles.add(new Point(getX(i), getY(i)));
+		if (foundCount > 0)
+			tiles.add(new Point(getX(0), getY(0)));
+		return tiles;
+	}
+}
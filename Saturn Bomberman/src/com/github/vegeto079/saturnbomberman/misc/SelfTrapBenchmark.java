@@ -0,0 +1,165 @@
+package com.github.vegeto079.saturnbomberman.misc;
+
+import java.awt.Point;
+import java.util.ArrayList;
+
+import com.github.vegeto079.saturnbomberman.main.HeadlessMatch;
+import com.github.vegeto079.saturnbomberman.main.MainBomberman;
+import com.github.vegeto079.saturnbomberman.misc.State.StateEnum;
+import com.github.vegeto079.saturnbomberman.objects.Player;
+
+/**
+ * Compares the old way {@link AI#updateReachableLocations()} checked whether a
+ * bomb would trap us (copying the reachable tiles into a new boolean[][] for
+ * every tile, then counting what's left) with
+ * {@link AI#wouldTrapOurselves(BitBoard, BitBoard)}.<br>
+ * Boards are recorded from a {@link HeadlessMatch}: every so often, what each
+ * alive CPU sees, which tiles it can reach and where a bomb on each of them
+ * would burn. Both checks are then run over every recorded tile, timed, and
+ * made sure to agree.<br>
+ * Arguments: <b>[seed] [players] [comLevel] [stage] [rounds]</b>
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ * @version 1.01: Ticks counted through {@link MainBomberman#clock}.
+ */
+public class SelfTrapBenchmark {
+	/**
+	 * Record boards every this many ticks.
+	 */
+	public final static int RECORD_EVERY = 30;
+
+	/**
+	 * What one CPU saw at one point in the match.
+	 */
+	public static class Board {
+		public final int[][] map;
+		public final Reachability reachable;
+		public final boolean[][] reachableTiles;
+		/**
+		 * For each tile we can reach, where a bomb on it would burn (including
+		 * the bomb's tile).
+		 */
+		public final ArrayList<ArrayList<Point>> fire = new ArrayList<ArrayList<Point>>();
+		public final ArrayList<BitBoard> fireBoards = new ArrayList<BitBoard>();
+
+		public Board(MainBomberman game, Player player) {
+			map = AI.getMap(game, player);
+			reachable = new Reachability();
+			reachable.search(map, player.getCellX(), player.getCellY());
+			reachableTiles = new boolean[map.length][map[0].length];
+			BlastRays blastRays = game.stage.getBlastRays();
+			for (int k = 0; k < reachable.getCount(); k++) {
+				int x = reachable.getX(k), y = reachable.getY(k);
+				reachableTiles[x][y] = true;
+				ArrayList<Point> points = new ArrayList<Point>();
+				BitBoard board = new BitBoard();
+				points.add(new Point(x, y));
+				board.set(x, y);
+				for (int direction = 0; direction < 4; direction++)
+					for (int i = 1; i <= blastRays.getReach(x, y, direction, player.firePower); i++) {
+						int fireX = x + BlastRays.DX[direction] * i, fireY = y + BlastRays.DY[direction] * i;
+						points.add(new Point(fireX, fireY));
+						board.set(fireX, fireY);
+					}
+				fire.add(points);
+				fireBoards.add(board);
+			}
+		}
+	}
+
+	/**
+	 * The check the way {@link AI#updateReachableLocations()} used to do it.
+	 */
+	public static boolean wouldTrapOurselvesOld(int[][] map, boolean[][] reachableTiles,
+			ArrayList<Point> possibleExplosionsOnPoint) {
+		boolean testMap[][] = new boolean[map.length][map[0].length];
+		for (int i = 0; i < testMap.length; i++)
+			for (int j = 0; j < testMap[i].length; j++)
+				testMap[i][j] = reachableTiles[i][j];
+		for (int i = 0; i < map.length; i++)
+			for (int j = 0; j < map[i].length; j++)
+				if (map[i][j] >= 0)
+					testMap[i][j] = false;
+		for (Point explosion : possibleExplosionsOnPoint)
+			testMap[explosion.x][explosion.y] = false;
+		int movementSpotsCount = 0;
+		for (int i = 0; i < testMap.length; i++)
+			for (int j = 0; j < testMap[i].length; j++)
+				if (testMap[i][j])
+					movementSpotsCount++;
+		return movementSpotsCount == 0;
+	}
+
+	/**
+	 * Plays a match and records a {@link Board} for every alive CPU every
+	 * {@link #RECORD_EVERY} ticks.
+	 */
+	public static ArrayList<Board> record(long seed, int players, int comLevel, int stage) {
+		ArrayList<Board> boards = new ArrayList<Board>();
+		HeadlessMatch match = new HeadlessMatch(seed, players, comLevel, stage);
+		MainBomberman game = match.game;
+		long start = game.clock.getTick();
+		while (game.state.is(StateEnum.STAGE) && game.clock.getTick() - start < match.maxTicks) {
+			game.tickSimulation();
+			if ((game.clock.getTick() - start) % RECORD_EVERY != 0 || game.stage == null)
+				continue;
+			for (Player player : game.players)
+				if (player.deadTimer == -1)
+					try {
+						boards.add(new Board(game, player));
+					} catch (Exception e) {
+					}
+		}
+		return boards;
+	}
+
+	public static void main(String[] args) {
+		long seed = args.length > 0 ? Long.parseLong(args[0]) : 1;
+		int players = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+		int comLevel = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+		int stage = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+		int rounds = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+		ArrayList<Board> boards = record(seed, players, comLevel, stage);
+		int checks = 0, mismatches = 0, trapped = 0;
+		for (Board board : boards) {
+			BitBoard safeReachable = AI.getSafeReachable(board.map, board.reachable, new BitBoard());
+			for (int k = 0; k < board.fire.size(); k++) {
+				boolean old = wouldTrapOurselvesOld(board.map, board.reachableTiles, board.fire.get(k));
+				boolean now = AI.wouldTrapOurselves(safeReachable, board.fireBoards.get(k));
+				checks++;
+				if (old)
+					trapped++;
+				if (old != now)
+					mismatches++;
+			}
+		}
+		System.out.println("Recorded " + boards.size() + " boards, " + checks + " tiles (" + trapped
+				+ " trapping), " + mismatches + " mismatches");
+		long oldTime = 0, newTime = 0;
+		int sink = 0;
+		for (int round = 0; round < rounds; round++) {
+			long start = System.nanoTime();
+			for (Board board : boards)
+				for (int k = 0; k < board.fire.size(); k++)
+					if (wouldTrapOurselvesOld(board.map, board.reachableTiles, board.fire.get(k)))
+						sink++;
+			oldTime += System.nanoTime() - start;
+			start = System.nanoTime();
+			BitBoard safeReachable = new BitBoard();
+			for (Board board : boards) {
+				// Done once per update, like AI does
+				AI.getSafeReachable(board.map, board.reachable, safeReachable);
+				for (int k = 0; k < board.fireBoards.size(); k++)
+					if (AI.wouldTrapOurselves(safeReachable, board.fireBoards.get(k)))
+						sink++;
+			}
+			newTime += System.nanoTime() - start;
+		}
+		long total = (long) checks * rounds;
+		if (total > 0)
+			System.out.println("Old: " + (oldTime / total) + "ns per tile, new: " + (newTime / total)
+					+ "ns per tile (" + sink + ")");
+		System.exit(0);
+	}
+}
@@ -5,7 +5,7 @@ import java.awt.image.BufferedImage;
 
 import com.github.vegeto079.saturnbomberman.misc.Pictures;
 
-import com.github.vegeto079.ngcommontools.main.Game;
+import com.github.vegeto079.saturnbomberman.main.MainBomberman;
 
 public class State {
 	private StateEnum currentState = StateEnum.LOADING;
@@ -16,7 +16,7 @@ public class State {
 		NULL, LOADING, DEBUG, FADE_OUT, MAIN_MENU, NETWORKING, CONTROLS, MATCH_SELECTION, STAGE, GOING_TO_STAGE, END_OF_MATCH;
 	}
 
-	public State(StateEnum state, Game game) {
+	public State(StateEnum state, MainBomberman game) {
 		set(state, game);
 	}
 
@@ -67,7 +67,7 @@ public class State {
 		setNextStateAfterFade(StateEnum.NULL, null);
 	}
 
-	public boolean set(String stateName, Game game) {
+	public boolean set(String stateName, MainBomberman game) {
 		for (int i = 0; i < StateEnum.values().length; i++)
 			if (StateEnum.values()[i].name().replace("_", " ")
 					.equalsIgnoreCase(stateName)) {
@@ -83,32 +83,32 @@ public class State {
 		return false;
 	}
 
-	public void set(StateEnum state, Game game) {
+	public void set(StateEnum state, MainBomberman game) {
 		currentState = state;
 		game.resetFps();
 		game.resetUps();
 	}
 
-	public void setNextStateAfterFade(StateEnum state, Game game) {
+	public void setNextStateAfterFade(StateEnum state, MainBomberman game) {
 		BufferedImage bufImage = new BufferedImage(game.getWidth(),
 				game.getHeight(), BufferedImage.TYPE_INT_ARGB);
-		game.paint(bufImage.createGraphics());
+		game.window.paint(bufImage.createGraphics());
 		Image newImageToFade = Pictures.toImage(bufImage);
 		nextStateAfterFade = state;
 		this.imageToFade = newImageToFade;
-		game.tickcounter = 0;
-		game.fadecounter = 0;
-		game.fadecounterenabled = 1;
+		game.window.tickcounter = 0;
+		game.window.fadecounter = 0;
+		game.window.fadecounterenabled = 1;
 		game.resetFps();
 		game.resetUps();
 		set(StateEnum.FADE_OUT, game);
 		bufImage.flush();
 	}
 
-	public void setImageToFade(Game game) {
+	public void setImageToFade(MainBomberman game) {
 		BufferedImage bufImage = new BufferedImage(game.getWidth(),
 				game.getHeight(), BufferedImage.TYPE_INT_RGB);
-		game.paint(bufImage.createGraphics());
+		game.window.paint(bufImage.createGraphics());
 		Image imageToFade = Pictures.toImage(bufImage);
 		setImageToFade(imageToFade);
 	}
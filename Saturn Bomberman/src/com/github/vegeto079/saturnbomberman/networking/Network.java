@@ -47,6 +47,15 @@ import com.github.vegeto079.ngcommontools.networking.Client.*;
  *          {@link #addNetworkEvent(NetworkEventType, long, String[])}.
  * @version 1.11: Changed all {@link System#currentTimeMillis()} references to
  *          {@link MainBomberman#currentTimeMillis()}.
+ * @version 1.12: {@link #setRandomCursor()} does nothing without pictures, so
+ *          a {@link MainBomberman#headless} game can create us.
+ * @version 1.13: Lets
+ *          {@link com.github.vegeto079.saturnbomberman.objects.ObjectList}
+ *          know when a {@link Player} is killed over the
+ *          network.
+ * @version 1.14: Added {@link #cpusRunLocally}.
+ * @version 1.15: The host sends {@link #cpusRunLocally} to clients along with
+ *          the seed, so everyone agrees on it.
  */
 public class Network {
 	public int serverMaxClients;
@@ -95,6 +104,17 @@ public class Network {
 	 * Set this to simulate client latency (in ms).
 	 */
 	public long simulatedLag = 0;
+	/**
+	 * Whether every one of us runs the CPU players' {@link AI} ourselves,
+	 * instead of only the host running it and sending everyone else what the
+	 * CPUs do. Their {@link AI#deterministic} decisions come out the same for
+	 * everyone from the seed and tick, so walking, laying, kicking, picking up
+	 * and throwing bombs aren't sent at all (see {@link NetworkTalking}).<br>
+	 * Must be the same for everyone in the game, so only the host decides:
+	 * it's taken from {@link com.github.vegeto079.saturnbomberman.main.Options.Multiplayer#cpusRunLocally} when the
+	 * server starts, and sent to clients with the seed.
+	 */
+	public boolean cpusRunLocally = false;
 
 	public Network(MainBomberman game) {
 		this.game = game;
@@ -114,6 +134,8 @@ public class Network {
 	 * Sets {@link #randomCursor}
 	 */
 	public void setRandomCursor() {
+		if (game.pictures == null)
+			return; // headless, no cursors to choose from
 		randomCursor = (int) (Math.random() * (game.pictures.networkingCursor.size() - 1) / 2);
 	}
 
@@ -163,7 +185,7 @@ public class Network {
 							+ Client.SPLITTER + ping + Client.SPLITTER + connectedClients.get(i)[2];
 				}
 				if (game.state.is(StateEnum.MATCH_SELECTION) || game.state.is(StateEnum.END_OF_MATCH))
-					message += "-_-SEED-_-" + game.seed + "-" + game.randomCount;
+					message += "-_-SEED-_-" + game.getSeed() + "-" + game.getRandomCount() + "-" + (cpusRunLocally ? 1 : 0);
 				server.sendMessageToAllClients(message);
 			}
 		} else if (client != null) {
@@ -266,8 +288,9 @@ public class Network {
 	 */
 	public void startServer() {
 		connectedClients = new ArrayList<String[]>();
+		cpusRunLocally = game.options.multiplayer.cpusRunLocally;
 		serverMessageHandler = new BombermanServerMessageHandler();
-		server = new S(serverMessageHandler, game.logger, port, timeBetweenConnectionAttempts, 100000, game.seed,
+		server = new S(serverMessageHandler, game.logger, port, timeBetweenConnectionAttempts, 100000, game.getSeed(),
 				game.options.multiplayer.username);
 		server.openIncomingClientConnection();
 
@@ -535,8 +558,9 @@ public class Network {
 						}
 				} else if (message.equals("NEEDSEED")) {
 					game.logger.log(LogLevel.DEBUG, "Client asked for seed, sending info.");
-					server.sendMessageToClient("SERVER:SEEDINFO" + Client.SPLITTER + game.seed + Client.SPLITTER
-							+ game.counter[7] + Client.SPLITTER + game.counter[6], username);
+					server.sendMessageToClient("SERVER:SEEDINFO" + Client.SPLITTER + game.getSeed() + Client.SPLITTER
+							+ game.counter[7] + Client.SPLITTER + game.counter[6] + Client.SPLITTER
+							+ (cpusRunLocally ? 1 : 0), username);
 				}
 			} else if (message.startsWith("GAME:")) {
 				server.sendMessageToAllClientsExcludingNames(message.split(Client.USERNAME_SPLITTER)[0],
@@ -556,6 +580,7 @@ public class Network {
 				if (message.contains("-_-SEED-_-")) {
 					String seedInfo = message.split("-_-SEED-_-")[1];
 					game.setSeed(Long.parseLong(seedInfo.split("-")[0]), Long.parseLong(seedInfo.split("-")[1]));
+					setCpusRunLocally(seedInfo.split("-"), 2);
 					message = message.split("-_-SEED-_-")[0];
 				}
 				ArrayList<String[]> tempConnectedClients = new ArrayList<String[]>();
@@ -619,7 +644,7 @@ public class Network {
 				} else if (message.startsWith("STAGE_SELECT")) {
 					game.logger.log(LogLevel.DEBUG, "Got server message for stage selection! (" + message + ")");
 					game.stage = null;
-					game.pause = Pause.ALL;
+					game.window.pause = Pause.ALL;
 					game.counter[0] = 19;
 					game.counter[7] = 0;
 					game.counter[6] = Long.parseLong(message.split(Client.SPLITTER)[1]);
@@ -628,7 +653,7 @@ public class Network {
 					game.counter[3] = 0;
 					game.counter[4] = 50;
 					game.counter[5] = 0;
-					game.pause = Pause.NONE;
+					game.window.pause = Pause.NONE;
 				} else if (message.startsWith("STARTGAME")) {
 					game.setPause(Pause.ALL);
 					long startGame = Long.parseLong(message.split(Client.SPLITTER)[1]);
@@ -659,6 +684,7 @@ public class Network {
 					game.setSeed(Long.parseLong(message.split(Client.SPLITTER)[1]),
 							Long.parseLong(message.split(Client.SPLITTER)[2]));
 					game.counter[1] = Integer.parseInt(message.split(Client.SPLITTER)[3]);
+					setCpusRunLocally(message.split(Client.SPLITTER), 4);
 					game.counter[7] = 1;
 					// set up stage
 				}
@@ -668,6 +694,22 @@ public class Network {
 		}
 	}
 
+	/**
+	 * Sets {@link #cpusRunLocally} to what the host told us. Hosts that don't
+	 * send it don't run CPUs locally either.
+	 * 
+	 * @param info
+	 *            Message from the host, split up.
+	 * @param index
+	 *            Where in the message it is.
+	 */
+	private void setCpusRunLocally(String[] info, int index) {
+		boolean runLocally = info.length > index && info[index].trim().equals("1");
+		if (runLocally != cpusRunLocally)
+			game.logger.log(LogLevel.DEBUG, "Host says CPUs run locally: " + runLocally);
+		cpusRunLocally = runLocally;
+	}
+
 	private void processGameMessage(String message) {
 		String username = message.split(Client.USERNAME_SPLITTER)[1];
 		message = message.split(":")[1].split(Client.USERNAME_SPLITTER)[0];
@@ -677,8 +719,9 @@ public class Network {
 			game.logger.log(LogLevel.DEBUG, "Someone died! RIP");
 			Player player = game.players.get(Integer.parseInt(info[1]));
 			int killedBy = Integer.parseInt(info[2]);
-			game.setSeed(game.seed, Integer.parseInt(info[3]));
+			game.setSeed(game.getSeed(), Integer.parseInt(info[3]));
 			player.deadTimer = 0;
+			game.objects.changed(player);
 			player.stats.killedByPlayer(killedBy);
 			if (killedBy < Integer.MAX_VALUE)
 				game.players.get(killedBy).stats.killedPlayer(Integer.parseInt(info[1]));
@@ -954,7 +997,7 @@ public class Network {
 		private void tick(Graphics2D g) {
 			if ((!game.state.is(StateEnum.MATCH_SELECTION) && !game.state.is(StateEnum.GOING_TO_STAGE)
 					&& !game.state.is(StateEnum.STAGE) && !game.state.is(StateEnum.END_OF_MATCH))
-					|| game.fadecounterenabled != 0)
+					|| game.window.fadecounterenabled != 0)
 				return;
 			if (lastState == null || !game.state.is(lastState.get())) {
 				lastState = game.state;
@@ -1231,7 +1274,7 @@ public class Network {
 				player.lastButtonPress = playerLastButtonPress;
 				player.character.animation = Animation.STUNNED_SPINNING;
 				player.character.animationTick = 0;
-				game.setSeed(game.seed, Integer.parseInt(info[3]));
+				game.setSeed(game.getSeed(), Integer.parseInt(info[3]));
 				player.placeRandomItemToBoard();
 				game.logger.log(LogLevel.DEBUG, "Bounced on their head!");
 			} else if (type.equals(NetworkEventType.BOMBBOUNCESTOP)) {
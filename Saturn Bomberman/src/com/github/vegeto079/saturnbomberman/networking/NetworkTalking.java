@@ -1,7 +1,6 @@
 package com.github.vegeto079.saturnbomberman.networking;
 
 import java.awt.Point;
-import java.util.ArrayList;
 
 import com.github.vegeto079.ngcommontools.networking.Client;
 import com.github.vegeto079.ngcommontools.networking.Server.Handler;
@@ -9,7 +8,9 @@ import com.github.vegeto079.saturnbomberman.main.MainBomberman;
 import com.github.vegeto079.saturnbomberman.networking.Network.NetworkEventType;
 import com.github.vegeto079.saturnbomberman.objects.Bomb;
 import com.github.vegeto079.saturnbomberman.objects.Bomb.BombType;
+import com.github.vegeto079.saturnbomberman.objects.EntityStore.Kind;
 import com.github.vegeto079.saturnbomberman.objects.Item;
+import com.github.vegeto079.saturnbomberman.objects.ObjectSnapshot;
 import com.github.vegeto079.saturnbomberman.objects.Player;
 
 
@@ -22,6 +23,11 @@ import com.github.vegeto079.saturnbomberman.objects.Player;
  * @version 1.01: Added time to kick to {@link #bombKick(Bomb, Player, int)}.
  * @version 1.02: Changed all {@link System#currentTimeMillis()} references to
  *          {@link MainBomberman#currentTimeMillis()}.
+ * @version 1.03: Input from CPU players isn't sent when
+ *          {@link Network#cpusRunLocally}.
+ * @version 1.04: {@link #getBomb(long)} and {@link #getItem(Point, int)}
+ *          look through an {@link ObjectSnapshot} instead of copying every
+ *          object, and return <b>null</b> when nothing matches.
  */
 public class NetworkTalking {
 	public MainBomberman game;
@@ -30,6 +36,15 @@ public class NetworkTalking {
 		this.game = game;
 	}
 
+	/**
+	 * @return Whether this is a CPU everyone runs themselves (see
+	 *         {@link Network#cpusRunLocally}), so what it does doesn't need to
+	 *         be sent.
+	 */
+	private boolean isLocalCpu(Player player) {
+		return game.network.cpusRunLocally && player.isCpu;
+	}
+
 	public boolean itemDestroy(Item item, Player playerOrigin, Player playerKicked) {
 		if (game.network.isPlayingOnline()) {
 			int playerIndex = playerOrigin.getIndex();
@@ -51,8 +66,8 @@ public class NetworkTalking {
 				playerIndex = playerKicked.getIndex();
 			String bombString = "BOMBJELLYKICKED" + Client.SPLITTER + bomb.identifier
 					+ Client.SPLITTER + bomb.exactPoint.x + Client.SPLITTER
-					+ bomb.exactPoint.y + Client.SPLITTER + game.seed + Client.SPLITTER
-					+ game.randomCount + Client.SPLITTER + randomDirection;
+					+ bomb.exactPoint.y + Client.SPLITTER + game.getSeed() + Client.SPLITTER
+					+ game.getRandomCount() + Client.SPLITTER + randomDirection;
 			return sendString(bombString, playerIndex);
 		}
 		return false;
@@ -62,8 +77,8 @@ public class NetworkTalking {
 		if (game.network.isPlayingOnline()) {
 			String bombString = "BOMBJELLYBOUNCE" + Client.SPLITTER + bomb.identifier
 					+ Client.SPLITTER + bomb.exactPoint.x + Client.SPLITTER
-					+ bomb.exactPoint.y + Client.SPLITTER + game.seed + Client.SPLITTER
-					+ game.randomCount + Client.SPLITTER + randomDirection;
+					+ bomb.exactPoint.y + Client.SPLITTER + game.getSeed() + Client.SPLITTER
+					+ game.getRandomCount() + Client.SPLITTER + randomDirection;
 			return sendString(bombString, -1);
 		}
 		return false;
@@ -91,7 +106,7 @@ public class NetworkTalking {
 			int playerIndex = playerOrigin.getIndex();
 			String bounceString = "BOMBBOUNCEHEAD" + Client.SPLITTER
 					+ playerHit.getIndex() + Client.SPLITTER + game.currentTimeMillis()
-					+ Client.SPLITTER + game.randomCount + Client.SPLITTER + buffer;
+					+ Client.SPLITTER + game.getRandomCount() + Client.SPLITTER + buffer;
 			ourBounce = sendString(bounceString, playerIndex);
 			if (ourBounce)
 				game.network.addNetworkEvent(NetworkEventType.BOMBBOUNCEHEAD, buffer,
@@ -124,7 +139,7 @@ public class NetworkTalking {
 			int playerIndex = player.getIndex();
 			String bombString = "BOMBPICKUP" + Client.SPLITTER + bomb.identifier
 					+ Client.SPLITTER + playerIndex + Client.SPLITTER + currentTime;
-			return sendString(bombString, playerIndex);
+			return sendInput(bombString, player);
 		}
 		return false;
 	}
@@ -137,7 +152,7 @@ public class NetworkTalking {
 					+ Client.SPLITTER + player.exactPoint.y + Client.SPLITTER
 					+ player.character.facing + Client.SPLITTER + playerIndex
 					+ Client.SPLITTER + buffer;
-			boolean itsOurs = sendString(bombString, playerIndex);
+			boolean itsOurs = sendInput(bombString, player);
 			if (itsOurs)
 				game.network.addNetworkEvent(NetworkEventType.BOMBTHROW, buffer,
 						bombString.split(Client.SPLITTER));
@@ -154,7 +169,7 @@ public class NetworkTalking {
 					+ Client.SPLITTER + direction + Client.SPLITTER + bomb.exactPoint.x
 					+ Client.SPLITTER + bomb.exactPoint.y + Client.SPLITTER + playerIndex
 					+ Client.SPLITTER + buffer;
-			boolean itsOurs = sendString(bombString, playerIndex);
+			boolean itsOurs = sendInput(bombString, player);
 			if (itsOurs)
 				game.network.addNetworkEvent(NetworkEventType.BOMBKICK, buffer,
 						bombString.split(Client.SPLITTER));
@@ -174,7 +189,7 @@ public class NetworkTalking {
 					+ Client.SPLITTER + cellPoint.x + Client.SPLITTER + cellPoint.y
 					+ Client.SPLITTER + fromLineBomb + Client.SPLITTER + time
 					+ Client.SPLITTER + identifier + Client.SPLITTER + type.ordinal();
-			return sendString(bombString, playerIndex);
+			return sendInput(bombString, player);
 		}
 		return false;
 	}
@@ -190,7 +205,7 @@ public class NetworkTalking {
 					+ player.character.animation.ordinal() + Client.SPLITTER + upPressed
 					+ Client.SPLITTER + downPressed + Client.SPLITTER + leftPressed
 					+ Client.SPLITTER + rightPressed;
-			return sendString(moveString, playerIndex);
+			return sendInput(moveString, player);
 		}
 		return false;
 	}
@@ -198,6 +213,8 @@ public class NetworkTalking {
 	public boolean stopMoving(Player player, double locX, double locY,
 			int characterFacing) {
 		if (game.network.isPlayingOnline()) {
+			if (isLocalCpu(player))
+				return true;
 			int playerIndex = player.getIndex();
 			String moveString = "PLAYERSTOPMOVE" + Client.SPLITTER + playerIndex
 					+ Client.SPLITTER + locX + Client.SPLITTER + locY + Client.SPLITTER
@@ -300,6 +317,19 @@ public class NetworkTalking {
 		return false;
 	}
 
+	/**
+	 * Sends something a {@link Player} did with their controls, unless
+	 * {@link #isLocalCpu(Player)}.
+	 * 
+	 * @return Whether it's ours to do, same as
+	 *         {@link #sendString(String, int)}.
+	 */
+	private boolean sendInput(String string, Player player) {
+		if (isLocalCpu(player))
+			return true;
+		return sendString(string, player.getIndex());
+	}
+
 	private boolean sendString(String string, int playerIndex) {
 		if (game.network.weAreHost()) {
 			if (playerIndex == -1 || game.players.get(playerIndex).isCpu
@@ -319,33 +349,17 @@ public class NetworkTalking {
 	}
 
 	public Bomb getBomb(long identifier) {
-		Bomb bomb = null;
-		ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> objectList = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Object>(
-				game.objects);
-		for (int i = 0; i < objectList.size(); i++)
-			try {
-				bomb = (Bomb) objectList.get(i);
-				if (bomb.identifier == identifier)
-					// Found the bomb!
-					return bomb;
-			} catch (Exception e) { // not a Bomb
-			}
-		return bomb;
+		return game.objects.getSnapshot().getBomb(identifier);
 	}
 
 	public Item getItem(Point cellPoint, int itemType) {
-		Item item = null;
-		ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> objectList = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Object>(
-				game.objects);
-		for (int i = 0; i < objectList.size(); i++)
-			try {
-				item = (Item) objectList.get(i);
-				if (item.cellPoint.distance(cellPoint) == 0
-						&& item.type.ordinal() == itemType)
-					// Found the bomb!
-					return item;
-			} catch (Exception e) { // not a Bomb
-			}
-		return item;
+		ObjectSnapshot snapshot = game.objects.getSnapshot();
+		for (int i = 0; i < snapshot.size(Kind.ITEM); i++) {
+			Item item = (Item) snapshot.get(Kind.ITEM, i);
+			if (item.cellPoint.distance(cellPoint) == 0 && item.type.ordinal() == itemType)
+				// Found the item!
+				return item;
+		}
+		return null;
 	}
 }
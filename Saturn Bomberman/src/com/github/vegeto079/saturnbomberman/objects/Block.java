@@ -12,6 +12,13 @@ import com.github.vegeto079.saturnbomberman.main.Stage;
  * 
  * @author Nathan
  * @version 1.0: Started tracking version.
+ * @version 1.01: {@link #get(Point, MainBomberman)} now looks up the tile in
+ *          {@link ObjectList} instead of scanning every object.
+ * @version 1.02: Lets {@link ObjectList} know when the {@link Item} under us
+ *          is revealed. {@link #setStagePoint(int)} goes through
+ *          {@link Stage#set(int, int, int)} so the stage knows it changed.
+ * @version 1.03: Finds the {@link Item} under us through
+ *          {@link ObjectList#getFirstOnTile(int, int, Class)}.
  *
  */
 public class Block extends com.github.vegeto079.saturnbomberman.objects.Object {
@@ -47,14 +54,11 @@ public class Block extends com.github.vegeto079.saturnbomberman.objects.Object {
 		if (exploding && !waitForNetwork)
 			if (game.currentTimeMillis() >= explodeTime)
 				if (!itemCreated) {
-					for (int z = 0; z < game.objects.size(); z++)
-						if (game.objects.get(z).cellPoint
-								.distance(new Point(cellPoint.y, cellPoint.x)) == 0)
-							if (game.objects.get(z) instanceof Item) {
-								Item item = (Item) game.objects.get(z);
-								item.visible = true;
-								break;
-							}
+					Item item = game.objects.getFirstOnTile(cellPoint.y, cellPoint.x, Item.class);
+					if (item != null) {
+						item.visible = true;
+						game.objects.changed(item);
+					}
 					itemCreated = true;
 				} else if (game.currentTimeMillis() >= explodeTime + ITEM_GRACE_PERIOD) {
 					solid = false;
@@ -118,26 +122,21 @@ public class Block extends com.github.vegeto079.saturnbomberman.objects.Object {
 	}
 
 	public void setStagePoint(int set) {
-		game.stage.get()[cellPoint.x][cellPoint.y] = set;
+		game.stage.set(cellPoint.x, cellPoint.y, set);
 	}
 
 	public static Block get(int cellX, int cellY, MainBomberman game) {
 		return get(new Point(cellX, cellY), game);
 	}
 
+	/**
+	 * @param cellPoint
+	 *            (row, column), same as our {@link #cellPoint}.
+	 * @param game
+	 * @return The {@link Block} at the given point, or <b>null</b> if there is
+	 *         none.
+	 */
 	public static Block get(Point cellPoint, MainBomberman game) {
-		int tryCount = 10;
-		do
-			try {
-				tryCount--;
-				for (int i = 0; i < game.objects.size(); i++) {
-					com.github.vegeto079.saturnbomberman.objects.Object obj = game.objects.get(i);
-					if (obj instanceof Block && obj.cellPoint.distance(cellPoint) == 0)
-						return (Block) obj;
-				}
-			} catch (Exception e) {
-			}
-		while (tryCount > 0);
-		return null;
+		return game.objects.getFirstOnTile(cellPoint.y, cellPoint.x, Block.class);
 	}
 }
@@ -9,10 +9,10 @@ import java.util.Comparator;
 
 import com.github.vegeto079.ngcommontools.main.DoublePoint;
 import com.github.vegeto079.ngcommontools.main.Logger.LogLevel;
-import com.github.vegeto079.ngcommontools.main.Tools;
 import com.github.vegeto079.saturnbomberman.main.Character.Animation;
 import com.github.vegeto079.saturnbomberman.main.MainBomberman;
 import com.github.vegeto079.saturnbomberman.main.Stage;
+import com.github.vegeto079.saturnbomberman.misc.BitBoard;
 
 /**
  * 
@@ -37,6 +37,30 @@ import com.github.vegeto079.saturnbomberman.main.Stage;
  * @version 1.42: Added {@link #originalFirePower} which tells the bomb how fast
  *          to tick based on it's explosion size, rather than using
  *          {@link Player#firePower} at the time (which can change).
+ * @version 1.43: Sounds now played through
+ *          {@link MainBomberman#playSound(String)} and explosion timing uses
+ *          {@link MainBomberman#getTickFps()}, so bombs work when
+ *          {@link MainBomberman#headless}.
+ * @version 1.44: {@link #get(Point, MainBomberman)} now looks up the tile in
+ *          {@link ObjectList} instead of scanning every object.
+ * @version 1.45: Lets {@link ObjectList} know when we kill a {@link Player}.
+ * @version 1.5: {@link #updateExplosionPoints()} no longer runs test
+ *          {@link FireArm}s and checks every other bomb against every point.
+ *          {@link BombChain} works out every bomb's fire and detonation time
+ *          at once, following chains of any length and land mines.
+ * @version 1.51: {@link FireArm#tick(MainBomberman, int)} only looks at what's
+ *          on each cell it burns, through {@link ObjectList}, instead of
+ *          copying and going through every object for every cell.
+ * @version 1.52: Exploding bombs stamp their fire into the stage's
+ *          {@link FireGrid}. Players are killed by
+ *          {@link #burnPlayer(MainBomberman, Player)} when they're on deadly
+ *          fire there, instead of by {@link FireArm}s, and kicked bombs look
+ *          there to see if they've hit fire.
+ * @version 1.53: Alive players come from
+ *          {@link MainBomberman#getMatchFrame()}.
+ * @version 1.54: Bombs, items and weights we run into are looked up in an
+ *          {@link ObjectSnapshot} instead of a copy of every object.
+ * @version 1.55: Landing stops at the first bomb or weight found again.
  */
 public class Bomb extends Object {
 	public static long LIFE_TIME = 2500l;
@@ -66,9 +90,10 @@ public class Bomb extends Object {
 	public long lastExplosionPointsRetrieval = 0;
 	public long timeBetweenExplosionPointsRetrieval = 100;
 
-	// used for simulating explosions before they happen, useful for AI and
-	// debug visuals
-	private FireArm[] potentialFireArms = new FireArm[5];
+	/**
+	 * When another bomb's fire will set us off, if that's before our own fuse.
+	 * -1 if not. Set by {@link BombChain}.
+	 */
 	public long willBeExplodedByOtherBombTime = -1;
 
 	public enum BombType {
@@ -149,11 +174,7 @@ public class Bomb extends Object {
 			return;
 		if (animation == null)
 			setVariables();
-		int alivePlayers = 0;
-		for (int i = 0; i < game.players.size(); i++)
-			if (game.players.get(i).deadTimer == -1)
-				alivePlayers++;
-		if (alivePlayers < 2) {
+		if (game.getMatchFrame().getAlivePlayers() < 2) {
 			moving = -1;
 			tickSkip++;
 			if (tickSkip >= 15 && !exploding)
@@ -213,44 +234,40 @@ public class Bomb extends Object {
 				}
 				if (!cantMove)
 					try {
-						ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> objects = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Object>(game.objects);
-						for (com.github.vegeto079.saturnbomberman.objects.Object obj : objects) {
-							if (obj instanceof com.github.vegeto079.saturnbomberman.objects.Bomb) {
-								com.github.vegeto079.saturnbomberman.objects.Bomb bomb = (com.github.vegeto079.saturnbomberman.objects.Bomb) obj;
-								if (!bomb.equals(this)) {
-									if (bomb.cellPoint.distance(cellPoint) == 0) {
-										// on the bomb?
-										// cantMove = true;
-										// bomb.moving = moving;
-									} else if (bomb.cellPoint.distance(goingToCell) == 0) {
-										cantMove = true;
-										if (game.options.kickedBombsMoveOtherBombs) {
-											if (!game.network.talking.bombKick(bomb, playerKicked, bomb.moving))
-												bomb.moving = moving;
-											game.network.talking.bombMovingStop(this, playerOrigin, playerKicked);
-										}
-									}
-									if (bomb.exploding && !exploding) {
-										for (int i = 0; i < bomb.fireArms.length; i++)
-											if (bomb.fireArms[i] != null && bomb.fireArms[i].touchedCells != null)
-												for (int j = 0; j < bomb.fireArms[i].touchedCells.size(); j++)
-													if (bomb.fireArms[i].touchedCells.get(j).distance(cellPoint) == 0) {
-														exploding = true;
-														return;
-													}
+						if (!exploding && game.stage.getFireGrid().isBurning(cellPoint.x, cellPoint.y,
+								game.currentTimeMillis())) {
+							// Moved into fire
+							exploding = true;
+							return;
+						}
+						ObjectSnapshot snapshot = game.objects.getSnapshot();
+						for (int i = 0; i < snapshot.size(EntityStore.Kind.BOMB); i++) {
+							Bomb bomb = (Bomb) snapshot.get(EntityStore.Kind.BOMB, i);
+							if (!bomb.equals(this)) {
+								if (bomb.cellPoint.distance(cellPoint) == 0) {
+									// on the bomb?
+									// cantMove = true;
+									// bomb.moving = moving;
+								} else if (bomb.cellPoint.distance(goingToCell) == 0) {
+									cantMove = true;
+									if (game.options.kickedBombsMoveOtherBombs) {
+										if (!game.network.talking.bombKick(bomb, playerKicked, bomb.moving))
+											bomb.moving = moving;
+										game.network.talking.bombMovingStop(this, playerOrigin, playerKicked);
 									}
 								}
-							} else if (obj instanceof com.github.vegeto079.saturnbomberman.objects.Item) {
-								com.github.vegeto079.saturnbomberman.objects.Item item = (com.github.vegeto079.saturnbomberman.objects.Item) obj;
-								if (item.cellPoint.distance(cellPoint) == 0) {
-									boolean ourBomb = game.network.talking.itemDestroy(item, playerOrigin,
-											playerKicked);
-									if (!game.network.isPlayingOnline() || ourBomb) {
-										item.destroy(game);
-									}
-									cantMove = true;
-									break;
+							}
+						}
+						for (int i = 0; i < snapshot.size(EntityStore.Kind.ITEM); i++) {
+							Item item = (Item) snapshot.get(EntityStore.Kind.ITEM, i);
+							if (item.cellPoint.distance(cellPoint) == 0) {
+								boolean ourBomb = game.network.talking.itemDestroy(item, playerOrigin,
+										playerKicked);
+								if (!game.network.isPlayingOnline() || ourBomb) {
+									item.destroy(game);
 								}
+								cantMove = true;
+								break;
 							}
 						}
 					} catch (Exception e) {
@@ -273,12 +290,12 @@ public class Bomb extends Object {
 						int oldMoving = moving;
 						int testMoving = moving;
 						while (testMoving == oldMoving)
-							testMoving = Tools.random(game, 0, 3, "Jelly Bomb bouncing direction");
+							testMoving = game.random(0, 3, "Jelly Bomb bouncing direction");
 						boolean ourBomb = game.network.talking.jellyBombKicked(this, playerOrigin, playerKicked,
 								testMoving);
 						if (!game.network.isPlayingOnline() || ourBomb) {
 							moving = testMoving;
-							game.sound.play("Bounce");
+							game.playSound("Bounce");
 						}
 					} else {
 						boolean ourBomb = game.network.talking.bombMovingStop(this, playerOrigin, playerKicked);
@@ -296,27 +313,23 @@ public class Bomb extends Object {
 				moving = -1;
 			}
 		}
-		if (pickedUpCount == -1)
-			try {
-				ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> objects = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Object>(game.objects);
-				for (com.github.vegeto079.saturnbomberman.objects.Object obj : objects)
-					if (obj instanceof com.github.vegeto079.saturnbomberman.objects.Item) {
-						com.github.vegeto079.saturnbomberman.objects.Item item = (com.github.vegeto079.saturnbomberman.objects.Item) obj;
-						boolean playerOnSquare = false;
-						for (Player player : game.players)
-							if (player.getCellPoint().distance(item.cellPoint) == 0)
-								playerOnSquare = true;
-						if (item.cellPoint.distance(cellPoint) == 0 && !playerOnSquare) {
-							boolean ourBomb = game.network.talking.itemDestroy(item, playerOrigin, playerKicked);
-							if (!game.network.isPlayingOnline() || ourBomb) {
-								item.destroy(game);
-							}
-							break;
-						}
+		if (pickedUpCount == -1) {
+			ObjectSnapshot snapshot = game.objects.getSnapshot();
+			for (int i = 0; i < snapshot.size(EntityStore.Kind.ITEM); i++) {
+				Item item = (Item) snapshot.get(EntityStore.Kind.ITEM, i);
+				boolean playerOnSquare = false;
+				for (Player player : game.players)
+					if (player.getCellPoint().distance(item.cellPoint) == 0)
+						playerOnSquare = true;
+				if (item.cellPoint.distance(cellPoint) == 0 && !playerOnSquare) {
+					boolean ourBomb = game.network.talking.itemDestroy(item, playerOrigin, playerKicked);
+					if (!game.network.isPlayingOnline() || ourBomb) {
+						item.destroy(game);
 					}
-			} catch (Exception e) {
-				// concurrent?
+					break;
+				}
 			}
+		}
 		tickSkip++;
 		if (type.equals(BombType.SLOW)) {
 			if (tickSkip >= 30 && !exploding)
@@ -347,7 +360,7 @@ public class Bomb extends Object {
 			return;
 		if (exploding) {
 			if (animationTick == 0)
-				game.sound.play("Bomb Explosion");
+				game.playSound("Bomb Explosion");
 			if (fireArms[4] == null) {
 				moving = -1;
 				Point c = getCellPoint();
@@ -356,6 +369,7 @@ public class Bomb extends Object {
 				fireArms[2] = new FireArm(this, new Point(c.x - 1, c.y), maxPower, 2, false, false);
 				fireArms[3] = new FireArm(this, new Point(c.x + 1, c.y), maxPower, 3, false, false);
 				fireArms[4] = new FireArm(this, new Point(c.x, c.y), maxPower, 0, true, false);
+				stampFire(game);
 			} else {
 				boolean nobodyCanExtend = true;
 				for (int i = 0; i < fireArms.length; i++) {
@@ -369,8 +383,9 @@ public class Bomb extends Object {
 					else
 						fireArmPower--;
 				}
+				stampFire(game);
 			}
-			if (explosionMaxAnimationTick - maxAnimationTick + animationTick
+			if (game.headless || explosionMaxAnimationTick - maxAnimationTick + animationTick
 					+ 1 > game.pictures.bombs.get(bombType).size() - 1) {
 				animationTick = -1;
 			} else if (animationTick != -1)
@@ -483,29 +498,33 @@ public class Bomb extends Object {
 					hitSomething = true;
 				if (!hitSomething)
 					try {
-						ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> objects = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Object>(game.objects);
-						for (Object obj : objects)
-							if (obj instanceof Bomb) {
-								Bomb bomb = (Bomb) obj;
-								if (!bomb.equals(this) && bomb.getCellPoint().distance(cellPoint) == 0) {
-									// Can't land on a bomb
-									if (bomb.pickedUpCount > 2) {
-										// It's also a bouncing bomb! Let's just
-										// land, this can't be good.
-										// TODO: Make it so multiple bombs can't
-										// land in the same spot :(
-									} else
-										hitSomething = true;
-									break;
-								}
-							} else if (obj instanceof Weight) {
-								Weight weight = (Weight) obj;
-								if (weight.solid && weight.cellPoint.distance(cellPoint) == 0) {
-									// Can't land on a weight
+						ObjectSnapshot snapshot = game.objects.getSnapshot();
+						// Only the first thing we find here counts, same as
+						// when bombs and weights were in one list
+						boolean foundSomething = false;
+						for (int i = 0; i < snapshot.size(EntityStore.Kind.BOMB); i++) {
+							Bomb bomb = (Bomb) snapshot.get(EntityStore.Kind.BOMB, i);
+							if (!bomb.equals(this) && bomb.getCellPoint().distance(cellPoint) == 0) {
+								foundSomething = true;
+								// Can't land on a bomb
+								if (bomb.pickedUpCount > 2) {
+									// It's also a bouncing bomb! Let's just
+									// land, this can't be good.
+									// TODO: Make it so multiple bombs can't
+									// land in the same spot :(
+								} else
 									hitSomething = true;
-									break;
-								}
+								break;
+							}
+						}
+						for (int i = 0; i < snapshot.size(EntityStore.Kind.WEIGHT) && !foundSomething; i++) {
+							Weight weight = (Weight) snapshot.get(EntityStore.Kind.WEIGHT, i);
+							if (weight.solid && weight.cellPoint.distance(cellPoint) == 0) {
+								// Can't land on a weight
+								hitSomething = true;
+								break;
 							}
+						}
 					} catch (Exception e) {
 					}
 				ArrayList<Player> players = game.players;
@@ -517,7 +536,7 @@ public class Bomb extends Object {
 							game.network.talking.bombBounceHead(this, playerOrigin, player);
 							hitSomething = true;
 							if (!game.network.isPlayingOnline()) {
-								game.sound.play("Ouch");
+								game.playSound("Ouch");
 								player.lastButtonPress = game.currentTimeMillis();
 								player.character.animation = Animation.STUNNED_SPINNING;
 								player.character.animationTick = 0;
@@ -546,7 +565,7 @@ public class Bomb extends Object {
 						game.network.talking.bombBounceStop(this, playerOrigin);
 				} else {
 					if (!hitPlayer)
-						game.sound.play("Bounce");
+						game.playSound("Bounce");
 					if (type.equals(BombType.JELLY) && hitSomething && cellPoint.x >= 0
 							&& cellPoint.x < game.stage.getHeight() && cellPoint.y >= 0
 							&& cellPoint.y < game.stage.getWidth()) {
@@ -556,8 +575,8 @@ public class Bomb extends Object {
 							// the same direction.
 							int directionBefore = (pickedUpCount - 3) / 5;
 							int newDirection = directionBefore;
-							if (Tools.random(game, 0, 100, "Jelly Bomb bounce chance") >= 66) {
-								newDirection = Tools.random(game, 0, 3, "Jelly Bomb bouncing direction");
+							if (game.random(0, 100, "Jelly Bomb bounce chance") >= 66) {
+								newDirection = game.random(0, 3, "Jelly Bomb bouncing direction");
 								pickedUpCount = 3 + newDirection * 5;
 							}
 							game.network.talking.jellyBombBounce(this, newDirection);
@@ -567,7 +586,7 @@ public class Bomb extends Object {
 			} catch (Exception e) {
 				// moving off screen
 				if (!hitPlayer)
-					game.sound.play("Bounce");
+					game.playSound("Bounce");
 			}
 		}
 		if (exactPoint.x < 0) {
@@ -734,76 +753,98 @@ public class Bomb extends Object {
 		return updateExplosionPoints();
 	}
 
+	/**
+	 * Works out every cell our fire will touch and when, through
+	 * {@link Stage#getBombChain(MainBomberman)}. This also tells every other
+	 * bomb when we (or a bomb we set off) will set them off, see
+	 * {@link #willBeExplodedByOtherBombTime}.
+	 * 
+	 * @return { column, row, time until the fire gets there } for each cell.
+	 */
 	public ArrayList<long[]> updateExplosionPoints() {
-		ArrayList<long[]> newExplosionPoints = new ArrayList<long[]>();
-		Point c = getCellPoint();
-		potentialFireArms[0] = new FireArm(this, new Point(c.x, c.y - 1), maxPower, 0, false, true);
-		potentialFireArms[1] = new FireArm(this, new Point(c.x, c.y + 1), maxPower, 1, false, true);
-		potentialFireArms[2] = new FireArm(this, new Point(c.x - 1, c.y), maxPower, 2, false, true);
-		potentialFireArms[3] = new FireArm(this, new Point(c.x + 1, c.y), maxPower, 3, false, true);
-		potentialFireArms[4] = new FireArm(this, new Point(c.x, c.y), maxPower, 0, true, true);
-
-		long explosion = getTimeTillExplosion();
-
-		for (int i = 0; i < potentialFireArms.length; i++) {
-			while (!potentialFireArms[i].doneExtending)
-				potentialFireArms[i].tick(game, 3); // >2, all that matters
-
-			for (int j = 0; j < potentialFireArms[i].touchedCells.size(); j++) {
-				long x = potentialFireArms[i].touchedCells.get(j).x;
-				long y = potentialFireArms[i].touchedCells.get(j).y;
-				if (x < 0 || y < 0 || x >= game.stage.getHeight() || y >= game.stage.getWidth())
-					continue;
-
-				// Calculate distance from main point and how long it will take
-				// for the explosion to get there. 1000/fps=ms per frame, *5
-				// because we skip from 5-7 frames before progressing on an
-				// explosion
-				long thisExplosion = explosion;
-				if (game.currentTimeMillis() < thisExplosion)
-					thisExplosion += (long) (new Point((int) x, (int) y).distance(new Point(c.x, c.y))
-							* (1000 / game.getFps() * 5));
+		ArrayList<long[]> newExplosionPoints = game.stage.getBombChain(game).getExplosionPoints(this, game);
+		lastExplosionPointsRetrieval = game.currentTimeMillis();
+		explosionPoints = newExplosionPoints;
+		return explosionPoints;
+	}
 
-				newExplosionPoints.add(new long[] { x, y, thisExplosion });
+	/**
+	 * Stamps every cell our fire is on into the stage's {@link FireGrid}. Called
+	 * every time the fire moves, after {@link #fireArmPower} is set for the next
+	 * move: the fire kills until then if it will still be burning hot
+	 * (above 2), and burns until it's fully faded out. Tiles we exploded burn
+	 * but don't kill, same as {@link FireArm} always did.
+	 * 
+	 * @param game
+	 */
+	private void stampFire(MainBomberman game) {
+		if (finished)
+			return;
+		FireGrid fireGrid = game.stage.getFireGrid();
+		long now = game.currentTimeMillis();
+		int fps = game.getTickFps();
+		if (fps <= 0)
+			fps = MainBomberman.TICKS_PER_SECOND;
+		long stepTime = BombChain.getFireStepTicks(this) * 1000l / fps;
+		long burnUntil = now + fireArmPower * stepTime;
+		long deadlyUntil = fireArmPower > 2 ? now + stepTime : 0;
+		for (int i = 0; i < fireArms.length; i++) {
+			FireArm fireArm = fireArms[i];
+			int cells = fireArm.touchedCells.size();
+			for (int j = type.equals(BombType.GUN) ? cells - 1 : 0; j < cells; j++) {
+				Point cell = fireArm.touchedCells.get(j);
+				fireGrid.stamp(cell.x, cell.y, now, burnUntil,
+						fireArm.explodedTiles.get(cell.x, cell.y) ? 0 : deadlyUntil, this);
 			}
 		}
+	}
 
-		// Get all current bombs (besides self) and tell them they'll explode
-		// sooner (if they will).
-		ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> objects = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Object>(game.objects);
-		for (com.github.vegeto079.saturnbomberman.objects.Object obj : objects) {
-			try {
-				if (obj instanceof Bomb) {
-					Bomb bomb = (Bomb) obj;
-					for (long[] explosionPoint : newExplosionPoints) {
-						double dist = new Point((int) explosionPoint[0], (int) explosionPoint[1])
-								.distance(bomb.getCellPoint());
-						if (dist == 0 && !bomb.equals(this) && explodeTime < bomb.explodeTime) {
-							dist = bomb.getCellPoint().distance(getCellPoint());
-							long add = (long) (dist * (1000d / (double) game.getFps() * 5d));
-							bomb.willBeExplodedByOtherBombTime = explodeTime + add;
-							// System.out.println("other bomb told when it'll
-							// explode ("
-							// + explodeTime + "+" + add + "="
-							// + bomb.willBeExplodedByOtherBombTime + ")");
-						}
-					}
-				}
-			} catch (Exception e) {
-				// Something probably changed in game.objects. Not too
-				// important, don't worry about it.
-				break;
+	/**
+	 * Kills a {@link Player} standing in our fire, letting everyone online know
+	 * and keeping track of who killed who. Called by
+	 * {@link Player#tick(MainBomberman)} when the {@link FireGrid} says they're
+	 * on deadly fire that's ours.
+	 * 
+	 * @param game
+	 * @param player
+	 */
+	public void burnPlayer(MainBomberman game, Player player) {
+		if (player.deadTimer != -1)
+			return;
+		if (!game.options.canBombSelf && player.equals(playerOrigin))
+			return;
+		boolean ourBomb = game.network.talking.killPlayer(player, playerOrigin.getIndex(), true, game.getRandomCount());
+		if (!game.network.isPlayingOnline() || ourBomb) {
+			player.deadTimer = 0;
+			game.objects.changed(player);
+			playerOrigin.stats.killedPlayer(player.getIndex());
+			player.stats.killedByPlayer(playerOrigin.getIndex());
+			player.character.animation = Animation.IDLE;
+			if (player.pickedUpBomb != null) {
+				player.pickedUpBomb.pickedUpCount = 3 + (player.character.facing * 5);
+				DoublePoint dp = new DoublePoint(Stage.getExactTileMidPoint(game, getCellPoint()));
+				player.pickedUpBomb.exactPoint = new DoublePoint(dp.x + player.pickedUpBomb.adjustExactPoint.x,
+						dp.y + player.pickedUpBomb.adjustExactPoint.y);
+				game.objects.add(player.pickedUpBomb);
+				player.pickedUpBomb = null;
 			}
 		}
-		lastExplosionPointsRetrieval = game.currentTimeMillis();
-		explosionPoints = newExplosionPoints;
-		return explosionPoints;
 	}
 
 	public class FireArm {
 		Bomb parent = null;
 		public ArrayList<Point> touchedCells = new ArrayList<Point>();
 		public ArrayList<Point> explodedTileCells = new ArrayList<Point>();
+		/**
+		 * {@link #explodedTileCells}, to look up a cell without going through
+		 * the list.
+		 */
+		private final BitBoard explodedTiles = new BitBoard();
+		/**
+		 * Reused by {@link #burn(MainBomberman, Point)} for whatever is on the
+		 * cell it's burning.
+		 */
+		private final ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> onTile = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Object>();
 		int direction = -1;
 		int maxPower = -1;
 		boolean doneExtending = false;
@@ -825,131 +866,25 @@ public class Bomb extends Object {
 
 		public void tick(MainBomberman game, int power) {
 			Point p = touchedCells.get(touchedCells.size() - 1);
-			ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> objects = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Object>();
-			try {
-				for (com.github.vegeto079.saturnbomberman.objects.Object obj : game.objects)
-					objects.add(obj);
-			} catch (Exception e) {
-				// retry
-				tick(game, power);
-				return;
-			}
-			ArrayList<Point> tempTouchedCells = new ArrayList<Point>(touchedCells);
-			if (type.equals(BombType.GUN)) {
-				tempTouchedCells = new ArrayList<Point>();
-				tempTouchedCells.add(p);
+			if (power > 2) {
+				// Go through every point to kill anything crossing the fire
+				// but didn't initially get hit by it (often can happen on
+				// big explosions)
+				int cells = touchedCells.size();
+				for (int i = type.equals(BombType.GUN) ? cells - 1 : 0; i < cells; i++)
+					if (burn(game, touchedCells.get(i)))
+						return;
 			}
-			if (power > 2)
-				for (Point arm : tempTouchedCells) {
-					// Go through every point to kill anything crossing the fire
-					// but didn't initially get hit by it (often can happen on
-					// big explosions)
-					try {
-						for (com.github.vegeto079.saturnbomberman.objects.Object obj : objects)
-							if (arm.distance(obj.cellPoint) == 0)
-								if (obj instanceof com.github.vegeto079.saturnbomberman.objects.Player) {
-									Player player = (com.github.vegeto079.saturnbomberman.objects.Player) obj;
-									if (player.deadTimer == -1) {
-										boolean destroyedItemOnThisCell = false;
-										for (Point explodedTileCell : explodedTileCells)
-											if (explodedTileCell.distance(arm) == 0)
-												destroyedItemOnThisCell = true;
-										if (destroyedItemOnThisCell) {
-											// We exploded this tile, opening it up for walking on. Someone could be
-											// waiting to jump in on the item that's underneath this tile we're
-											// exploding, and we shouldn't be able to kill them if that occurs.
-											continue;
-										}
-										if (isTest) {
-											// This is a test FireArm, not a real one. Don't actually do anything.
-											continue;
-										}
-										// Killed a player!
-										if (!game.options.canBombSelf && player.equals(playerOrigin))
-											continue;
-										boolean ourBomb = game.network.talking.killPlayer(player,
-												playerOrigin.getIndex(), true, game.randomCount);
-										if (!game.network.isPlayingOnline() || ourBomb) {
-											player.deadTimer = 0;
-											// System.out.println(player.getIndex()
-											// + " killed by " +
-											// playerOrigin.getIndex());
-											playerOrigin.stats.killedPlayer(player.getIndex());
-											player.stats.killedByPlayer(playerOrigin.getIndex());
-											player.character.animation = Animation.IDLE;
-											if (player.pickedUpBomb != null) {
-												player.pickedUpBomb.pickedUpCount = 3 + (player.character.facing * 5);
-												DoublePoint dp = new DoublePoint(
-														Stage.getExactTileMidPoint(game, getCellPoint()));
-												player.pickedUpBomb.exactPoint = new DoublePoint(
-														dp.x + player.pickedUpBomb.adjustExactPoint.x,
-														dp.y + player.pickedUpBomb.adjustExactPoint.y);
-												game.objects.add(player.pickedUpBomb);
-												player.pickedUpBomb = null;
-											}
-										}
-									}
-								} else if (obj instanceof com.github.vegeto079.saturnbomberman.objects.Bomb) {
-									Bomb bomb = (com.github.vegeto079.saturnbomberman.objects.Bomb) obj;
-									if (bomb.equals(parent) || bomb.pickedUpCount > -1)
-										continue;
-									if (!bomb.exploding) {
-										doneExtending = true;
-										explodedThrough += 2;
-										if (isTest) {
-											// This is a test FireArm, not a
-											// real
-											// one. Don't actually do anything.
-											return;
-										}
-										bomb.explodeNow();
-										return;
-									}
-								} else if (obj instanceof com.github.vegeto079.saturnbomberman.objects.Item) {
-									Item item = (com.github.vegeto079.saturnbomberman.objects.Item) obj;
-									if (item.collectable) {
-										boolean weCreatedThisItem = false;
-										for (Point explodedTileCell : explodedTileCells) {
-											// Makes sure we don't explode
-											// (destroy) an item that we created
-											// (ie. blew up the block to). May
-											// need to remove if creates
-											// conflicts.
-											if (explodedTileCell.distance(arm) == 0)
-												weCreatedThisItem = true;
-										}
-										if (weCreatedThisItem)
-											continue;
-										doneExtending = true;
-										explodedThrough += 2;
-										if (isTest) {
-											// This is a test FireArm, not a real one. Don't actually do anything.
-											return;
-										}
-										item.destroy(game);
-										return;
-									}
-								}
-					} catch (Exception e) {
-						// touching an object that we shouldnt be?
-					}
-				}
 			if (!canExtendFurther(game) || doneExtending && !isCenterPiece) {
 				// final point for this arm
 				doneExtending = true;
 				int[][] stage = game.stage.get();
-				try {
-					p = new Point(p.y, p.x);
-				} catch (Exception e) {
-					// retry
-					tick(game, power);
-					return;
-				}
+				p = new Point(p.y, p.x);
 				if (p.x >= 0 && p.y >= 0 && p.x < stage.length && p.y < stage[0].length) {
 					Block blockToExplode = Block.get(p, game);
 					if (blockToExplode != null) {
 						explodedThrough++;
-						explodedTileCells.add(new Point(p.y, p.x));
+						addExplodedTileCell(p.y, p.x);
 						if (isTest) {
 							// This is a test FireArm, not a real
 							// one. Don't actually do anything.
@@ -962,20 +897,14 @@ public class Bomb extends Object {
 			} else {
 				// we can still move
 				Point newPoint = null;
-				try {
-					if (direction == 0) {
-						newPoint = new Point(p.x, p.y - 1);
-					} else if (direction == 1) {
-						newPoint = new Point(p.x, p.y + 1);
-					} else if (direction == 2) {
-						newPoint = new Point(p.x - 1, p.y);
-					} else if (direction == 3) {
-						newPoint = new Point(p.x + 1, p.y);
-					}
-				} catch (Exception e) {
-					// retry
-					tick(game, power);
-					return;
+				if (direction == 0) {
+					newPoint = new Point(p.x, p.y - 1);
+				} else if (direction == 1) {
+					newPoint = new Point(p.x, p.y + 1);
+				} else if (direction == 2) {
+					newPoint = new Point(p.x - 1, p.y);
+				} else if (direction == 3) {
+					newPoint = new Point(p.x + 1, p.y);
 				}
 				if (!isCenterPiece)
 					touchedCells.add(newPoint);
@@ -984,7 +913,7 @@ public class Bomb extends Object {
 				if (p.x >= 0 && p.y >= 0 && p.x < stage.length && p.y < stage[0].length && stage[p.x][p.y] == 1
 						&& type.equals(BombType.SPIKED) && explodedThrough < 2) {
 					explodedThrough++;
-					explodedTileCells.add(new Point(p.y, p.x));
+					addExplodedTileCell(p.y, p.x);
 					if (isTest) {
 						// This is a test FireArm, not a real
 						// one. Don't actually do anything.
@@ -995,6 +924,69 @@ public class Bomb extends Object {
 			}
 		}
 
+		private void addExplodedTileCell(int column, int row) {
+			explodedTileCells.add(new Point(column, row));
+			explodedTiles.set(column, row);
+		}
+
+		/**
+		 * Burns everything on one of our cells: sets off {@link Bomb}s and
+		 * destroys {@link Item}s ({@link Player}s are killed through the
+		 * {@link FireGrid}, see {@link Bomb#burnPlayer(MainBomberman, Player)}). Only what's on this
+		 * cell is looked at, through {@link ObjectList#getOnTile(int, int, ArrayList)}.
+		 * 
+		 * @param game
+		 * @param arm
+		 *            (column, row)
+		 * @return <b>true</b> if we hit a {@link Bomb} or {@link Item}, which
+		 *         stops us for this tick.
+		 */
+		private boolean burn(MainBomberman game, Point arm) {
+			game.objects.getOnTile(arm.x, arm.y, onTile);
+			// We exploded this tile, opening it up for walking on
+			boolean explodedThisTile = explodedTiles.get(arm.x, arm.y);
+			for (int i = 0; i < onTile.size(); i++)
+				try {
+					com.github.vegeto079.saturnbomberman.objects.Object obj = onTile.get(i);
+					if (obj instanceof com.github.vegeto079.saturnbomberman.objects.Bomb) {
+						Bomb bomb = (com.github.vegeto079.saturnbomberman.objects.Bomb) obj;
+						if (bomb.equals(parent) || bomb.pickedUpCount > -1)
+							continue;
+						if (!bomb.exploding) {
+							doneExtending = true;
+							explodedThrough += 2;
+							if (isTest) {
+								// This is a test FireArm, not a real
+								// one. Don't actually do anything.
+								return true;
+							}
+							bomb.explodeNow();
+							return true;
+						}
+					} else if (obj instanceof com.github.vegeto079.saturnbomberman.objects.Item) {
+						Item item = (com.github.vegeto079.saturnbomberman.objects.Item) obj;
+						if (item.collectable) {
+							// Makes sure we don't explode (destroy) an item that
+							// we created (ie. blew up the block to). May need to
+							// remove if creates conflicts.
+							if (explodedThisTile)
+								continue;
+							doneExtending = true;
+							explodedThrough += 2;
+							if (isTest) {
+								// This is a test FireArm, not a real one. Don't actually do anything.
+								return true;
+							}
+							item.destroy(game);
+							return true;
+						}
+					}
+				} catch (Exception e) {
+					// touching an object that we shouldnt be?
+				}
+			return false;
+		}
+
 		public void draw(Graphics2D g, MainBomberman game, int power) {
 			if (isCenterPiece)
 				return;
@@ -1082,19 +1074,9 @@ public class Bomb extends Object {
 	}
 
 	public static Bomb get(Point cellPoint, MainBomberman game) {
-		int tryCount = 10;
-		do
-			try {
-				tryCount--;
-				for (int i = 0; i < game.objects.size(); i++) {
-					com.github.vegeto079.saturnbomberman.objects.Object obj = game.objects.get(i);
-					if (obj instanceof Bomb && obj.cellPoint.distance(cellPoint) == 0
-							&& ((Bomb) obj).pickedUpCount == -1)
-						return (Bomb) obj;
-				}
-			} catch (Exception e) {
-			}
-		while (tryCount > 0);
+		for (com.github.vegeto079.saturnbomberman.objects.Object obj : game.objects.getOnTile(cellPoint))
+			if (obj instanceof Bomb && ((Bomb) obj).pickedUpCount == -1)
+				return (Bomb) obj;
 		return null;
 	}
 }
@@ -0,0 +1,313 @@
+package com.github.vegeto079.saturnbomberman.objects;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import com.github.vegeto079.saturnbomberman.main.MainBomberman;
+import com.github.vegeto079.saturnbomberman.main.Stage;
+import com.github.vegeto079.saturnbomberman.objects.Bomb.BombType;
+
+/**
+ * Works out when every {@link Bomb} on the stage is going to explode, taking
+ * into account bombs setting each other off (as many bombs down the chain as
+ * it goes).<br>
+ * Every bomb's fire is traced once, the same way a {@link Bomb.FireArm} would
+ * travel, giving us which bombs it would set off and how far away they are.
+ * Starting from each bomb's own fuse, the earliest time fire reaches each bomb
+ * is then worked out for every bomb at once.<br>
+ * This is only redone when a bomb, the stage or something on it changes, see
+ * {@link #update(MainBomberman)}.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ * @version 1.01: {@link #getFuseTime(Bomb, long)} and
+ *          {@link #getFireStepTicks(Bomb)} are public, for
+ *          {@link com.github.vegeto079.saturnbomberman.misc.MatchState}.
+ */
+public class BombChain {
+	/**
+	 * How long after stepping on a {@link BombType#LAND_MINE} it explodes. Also
+	 * used as the danger time of a land mine nobody has stepped on yet, since
+	 * someone could at any moment.
+	 */
+	public final static long LAND_MINE_DELAY = 1500;
+	/**
+	 * Time used for a bomb that will never explode on its own.
+	 */
+	public final static long NEVER = Long.MAX_VALUE;
+
+	private ArrayList<Bomb> bombs = new ArrayList<Bomb>();
+	private IdentityHashMap<Bomb, Integer> bombIndex = new IdentityHashMap<Bomb, Integer>();
+	/**
+	 * For each bomb, every cell its fire touches, packed as
+	 * (distance << 16) | (row * width + column).
+	 */
+	private int[][] fire = new int[0][];
+	/**
+	 * For each bomb, the other bombs its fire sets off, as indexes into
+	 * {@link #bombs}.
+	 */
+	private int[][] triggers = new int[0][];
+	/**
+	 * For each bomb, when it would explode on its own.
+	 */
+	private long[] fuseTime = new long[0];
+	/**
+	 * For each bomb, the earliest time it will explode.
+	 */
+	private long[] detonationTime = new long[0];
+	/**
+	 * For each bomb, how many milliseconds its fire takes to move one cell.
+	 */
+	private double[] stepTime = new double[0];
+	private int width = -1;
+
+	private long lastSignature = 0;
+	private boolean solved = false;
+
+	/**
+	 * Re-solves every bomb's detonation time, if anything has changed since the
+	 * last time. Also updates {@link Bomb#willBeExplodedByOtherBombTime}.
+	 *
+	 * @param game
+	 */
+	public synchronized void update(MainBomberman game) {
+		Stage stage = game.stage;
+		if (stage == null)
+			return;
+		ArrayList<Bomb> allBombs = game.objects.getAll(Bomb.class);
+		long signature = 17;
+		signature = signature * 31 + game.objects.getChangeCount();
+		signature = signature * 31 + stage.getStageVersion();
+		for (int i = 0; i < allBombs.size(); i++) {
+			Bomb bomb = allBombs.get(i);
+			signature = signature * 31 + System.identityHashCode(bomb);
+			signature = signature * 31 + bomb.explodeTime;
+			signature = signature * 31 + (bomb.exploding ? 1 : 0);
+			signature = signature * 31 + bomb.maxPower;
+			signature = signature * 31 + bomb.pickedUpCount;
+		}
+		if (solved && signature == lastSignature)
+			return;
+		lastSignature = signature;
+		solved = true;
+		solve(game, stage, allBombs);
+	}
+
+	private void solve(MainBomberman game, Stage stage, ArrayList<Bomb> allBombs) {
+		int[][] map = stage.get();
+		int height = map.length;
+		width = map[0].length;
+		long now = game.currentTimeMillis();
+		int fps = game.getTickFps();
+		if (fps <= 0)
+			fps = MainBomberman.TICKS_PER_SECOND;
+
+		// Only bombs sitting on the stage can be set off or set others off
+		bombs.clear();
+		bombIndex.clear();
+		int[] bombAt = new int[height * width];
+		for (int i = 0; i < bombAt.length; i++)
+			bombAt[i] = -1;
+		for (Bomb bomb : allBombs) {
+			if (bomb.finished || bomb.pickedUpCount > -1 || bomb.cellPoint == null)
+				continue;
+			int column = bomb.cellPoint.x, row = bomb.cellPoint.y;
+			if (column < 0 || row < 0 || column >= width || row >= height)
+				continue;
+			bombIndex.put(bomb, bombs.size());
+			bombs.add(bomb);
+		}
+		int amount = bombs.size();
+		// Which bombs sit on each cell, chained through nextOnCell
+		int[] nextOnCell = new int[amount];
+		for (int i = amount - 1; i >= 0; i--) {
+			Bomb bomb = bombs.get(i);
+			int cell = bomb.cellPoint.y * width + bomb.cellPoint.x;
+			nextOnCell[i] = bombAt[cell];
+			bombAt[cell] = i;
+		}
+		boolean[] itemAt = new boolean[height * width];
+		for (Item item : game.objects.getAll(Item.class))
+			if (item.collectable && item.cellPoint != null && item.cellPoint.x >= 0 && item.cellPoint.y >= 0
+					&& item.cellPoint.x < width && item.cellPoint.y < height)
+				itemAt[item.cellPoint.y * width + item.cellPoint.x] = true;
+
+		fire = new int[amount][];
+		triggers = new int[amount][];
+		fuseTime = new long[amount];
+		detonationTime = new long[amount];
+		stepTime = new double[amount];
+		int[] cells = new int[height * width];
+		int[] triggered = new int[amount * 5 + 1];
+		for (int b = 0; b < amount; b++) {
+			Bomb bomb = bombs.get(b);
+			stepTime[b] = getFireStepTicks(bomb) * 1000d / (double) fps;
+			fuseTime[b] = getFuseTime(bomb, now);
+			int cellCount = 0, triggerCount = 0;
+			int row = bomb.cellPoint.y, column = bomb.cellPoint.x;
+			// Center: sets off any other bomb on the same cell
+			cells[cellCount++] = row * width + column;
+			for (int other = bombAt[row * width + column]; other != -1; other = nextOnCell[other])
+				if (other != b && !bombs.get(other).exploding)
+					triggered[triggerCount++] = other;
+			int[][] directions = { { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 } };
+			for (int[] direction : directions) {
+				int blocksPassed = 0;
+				for (int distance = 1; distance <= bomb.maxPower; distance++) {
+					int r = row + direction[0] * distance, c = column + direction[1] * distance;
+					if (r < 0 || c < 0 || r >= height || c >= width)
+						break;
+					int cell = r * width + c;
+					cells[cellCount++] = (distance << 16) | cell;
+					boolean stop = false;
+					for (int other = bombAt[cell]; other != -1; other = nextOnCell[other])
+						if (other != b && !bombs.get(other).exploding) {
+							triggered[triggerCount++] = other;
+							stop = true;
+							break;
+						}
+					if (stop || itemAt[cell] || map[r][c] == 0)
+						break;
+					if (map[r][c] == 1) {
+						if (!bomb.type.equals(BombType.SPIKED))
+							break;
+						if (blocksPassed > 1)
+							break;
+						blocksPassed++;
+					} else if (blocksPassed > 1)
+						break;
+				}
+			}
+			int[] thisFire = new int[cellCount];
+			System.arraycopy(cells, 0, thisFire, 0, cellCount);
+			fire[b] = thisFire;
+			int[] thisTriggers = new int[triggerCount];
+			System.arraycopy(triggered, 0, thisTriggers, 0, triggerCount);
+			triggers[b] = thisTriggers;
+		}
+
+		// Earliest detonation: every bomb starts at its own fuse, then the
+		// earliest bomb not yet settled passes its time down to the bombs it
+		// sets off.
+		boolean[] settled = new boolean[amount];
+		for (int b = 0; b < amount; b++)
+			detonationTime[b] = fuseTime[b];
+		for (int n = 0; n < amount; n++) {
+			int earliest = -1;
+			for (int b = 0; b < amount; b++)
+				if (!settled[b] && (earliest == -1 || detonationTime[b] < detonationTime[earliest]))
+					earliest = b;
+			if (earliest == -1 || detonationTime[earliest] == NEVER)
+				break;
+			settled[earliest] = true;
+			Bomb from = bombs.get(earliest);
+			for (int other : triggers[earliest]) {
+				if (settled[other])
+					continue;
+				Bomb to = bombs.get(other);
+				int distance = Math.abs(from.cellPoint.x - to.cellPoint.x) + Math.abs(from.cellPoint.y - to.cellPoint.y);
+				long time = detonationTime[earliest] + (long) (distance * stepTime[earliest]);
+				if (time < detonationTime[other])
+					detonationTime[other] = time;
+			}
+		}
+		for (int b = 0; b < amount; b++) {
+			Bomb bomb = bombs.get(b);
+			if (detonationTime[b] < fuseTime[b])
+				bomb.willBeExplodedByOtherBombTime = detonationTime[b];
+			else
+				bomb.willBeExplodedByOtherBombTime = -1;
+		}
+	}
+
+	/**
+	 * @param bomb
+	 * @param now
+	 * @return When this bomb would explode without anything else setting it
+	 *         off, or {@link #NEVER}.
+	 */
+	public static long getFuseTime(Bomb bomb, long now) {
+		if (bomb.exploding)
+			return Math.min(bomb.explodeTime, now);
+		if (bomb.type.equals(BombType.LAND_MINE)) {
+			if (bomb.explodeTime < now)
+				return NEVER; // Nobody has stepped on it yet
+			// Stepping on it sets explodeTime 2000ms ahead, it goes off once
+			// there's less than 500ms left
+			return bomb.explodeTime - (2000 - LAND_MINE_DELAY);
+		}
+		return bomb.explodeTime;
+	}
+
+	/**
+	 * @param bomb
+	 * @return How many ticks it takes this bomb's fire to move one cell, the
+	 *         same as {@link Bomb#tick(MainBomberman)} uses.
+	 */
+	public static int getFireStepTicks(Bomb bomb) {
+		if (bomb.type.equals(BombType.SLOW)) {
+			if (bomb.originalFirePower < 3)
+				return 10;
+			else if (bomb.originalFirePower < 6)
+				return 12;
+			else if (bomb.originalFirePower < 9)
+				return 14;
+			return 20;
+		}
+		if (bomb.originalFirePower < 3)
+			return 7;
+		else if (bomb.originalFirePower < 6)
+			return 6;
+		else if (bomb.originalFirePower < 9)
+			return 5;
+		return 4;
+	}
+
+	/**
+	 * @param bomb
+	 * @return The earliest time this bomb will explode, or {@link #NEVER}
+	 *         (also if we don't know about this bomb).
+	 */
+	public synchronized long getDetonationTime(Bomb bomb) {
+		Integer index = bombIndex.get(bomb);
+		if (index == null)
+			return NEVER;
+		return detonationTime[index];
+	}
+
+	/**
+	 * @param bomb
+	 * @param game
+	 * @return Every cell this bomb's fire will touch as { column, row, time
+	 *         until the fire gets there }, the same as
+	 *         {@link Bomb#getExplosionPoints()}. Empty if we don't know about
+	 *         this bomb.
+	 */
+	public synchronized ArrayList<long[]> getExplosionPoints(Bomb bomb, MainBomberman game) {
+		ArrayList<long[]> points = new ArrayList<long[]>();
+		Integer index = bombIndex.get(bomb);
+		if (index == null)
+			return points;
+		long now = game.currentTimeMillis();
+		long time = detonationTime[index];
+		boolean chained = time < fuseTime[index];
+		for (int packed : fire[index]) {
+			int cell = packed & 0xFFFF;
+			int distance = packed >>> 16;
+			long untilFire;
+			if (time == NEVER)
+				untilFire = LAND_MINE_DELAY;
+			else {
+				untilFire = time - now;
+				if (chained && untilFire < 1)
+					untilFire = 1;
+				if (untilFire < 0)
+					untilFire = 0;
+				untilFire += (long) (distance * stepTime[index]);
+			}
+			points.add(new long[] { cell % width, cell / width, untilFire });
+		}
+		return points;
+	}
+}
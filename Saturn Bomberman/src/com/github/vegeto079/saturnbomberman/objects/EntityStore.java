@@ -0,0 +1,151 @@
+package com.github.vegeto079.saturnbomberman.objects;
+
+import java.util.Arrays;
+
+/**
+ * Every {@link Object} in {@link ObjectList}, kept in one packed array per
+ * {@link Kind}, so going through every {@link Bomb} (or every {@link Item},
+ * ...) only looks at bombs, one after another, with no instanceof checks.<br>
+ * Removing an object moves the last one of its kind into its place, so it
+ * never has to shift anything down. This is only an index by kind: positions,
+ * timers and everything else stay on the objects themselves.<br>
+ * Only changed through {@link ObjectList}.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ * @version 1.01: Added {@link #getVersion()}, for {@link ObjectSnapshot}.
+ */
+public class EntityStore {
+	/**
+	 * Every kind of {@link Object}.
+	 */
+	public enum Kind {
+		PLAYER, BLOCK, SOLID_BLOCK, ITEM, BOMB, WEIGHT;
+
+		/**
+		 * @return The kind of the given object, or <b>null</b> if it isn't one
+		 *         we know.
+		 */
+		public static Kind of(Object obj) {
+			if (obj instanceof Player)
+				return PLAYER;
+			else if (obj instanceof Block)
+				return BLOCK;
+			else if (obj instanceof SolidBlock)
+				return SOLID_BLOCK;
+			else if (obj instanceof Item)
+				return ITEM;
+			else if (obj instanceof Bomb)
+				return BOMB;
+			else if (obj instanceof Weight)
+				return WEIGHT;
+			return null;
+		}
+
+		/**
+		 * @return The kind every object of the given class is, or <b>null</b> if
+		 *         it isn't exactly one of them.
+		 */
+		public static Kind of(Class<?> type) {
+			if (type == Player.class)
+				return PLAYER;
+			else if (type == Block.class)
+				return BLOCK;
+			else if (type == SolidBlock.class)
+				return SOLID_BLOCK;
+			else if (type == Item.class)
+				return ITEM;
+			else if (type == Bomb.class)
+				return BOMB;
+			else if (type == Weight.class)
+				return WEIGHT;
+			return null;
+		}
+	}
+
+	private final Object[][] entities = new Object[Kind.values().length][16];
+	private final int[] sizes = new int[Kind.values().length];
+	/**
+	 * Goes up every time anything is added or removed.
+	 */
+	private volatile long version = 0;
+
+	/**
+	 * Adds the given object to the end of its kind.
+	 *
+	 * @param obj
+	 */
+	void add(Object obj) {
+		Kind kind = Kind.of(obj);
+		if (kind == null || obj.storeSlot != -1)
+			return;
+		int k = kind.ordinal();
+		if (sizes[k] == entities[k].length)
+			entities[k] = Arrays.copyOf(entities[k], entities[k].length * 2);
+		int slot = sizes[k]++;
+		entities[k][slot] = obj;
+		obj.storeSlot = slot;
+		version++;
+	}
+
+	/**
+	 * Removes the given object, moving the last of its kind into its place.
+	 *
+	 * @param obj
+	 */
+	void remove(Object obj) {
+		Kind kind = Kind.of(obj);
+		int slot = obj.storeSlot;
+		if (kind == null || slot == -1)
+			return;
+		int k = kind.ordinal();
+		int last = --sizes[k];
+		if (slot != last) {
+			Object moved = entities[k][last];
+			entities[k][slot] = moved;
+			moved.storeSlot = slot;
+		}
+		entities[k][last] = null;
+		obj.storeSlot = -1;
+		version++;
+	}
+
+	/**
+	 * Removes everything.
+	 */
+	void clear() {
+		for (int k = 0; k < sizes.length; k++) {
+			for (int i = 0; i < sizes[k]; i++) {
+				entities[k][i].storeSlot = -1;
+				entities[k][i] = null;
+			}
+			sizes[k] = 0;
+		}
+		version++;
+	}
+
+	/**
+	 * @return A number that changes every time anything is added or removed.
+	 *         Safe to call from any thread.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return How many objects of the given kind there are.
+	 */
+	public int size(Kind kind) {
+		return sizes[kind.ordinal()];
+	}
+
+	/**
+	 * @param kind
+	 * @param i
+	 *            0 to {@link #size(Kind)} - 1.
+	 * @return The i-th object of the given kind.
+	 */
+	public Object get(Kind kind, int i) {
+		return entities[kind.ordinal()][i];
+	}
+}
@@ -0,0 +1,132 @@
+package com.github.vegeto079.saturnbomberman.objects;
+
+import java.util.Arrays;
+
+import com.github.vegeto079.saturnbomberman.main.MainBomberman;
+import com.github.vegeto079.saturnbomberman.main.Stage;
+
+/**
+ * Every cell of the stage that's on fire: until when it burns, until when it
+ * kills, and which {@link Bomb} (and so which {@link Player}) the fire belongs
+ * to. Exploding bombs stamp their {@link Bomb.FireArm}s in here every time
+ * their fire moves (see {@link Bomb#tick(MainBomberman)}), so finding out if a
+ * cell is burning is one lookup, no matter how many bombs are going off at
+ * once.<br>
+ * When fire overlaps, whichever burns (or kills) the longest is kept. All times
+ * are {@link MainBomberman#currentTimeMillis()}.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ */
+public class FireGrid {
+	private final int width = Stage.TILES_ACROSS, height = Stage.TILES_DOWN;
+	/**
+	 * For each cell (row * {@link #width} + column), when its fire goes out.
+	 */
+	private final long[] burnUntil = new long[width * height];
+	/**
+	 * For each cell, when its fire stops killing. Fire fading out still burns
+	 * but doesn't kill.
+	 */
+	private final long[] deadlyUntil = new long[width * height];
+	/**
+	 * For each cell, the bomb whose fire kills there the longest.
+	 */
+	private final Bomb[] deadlyBomb = new Bomb[width * height];
+	/**
+	 * Goes up every time a cell that wasn't burning catches fire.
+	 */
+	private long version = 0;
+
+	/**
+	 * Puts out every cell.
+	 */
+	public synchronized void clear() {
+		Arrays.fill(burnUntil, 0);
+		Arrays.fill(deadlyUntil, 0);
+		Arrays.fill(deadlyBomb, null);
+		version++;
+	}
+
+	/**
+	 * Sets a cell on fire, unless it's already burning for longer.
+	 *
+	 * @param column
+	 * @param row
+	 * @param now
+	 * @param burnUntil
+	 *            When the fire goes out.
+	 * @param deadlyUntil
+	 *            When the fire stops killing, or 0 if it doesn't.
+	 * @param bomb
+	 *            Whose fire it is.
+	 */
+	public synchronized void stamp(int column, int row, long now, long burnUntil, long deadlyUntil, Bomb bomb) {
+		if (!inside(column, row))
+			return;
+		int cell = row * width + column;
+		if (this.burnUntil[cell] < now)
+			version++;
+		if (burnUntil > this.burnUntil[cell])
+			this.burnUntil[cell] = burnUntil;
+		if (deadlyUntil > this.deadlyUntil[cell]) {
+			this.deadlyUntil[cell] = deadlyUntil;
+			deadlyBomb[cell] = bomb;
+		}
+	}
+
+	private boolean inside(int column, int row) {
+		return column >= 0 && row >= 0 && column < width && row < height;
+	}
+
+	/**
+	 * @return Whether there's any fire on this cell, deadly or not.
+	 */
+	public synchronized boolean isBurning(int column, int row, long now) {
+		return inside(column, row) && burnUntil[row * width + column] >= now;
+	}
+
+	/**
+	 * @return Whether fire on this cell kills whoever is on it.
+	 */
+	public synchronized boolean isDeadly(int column, int row, long now) {
+		return inside(column, row) && deadlyUntil[row * width + column] >= now;
+	}
+
+	/**
+	 * @return How long until this cell stops burning, in ms, or 0 if it isn't.
+	 */
+	public synchronized long getRemaining(int column, int row, long now) {
+		if (!inside(column, row))
+			return 0;
+		return Math.max(0, burnUntil[row * width + column] - now);
+	}
+
+	/**
+	 * @return The {@link Bomb} whose fire kills on this cell, or <b>null</b> if
+	 *         the cell isn't deadly.
+	 */
+	public synchronized Bomb getDeadlyBomb(int column, int row, long now) {
+		if (!isDeadly(column, row, now))
+			return null;
+		return deadlyBomb[row * width + column];
+	}
+
+	/**
+	 * @return Index of the {@link Player} whose fire kills on this cell, or -1
+	 *         if nobody's.
+	 */
+	public synchronized int getOwner(int column, int row, long now) {
+		Bomb bomb = getDeadlyBomb(column, row, now);
+		if (bomb == null || bomb.playerOrigin == null)
+			return -1;
+		return bomb.playerOrigin.getIndex();
+	}
+
+	/**
+	 * @return A number that changes every time a cell catches fire.
+	 */
+	public synchronized long getVersion() {
+		return version;
+	}
+}
@@ -8,7 +8,6 @@ import java.awt.image.BufferedImage;
 import com.github.vegeto079.ngcommontools.main.DoublePoint;
 import com.github.vegeto079.ngcommontools.main.Logger.LogLevel;
 import com.github.vegeto079.ngcommontools.main.Resizer;
-import com.github.vegeto079.ngcommontools.main.Tools;
 import com.github.vegeto079.ngcommontools.networking.Client;
 import com.github.vegeto079.saturnbomberman.main.MainBomberman;
 import com.github.vegeto079.saturnbomberman.main.Stage;
@@ -33,6 +32,14 @@ import com.github.vegeto079.saturnbomberman.objects.Bomb.BombType;
  *          {@link #deactivate(Player)}.
  * @version 1.11: Added int casting to
  *          {@link Resizer#resize(java.awt.Image, int, int)} calls.
+ * @version 1.12: Sounds now played through
+ *          {@link MainBomberman#playSound(String)}. Skull, devil and combine
+ *          timers now use {@link MainBomberman#currentTimeMillis()}.
+ * @version 1.13: Lets {@link ObjectList} know when we become collectable or
+ *          are destroyed, for {@link Stage#getCollisionMap(MainBomberman)}.
+ * @version 1.14: Counts items already placed through {@link EntityStore}.
+ * @version 1.15: Counts them through an {@link ObjectSnapshot} instead, since
+ *          items also get made on the network thread.
  * 
  */
 public class Item extends Object {
@@ -66,11 +73,9 @@ public class Item extends Object {
 		// int[] mustHave = { 0, 0, 0, 2, 2, 0, 2, 2, 0, 0, 2, 2, 1, 20, 1, 2, 2
 		// };
 		int[] powerUpCount = { 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0 };
-		for (int i = 0; i < game.objects.size(); i++)
-			if (game.objects.get(i) instanceof Item) {
-				Item item = (Item) game.objects.get(i);
-				powerUpCount[item.type.ordinal()]++;
-			}
+		ObjectSnapshot snapshot = game.objects.getSnapshot();
+		for (int i = 0; i < snapshot.size(EntityStore.Kind.ITEM); i++)
+			powerUpCount[((Item) snapshot.get(EntityStore.Kind.ITEM, i)).type.ordinal()]++;
 		for (int i = 0; i < mustHave.length; i++) {
 			if (powerUpCount[i] < mustHave[i] && stageCanHaveItem(whichStage, i, game)) {
 				type = ItemType.values()[i];
@@ -79,10 +84,10 @@ public class Item extends Object {
 			}
 		}
 		while (type == null) {
-			int tryItem = Tools.random(game, 0, chance.length - 1,
+			int tryItem = game.random(0, chance.length - 1,
 					"Random item placement (pick itemType)");
-			if (stageCanHaveItem(whichStage, tryItem, game) && chance[tryItem] >= Tools
-					.random(game, "Random item placement (check item chance)")) {
+			if (stageCanHaveItem(whichStage, tryItem, game) && chance[tryItem] >= game
+					.random("Random item placement (check item chance)")) {
 				type = ItemType.values()[tryItem];
 				itemPicX = tryItem;
 				game.logger.log(LogLevel.DEBUG, "Randomly placed: " + type);
@@ -154,6 +159,7 @@ public class Item extends Object {
 		}
 		if (!dying && !finished) {
 			collectable = false;
+			game.objects.changed(this);
 			dying = true;
 			tickSkip = -1;
 			animationTick = -1;
@@ -191,7 +197,7 @@ public class Item extends Object {
 		}
 		if (!type.equals(ItemType.KICK_BOMB) && !type.equals(ItemType.POWER_GLOVE)
 				&& !type.equals(ItemType.SKULL) && !type.equals(ItemType.EGG))
-			game.sound.play("Item Get");
+			game.playSound("Item Get");
 		game.logger.log(LogLevel.DEBUG,
 				"Player " + player.getIndex() + " picked up " + this);
 		visible = false;
@@ -221,10 +227,10 @@ public class Item extends Object {
 			if (player.speed < 9)
 				player.speed++;
 		} else if (type.equals(ItemType.KICK_BOMB)) {
-			game.sound.play("Hustle");
+			game.playSound("Hustle");
 			player.kickBomb = true;
 		} else if (type.equals(ItemType.POWER_GLOVE)) {
-			game.sound.play("Power Glove");
+			game.playSound("Power Glove");
 			player.powerGlove = true;
 		} else if (type.equals(ItemType.MAX_FIRE)) {
 			player.firePower = 9;
@@ -246,19 +252,19 @@ public class Item extends Object {
 			else if (player.speed > 1)
 				player.speed--;
 		} else if (type.equals(ItemType.SKULL)) {
-			game.sound.play("Skull");
-			player.skullTimer = System.currentTimeMillis() + 10000;
-			player.skullType = Tools.random(game, 0, 9, "Skull Random");
+			game.playSound("Skull");
+			player.skullTimer = game.currentTimeMillis() + 10000;
+			player.skullType = game.random(0, 9, "Skull Random");
 			if (player.skullType == 7) {
 				player.resetControls();
 			}
 		} else if (type.equals(ItemType.DEVIL)) {
-			player.devilTimer = System.currentTimeMillis();
+			player.devilTimer = game.currentTimeMillis();
 		} else if (type.equals(ItemType.COMBINE)) {
-			player.combineTimer = System.currentTimeMillis();
+			player.combineTimer = game.currentTimeMillis();
 		} else if (type.equals(ItemType.EGG)) {
 			// TODO make character ride dino
-			game.sound.play("Dinosaur Get");
+			game.playSound("Dinosaur Get");
 		}
 	}
 
@@ -323,8 +329,10 @@ public class Item extends Object {
 				colorTick = 0;
 			else
 				colorTick++;
-		if (animationTick >= 17)
+		if (animationTick >= 17 && !collectable) {
 			collectable = true;
+			game.objects.changed(this);
+		}
 		if (animationTick >= 30)
 			animationTick = 20;
 		if (dying) {
@@ -8,6 +8,10 @@ import com.github.vegeto079.saturnbomberman.main.MainBomberman;
 
 public abstract class Object {
 	public boolean finished = false;
+	/**
+	 * Where we are in {@link EntityStore}, -1 if we aren't.
+	 */
+	int storeSlot = -1;
 	public Point cellPoint = new Point(-1, -1);
 	public DoublePoint exactPoint = new DoublePoint(-1, -1);
 
@@ -0,0 +1,540 @@
+package com.github.vegeto079.saturnbomberman.objects;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+
+import com.github.vegeto079.saturnbomberman.main.MainBomberman;
+import com.github.vegeto079.saturnbomberman.main.Stage;
+
+/**
+ * The list of every {@link Object} in the game, which also keeps track of what
+ * tile each {@link Object} is on so we can look up a single tile without
+ * scanning every {@link Object}.<br>
+ * Tiles are always (x = column, y = row), the same as {@link Player},
+ * {@link Bomb}, {@link Item} and {@link Weight} use. {@link Block} and
+ * {@link SolidBlock} store their cellPoint as (row, column), this is taken
+ * care of in {@link #getTile(Object)}.<br>
+ * Objects are added to and removed from the index when they are added to or
+ * removed from the list. {@link Player}s and {@link Bomb}s can move, so they
+ * are re-checked every time we look up a tile.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ * @version 1.1: Keeps track of which tiles have changed, see
+ *          {@link #pollChangedTiles(boolean[][])}. Added {@link #getAll(Class)}.
+ * @version 1.11: Added {@link #getChangeCount()}.
+ * @version 1.12: Added {@link #getOnTile(int, int, ArrayList)}.
+ * @version 1.2: Every object is also kept in an {@link EntityStore} (see
+ *          {@link #getStore()}), which {@link #getAll(Class)} and
+ *          {@link #getCount(Class)} read from. Added
+ *          {@link #retire(Object)} and {@link #removeRetired()}, so finished
+ *          objects are taken out of the list in one go each tick, and
+ *          re-indexing (ie. {@link #removeAll(Collection)}) doesn't bring
+ *          them back. Added {@link #isRetired(Object)}.
+ * @version 1.21: Added {@link #getSnapshot()}, so other threads can look
+ *          through every object without copying the list.
+ */
+@SuppressWarnings("serial")
+public class ObjectList extends ArrayList<Object> {
+	private final int width;
+	private final int height;
+	private final ArrayList<ArrayList<Object>> tiles;
+	/**
+	 * Objects that are not on a tile inside the stage (ie. bouncing bombs, or
+	 * players not placed yet).
+	 */
+	private final ArrayList<Object> outside = new ArrayList<Object>();
+	/**
+	 * Where each object currently is in the index: [0] is the tile index (-1 for
+	 * {@link #outside}), [1] is how many times it's in the list.
+	 */
+	private final IdentityHashMap<Object, int[]> indexed = new IdentityHashMap<Object, int[]>();
+	/**
+	 * Objects that can change tiles on their own.
+	 */
+	private final ArrayList<Object> movers = new ArrayList<Object>();
+	/**
+	 * Tiles that have had something added, removed or changed since the last
+	 * {@link #pollChangedTiles(boolean[][])}.
+	 */
+	private final boolean[] changedTiles;
+	private boolean anyTilesChanged = false;
+	/**
+	 * Goes up every time any tile changes.
+	 */
+	private long changeCount = 0;
+	private final EntityStore store = new EntityStore();
+	/**
+	 * Objects {@link #retire(Object)}d but not yet taken out of the list.
+	 */
+	private final IdentityHashMap<Object, Boolean> retired = new IdentityHashMap<Object, Boolean>();
+	/**
+	 * Latest {@link #publishSnapshot()}.
+	 */
+	private volatile ObjectSnapshot snapshot = ObjectSnapshot.EMPTY;
+
+	public ObjectList() {
+		this(Stage.TILES_ACROSS, Stage.TILES_DOWN);
+	}
+
+	public ObjectList(int width, int height) {
+		this.width = width;
+		this.height = height;
+		changedTiles = new boolean[width * height];
+		tiles = new ArrayList<ArrayList<Object>>(width * height);
+		for (int i = 0; i < width * height; i++)
+			tiles.add(new ArrayList<Object>(2));
+	}
+
+	/**
+	 * @param obj
+	 * @return The tile (x = column, y = row) this object is on.
+	 */
+	public static Point getTile(Object obj) {
+		if (obj instanceof Block || obj instanceof SolidBlock)
+			return new Point(obj.cellPoint.y, obj.cellPoint.x);
+		else if (obj instanceof Player)
+			return ((Player) obj).getCellPoint();
+		return obj.cellPoint;
+	}
+
+	private int getTileIndex(int x, int y) {
+		if (x < 0 || y < 0 || x >= width || y >= height)
+			return -1;
+		return y * width + x;
+	}
+
+	private int getTileIndex(Object obj) {
+		if (obj instanceof Player)
+			return getTileIndex(((Player) obj).getCellX(), ((Player) obj).getCellY());
+		else if (obj instanceof Block || obj instanceof SolidBlock)
+			return getTileIndex(obj.cellPoint.y, obj.cellPoint.x);
+		Point tile = getTile(obj);
+		if (tile == null)
+			return -1;
+		return getTileIndex(tile.x, tile.y);
+	}
+
+	private void setTileChanged(int tileIndex) {
+		if (tileIndex == -1)
+			return;
+		changedTiles[tileIndex] = true;
+		anyTilesChanged = true;
+		changeCount++;
+	}
+
+	private ArrayList<Object> getBucket(int tileIndex) {
+		if (tileIndex == -1)
+			return outside;
+		return tiles.get(tileIndex);
+	}
+
+	private synchronized void index(Object obj) {
+		if (obj == null)
+			return;
+		int[] info = indexed.get(obj);
+		if (info != null) {
+			info[1]++;
+			return;
+		}
+		int tileIndex = getTileIndex(obj);
+		indexed.put(obj, new int[] { tileIndex, 1 });
+		getBucket(tileIndex).add(obj);
+		setTileChanged(tileIndex);
+		store.add(obj);
+		if (obj instanceof Player || obj instanceof Bomb)
+			movers.add(obj);
+	}
+
+	private synchronized void unindex(java.lang.Object obj) {
+		int[] info = indexed.get(obj);
+		if (info == null)
+			return;
+		info[1]--;
+		if (info[1] > 0)
+			return;
+		indexed.remove(obj);
+		getBucket(info[0]).remove(obj);
+		setTileChanged(info[0]);
+		store.remove((Object) obj);
+		movers.remove(obj);
+	}
+
+	/**
+	 * Moves any {@link #movers} that have changed tiles since we last checked.
+	 */
+	public synchronized void refresh() {
+		for (int i = 0; i < movers.size(); i++) {
+			Object obj = movers.get(i);
+			int[] info = indexed.get(obj);
+			int tileIndex = getTileIndex(obj);
+			if (info[0] != tileIndex) {
+				getBucket(info[0]).remove(obj);
+				getBucket(tileIndex).add(obj);
+				setTileChanged(info[0]);
+				setTileChanged(tileIndex);
+				info[0] = tileIndex;
+			}
+		}
+	}
+
+	/**
+	 * Lets us know something about an object has changed that we wouldn't
+	 * otherwise notice (ie. a {@link Player} dying or an {@link Item} becoming
+	 * visible), so its tile shows up in {@link #pollChangedTiles(boolean[][])}.
+	 * 
+	 * @param obj
+	 */
+	public synchronized void changed(Object obj) {
+		int[] info = indexed.get(obj);
+		if (info != null)
+			setTileChanged(info[0]);
+	}
+
+	/**
+	 * Marks every tile that has changed since the last time this was called.
+	 * 
+	 * @param changed
+	 *            [row][column], tiles that changed are set to <b>true</b>.
+	 *            Others are left alone.
+	 * @return Whether or not any tiles changed.
+	 */
+	public synchronized boolean pollChangedTiles(boolean[][] changed) {
+		refresh();
+		if (!anyTilesChanged)
+			return false;
+		for (int i = 0; i < changedTiles.length; i++)
+			if (changedTiles[i]) {
+				changedTiles[i] = false;
+				int row = i / width;
+				int column = i % width;
+				if (row < changed.length && column < changed[row].length)
+					changed[row][column] = true;
+			}
+		anyTilesChanged = false;
+		return true;
+	}
+
+	/**
+	 * @return A number that changes every time anything on any tile changes.
+	 *         Unlike {@link #pollChangedTiles(boolean[][])}, checking this
+	 *         doesn't reset anything.
+	 */
+	public synchronized long getChangeCount() {
+		refresh();
+		return changeCount;
+	}
+
+	/**
+	 * @return Every object, packed by kind. Tiles are only up to date as of
+	 *         the last lookup or {@link #refresh()}.
+	 */
+	public EntityStore getStore() {
+		return store;
+	}
+
+	/**
+	 * @param type
+	 * @return Every object of the given type, in {@link EntityStore} order if
+	 *         it's one of its {@link EntityStore.Kind}s, otherwise list order.
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <T extends Object> ArrayList<T> getAll(Class<T> type) {
+		EntityStore.Kind kind = EntityStore.Kind.of(type);
+		if (kind != null) {
+			ArrayList<T> all = new ArrayList<T>(store.size(kind));
+			for (int i = 0; i < store.size(kind); i++)
+				all.add((T) store.get(kind, i));
+			return all;
+		}
+		ArrayList<T> all = new ArrayList<T>();
+		for (int i = 0; i < size(); i++)
+			if (type.isInstance(get(i)))
+				all.add((T) get(i));
+		return all;
+	}
+
+	/**
+	 * @param type
+	 * @return How many objects of the given type there are.
+	 */
+	public synchronized int getCount(Class<? extends Object> type) {
+		EntityStore.Kind kind = EntityStore.Kind.of(type);
+		if (kind != null)
+			return store.size(kind);
+		int count = 0;
+		for (int i = 0; i < size(); i++)
+			if (type.isInstance(get(i)))
+				count++;
+		return count;
+	}
+
+	/**
+	 * Takes a finished object out of the tile index and {@link EntityStore}
+	 * straight away, but leaves it in the list until
+	 * {@link #removeRetired()}, so we don't shift the list down once for every
+	 * object that finishes.
+	 * 
+	 * @param obj
+	 */
+	public synchronized void retire(Object obj) {
+		int[] info = indexed.get(obj);
+		if (info == null)
+			return;
+		info[1] = 1;
+		unindex(obj);
+		retired.put(obj, Boolean.TRUE);
+	}
+
+	/**
+	 * @return Whether the given object was {@link #retire(Object)}d and is
+	 *         waiting on {@link #removeRetired()}.
+	 */
+	public synchronized boolean isRetired(Object obj) {
+		return retired.containsKey(obj);
+	}
+
+	/**
+	 * Takes every {@link #retire(Object)}d object out of the list, all in one
+	 * pass.
+	 */
+	public synchronized void removeRetired() {
+		if (retired.isEmpty())
+			return;
+		int kept = 0;
+		int size = size();
+		for (int i = 0; i < size; i++) {
+			Object obj = get(i);
+			if (!retired.containsKey(obj)) {
+				if (kept != i)
+					super.set(kept, obj);
+				kept++;
+			}
+		}
+		super.removeRange(kept, size);
+		retired.clear();
+	}
+
+	/**
+	 * Re-indexes every object from scratch.
+	 */
+	private synchronized void reindex() {
+		for (ArrayList<Object> tile : tiles)
+			tile.clear();
+		for (int i = 0; i < changedTiles.length; i++)
+			changedTiles[i] = true;
+		anyTilesChanged = true;
+		changeCount++;
+		outside.clear();
+		indexed.clear();
+		movers.clear();
+		store.clear();
+		// Retired objects are finished, don't bring them back
+		removeRetired();
+		for (int i = 0; i < size(); i++)
+			index(get(i));
+	}
+
+	/**
+	 * @return The latest {@link ObjectSnapshot}. Only locks if objects were
+	 *         added or removed since it was made, to make a new one, so this
+	 *         is safe (and cheap) to call from any thread.
+	 */
+	public ObjectSnapshot getSnapshot() {
+		ObjectSnapshot current = snapshot;
+		if (current.getVersion() == store.getVersion())
+			return current;
+		return publishSnapshot();
+	}
+
+	/**
+	 * Makes a new {@link ObjectSnapshot} if objects were added or removed
+	 * since the last one. Called by the game thread at the end of every tick,
+	 * so other threads hardly ever have to.
+	 * 
+	 * @return The latest {@link ObjectSnapshot}.
+	 */
+	public synchronized ObjectSnapshot publishSnapshot() {
+		if (snapshot.getVersion() != store.getVersion())
+			snapshot = new ObjectSnapshot(store);
+		return snapshot;
+	}
+
+	/**
+	 * @param x
+	 *            Column
+	 * @param y
+	 *            Row
+	 * @return A copy of all objects on the given tile.
+	 */
+	public synchronized ArrayList<Object> getOnTile(int x, int y) {
+		refresh();
+		int tileIndex = getTileIndex(x, y);
+		if (tileIndex != -1)
+			return new ArrayList<Object>(tiles.get(tileIndex));
+		ArrayList<Object> onTile = new ArrayList<Object>();
+		for (Object obj : outside) {
+			Point tile = getTile(obj);
+			if (tile != null && tile.x == x && tile.y == y)
+				onTile.add(obj);
+		}
+		return onTile;
+	}
+
+	/**
+	 * Same as {@link #getOnTile(int, int)}, but into a list we already have
+	 * instead of a new one.
+	 * 
+	 * @param x
+	 *            Column
+	 * @param y
+	 *            Row
+	 * @param onTile
+	 *            Cleared, then filled with all objects on the given tile.
+	 */
+	public synchronized void getOnTile(int x, int y, ArrayList<Object> onTile) {
+		refresh();
+		onTile.clear();
+		int tileIndex = getTileIndex(x, y);
+		if (tileIndex != -1) {
+			ArrayList<Object> tile = tiles.get(tileIndex);
+			for (int i = 0; i < tile.size(); i++)
+				onTile.add(tile.get(i));
+			return;
+		}
+		for (Object obj : outside) {
+			Point tile = getTile(obj);
+			if (tile != null && tile.x == x && tile.y == y)
+				onTile.add(obj);
+		}
+	}
+
+	public ArrayList<Object> getOnTile(Point tile) {
+		return getOnTile(tile.x, tile.y);
+	}
+
+	/**
+	 * @param x
+	 *            Column
+	 * @param y
+	 *            Row
+	 * @param type
+	 * @return The first object of the given type on the given tile, or
+	 *         <b>null</b> if there are none.
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <T extends Object> T getFirstOnTile(int x, int y, Class<T> type) {
+		refresh();
+		int tileIndex = getTileIndex(x, y);
+		if (tileIndex != -1) {
+			ArrayList<Object> tile = tiles.get(tileIndex);
+			for (int i = 0; i < tile.size(); i++)
+				if (type.isInstance(tile.get(i)))
+					return (T) tile.get(i);
+			return null;
+		}
+		for (Object obj : getOnTile(x, y))
+			if (type.isInstance(obj))
+				return (T) obj;
+		return null;
+	}
+
+	@Override
+	public synchronized boolean add(Object obj) {
+		boolean added = super.add(obj);
+		index(obj);
+		return added;
+	}
+
+	@Override
+	public synchronized void add(int i, Object obj) {
+		super.add(i, obj);
+		index(obj);
+	}
+
+	@Override
+	public synchronized boolean addAll(Collection<? extends Object> objects) {
+		boolean added = super.addAll(objects);
+		for (Object obj : objects)
+			index(obj);
+		return added;
+	}
+
+	@Override
+	public synchronized boolean addAll(int i, Collection<? extends Object> objects) {
+		boolean added = super.addAll(i, objects);
+		for (Object obj : objects)
+			index(obj);
+		return added;
+	}
+
+	@Override
+	public synchronized Object set(int i, Object obj) {
+		Object old = super.set(i, obj);
+		if (old != obj) {
+			unindex(old);
+			index(obj);
+		}
+		return old;
+	}
+
+	@Override
+	public synchronized Object remove(int i) {
+		Object old = super.remove(i);
+		unindex(old);
+		return old;
+	}
+
+	@Override
+	public synchronized boolean remove(java.lang.Object obj) {
+		boolean removed = super.remove(obj);
+		if (removed)
+			unindex(obj);
+		return removed;
+	}
+
+	@Override
+	public synchronized boolean removeAll(Collection<?> objects) {
+		boolean removed = super.removeAll(objects);
+		if (removed)
+			reindex();
+		return removed;
+	}
+
+	@Override
+	public synchronized boolean retainAll(Collection<?> objects) {
+		boolean removed = super.retainAll(objects);
+		if (removed)
+			reindex();
+		return removed;
+	}
+
+	@Override
+	protected synchronized void removeRange(int from, int to) {
+		super.removeRange(from, to);
+		reindex();
+	}
+
+	@Override
+	public synchronized void clear() {
+		super.clear();
+		reindex();
+	}
+
+	/**
+	 * @param tile
+	 * @param game
+	 * @return All {@link Player}s on the given tile, in the order of
+	 *         {@link MainBomberman#players}.
+	 */
+	public ArrayList<Player> getPlayersOnTile(Point tile, MainBomberman game) {
+		ArrayList<Object> onTile = getOnTile(tile);
+		ArrayList<Player> players = new ArrayList<Player>();
+		for (int i = 0; i < game.players.size(); i++)
+			if (onTile.contains(game.players.get(i)))
+				players.add(game.players.get(i));
+		return players;
+	}
+}
@@ -0,0 +1,91 @@
+package com.github.vegeto079.saturnbomberman.objects;
+
+import com.github.vegeto079.saturnbomberman.objects.EntityStore.Kind;
+
+/**
+ * A copy of every {@link Object} in {@link ObjectList}, by {@link Kind}, that
+ * never changes once it's made. Get the latest one with
+ * {@link ObjectList#getSnapshot()}.<br>
+ * The AI, network and paint threads all look through the objects while the
+ * game thread is adding and removing them. Instead of each of them copying the
+ * whole list first (and trying again when that fails anyway), they read one of
+ * these: nobody can change it under them, so there's nothing to lock and
+ * nothing to retry. A new one is only made when objects are added or removed,
+ * not every time it's asked for.<br>
+ * The objects themselves are the real ones, not copies, so their fields can
+ * still change while you look at them.
+ *
+ * @author Nathan
+ * @version 1.0: Started tracking version.
+ */
+public class ObjectSnapshot {
+	/**
+	 * Snapshot of an empty list.
+	 */
+	public final static ObjectSnapshot EMPTY = new ObjectSnapshot();
+
+	private final Object[][] entities = new Object[Kind.values().length][];
+	/**
+	 * {@link EntityStore#getVersion()} this was made from.
+	 */
+	private final long version;
+
+	private ObjectSnapshot() {
+		for (int k = 0; k < entities.length; k++)
+			entities[k] = new Object[0];
+		version = -1;
+	}
+
+	/**
+	 * Copies everything out of the given store. Only call this while nobody
+	 * can change it (ie. from {@link ObjectList}).
+	 *
+	 * @param store
+	 */
+	ObjectSnapshot(EntityStore store) {
+		for (Kind kind : Kind.values()) {
+			Object[] objects = new Object[store.size(kind)];
+			for (int i = 0; i < objects.length; i++)
+				objects[i] = store.get(kind, i);
+			entities[kind.ordinal()] = objects;
+		}
+		version = store.getVersion();
+	}
+
+	/**
+	 * @return {@link EntityStore#getVersion()} this was made from.
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * @return How many objects of the given kind there were.
+	 */
+	public int size(Kind kind) {
+		return entities[kind.ordinal()].length;
+	}
+
+	/**
+	 * @param kind
+	 * @param i
+	 *            0 to {@link #size(Kind)} - 1.
+	 * @return The i-th object of the given kind, in {@link EntityStore}
+	 *         order.
+	 */
+	public Object get(Kind kind, int i) {
+		return entities[kind.ordinal()][i];
+	}
+
+	/**
+	 * @return The {@link Bomb} with the given identifier, or <b>null</b> if
+	 *         there isn't one.
+	 */
+	public Bomb getBomb(long identifier) {
+		Object[] bombs = entities[Kind.BOMB.ordinal()];
+		for (int i = 0; i < bombs.length; i++)
+			if (((Bomb) bombs[i]).identifier == identifier)
+				return (Bomb) bombs[i];
+		return null;
+	}
+}
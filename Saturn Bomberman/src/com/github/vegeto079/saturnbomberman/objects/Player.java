@@ -8,11 +8,13 @@ import java.util.Comparator;
 
 import com.github.vegeto079.ngcommontools.main.DoublePoint;
 import com.github.vegeto079.ngcommontools.main.Logger.LogLevel;
-import com.github.vegeto079.ngcommontools.main.Tools;
 import com.github.vegeto079.saturnbomberman.main.Character.Animation;
 import com.github.vegeto079.saturnbomberman.main.MainBomberman;
 import com.github.vegeto079.saturnbomberman.main.Stage;
 import com.github.vegeto079.saturnbomberman.misc.AI;
+import com.github.vegeto079.saturnbomberman.misc.MatchFrame;
+import com.github.vegeto079.saturnbomberman.misc.MatchTimeline;
+import com.github.vegeto079.saturnbomberman.misc.MatchTimeline.Phase;
 import com.github.vegeto079.saturnbomberman.misc.State.StateEnum;
 import com.github.vegeto079.saturnbomberman.objects.Bomb.BombType;
 
@@ -65,6 +67,29 @@ import com.github.vegeto079.saturnbomberman.objects.Bomb.BombType;
  *          {@link MainBomberman#currentTimeMillis()}. Also made {@link #game}
  *          something we store on creation and use, instead of tossing around
  *          via methods.
+ * @version 1.21: Sounds now played through
+ *          {@link MainBomberman#playSound(String)} and AI no longer waits on
+ *          pictures when {@link MainBomberman#headless}.
+ * @version 1.22: Items and land mines under us are found through
+ *          {@link ObjectList#getOnTile(Point)}.
+ * @version 1.23: Added {@link #getCellX()} and {@link #getCellY()}.
+ * @version 1.24: {@link com.github.vegeto079.saturnbomberman.main.Options#comLevel} 8
+ *          makes lookahead {@link AI}s.
+ * @version 1.25: CPUs are ran by everyone online when their {@link AI} is
+ *          {@link AI#deterministic}, not just the host. Moving correction
+ *          and bomb identifiers go by the seed and tick instead of unseeded
+ *          random numbers, so every peer running a CPU moves it the same way.
+ * @version 1.26: We die when the {@link FireGrid} says we're standing on
+ *          deadly fire, instead of when a {@link Bomb.FireArm} finds us.
+ * @version 1.27: The match ending and the winner being announced go through
+ *          {@link MainBomberman#timeline}.
+ * @version 1.28: The GO banner and alive players come from
+ *          {@link MainBomberman#getMatchFrame()}.
+ * @version 1.29: Bombs are read straight from {@link EntityStore} instead of
+ *          going through (and copying) every object.
+ * @version 1.3: Bombs, and anything in the way of an item we drop, are read
+ *          from an {@link ObjectSnapshot}, since the AI and network threads
+ *          call in here too.
  * 
  */
 public class Player extends com.github.vegeto079.saturnbomberman.objects.Object {
@@ -117,6 +142,13 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 	private long lastCPress = 0;
 	public boolean isReset = false;
 	private int index = -1;
+	/**
+	 * {@link com.github.vegeto079.saturnbomberman.main.SimulationClock#getTick()}
+	 * we last drew a random number or laid a bomb on, and how many of each
+	 * we've done since.
+	 */
+	private long lastRandomTick = -1, lastBombTick = -1;
+	private int randomCount = 0, bombCount = 0;
 
 	public Player(MainBomberman game) {
 		this.game = game;
@@ -178,12 +210,7 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 		// powerGlove = true;
 		this.game = game;
 		if (game.state.is(StateEnum.STAGE)) {
-			long timeLeft = (long) (game.counter[2] + game.options.time * 60000 - game.currentTimeMillis());
-			timeLeft = timeLeft + 4000;
-			if (!game.network.isPlayingOnline())
-				timeLeft += 1450;
-			int minutesLeft = (int) Math.floor((double) timeLeft / 60000d);
-			if (minutesLeft == game.options.time) {
+			if (game.getMatchFrame().isGoBannerUp()) {
 				lastButtonPress = game.currentTimeMillis(); // Prevent idle
 															// animation
 				return; // 'GO!' text on screen, don't move
@@ -195,7 +222,7 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 				ArrayList<Player> players = game.players;
 				if (skullType == 8) {
 					skullTimer = -1;
-					int i = Tools.random(game, players.size(), "Skull random player switching positions");
+					int i = game.random(players.size(), "Skull random player switching positions");
 					Player otherPlayer = null;
 					while (otherPlayer == null) {
 						i++;
@@ -240,7 +267,7 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 								&& p.skullTimer <= game.currentTimeMillis() && p.deadTimer == -1) {
 							boolean ourSkull = game.network.talking.skullInfect(this, p);
 							if (!game.network.isPlayingOnline() || ourSkull) {
-								game.sound.play("Hey");
+								game.playSound("Hey");
 								p.skullTimer = skullTimer;
 								p.skullType = skullType;
 							}
@@ -260,27 +287,28 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 			return; // Don't need to tick when not on Stage
 		}
 		isReset = false;
-		int alivePlayers = 0;
-		for (int i = 0; i < game.players.size(); i++)
-			if (game.players.get(i).deadTimer == -1)
-				alivePlayers++;
+		if (deadTimer == -1) {
+			Bomb fire = game.stage.getFireGrid().getDeadlyBomb(getCellX(), getCellY(), game.currentTimeMillis());
+			if (fire != null)
+				fire.burnPlayer(game, this);
+		}
+		int alivePlayers = game.getMatchFrame().getAlivePlayers();
 		boolean stunnedSpinningAnimaton = character.animation == Animation.STUNNED_SPINNING;
 		boolean bombThrowingAnimation = character.animation == Animation.HOLDING_BOMB_THROWING;
 		if (deadTimer != -1 && character.animation != Animation.DYING) {
-			if (alivePlayers < 2 && !game.temp[1].contains("Played Match End")) {
-				game.sound.play("Match End");
-				game.temp[1] += ".Played Match End:" + game.currentTimeMillis() + ":";
+			// Count again: we might've only just died this tick
+			if (MatchFrame.countAlivePlayers(game) < 2 && !game.timeline.has(Phase.MATCH_END)) {
+				game.playSound("Match End");
+				game.timeline.reach(Phase.MATCH_END, game.currentTimeMillis());
 			} else
-				game.sound.play("Dying");
+				game.playSound("Dying");
 			character.animation = Animation.DYING;
 			character.animationTick = 0;
 		}
-		if (game.temp[1].contains("Played Match End") && !game.temp[1].contains("Played I Won")
-				&& game.currentTimeMillis()
-						- Long.parseLong(game.temp[1].split(".Played Match End:")[1].split(":")[0]) >= 2500
-				&& deadTimer == -1) {
-			game.temp[1] += ".Played I Won";
-			game.sound.play("I Won");
+		if (!game.timeline.has(Phase.WINNER) && deadTimer == -1 && game.timeline.getTimeSince(Phase.MATCH_END,
+				game.currentTimeMillis()) >= MatchTimeline.WINNER_DELAY) {
+			game.timeline.reach(Phase.WINNER, game.currentTimeMillis());
+			game.playSound("I Won");
 			stats.increaseWins();
 			for (int i = 0; i < game.players.size(); i++)
 				if (!game.players.get(i).equals(this))
@@ -366,13 +394,9 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 					// In process of dying, let draw.
 				}
 			}
-			if (alivePlayers == 1 && deadTimer == -1 && game.temp[1].contains(".Played Match End:")
-					&& game.currentTimeMillis()
-							- Long.parseLong(game.temp[1].split(".Played Match End:")[1].split(":")[0]) >= 2500) {
-				if (game.currentTimeMillis()
-						- Long.parseLong(game.temp[1].split(".Played Match End:")[1].split(":")[0]) >= 2500
-						&& game.currentTimeMillis()
-								- Long.parseLong(game.temp[1].split(".Played Match End:")[1].split(":")[0]) <= 2520)
+			long timeSinceEnd = game.timeline.getTimeSince(Phase.MATCH_END, game.currentTimeMillis());
+			if (alivePlayers == 1 && deadTimer == -1 && timeSinceEnd >= MatchTimeline.WINNER_DELAY) {
+				if (timeSinceEnd <= MatchTimeline.WINNER_DELAY + 20)
 					character.animationTick = 0;
 				else
 					character.animation = Animation.WINNING;
@@ -383,51 +407,48 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 					|| character.animation == Animation.WINNING || deadTimer != -1)
 				return;
 		}
-		ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> objects = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Object>();
-		objects = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Object>(game.objects);
-		ArrayList<com.github.vegeto079.saturnbomberman.objects.Bomb> bombList = new ArrayList<com.github.vegeto079.saturnbomberman.objects.Bomb>();
+		ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> objects = game.objects.getOnTile(getCellPoint());
 		for (int i = 0; i < objects.size(); i++)
 			if (objects.get(i) instanceof com.github.vegeto079.saturnbomberman.objects.Item) {
 				com.github.vegeto079.saturnbomberman.objects.Item item = (com.github.vegeto079.saturnbomberman.objects.Item) objects
 						.get(i);
-				if (getCellPoint().distance(item.cellPoint) == 0) {
-					if (item.collectable)
-						item.activate(game, this, false, game.currentTimeMillis());
-				}
+				if (item.collectable)
+					item.activate(game, this, false, game.currentTimeMillis());
 			} else if (objects.get(i) instanceof com.github.vegeto079.saturnbomberman.objects.Bomb) {
 				com.github.vegeto079.saturnbomberman.objects.Bomb bomb = (com.github.vegeto079.saturnbomberman.objects.Bomb) objects
 						.get(i);
-				bombList.add(bomb);
-				if (getCellPoint().distance(bomb.cellPoint) == 0) {
-					if (bomb.type.equals(BombType.LAND_MINE) && !bomb.playerOrigin.equals(this)
-							&& bomb.explodeTime < game.currentTimeMillis())
-						bomb.explodeTime = game.currentTimeMillis() + 2000;
-				}
+				if (bomb.type.equals(BombType.LAND_MINE) && !bomb.playerOrigin.equals(this)
+						&& bomb.explodeTime < game.currentTimeMillis())
+					bomb.explodeTime = game.currentTimeMillis() + 2000;
 			}
-		if (isCpu && game.stage != null && game.stage.initiated && game.pictures.initialized) {
+		ArrayList<com.github.vegeto079.saturnbomberman.objects.Bomb> bombList = game.objects.getAll(Bomb.class);
+		if (isCpu && game.stage != null && game.stage.initiated
+				&& (game.headless || game.pictures.initialized)) {
 			if (ai == null) {
 				int thisDifficulty = 1;
 				if (game.options.comLevel == 0)
-					thisDifficulty = Tools.random(game, 1, 5, "Difficulty");
+					thisDifficulty = game.random(1, 5, "Difficulty");
 				else if (game.options.comLevel == 1)
-					thisDifficulty = Tools.random(game, 1, 2, "Difficulty");
+					thisDifficulty = game.random(1, 2, "Difficulty");
 				else if (game.options.comLevel == 2)
-					thisDifficulty = Tools.random(game, 2, 3, "Difficulty");
+					thisDifficulty = game.random(2, 3, "Difficulty");
 				else if (game.options.comLevel == 3)
-					thisDifficulty = Tools.random(game, 2, 4, "Difficulty");
+					thisDifficulty = game.random(2, 4, "Difficulty");
 				else if (game.options.comLevel == 4)
-					thisDifficulty = Tools.random(game, 3, 4, "Difficulty");
+					thisDifficulty = game.random(3, 4, "Difficulty");
 				else if (game.options.comLevel == 5)
-					thisDifficulty = Tools.random(game, 4, 5, "Difficulty");
+					thisDifficulty = game.random(4, 5, "Difficulty");
 				else if (game.options.comLevel == 6)
 					thisDifficulty = 6;
 				else if (game.options.comLevel == 7)
 					thisDifficulty = 7;
+				else if (game.options.comLevel == 8)
+					thisDifficulty = 8;
 				ai = new AI(game, this, thisDifficulty);
 			}
-			if (!game.network.isPlayingOnline() || game.network.weAreHost())
+			if (!game.network.isPlayingOnline() || game.network.weAreHost() || ai.deterministic)
 				ai.tick(!game.freezeAI, true);
-		} else if (game.stage != null && game.stage.initiated && game.pictures.initialized) {
+		} else if (game.stage != null && game.stage.initiated && (game.headless || game.pictures.initialized)) {
 			if (ai == null)
 				ai = new AI(game, this, 5);
 			// player. use cpu as intermediary?
@@ -536,7 +557,7 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 							if (playSound) {
 								game.network.talking.bombKick(bomb, this, direction);
 								if (!game.network.isPlayingOnline()) {
-									game.sound.play("Bomb GO");
+									game.playSound("Bomb GO");
 									bomb.playerKicked = this;
 									bomb.moving = direction;
 								}
@@ -554,7 +575,7 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 				movePoint(0, -move);
 			else if (move > 1 && canMove(1, ourCenterPoint, 0, -1))
 				movePoint(0, -1);
-			else if ((!rightPressed && !leftPressed) || (Tools.random(null, 0, 100, "Moving Correction") > 95
+			else if ((!rightPressed && !leftPressed) || (random(0, 100) > 95
 					&& !cellContainsBomb(bombList, goingToCell))) {
 				for (int i = 0; i < correctAmt; i++)
 					if (canMove(0, ourCenterPoint, -i, -1)) {
@@ -571,7 +592,7 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 				movePoint(0, move);
 			else if (move > 1 && canMove(0, ourCenterPoint, 0, 1))
 				movePoint(0, 1);
-			else if ((!rightPressed && !leftPressed) || (Tools.random(null, 0, 100, "Moving Correction") > 95
+			else if ((!rightPressed && !leftPressed) || (random(0, 100) > 95
 					&& !cellContainsBomb(bombList, goingToCell))) {
 				for (int i = 0; i < correctAmt; i++)
 					if (canMove(0, ourCenterPoint, -i, 1)) {
@@ -588,7 +609,7 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 				movePoint(-move, 0);
 			else if (move > 1 && canMove(2, ourCenterPoint, -1, 0))
 				movePoint(-1, 0);
-			else if ((!upPressed && !downPressed) || (Tools.random(null, 0, 100, "Moving Correction") > 95
+			else if ((!upPressed && !downPressed) || (random(0, 100) > 95
 					&& !cellContainsBomb(bombList, goingToCell))) {
 				for (int i = 0; i < correctAmt; i++)
 					if (canMove(0, ourCenterPoint, -1, -i)) {
@@ -605,7 +626,7 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 				movePoint(move, 0);
 			else if (move > 1 && canMove(3, ourCenterPoint, 1, 0))
 				movePoint(1, 0);
-			else if ((!upPressed && !downPressed) || (Tools.random(null, 0, 100, "Moving Correction") > 95
+			else if ((!upPressed && !downPressed) || (random(0, 100) > 95
 					&& !cellContainsBomb(bombList, goingToCell))) {
 				for (int i = 0; i < correctAmt; i++)
 					if (canMove(0, ourCenterPoint, 1, -i)) {
@@ -637,7 +658,7 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 				} else if (pickedUpBomb != null) {
 					game.network.talking.bombThrow(pickedUpBomb, this);
 					if (!game.network.isPlayingOnline()) {
-						game.sound.play("Bomb GO");
+						game.playSound("Bomb GO");
 						pickedUpBomb.pickedUpCount = 3 + (character.facing * 5);
 						pickedUpBomb.cellPoint = getCellPoint();
 						character.animation = Animation.HOLDING_BOMB_THROWING;
@@ -699,7 +720,7 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 							}
 						}
 						if (laidABomb)
-							game.sound.play("Bomb Placed");
+							game.playSound("Bomb Placed");
 						// onTopBombs.add(firstBomb); // Let us walk on first
 						// bomb again, to escape
 					}
@@ -774,17 +795,57 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 			return BombType.NORMAL;
 	}
 
+	/**
+	 * @return A random number from min to max that only depends on the seed,
+	 *         who we are, the tick and how many we've already used this tick.
+	 *         Everyone moving us gets the same one, unlike
+	 *         {@link MainBomberman#random(int, int, String)}.
+	 */
+	private int random(int min, int max) {
+		long tick = game.clock.getTick();
+		if (tick != lastRandomTick) {
+			lastRandomTick = tick;
+			randomCount = 0;
+		}
+		long value = game.getSeed();
+		value = value * 31 + getIndex();
+		value = value * 31 + tick;
+		value = value * 31 + randomCount++;
+		// SplitMix64, same as AI
+		value += 0x9E3779B97F4A7C15L;
+		value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+		value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+		value ^= value >>> 31;
+		return min + (int) Math.floorMod(value, (long) max - min + 1);
+	}
+
+	/**
+	 * @return An identifier for a bomb we're laying, made from the tick, who
+	 *         we are and how many we've laid this tick, so it's the same for
+	 *         everyone laying it.
+	 */
+	private long getNewBombIdentifier() {
+		long tick = game.clock.getTick();
+		if (tick != lastBombTick) {
+			lastBombTick = tick;
+			bombCount = 0;
+		}
+		return (tick << 12) | ((long) getIndex() << 8) | (bombCount++ & 0xFF);
+	}
+
 	public Bomb layBomb(Point cell, boolean fromLinebomb, long time, long identifier, BombType type) {
 		boolean bombExistsOnSpot = false;
 		if (identifier == -1)
-			identifier = (long) (time - Math.random() * 50000);
-		for (com.github.vegeto079.saturnbomberman.objects.Object obj : game.objects)
-			if (obj instanceof com.github.vegeto079.saturnbomberman.objects.Bomb)
-				if (obj.cellPoint.distance(cell) < 1 && !obj.finished)
-					bombExistsOnSpot = true;
+			identifier = getNewBombIdentifier();
+		ObjectSnapshot snapshot = game.objects.getSnapshot();
+		for (int i = 0; i < snapshot.size(EntityStore.Kind.BOMB); i++) {
+			com.github.vegeto079.saturnbomberman.objects.Object obj = snapshot.get(EntityStore.Kind.BOMB, i);
+			if (obj.cellPoint.distance(cell) < 1 && !obj.finished)
+				bombExistsOnSpot = true;
+		}
 		if (!bombExistsOnSpot) {
 			if (!fromLinebomb)
-				game.sound.play("Bomb Placed");
+				game.playSound("Bomb Placed");
 			Bomb newBomb = null;
 			long explodeTime = time + Bomb.LIFE_TIME;
 			int theFirePower = firePower;
@@ -813,7 +874,7 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 	}
 
 	public boolean placeRandomItemToBoard() {
-		int item = Tools.random(game, 0, 16, "Placing random item on board (which powerup)");
+		int item = game.random(0, 16, "Placing random item on board (which powerup)");
 		int toRemove = -1;
 		int tryCount = 0;
 		while (toRemove == -1 && tryCount < 25) {
@@ -855,9 +916,9 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 			return false; // We had no items to remove
 		tryCount = 0;
 		Point randomEmptyBoardPoint = null;
-		int boardPointX = Tools.random(game, 0, game.stage.getWidth() - 1,
+		int boardPointX = game.random(0, game.stage.getWidth() - 1,
 				"Placing random item on board (board point X)");
-		int boardPointY = Tools.random(game, 0, game.stage.getHeight() - 1,
+		int boardPointY = game.random(0, game.stage.getHeight() - 1,
 				"Placing random item on board (board point Y)");
 		while (randomEmptyBoardPoint == null && tryCount < 1000) {
 			// game.logger.log(LogLevel.DEBUG, "tryCount(" + tryCount
@@ -871,10 +932,10 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 					if (!somethingOnSquare)
 						if (p.getCellPoint().distance(new Point(boardPointY, boardPointX)) == 0)
 							somethingOnSquare = true;
-				ArrayList<com.github.vegeto079.saturnbomberman.objects.Object> objects = game.objects;
-				for (com.github.vegeto079.saturnbomberman.objects.Object obj : objects)
-					if (!somethingOnSquare)
-						if (obj.cellPoint.distance(new Point(boardPointY, boardPointX)) == 0)
+				ObjectSnapshot snapshot = game.objects.getSnapshot();
+				for (EntityStore.Kind kind : EntityStore.Kind.values())
+					for (int i = 0; i < snapshot.size(kind) && !somethingOnSquare; i++)
+						if (snapshot.get(kind, i).cellPoint.distance(new Point(boardPointY, boardPointX)) == 0)
 							somethingOnSquare = true;
 				if (!somethingOnSquare) {
 					// No player or block exists on square, place the item there
@@ -940,24 +1001,41 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 	public Point getCellPoint() {
 		if (game.stage == null)
 			return new Point(-1, -1);
-		Point stageOffset = game.stage.getOffset();
-		Point middleOfBodyOffset = new Point(14, 45);
-		Point ourPoint = new Point(
-				(int) Math.floor(((double) getExactPoint().x - (double) stageOffset.x + (double) middleOfBodyOffset.x)
-						/ (double) Stage.SQUARE_WIDTH),
-				(int) Math.floor(((double) getExactPoint().y - (double) stageOffset.y + (double) middleOfBodyOffset.y)
-						/ (double) Stage.SQUARE_HEIGHT));
-		if (ourPoint.x < 0)
-			ourPoint = new Point(0, ourPoint.y);
-		if (ourPoint.y < 0)
-			ourPoint = new Point(ourPoint.x, 0);
-		int maxX = game.stage.getHeight() - 1;
-		int maxY = game.stage.getWidth() - 1;
-		if (ourPoint.x > maxX)
-			ourPoint = new Point(maxX, ourPoint.y);
-		if (ourPoint.y > maxY)
-			ourPoint = new Point(ourPoint.x, maxY);
-		return ourPoint;
+		return new Point(getCellX(), getCellY());
+	}
+
+	/**
+	 * @return The x value of {@link #getCellPoint()}, without creating a
+	 *         {@link Point}. -1 if there is no stage.
+	 */
+	public int getCellX() {
+		Stage stage = game.stage;
+		if (stage == null)
+			return -1;
+		// 14: middle of body offset
+		int x = (int) Math.floor((getExactPoint().x - Stage.OFFSET_X + 14d) / (double) Stage.SQUARE_WIDTH);
+		if (x < 0)
+			x = 0;
+		if (x > stage.getHeight() - 1)
+			x = stage.getHeight() - 1;
+		return x;
+	}
+
+	/**
+	 * @return The y value of {@link #getCellPoint()}, without creating a
+	 *         {@link Point}. -1 if there is no stage.
+	 */
+	public int getCellY() {
+		Stage stage = game.stage;
+		if (stage == null)
+			return -1;
+		// 45: middle of body offset
+		int y = (int) Math.floor((getExactPoint().y - Stage.OFFSET_Y + 45d) / (double) Stage.SQUARE_HEIGHT);
+		if (y < 0)
+			y = 0;
+		if (y > stage.getWidth() - 1)
+			y = stage.getWidth() - 1;
+		return y;
 	}
 
 	private void movePoint(double x, double y) {
@@ -1085,19 +1163,23 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 
 	public int getBombsLaidAmt() {
 		int bombsLaid = 0;
-		for (com.github.vegeto079.saturnbomberman.objects.Object obj : game.objects)
-			if (obj instanceof com.github.vegeto079.saturnbomberman.objects.Bomb)
-				if (((Bomb) obj).playerOrigin.equals(this) && !obj.finished)
-					bombsLaid++;
+		ObjectSnapshot snapshot = game.objects.getSnapshot();
+		for (int i = 0; i < snapshot.size(EntityStore.Kind.BOMB); i++) {
+			Bomb bomb = (Bomb) snapshot.get(EntityStore.Kind.BOMB, i);
+			if (bomb.playerOrigin.equals(this) && !bomb.finished)
+				bombsLaid++;
+		}
 		return bombsLaid;
 	}
 
 	public ArrayList<Bomb> getBombsLaid() {
 		ArrayList<Bomb> bombs = new ArrayList<Bomb>();
-		for (com.github.vegeto079.saturnbomberman.objects.Object obj : game.objects)
-			if (obj instanceof com.github.vegeto079.saturnbomberman.objects.Bomb)
-				if (((Bomb) obj).playerOrigin.equals(this) && !obj.finished)
-					bombs.add((Bomb) obj);
+		ObjectSnapshot snapshot = game.objects.getSnapshot();
+		for (int i = 0; i < snapshot.size(EntityStore.Kind.BOMB); i++) {
+			Bomb bomb = (Bomb) snapshot.get(EntityStore.Kind.BOMB, i);
+			if (bomb.playerOrigin.equals(this) && !bomb.finished)
+				bombs.add(bomb);
+		}
 		return bombs;
 	}
 
@@ -1398,4 +1480,4 @@ public class Player extends com.github.vegeto079.saturnbomberman.objects.Object
 		rightPressed = buttons[3];
 	}
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -19,6 +19,16 @@ import com.github.vegeto079.saturnbomberman.main.Stage;
  *          also in {@link #leftDropCourse}. Only need one falling weight for
  *          the last square.
  * @version 1.1: Added network support.
+ * @version 1.11: Sounds now played through
+ *          {@link MainBomberman#playSound(String)}, timing uses
+ *          {@link MainBomberman#getTickFps()} and
+ *          {@link MainBomberman#currentTimeMillis()}.
+ * @version 1.12: Lets {@link ObjectList} know when we land or crush a
+ *          {@link Player}, for {@link Stage#getCollisionMap(MainBomberman)}.
+ * @version 1.13: Alive players come from
+ *          {@link MainBomberman#getMatchFrame()}.
+ * @version 1.14: Only looks at what's on our tile when we land, through
+ *          {@link ObjectList#getOnTile(Point)}.
  */
 public class Weight extends Object {
 	long creationTime = -1;
@@ -60,7 +70,7 @@ public class Weight extends Object {
 
 	public Weight(Point cellPoint, MainBomberman game) {
 		this.cellPoint = cellPoint;
-		creationTime = System.currentTimeMillis();
+		creationTime = game.currentTimeMillis();
 		DoublePoint tempExactPoint = new DoublePoint(Stage.getExactTileMidPoint(game, cellPoint));
 		exactPoint = new DoublePoint(tempExactPoint.x - Stage.getTileWidth(), tempExactPoint.y - game.getHeight());
 		game.logger.log(LogLevel.DEBUG, "Weight created: " + this);
@@ -87,7 +97,7 @@ public class Weight extends Object {
 		if (game.stage.getIndex(cellPoint.y, cellPoint.x) == 00)
 			return -1; // Refuse to tick a weight that's on a hard block
 		double ticksTillExplosion = getTicksTillExplosion(game);
-		long timeTillExplosion = (long) (1000d / game.getFps() * ticksTillExplosion);
+		long timeTillExplosion = (long) (1000d / game.getTickFps() * ticksTillExplosion);
 		if (timeTillExplosion < 1)
 			timeTillExplosion = -1;
 		return timeTillExplosion;
@@ -96,21 +106,18 @@ public class Weight extends Object {
 	public void tick(MainBomberman game) {
 		if (game.stage.getIndex(cellPoint.y, cellPoint.x) == 00)
 			return; // Refuse to tick a weight that's on a hard block
-		int alivePlayers = 0;
-		for (int i = 0; i < game.players.size(); i++)
-			if (game.players.get(i).deadTimer == -1)
-				alivePlayers++;
-		if (alivePlayers < 2)
+		if (game.getMatchFrame().getAlivePlayers() < 2)
 			return;
 		if (!solid)
 			exactPoint = new DoublePoint(exactPoint.x, exactPoint.y + 5d);
 		Point centerPoint = Stage.getExactTileMidPoint(game, cellPoint);
 		if (!solid && exactPoint.distance(centerPoint) < 37) {
 			// We're hitting the ground!
-			game.sound.play("Weight");
+			game.playSound("Weight");
 			DoublePoint tempExactPoint = new DoublePoint(centerPoint);
 			exactPoint = new DoublePoint(tempExactPoint.x - Stage.getTileWidth(), tempExactPoint.y);
 			solid = true;
+			game.objects.changed(this);
 			ArrayList<Player> players = game.players;
 			for (int i = 0; i < players.size(); i++) {
 				// Kill players if they're under us
@@ -119,9 +126,10 @@ public class Weight extends Object {
 				if (players.get(i).deadTimer != -1) // already dead
 					continue;
 				boolean killPlayer = game.network.talking.killPlayer(players.get(i), Integer.MAX_VALUE, false,
-						game.randomCount);
+						game.getRandomCount());
 				if (!game.network.isPlayingOnline() || killPlayer) {
 					players.get(i).deadTimer = 0;
+					game.objects.changed(players.get(i));
 					players.get(i).stats.killedByPlayer(Integer.MAX_VALUE);
 					players.get(i).character.animation = Animation.IDLE;
 					if (players.get(i).pickedUpBomb != null) {
@@ -138,7 +146,7 @@ public class Weight extends Object {
 					}
 				}
 			}
-			ArrayList<Object> objects = game.objects;
+			ArrayList<Object> objects = game.objects.getOnTile(cellPoint);
 			for (int i = 0; i < objects.size(); i++) {
 				Object obj = objects.get(i);
 				// Destroy all Items and blow up Bombs under us